@@ -0,0 +1,152 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Random;
+
+import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.dictionary.Word;
+import net.paoding.analysis.knife.FileDictionaries;
+
+/**
+ * 基准测试使用的文本语料。
+ * <p>
+ * 可以读取一个UTF-8编码的真实语料文件；没有真实语料时，以dic/下的全部词汇按句子的形式生成：
+ * 每句由若干词语以及夹杂的人名、数字、英文、数量词组成，以逗号分隔成短句，以句号等结束，每隔若干句分段。
+ * 生成的文本只由长度和种子决定，因此多次运行的结果可以相互比较。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @since 2.0.4
+ */
+public class Corpus {
+
+	static final String[] ENDINGS = { "。", "。", "。", "！", "？", "；" };
+
+	static final String[] LATINS = { "Hello", "OIL-X", "Java", "iPhone",
+			"CPU", "www", "Lucene", "GDP", "NBA", "the", "abc_def" };
+
+	static final String[] NUMBERS = { "123", "3.14", "2008年", "三百二十",
+			"两个", "五十二万", "10个", "3.5公斤", "第三", "十三亿", "ＡＢＣ１２" };
+
+	static final String[] QUOTES = { "“", "”", "《", "》", "、", "（", "）" };
+
+	static Word[] vocabulary;
+
+	/**
+	 * 读取语料文件
+	 */
+	public static String load(String path) throws IOException {
+		Reader reader = new InputStreamReader(new FileInputStream(new File(
+				path)), "UTF-8");
+		try {
+			StringBuilder sb = new StringBuilder();
+			char[] buf = new char[8192];
+			int read;
+			while ((read = reader.read(buf)) != -1) {
+				sb.append(buf, 0, read);
+			}
+			return sb.toString();
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * path不为空时读取语料文件并截取或重复到length个字符，否则生成length个字符的文本
+	 */
+	public static String create(String path, int length, long seed)
+			throws IOException {
+		if (path == null || path.length() == 0) {
+			return generate(length, seed);
+		}
+		String text = load(path);
+		if (text.length() == 0) {
+			throw new IOException("empty corpus: " + path);
+		}
+		StringBuilder sb = new StringBuilder(length);
+		while (sb.length() < length) {
+			sb.append(text, 0, Math.min(text.length(), length - sb.length()));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 以dic/下的词汇生成length个字符的文本
+	 */
+	public static String generate(int length, long seed) {
+		Word[] words = vocabulary();
+		Random random = new Random(seed);
+		StringBuilder sb = new StringBuilder(length + 64);
+		int sentences = 0;
+		while (sb.length() < length) {
+			int clauses = 1 + random.nextInt(4);
+			for (int c = 0; c < clauses; c++) {
+				int n = 2 + random.nextInt(8);
+				for (int i = 0; i < n; i++) {
+					int k = random.nextInt(20);
+					if (k < 15) {
+						sb.append(words[random.nextInt(words.length)].getText());
+					} else if (k < 16) {
+						sb.append(LATINS[random.nextInt(LATINS.length)]);
+					} else if (k < 18) {
+						sb.append(NUMBERS[random.nextInt(NUMBERS.length)]);
+					} else if (k < 19) {
+						sb.append(QUOTES[random.nextInt(QUOTES.length)]);
+					} else {
+						sb.append((char) (0x4e00 + random.nextInt(0x5000)));
+					}
+				}
+				sb.append(c == clauses - 1 ? ENDINGS[random
+						.nextInt(ENDINGS.length)] : "，");
+			}
+			if (++sentences % 8 == 0) {
+				sb.append('\n');
+			}
+		}
+		sb.setLength(length);
+		return sb.toString();
+	}
+
+	/**
+	 * dic/下的全部词汇，升序排列
+	 */
+	public static synchronized Word[] vocabulary() {
+		if (vocabulary == null) {
+			FileDictionaries dictionaries = new FileDictionaries("dic",
+					Constants.DIC_SKIP_PREFIX_DEFAULT,
+					Constants.DIC_NOISE_CHARACTOR_DEFAULT,
+					Constants.DIC_NOISE_WORD_DEFAULT,
+					Constants.DIC_UNIT_DEFAULT,
+					Constants.DIC_CONFUCIAN_FAMILY_NAME_DEFAULT,
+					Constants.DIC_FOR_COMBINATORICS_DEFAULT,
+					Constants.DIC_CHARSET_DEFAULT, 0);
+			Dictionary dictionary = dictionaries.getVocabularyDictionary();
+			Word[] words = new Word[dictionary.size()];
+			for (int i = 0; i < words.length; i++) {
+				words[i] = dictionary.get(i);
+			}
+			vocabulary = words;
+		}
+		return vocabulary;
+	}
+}
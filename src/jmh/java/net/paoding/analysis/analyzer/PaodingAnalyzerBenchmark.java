@@ -0,0 +1,131 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.Corpus;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 两种切分模式下PaodingAnalyzer对一批文档的切分吞吐量。
+ * <p>
+ * 语料默认由{@link Corpus}生成，也可以以-p corpus=文件路径指定UTF-8编码的真实语料；
+ * 语料被切成docLength个字符的文档，每个文档是一次独立的tokenStream，与建索引时的用法相同。
+ * <p>
+ * 除了每秒切分的文档数(tokenize)，还以辅助计数器给出每秒的字符数(chars)和词语数(tokens)；
+ * 加上-prof gc时，gc.alloc.rate.norm为切分一个文档分配的字节数，除以每个文档的词语数即为每个词语的分配量。
+ * <p>
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="PaodingAnalyzerBenchmark -prof gc"
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @since 2.0.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaodingAnalyzerBenchmark {
+
+	@Param({ "most-words", "max-word-length" })
+	String mode;
+
+	@Param({ "" })
+	String corpus;
+
+	@Param({ "1048576" })
+	int corpusLength;
+
+	@Param({ "2000" })
+	int docLength;
+
+	String[] docs;
+
+	PaodingAnalyzerBean analyzer;
+
+	@Setup
+	public void setUp() throws IOException {
+		analyzer = new PaodingAnalyzerBean(PaodingMaker.make(), mode);
+		String text = Corpus.create(corpus, corpusLength, 2007);
+		docs = new String[(text.length() + docLength - 1) / docLength];
+		for (int i = 0; i < docs.length; i++) {
+			docs[i] = text.substring(i * docLength, Math.min(text.length(),
+					(i + 1) * docLength));
+		}
+	}
+
+	/**
+	 * 每秒切分的字符数和词语数
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+
+		public long chars;
+
+		public long tokens;
+
+		@Setup(Level.Iteration)
+		public void clear() {
+			chars = 0;
+			tokens = 0;
+		}
+	}
+
+	int next;
+
+	@Benchmark
+	public int tokenize(Counters counters) throws IOException {
+		String doc = docs[next];
+		next = next + 1 == docs.length ? 0 : next + 1;
+		TokenStream ts = analyzer.tokenStream("f", new StringReader(doc));
+		CharTermAttribute termAtt = ts.addAttribute(CharTermAttribute.class);
+		int tokens = 0;
+		int hash = 0;
+		ts.reset();
+		while (ts.incrementToken()) {
+			tokens++;
+			hash += termAtt.length();
+		}
+		ts.end();
+		ts.close();
+		counters.chars += doc.length();
+		counters.tokens += tokens;
+		return hash;
+	}
+}
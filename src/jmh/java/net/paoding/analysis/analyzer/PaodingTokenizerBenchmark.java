@@ -0,0 +1,116 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.dictionary.Word;
+import net.paoding.analysis.dictionary.support.filewords.FileWordsReader;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 比较不同缓冲区配置下{@link PaodingTokenizer}对几兆字符的长文本的切分速度。
+ * <p>
+ * buffer参数的格式为"初始长度:最大长度"，最大长度为0表示缓冲区长度固定。
+ * 文本由词典词语、标点、英文数字以及随机汉字组成；结果为切分一次整个文本的时间。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @since 2.0.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaodingTokenizerBenchmark {
+
+	static final String[] EXTRAS = { "，", "。", "“", "”", "、", " ", "\n",
+			"Hello", "OIL-X", "123", "3.14", "三百二十", "两个", "2008年", "www" };
+
+	@Param({ "128:0", "4096:65536", "65536:0" })
+	String buffer;
+
+	@Param({ "4194304" })
+	int length;
+
+	String text;
+
+	PaodingAnalyzerBean analyzer;
+
+	@Setup
+	public void setUp() throws IOException {
+		analyzer = new PaodingAnalyzerBean(PaodingMaker.make());
+		int colon = buffer.indexOf(':');
+		analyzer.setBufferLength(Integer.parseInt(buffer.substring(0, colon)));
+		analyzer.setMaxBufferLength(Integer.parseInt(buffer.substring(colon + 1)));
+		text = createText(length);
+	}
+
+	static String createText(int length) throws IOException {
+		Set<Word> set = FileWordsReader.readWords("dic/t-base.dic", "UTF-8", 0)
+				.values().iterator().next();
+		Word[] words = set.toArray(new Word[set.size()]);
+		Random random = new Random(2007);
+		StringBuilder sb = new StringBuilder(length + 64);
+		while (sb.length() < length) {
+			int k = random.nextInt(10);
+			if (k < 6) {
+				sb.append(words[random.nextInt(words.length)].getText());
+			} else if (k < 8) {
+				sb.append(EXTRAS[random.nextInt(EXTRAS.length)]);
+			} else {
+				sb.append((char) (0x4e00 + random.nextInt(0x5000)));
+			}
+		}
+		sb.setLength(length);
+		return sb.toString();
+	}
+
+	@Benchmark
+	public int tokenize() throws IOException {
+		TokenStream ts = analyzer.tokenStream("f", new StringReader(text));
+		CharTermAttribute termAtt = ts.addAttribute(CharTermAttribute.class);
+		int hash = 0;
+		ts.reset();
+		while (ts.incrementToken()) {
+			hash += termAtt.length();
+		}
+		ts.end();
+		ts.close();
+		return hash;
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.Constants;
+import net.paoding.analysis.analyzer.impl.MostWordsModeDictionariesCompiler;
+import net.paoding.analysis.analyzer.impl.SortingDictionariesCompiler;
+import net.paoding.analysis.knife.CJKKnife;
+import net.paoding.analysis.knife.DictionariesCompiler;
+import net.paoding.analysis.knife.FileDictionaries;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.LetterKnife;
+import net.paoding.analysis.knife.NumberKnife;
+import net.paoding.analysis.knife.Paoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 两种编译器编译dic/下的字典的时间。
+ * <p>
+ * 字典的文本在setUp中已经读入，测量的只是编译(最多切分模式下以knife切分每个词汇并写出编译文件)本身；
+ * 编译结果写到临时目录下，不影响dic/.compiled。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see DictionaryLoadBenchmark
+ *
+ * @since 2.0.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DictionaryCompileBenchmark {
+
+	@Param({ "most-words", "sorting" })
+	String compiler;
+
+	DictionariesCompiler dictionariesCompiler;
+
+	FileDictionaries dictionaries;
+
+	Paoding paoding;
+
+	Properties properties;
+
+	File dicHome;
+
+	@Setup
+	public void setUp() throws IOException {
+		dictionariesCompiler = "sorting".equals(compiler) ? new SortingDictionariesCompiler()
+				: new MostWordsModeDictionariesCompiler();
+		dictionaries = new FileDictionaries("dic",
+				Constants.DIC_SKIP_PREFIX_DEFAULT,
+				Constants.DIC_NOISE_CHARACTOR_DEFAULT,
+				Constants.DIC_NOISE_WORD_DEFAULT, Constants.DIC_UNIT_DEFAULT,
+				Constants.DIC_CONFUCIAN_FAMILY_NAME_DEFAULT,
+				Constants.DIC_FOR_COMBINATORICS_DEFAULT,
+				Constants.DIC_CHARSET_DEFAULT, 0);
+		paoding = new Paoding();
+		paoding.setKnives(new Knife[] { new LetterKnife(),
+				new NumberKnife(dictionaries), new CJKKnife(dictionaries) });
+		dicHome = File.createTempFile("paoding-", "-dic");
+		dicHome.delete();
+		dicHome.mkdirs();
+		properties = new Properties();
+		properties.setProperty("paoding.dic.home.absolute.path", dicHome
+				.getAbsolutePath());
+		properties.setProperty("paoding.analysis.properties.lastModifieds", "0");
+		properties.setProperty("paoding.analysis.properties.files", "");
+	}
+
+	@TearDown
+	public void tearDown() {
+		delete(dicHome);
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	@Benchmark
+	public void compile() throws Exception {
+		// 上一次编译的文件是只读的，编译器会先删除它们
+		dictionariesCompiler.compile(dictionaries, paoding, properties);
+	}
+}
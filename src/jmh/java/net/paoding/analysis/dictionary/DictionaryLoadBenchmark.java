@@ -0,0 +1,97 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.Constants;
+import net.paoding.analysis.Corpus;
+import net.paoding.analysis.knife.FileDictionaries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 各种结构的词汇表字典从dic/下的文本文件装载的时间；mapped为打开编译好的二进制文件的时间。
+ * <p>
+ * 装载是一次性的操作，因此以SingleShotTime测量，每次都是全新的装载(包括逐行解析文本)。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see DictionaryCompileBenchmark
+ *
+ * @since 2.0.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DictionaryLoadBenchmark {
+
+	@Param({ FileDictionaries.VOCABULARY_HASH_BINARY,
+			FileDictionaries.VOCABULARY_DOUBLE_ARRAY_TRIE,
+			FileDictionaries.VOCABULARY_COMPACT,
+			FileDictionaries.VOCABULARY_MAPPED })
+	String structure;
+
+	File binaryFile;
+
+	@Setup
+	public void setUp() throws IOException {
+		if (FileDictionaries.VOCABULARY_MAPPED.equals(structure)) {
+			binaryFile = File.createTempFile("paoding-", ".dic.bin");
+			MappedDictionary.write(Corpus.vocabulary(), binaryFile);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (binaryFile != null) {
+			binaryFile.delete();
+		}
+	}
+
+	@Benchmark
+	public Dictionary load() throws IOException {
+		if (binaryFile != null) {
+			return MappedDictionary.open(binaryFile);
+		}
+		FileDictionaries dictionaries = new FileDictionaries("dic",
+				Constants.DIC_SKIP_PREFIX_DEFAULT,
+				Constants.DIC_NOISE_CHARACTOR_DEFAULT,
+				Constants.DIC_NOISE_WORD_DEFAULT, Constants.DIC_UNIT_DEFAULT,
+				Constants.DIC_CONFUCIAN_FAMILY_NAME_DEFAULT,
+				Constants.DIC_FOR_COMBINATORICS_DEFAULT,
+				Constants.DIC_CHARSET_DEFAULT, 0);
+		dictionaries.setVocabularyStructure(structure);
+		return dictionaries.getVocabularyDictionary();
+	}
+}
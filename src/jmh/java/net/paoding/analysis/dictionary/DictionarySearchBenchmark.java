@@ -0,0 +1,137 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.Corpus;
+import net.paoding.analysis.knife.FileDictionaries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 比较各种词汇表字典实现的检索延迟：Dictionary.search以及CJKKnife所用的逐字符DictionaryCursor。
+ * <p>
+ * 检索的输入与{@link HashBinaryDictionaryBenchmark}相同：从{@link Corpus}生成的文本的随机位置开始，检索长度为1~4的字符串；
+ * cursor则从随机位置开始逐字符前进，直到不再有以之为前缀的词语。结果为每次检索的平均时间。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @since 2.0.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionarySearchBenchmark {
+
+	static final int QUERIES = 1 << 16;
+
+	@Param({ FileDictionaries.VOCABULARY_HASH_BINARY,
+			FileDictionaries.VOCABULARY_DOUBLE_ARRAY_TRIE,
+			FileDictionaries.VOCABULARY_COMPACT,
+			FileDictionaries.VOCABULARY_MAPPED })
+	String structure;
+
+	String text;
+
+	int[] offsets = new int[QUERIES];
+
+	int[] counts = new int[QUERIES];
+
+	Dictionary dictionary;
+
+	File binaryFile;
+
+	@Setup
+	public void setUp() throws IOException {
+		Word[] ascWords = Corpus.vocabulary();
+		if (FileDictionaries.VOCABULARY_DOUBLE_ARRAY_TRIE.equals(structure)) {
+			dictionary = new DoubleArrayTrieDictionary(ascWords);
+		} else if (FileDictionaries.VOCABULARY_COMPACT.equals(structure)) {
+			dictionary = new CompactDictionary(ascWords);
+		} else if (FileDictionaries.VOCABULARY_MAPPED.equals(structure)) {
+			binaryFile = File.createTempFile("paoding-", ".dic.bin");
+			MappedDictionary.write(ascWords, binaryFile);
+			dictionary = MappedDictionary.open(binaryFile);
+		} else {
+			dictionary = new HashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+		}
+		text = Corpus.generate(QUERIES, 2007);
+		Random random = new Random(2007);
+		for (int i = 0; i < QUERIES; i++) {
+			offsets[i] = random.nextInt(text.length() - 4);
+			counts[i] = 1 + random.nextInt(4);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (binaryFile != null) {
+			binaryFile.delete();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void search(Blackhole bh) {
+		Hit hit = new Hit();
+		for (int i = 0; i < QUERIES; i++) {
+			bh.consume(dictionary.search(text, offsets[i], counts[i], hit)
+					.isHit());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void cursor(Blackhole bh) {
+		DictionaryCursor cursor = dictionary.cursor();
+		final int length = text.length();
+		for (int i = 0; i < QUERIES; i++) {
+			cursor.reset();
+			int words = 0;
+			for (int j = offsets[i]; j < length; j++) {
+				cursor.next(text.charAt(j));
+				if (cursor.isWord()) {
+					words++;
+				}
+				if (!cursor.hasLongerWords()) {
+					break;
+				}
+			}
+			bh.consume(words);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.Constants;
+import net.paoding.analysis.knife.FileDictionaries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 以dic/下的词汇表比较{@link HashBinaryDictionary}与改用字符表之前的实现({@link MapHashBinaryDictionary})的检索速度。
+ * <p>
+ * 检索的输入模拟CJKKnife的用法：从一段由词典词语和随机汉字组成的文本的各个位置开始，检索长度为1~4的字符串。
+ * <p>
+ * 
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ * 
+ * @since 2.0.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBinaryDictionaryBenchmark {
+
+	static final int QUERIES = 1 << 16;
+
+	String text;
+
+	int[] offsets = new int[QUERIES];
+
+	int[] counts = new int[QUERIES];
+
+	Dictionary mapBased;
+
+	Dictionary charTable;
+
+	@Setup
+	public void setUp() {
+		Word[] ascWords = loadVocabulary();
+		mapBased = new MapHashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+		charTable = new HashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+
+		Random random = new Random(2007);
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < QUERIES) {
+			if (random.nextInt(4) == 0) {
+				sb.append((char) (0x4e00 + random.nextInt(0x5000)));
+			} else {
+				sb.append(ascWords[random.nextInt(ascWords.length)].getText());
+			}
+		}
+		text = sb.toString();
+		for (int i = 0; i < QUERIES; i++) {
+			offsets[i] = random.nextInt(text.length() - 4);
+			counts[i] = 1 + random.nextInt(4);
+		}
+	}
+
+	static Word[] loadVocabulary() {
+		FileDictionaries dictionaries = new FileDictionaries("dic",
+				Constants.DIC_SKIP_PREFIX_DEFAULT,
+				Constants.DIC_NOISE_CHARACTOR_DEFAULT,
+				Constants.DIC_NOISE_WORD_DEFAULT, Constants.DIC_UNIT_DEFAULT,
+				Constants.DIC_CONFUCIAN_FAMILY_NAME_DEFAULT,
+				Constants.DIC_FOR_COMBINATORICS_DEFAULT,
+				Constants.DIC_CHARSET_DEFAULT, 0);
+		Dictionary vocabulary = dictionaries.getVocabularyDictionary();
+		Word[] ascWords = new Word[vocabulary.size()];
+		for (int i = 0; i < ascWords.length; i++) {
+			ascWords[i] = vocabulary.get(i);
+		}
+		return ascWords;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void mapBased(Blackhole bh) {
+		search(mapBased, bh);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void charTable(Blackhole bh) {
+		search(charTable, bh);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void mapBasedReusingHit(Blackhole bh) {
+		searchReusingHit(mapBased, bh);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void charTableReusingHit(Blackhole bh) {
+		searchReusingHit(charTable, bh);
+	}
+
+	private void search(Dictionary dictionary, Blackhole bh) {
+		for (int i = 0; i < QUERIES; i++) {
+			bh.consume(dictionary.search(text, offsets[i], counts[i]));
+		}
+	}
+
+	private void searchReusingHit(Dictionary dictionary, Blackhole bh) {
+		Hit hit = new Hit();
+		for (int i = 0; i < QUERIES; i++) {
+			bh.consume(dictionary.search(text, offsets[i], counts[i], hit)
+					.isHit());
+		}
+	}
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 改用字符表之前的{@link HashBinaryDictionary}：以HashMap保存头字符(装箱为Integer)到分词典的映射。
+ * <p>
+ * 仅作为基准测试的对照组保留，请勿在分词中使用。
+ * <p>
+ * 
+ * @see HashBinaryDictionaryBenchmark
+ */
+public class MapHashBinaryDictionary implements Dictionary {
+
+	// -------------------------------------------------
+
+	/**
+	 * 字典中所有词语，用于方便{@link #get(int)}方法
+	 */
+	private Word[] ascWords;
+
+	/**
+	 * 首字符到分词典的映射
+	 */
+	private Map<Object, SubDictionaryWrap> subs;
+
+	/**
+	 * 
+	 */
+	private final int hashIndex;
+
+	private final int start;
+	private final int end;
+	private final int count;
+
+	// -------------------------------------------------
+
+	/**
+	 * 
+	 * @param ascWords
+	 *            升序排列词语
+	 * @param initialCapacity
+	 * @param loadFactor
+	 */
+	public MapHashBinaryDictionary(Word[] ascWords, int initialCapacity,
+			float loadFactor) {
+		this(ascWords, 0, 0, ascWords.length, initialCapacity, loadFactor);
+	}
+
+	public MapHashBinaryDictionary(Word[] ascWords, int hashIndex, int start,
+			int end, int initialCapacity, float loadFactor) {
+		this.ascWords = ascWords;
+		this.start = start;
+		this.end = end;
+		this.count = end - start;
+		this.hashIndex = hashIndex;
+		subs = new HashMap<Object, SubDictionaryWrap>(initialCapacity,
+				loadFactor);
+		createSubDictionaries();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 创建分词典映射，为构造函数调用
+	 */
+	protected void createSubDictionaries() {
+		if (this.start >= ascWords.length) {
+			return;
+		}
+		
+		// 定位相同头字符词语的开头和结束位置以确认分字典
+		int beginIndex = this.start;
+		int endIndex = this.start + 1;
+		
+		char beginHashChar = getChar(ascWords[start], hashIndex);
+		char endHashChar;
+		for (; endIndex < this.end; endIndex++) {
+			endHashChar = getChar(ascWords[endIndex], hashIndex);
+			if (endHashChar != beginHashChar) {
+				addSubDictionary(beginHashChar, beginIndex, endIndex);
+				beginIndex = endIndex;
+				beginHashChar = endHashChar;
+			}
+		}
+		addSubDictionary(beginHashChar, beginIndex, this.end);
+	}
+	
+
+	protected char getChar(CharSequence s, int index) {
+		if (index >= s.length()) {
+			return (char) 0;
+		}
+		return s.charAt(index);
+	}
+
+	/**
+	 * 将位置在beginIndex和endIndex之间(不包括endIndex)的词语作为一个分词典
+	 * 
+	 * @param hashChar
+	 * @param beginIndex
+	 * @param endIndex
+	 */
+	protected void addSubDictionary(char hashChar, int beginIndex, int endIndex) {
+		Dictionary subDic = createSubDictionary(ascWords, beginIndex, endIndex);
+		SubDictionaryWrap subDicWrap = new SubDictionaryWrap(hashChar,
+				subDic, beginIndex);
+		subs.put(keyOf(hashChar), subDicWrap);
+	}
+
+	protected Dictionary createSubDictionary(Word[] ascWords, int beginIndex,
+			int endIndex) {
+		int count = endIndex - beginIndex;
+		if (count < 16) {
+			return new BinaryDictionary(ascWords, beginIndex, endIndex);
+		} else {
+			return new MapHashBinaryDictionary(ascWords, hashIndex + 1,
+					beginIndex, endIndex, getCapacity(count), 0.75f);
+		}
+	}
+
+	protected static final int[] capacityCandiate = { 16, 32, 64, 128, 256,
+			512, 1024, 2048, 4096, 10192 };
+
+	protected int getCapacity(int count) {
+		int capacity = -1;
+		count <<= 2;
+		count /= 3;
+		count += 1;
+		for (int i = 0; i < capacityCandiate.length; i++) {
+			if (count <= capacityCandiate[i]) {
+				capacity = capacityCandiate[i];
+				break;
+			}
+		}
+		if (capacity < 0) {
+			capacity = capacityCandiate[capacityCandiate.length - 1];
+		}
+		return capacity;
+	}
+
+	// -------------------------------------------------
+
+	public Word get(int index) {
+		return ascWords[start + index];
+	}
+
+	public Hit search(CharSequence input, int begin, int count) {
+		Hit hit = search(input, begin, count, new Hit());
+		return hit.isUndefined() ? Hit.UNDEFINED : hit;
+	}
+
+	public Hit search(CharSequence input, int begin, int count, Hit hit) {
+		SubDictionaryWrap subDic = (SubDictionaryWrap) subs.get(keyOf(input
+				.charAt(hashIndex + begin)));
+		if (subDic == null) {
+			return hit.undefined();
+		}
+		Dictionary dic = subDic.dic;
+		// 对count==hashIndex + 1的处理
+		if (count == hashIndex + 1) {
+			Word header = dic.get(0);
+			if (header.length() == hashIndex + 1) {
+				return setHit(hit, subDic.wordIndexOffset, header);
+			} else {
+				return hit.set(Hit.UNCLOSED_INDEX, null, header);
+			}
+		}
+		// count > hashIndex + 1
+		dic.search(input, begin, count, hit);
+		if (hit.isHit()) {
+			// 分词典返回的是词语在分词典中的位置
+			setHit(hit, subDic.wordIndexOffset + hit.getIndex(), hit.getWord());
+		}
+		return hit;
+	}
+
+	/**
+	 * 以词语在ascWords中的位置填写命中结果
+	 */
+	private Hit setHit(Hit hit, int wordIndex, Word word) {
+		int nextWordIndex = wordIndex + 1;
+		return hit.set(wordIndex - start, word,
+				nextWordIndex < ascWords.length ? ascWords[nextWordIndex] : null);
+	}
+
+	public DictionaryCursor cursor() {
+		throw new UnsupportedOperationException();
+	}
+
+	public int size() {
+		return count;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 字符的在{@link #subs}的key值。
+	 * 
+	 * @param theChar
+	 * @return
+	 * 
+	 * @see #subs
+	 */
+	protected Object keyOf(char theChar) {
+		// return theChar - 0x4E00;// '一'==0x4E00
+		return new Integer(theChar);
+	}
+
+	/**
+	 * 分词典封箱
+	 */
+	static class SubDictionaryWrap {
+		/**
+		 * 分词典词组的头字符
+		 */
+		char hashChar;
+
+		/**
+		 * 分词典
+		 */
+		Dictionary dic;
+
+		/**
+		 * 分词典第一个词语在所有词语中的偏移位置
+		 */
+		int wordIndexOffset;
+
+		public SubDictionaryWrap(char hashChar, Dictionary dic,
+				int wordIndexOffset) {
+			this.hashChar = hashChar;
+			this.dic = dic;
+			this.wordIndexOffset = wordIndexOffset;
+		}
+	}
+
+}
@@ -44,6 +44,10 @@ public class Constants {
 	// dictionary word length limit
 	public static final String DIC_MAXWORDLEN = "paoding.dic.maxWordLen";
 	public static final String DIC_MAXWORDLEN_DEFAULT = "0";
+
+	// threads reading dictionary files in parallel; "0": available processors, "1": sequential
+	public static final String DIC_LOADER_THREADS = "paoding.dic.loader.threads";
+	public static final String DIC_LOADER_THREADS_DEFAULT = "0";
 	
 	// -------------------------------------------------------------
 	// dictionaries which are skip
@@ -76,9 +80,19 @@ public class Constants {
 	public static final String DIC_FOR_COMBINATORICS_DEFAULT = "x-for-combinatorics";
 
 	// -------------------------------------------------------------
-	// like 
+	// seconds between dictionary modification checks, like "60"; "-1" (the default) disables reloading
 	public static final String DIC_DETECTOR_INTERVAL = "paoding.dic.detector.interval";
-	public static final String DIC_DETECTOR_INTERVAL_DEFAULT = "60";
+	public static final String DIC_DETECTOR_INTERVAL_DEFAULT = "-1";
+
+	// -------------------------------------------------------------
+	// milliseconds without further changes before a burst of dictionary edits is applied
+	public static final String DIC_DETECTOR_DEBOUNCE = "paoding.dic.detector.debounce";
+	public static final String DIC_DETECTOR_DEBOUNCE_DEFAULT = "500";
+
+	// -------------------------------------------------------------
+	// "true": detect changes with the file system WatchService; "false": poll every interval
+	public static final String DIC_DETECTOR_WATCH = "paoding.dic.detector.watch";
+	public static final String DIC_DETECTOR_WATCH_DEFAULT = "true";
 
 	// -------------------------------------------------------------
 	// like "default", "max", ...
@@ -90,6 +104,46 @@ public class Constants {
 	public static final String ANALYZER_DICTIONARIES_COMPILER = "paoding.analyzer.dictionaries.compiler";
 	public static final String ANALYZER_DICTIONARIES_COMPILER_DEFAULT = null;
 
+	// threads compiling the vocabulary in parallel ("0": available processors)
+	public static final String ANALYZER_DICTIONARIES_COMPILER_THREADS = "paoding.analyzer.dictionaries.compiler.threads";
+	public static final String ANALYZER_DICTIONARIES_COMPILER_THREADS_DEFAULT = "0";
+
+	// -------------------------------------------------------------
+	// vocabulary dictionary structure: "hash-binary", "double-array-trie", "compact" or "mapped"
+	public static final String ANALYZER_DICTIONARIES_VOCABULARY = "paoding.analyzer.dictionaries.vocabulary";
+	public static final String ANALYZER_DICTIONARIES_VOCABULARY_DEFAULT = "hash-binary";
+
+	// -------------------------------------------------------------
+	// tokenizer buffer length, and the max length it may grow to for long texts ("0": fixed length)
+	public static final String ANALYZER_BUFFER_LENGTH = "paoding.analyzer.buffer.length";
+	public static final String ANALYZER_BUFFER_LENGTH_DEFAULT = "128";
+	public static final String ANALYZER_BUFFER_MAX_LENGTH = "paoding.analyzer.buffer.max-length";
+	public static final String ANALYZER_BUFFER_MAX_LENGTH_DEFAULT = "0";
+
+	// -------------------------------------------------------------
+	// char folding file applied after the default normalization to texts and compiled dictionary words, e.g. traditional->simplified ("": none)
+	public static final String ANALYZER_NORMALIZER_FOLDING = "paoding.analyzer.normalizer.folding";
+	public static final String ANALYZER_NORMALIZER_FOLDING_DEFAULT = "";
+
+	// -------------------------------------------------------------
+	// cached texts of the analysis result cache ("0": no cache), and the max length of a cached text
+	public static final String ANALYZER_CACHE_SIZE = "paoding.analyzer.cache.size";
+	public static final String ANALYZER_CACHE_SIZE_DEFAULT = "0";
+	public static final String ANALYZER_CACHE_MAX_LENGTH = "paoding.analyzer.cache.max-length";
+	public static final String ANALYZER_CACHE_MAX_LENGTH_DEFAULT = "32";
+
+	// -------------------------------------------------------------
+	// min milliseconds between two checks whether the properties files were modified ("0": check every time)
+	public static final String ANALYZER_PROPERTIES_CHECK_INTERVAL = "paoding.analyzer.properties.check-interval";
+	public static final String ANALYZER_PROPERTIES_CHECK_INTERVAL_DEFAULT = "1000";
+
+	// -------------------------------------------------------------
+	// whether to record per-knife, dictionary and tokenizer metrics, and the JMX name they are registered under ("": no JMX)
+	public static final String ANALYZER_METRICS_ENABLED = "paoding.analyzer.metrics.enabled";
+	public static final String ANALYZER_METRICS_ENABLED_DEFAULT = "false";
+	public static final String ANALYZER_METRICS_JMX_NAME = "paoding.analyzer.metrics.jmx-name";
+	public static final String ANALYZER_METRICS_JMX_NAME_DEFAULT = "net.paoding.analysis:type=PaodingMetrics";
+
 	// -------------------------------------------------------------
 	private static final Map<String, String> map = new HashMap<String, String>();
 
@@ -98,6 +152,7 @@ public class Constants {
 		map.put(DIC_HOME, DIC_HOME_DEFAULT);
 		map.put(DIC_CHARSET, DIC_CHARSET_DEFAULT);
 		map.put(DIC_MAXWORDLEN, DIC_MAXWORDLEN_DEFAULT);
+		map.put(DIC_LOADER_THREADS, DIC_LOADER_THREADS_DEFAULT);
 		map.put(DIC_SKIP_PREFIX, DIC_SKIP_PREFIX_DEFAULT);
 		map.put(DIC_NOISE_CHARACTOR, DIC_NOISE_CHARACTOR_DEFAULT);
 		map.put(DIC_NOISE_WORD, DIC_NOISE_WORD_DEFAULT);
@@ -105,8 +160,20 @@ public class Constants {
 		map.put(DIC_CONFUCIAN_FAMILY_NAME, DIC_CONFUCIAN_FAMILY_NAME_DEFAULT);
 		map.put(DIC_FOR_COMBINATORICS, DIC_FOR_COMBINATORICS_DEFAULT);
 		map.put(DIC_DETECTOR_INTERVAL, DIC_DETECTOR_INTERVAL_DEFAULT);
+		map.put(DIC_DETECTOR_DEBOUNCE, DIC_DETECTOR_DEBOUNCE_DEFAULT);
+		map.put(DIC_DETECTOR_WATCH, DIC_DETECTOR_WATCH_DEFAULT);
 		map.put(ANALYZER_MODE, ANALYZER_MOE_DEFAULT);
 		map.put(ANALYZER_DICTIONARIES_COMPILER, ANALYZER_DICTIONARIES_COMPILER_DEFAULT);
+		map.put(ANALYZER_DICTIONARIES_COMPILER_THREADS, ANALYZER_DICTIONARIES_COMPILER_THREADS_DEFAULT);
+		map.put(ANALYZER_DICTIONARIES_VOCABULARY, ANALYZER_DICTIONARIES_VOCABULARY_DEFAULT);
+		map.put(ANALYZER_BUFFER_LENGTH, ANALYZER_BUFFER_LENGTH_DEFAULT);
+		map.put(ANALYZER_BUFFER_MAX_LENGTH, ANALYZER_BUFFER_MAX_LENGTH_DEFAULT);
+		map.put(ANALYZER_NORMALIZER_FOLDING, ANALYZER_NORMALIZER_FOLDING_DEFAULT);
+		map.put(ANALYZER_CACHE_SIZE, ANALYZER_CACHE_SIZE_DEFAULT);
+		map.put(ANALYZER_CACHE_MAX_LENGTH, ANALYZER_CACHE_MAX_LENGTH_DEFAULT);
+		map.put(ANALYZER_PROPERTIES_CHECK_INTERVAL, ANALYZER_PROPERTIES_CHECK_INTERVAL_DEFAULT);
+		map.put(ANALYZER_METRICS_ENABLED, ANALYZER_METRICS_ENABLED_DEFAULT);
+		map.put(ANALYZER_METRICS_JMX_NAME, ANALYZER_METRICS_JMX_NAME_DEFAULT);
 	}
 
 	//
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * paoding后台线程(字典检测、并行读取字典、批量分词等)的ThreadFactory：创建根线程组中的守护线程，依次以prefix加序号命名。
+ * <p>
+ * 这些线程可能由某个请求线程触发创建，它们属于根线程组而不是调用者的线程组，不随调用者的线程组销毁而受影响。
+ * <p>
+ * 
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ * 
+ * @since 2.0.4
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+	private final String prefix;
+
+	private int index;
+
+	/**
+	 * 
+	 * @param prefix
+	 *            线程名前缀，比如"paoding-dic-reader-"
+	 */
+	public DaemonThreadFactory(String prefix) {
+		this.prefix = prefix;
+	}
+
+	public synchronized Thread newThread(Runnable r) {
+		return newThread(r, prefix + (++index), true);
+	}
+
+	/**
+	 * 在根线程组中创建一个名为name的线程(未启动)
+	 */
+	public static Thread newThread(Runnable r, String name, boolean daemon) {
+		ThreadGroup group = Thread.currentThread().getThreadGroup();
+		while (group.getParent() != null) {
+			group = group.getParent();
+		}
+		Thread t = new Thread(group, r, name);
+		t.setDaemon(daemon);
+		return t;
+	}
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.lucene.analysis.Token;
+
+/**
+ * 以数组保存词语的TokenCollector基类。
+ * <p>
+ *
+ * 词语的开始、结束位置以及词语字符在共享字符区中的位置和长度保存在几个平行的int数组中，词语的字符则复制到共享字符区中。
+ * 这些数组在每批词语(即一次{@link #flip()})之间重复使用，达到足够大小之后收集词语不再创建任何对象。
+ * <p>
+ *
+ * {@link PaodingTokenizer}识别本类的实例，每次knife切分之后调用{@link #flip()}，
+ * 再以{@link #hasNext()}/{@link #next()}逐个把词语直接从字符区复制到CharTermAttribute中，而不经过Token对象；
+ * {@link #iterator()}只为兼容TokenCollector接口而保留。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingTokenizer
+ *
+ * @since 2.0.4
+ */
+public abstract class ArrayTokenCollector implements TokenCollector {
+
+	// -------------------------------------------------
+
+	/**
+	 * 本批词语的字符
+	 */
+	private char[] termChars = new char[256];
+
+	private int termCharsLength;
+
+	/**
+	 * 词语在文本流中的开始位置
+	 */
+	protected int[] startOffsets = new int[32];
+
+	/**
+	 * 词语在文本流中的结束位置
+	 */
+	protected int[] endOffsets = new int[32];
+
+	/**
+	 * 词语字符在termChars中的开始位置
+	 */
+	protected int[] termStarts = new int[32];
+
+	/**
+	 * 词语的字符个数
+	 */
+	protected int[] termLengths = new int[32];
+
+	/**
+	 * 本批的词语个数
+	 */
+	protected int size;
+
+	/**
+	 * 正在读取的词语位置
+	 */
+	private int cursor = -1;
+
+	/**
+	 * 本批词语已经flip，下一次收集词语前应清空
+	 */
+	private boolean flipped;
+
+	// -------------------------------------------------
+
+	/**
+	 * 结束本批词语的收集，以便按顺序读取；子类可以覆盖{@link #endBatch()}在此之前补充最后的词语
+	 */
+	public void flip() {
+		endBatch();
+		cursor = -1;
+		flipped = true;
+	}
+
+	public boolean hasNext() {
+		return cursor + 1 < size;
+	}
+
+	/**
+	 * 本批的词语个数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 移到下一个词语
+	 */
+	public void next() {
+		cursor++;
+	}
+
+	public char[] termBuffer() {
+		return termChars;
+	}
+
+	public int termOffset() {
+		return termStarts[cursor];
+	}
+
+	public int termLength() {
+		return termLengths[cursor];
+	}
+
+	public int startOffset() {
+		return startOffsets[cursor];
+	}
+
+	public int endOffset() {
+		return endOffsets[cursor];
+	}
+
+	/**
+	 * 清除所有词语以及子类在词语之间保留的状态，在开始切分一个新的文本流时调用
+	 */
+	public void clear() {
+		size = 0;
+		termCharsLength = 0;
+		cursor = -1;
+		flipped = false;
+	}
+
+	/**
+	 * 把本批词语以及子类保留的位置都减去delta，此后收集的词语的位置也应以新的起点计算。
+	 * <p>
+	 * 词语的位置以int保存，很长的文本流(超过2G字符)应在位置过大之前以此移动位置的起点。
+	 *
+	 * @see #rebased(int)
+	 */
+	public void rebase(int delta) {
+		for (int i = 0; i < size; i++) {
+			startOffsets[i] -= delta;
+			endOffsets[i] -= delta;
+		}
+		rebased(delta);
+	}
+
+	/**
+	 * 为兼容TokenCollector接口：flip之后把本批词语创建为Token对象返回
+	 */
+	public Iterator<Token> iterator() {
+		flip();
+		List<Token> tokens = new ArrayList<Token>(size);
+		while (hasNext()) {
+			next();
+			tokens.add(new Token(termChars, termOffset(), termLength(),
+					startOffset(), endOffset()));
+		}
+		return tokens.iterator();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 本批词语收集结束时调用，默认实现什么都不做
+	 */
+	protected void endBatch() {
+	}
+
+	/**
+	 * {@link #rebase(int)}时调用，在词语之间保留了位置的子类应把它们减去delta；默认实现什么都不做
+	 */
+	protected void rebased(int delta) {
+	}
+
+	/**
+	 * 每次收集词语前调用：如果上一批词语已经flip，则清空之
+	 */
+	protected final void ensureCollecting() {
+		if (flipped) {
+			size = 0;
+			termCharsLength = 0;
+			cursor = -1;
+			flipped = false;
+		}
+	}
+
+	/**
+	 * 把词语的字符复制到字符区，返回其开始位置
+	 */
+	protected final int copyTerm(char[] chars, int start, int length) {
+		int termStart = ensureTermChars(length);
+		System.arraycopy(chars, start, termChars, termStart, length);
+		return termStart;
+	}
+
+	protected final int copyTerm(String word) {
+		int termStart = ensureTermChars(word.length());
+		word.getChars(0, word.length(), termChars, termStart);
+		return termStart;
+	}
+
+	private int ensureTermChars(int length) {
+		int termStart = termCharsLength;
+		if (termStart + length > termChars.length) {
+			char[] newChars = new char[Math.max(termChars.length << 1,
+					termStart + length)];
+			System.arraycopy(termChars, 0, newChars, 0, termStart);
+			termChars = newChars;
+		}
+		termCharsLength = termStart + length;
+		return termStart;
+	}
+
+	/**
+	 * 在index位置插入一个词语，index及其后的词语后移
+	 */
+	protected final void insert(int index, int startOffset, int endOffset,
+			int termStart, int termLength) {
+		if (size == startOffsets.length) {
+			int capacity = size << 1;
+			startOffsets = grow(startOffsets, capacity);
+			endOffsets = grow(endOffsets, capacity);
+			termStarts = grow(termStarts, capacity);
+			termLengths = grow(termLengths, capacity);
+		}
+		int moved = size - index;
+		if (moved > 0) {
+			System.arraycopy(startOffsets, index, startOffsets, index + 1, moved);
+			System.arraycopy(endOffsets, index, endOffsets, index + 1, moved);
+			System.arraycopy(termStarts, index, termStarts, index + 1, moved);
+			System.arraycopy(termLengths, index, termLengths, index + 1, moved);
+		}
+		startOffsets[index] = startOffset;
+		endOffsets[index] = endOffset;
+		termStarts[index] = termStart;
+		termLengths[index] = termLength;
+		size++;
+	}
+
+	private static int[] grow(int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
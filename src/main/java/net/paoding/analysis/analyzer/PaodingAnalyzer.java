@@ -22,6 +22,7 @@ import net.paoding.analysis.analyzer.estimate.TryPaodingAnalyzer;
 import net.paoding.analysis.knife.Knife;
 import net.paoding.analysis.knife.Paoding;
 import net.paoding.analysis.knife.PaodingMaker;
+import net.paoding.analysis.metrics.PaodingMetrics;
 
 /**
  * PaodingAnalyzer是基于“庖丁解牛”框架的Lucene词语分析器，是“庖丁解牛”框架对Lucene的适配器。
@@ -73,6 +74,18 @@ public class PaodingAnalyzer extends PaodingAnalyzerBean {
 		Paoding paoding = PaodingMaker.make(properties);
 		setKnife(paoding);
 		setMode(mode);
+		setBufferLength(Integer.parseInt(Constants.getProperty(properties,
+				Constants.ANALYZER_BUFFER_LENGTH)));
+		setMaxBufferLength(Integer.parseInt(Constants.getProperty(properties,
+				Constants.ANALYZER_BUFFER_MAX_LENGTH)));
+		if (Boolean.valueOf(Constants.getProperty(properties,
+				Constants.ANALYZER_METRICS_ENABLED))) {
+			setMetrics(PaodingMetrics.getDefault());
+		}
+		// 与编译字典时所用的相同，由PaodingMaker按配置创建
+		setNormalizer(paoding.getNormalizer());
+		// 与同一配置的其他分析器共用
+		setTokenCache(paoding.getTokenCache());
 	}
 
 	/**
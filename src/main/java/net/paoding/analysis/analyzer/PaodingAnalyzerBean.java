@@ -2,9 +2,11 @@ package net.paoding.analysis.analyzer;
 
 import java.io.Reader;
 
-import net.paoding.analysis.analyzer.impl.MaxWordLengthTokenCollector;
-import net.paoding.analysis.analyzer.impl.MostWordsTokenCollector;
+import net.paoding.analysis.analyzer.impl.ArrayMaxWordLengthTokenCollector;
+import net.paoding.analysis.analyzer.impl.ArrayMostWordsTokenCollector;
+import net.paoding.analysis.knife.CharNormalizer;
 import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.metrics.Metrics;
 
 import org.apache.lucene.analysis.Analyzer;
 
@@ -48,6 +50,31 @@ public class PaodingAnalyzerBean extends Analyzer {
 	 */
 	private Class<?> modeClass;
 
+	/**
+	 * PaodingTokenizer缓冲区的初始长度
+	 */
+	private int bufferLength = PaodingTokenizer.DEFAULT_BUFFER_LENGTH;
+
+	/**
+	 * PaodingTokenizer缓冲区可以增长到的最大长度，不大于bufferLength表示缓冲区长度固定
+	 */
+	private int maxBufferLength;
+
+	/**
+	 * PaodingTokenizer对读入的字符的规范化
+	 */
+	private CharNormalizer normalizer = CharNormalizer.DEFAULT;
+
+	/**
+	 * 短文本的切分结果缓存，null表示不使用
+	 */
+	private TokenCache tokenCache;
+
+	/**
+	 * PaodingTokenizer的度量，null表示不度量
+	 */
+	private Metrics metrics;
+
 	// -------------------------------------------------
 
 	public PaodingAnalyzerBean() {
@@ -90,8 +117,12 @@ public class PaodingAnalyzerBean extends Analyzer {
 			throw new NullPointerException("knife should be set before token");
 		}
 		// PaodingTokenizer是TokenStream实现，使用knife解析reader流入的文本
-		return new TokenStreamComponents(new PaodingTokenizer(reader, 
-				knife, createTokenCollector()));
+		PaodingTokenizer tokenizer = new PaodingTokenizer(reader, knife,
+				createTokenCollector(), bufferLength, maxBufferLength);
+		tokenizer.setNormalizer(normalizer);
+		tokenizer.setTokenCache(tokenCache);
+		tokenizer.setMetrics(metrics);
+		return new TokenStreamComponents(tokenizer);
 	}
 
 
@@ -108,9 +139,9 @@ public class PaodingAnalyzerBean extends Analyzer {
         }
         switch (mode) {
             case MOST_WORDS_MODE:
-                return new MostWordsTokenCollector();
+                return new ArrayMostWordsTokenCollector();
             case MAX_WORD_LENGTH_MODE:
-                return new MaxWordLengthTokenCollector();
+                return new ArrayMaxWordLengthTokenCollector();
             default:
                 throw new Error("never happened");
         }
@@ -131,6 +162,89 @@ public class PaodingAnalyzerBean extends Analyzer {
         return mode;
     }
 
+    public int getBufferLength() {
+        return bufferLength;
+    }
+
+    /**
+     * 设置PaodingTokenizer缓冲区的初始长度，默认为128。
+     * <p>
+     * 只对此后新创建的TokenStream生效。
+     *
+     * @param bufferLength
+     */
+    public void setBufferLength(int bufferLength) {
+        if (bufferLength < 2) {
+            throw new IllegalArgumentException("wrong buffer length:" + bufferLength);
+        }
+        this.bufferLength = bufferLength;
+    }
+
+    public int getMaxBufferLength() {
+        return maxBufferLength;
+    }
+
+    /**
+     * 设置PaodingTokenizer缓冲区可以增长到的最大长度。
+     * <p>
+     * 大于缓冲区的初始长度时，一旦输入的文本填满缓冲区，缓冲区就加倍增长直到这个长度(如4K-64K)，
+     * 以减少长文本的读入次数和切分的重新开始次数；不大于初始长度时缓冲区长度固定。
+     *
+     * @param maxBufferLength
+     */
+    public void setMaxBufferLength(int maxBufferLength) {
+        this.maxBufferLength = maxBufferLength;
+    }
+
+    public CharNormalizer getNormalizer() {
+        return normalizer;
+    }
+
+    /**
+     * 设置PaodingTokenizer对读入字符的规范化，默认为{@link CharNormalizer#DEFAULT}。
+     * <p>
+     * 可以使用带字符折叠(如繁体转简体)的CharNormalizer，折叠的结果应该是字典中词语所用的字符。
+     * 只对此后新创建的TokenStream生效。
+     *
+     * @param normalizer
+     */
+    public void setNormalizer(CharNormalizer normalizer) {
+        if (normalizer == null) {
+            throw new NullPointerException("normalizer");
+        }
+        this.normalizer = normalizer;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    /**
+     * 设置短文本的切分结果缓存，可以从中读取命中率等统计；null表示不使用缓存(默认)。
+     * <p>
+     * 只对此后新创建的TokenStream生效。
+     *
+     * @param tokenCache
+     */
+    public void setTokenCache(TokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 设置PaodingTokenizer读入字符和收集词语的度量；null表示不度量(默认)。
+     * <p>
+     * 只对此后新创建的TokenStream生效。
+     *
+     * @param metrics
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * 设置分析器模式.
      * <p>
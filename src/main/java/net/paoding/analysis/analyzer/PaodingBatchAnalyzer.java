@@ -0,0 +1,376 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.paoding.analysis.DaemonThreadFactory;
+import net.paoding.analysis.exception.PaodingAnalysisException;
+import net.paoding.analysis.knife.CharNormalizer;
+import net.paoding.analysis.knife.Knife;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 批量切分大量较短的文档(如重建索引)，返回每个文档切分出的全部词语，而不经过Lucene的TokenStream。
+ * <p>
+ * 文档分给若干个worker并行切分，每个worker有自己的缓冲区、Beef和TokenCollector，
+ * 在它切分的所有文档之间重复使用，不再为每个文档创建TokenStream、Tokenizer和TokenCollector。
+ * 每个文档的切分结果与缓冲区能够容纳整个文档的{@link PaodingTokenizer}切分该文档的结果相同，以紧凑的{@link TokenCache.Tokens}返回。
+ * <p>
+ * worker在{@link #setExecutor(ExecutorService)}给定的线程池中运行；没有给定时每次批量切分临时创建线程，
+ * {@link #setVirtualThreads(boolean)}为true时使用虚拟线程(需要Java 21，否则使用普通线程)。
+ * <p>
+ * PaodingBatchAnalyzer设置好后可以在多个线程中共用。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see TokensDissector
+ * @see PaodingParallelAnalyzer
+ *
+ * @since 2.0.4
+ */
+public class PaodingBatchAnalyzer {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(PaodingBatchAnalyzer.class);
+
+	/**
+	 * 切分文档流时，每个worker一批切分的文档数
+	 */
+	static final int STREAM_BATCH = 64;
+
+	// -------------------------------------------------
+
+	private final Knife knife;
+
+	/**
+	 * @see PaodingAnalyzerBean#MOST_WORDS_MODE
+	 * @see PaodingAnalyzerBean#MAX_WORD_LENGTH_MODE
+	 */
+	private final int mode;
+
+	private CharNormalizer normalizer = CharNormalizer.DEFAULT;
+
+	/**
+	 * worker个数，不大于0表示CPU个数
+	 */
+	private int threads;
+
+	private boolean virtualThreads;
+
+	/**
+	 * 运行worker的线程池，null表示每次批量切分临时创建
+	 */
+	private ExecutorService executor;
+
+	// -------------------------------------------------
+
+	/**
+	 *
+	 * @param knife
+	 * @param mode
+	 *            {@link PaodingAnalyzerBean#MOST_WORDS_MODE}或
+	 *            {@link PaodingAnalyzerBean#MAX_WORD_LENGTH_MODE}
+	 */
+	public PaodingBatchAnalyzer(Knife knife, int mode) {
+		if (knife == null) {
+			throw new NullPointerException("knife");
+		}
+		TokensDissector.checkMode(mode);
+		this.knife = knife;
+		this.mode = mode;
+	}
+
+	// -------------------------------------------------
+
+	public Knife getKnife() {
+		return knife;
+	}
+
+	public int getMode() {
+		return mode;
+	}
+
+	public CharNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	/**
+	 * 设置对文档字符的规范化，默认为{@link CharNormalizer#DEFAULT}
+	 */
+	public void setNormalizer(CharNormalizer normalizer) {
+		if (normalizer == null) {
+			throw new NullPointerException("normalizer");
+		}
+		this.normalizer = normalizer;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * 设置并行切分的worker个数，不大于0表示CPU个数(默认)，1表示在调用者线程中顺序切分
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * 没有给定线程池时，是否以虚拟线程运行worker；运行环境不支持虚拟线程时使用普通线程
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * 设置运行worker的线程池，PaodingBatchAnalyzer不会关闭它；null表示每次批量切分临时创建(默认)
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 切分给定的文档
+	 *
+	 * @param documents
+	 * @return 与documents一一对应的切分结果，词语的位置以各自文档的开始为0
+	 */
+	public List<TokenCache.Tokens> analyze(
+			final List<? extends CharSequence> documents) {
+		int workers = Math.min(getWorkers(), documents.size());
+		if (workers <= 1 || executor != null) {
+			return analyze(documents, executor);
+		}
+		ExecutorService owned = createExecutor(workers);
+		try {
+			return analyze(documents, owned);
+		} finally {
+			owned.shutdownNow();
+		}
+	}
+
+	/**
+	 * 切分给定的文档流。
+	 * <p>
+	 * 文档按顺序一批一批(每批为worker个数的{@value #STREAM_BATCH}倍)地取出并行切分，
+	 * 返回的流消费完一批的结果后才取出、切分下一批；任何时候只持有一批文档及其结果，documents可以是无限的流。
+	 * <p>
+	 * 没有给定线程池时，整个流只创建一个线程池，在documents取完或者返回的流被关闭时关闭。
+	 *
+	 * @param documents
+	 * @return 按documents的顺序排列的切分结果，词语的位置以各自文档的开始为0；关闭它即关闭documents
+	 */
+	public Stream<TokenCache.Tokens> analyze(
+			final Stream<? extends CharSequence> documents) {
+		final StreamResults results = new StreamResults(documents.iterator());
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(results,
+						Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(new Runnable() {
+					public void run() {
+						try {
+							results.shutdown();
+						} finally {
+							documents.close();
+						}
+					}
+				});
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 以executor中的worker并行切分documents；worker个数不大于1时在调用者线程中顺序切分，不使用executor
+	 */
+	private List<TokenCache.Tokens> analyze(
+			final List<? extends CharSequence> documents,
+			ExecutorService executor) {
+		final int size = documents.size();
+		final TokenCache.Tokens[] results = new TokenCache.Tokens[size];
+		int workers = Math.min(getWorkers(), size);
+		if (workers <= 1) {
+			TokensDissector dissector = new TokensDissector(knife, mode,
+					normalizer);
+			for (int i = 0; i < size; i++) {
+				CharSequence document = documents.get(i);
+				results[i] = dissector.dissect(document, 0, document.length());
+			}
+			return Arrays.asList(results);
+		}
+		// 每个worker依次领取下一个文档，较长的文档不会拖住已经分好的一组文档
+		final AtomicInteger next = new AtomicInteger();
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(workers);
+		for (int i = 0; i < workers; i++) {
+			futures.add(executor.submit(new Callable<Void>() {
+				public Void call() {
+					TokensDissector dissector = new TokensDissector(knife,
+							mode, normalizer);
+					int index;
+					while ((index = next.getAndIncrement()) < size) {
+						CharSequence document = documents.get(index);
+						results[index] = dissector.dissect(document, 0,
+								document.length());
+					}
+					return null;
+				}
+			}));
+		}
+		for (int i = 0; i < futures.size(); i++) {
+			get(futures.get(i));
+		}
+		return Arrays.asList(results);
+	}
+
+	// -------------------------------------------------
+
+	private int getWorkers() {
+		return threads > 0 ? threads : Runtime.getRuntime()
+				.availableProcessors();
+	}
+
+	private ExecutorService createExecutor(int workers) {
+		if (virtualThreads) {
+			try {
+				return (ExecutorService) Executors.class.getMethod(
+						"newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (Exception e) {
+				log.warn("virtual threads are not supported, use platform threads instead: "
+						+ e);
+			}
+		}
+		return Executors.newFixedThreadPool(workers, new DaemonThreadFactory(
+				"paoding-batch-analyzer-"));
+	}
+
+	private static void get(Future<Void> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PaodingAnalysisException(
+					"interrupted while analyzing documents", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PaodingAnalysisException(cause);
+		}
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 文档流的切分结果：一批一批地取出文档切分，所有批次共用一个线程池
+	 */
+	private class StreamResults implements Iterator<TokenCache.Tokens> {
+
+		private final Iterator<? extends CharSequence> source;
+
+		private Iterator<TokenCache.Tokens> batch = Collections
+				.<TokenCache.Tokens> emptyList().iterator();
+
+		/**
+		 * 没有给定线程池时为这个流创建的线程池，第一次并行切分时创建
+		 */
+		private volatile ExecutorService owned;
+
+		StreamResults(Iterator<? extends CharSequence> source) {
+			this.source = source;
+		}
+
+		public boolean hasNext() {
+			if (!batch.hasNext() && source.hasNext()) {
+				int size = STREAM_BATCH * getWorkers();
+				List<CharSequence> list = new ArrayList<CharSequence>(size);
+				while (list.size() < size && source.hasNext()) {
+					list.add(source.next());
+				}
+				batch = analyze(list, getExecutor(list.size())).iterator();
+			}
+			if (!batch.hasNext()) {
+				// 文档已经取完，不必等到流被关闭
+				shutdown();
+				return false;
+			}
+			return true;
+		}
+
+		public TokenCache.Tokens next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return batch.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private ExecutorService getExecutor(int size) {
+			if (executor != null) {
+				return executor;
+			}
+			if (Math.min(getWorkers(), size) <= 1) {
+				return null;
+			}
+			if (owned == null) {
+				owned = createExecutor(getWorkers());
+			}
+			return owned;
+		}
+
+		void shutdown() {
+			ExecutorService owned = this.owned;
+			this.owned = null;
+			if (owned != null) {
+				owned.shutdownNow();
+			}
+		}
+	}
+}
@@ -0,0 +1,456 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+
+import net.paoding.analysis.analyzer.impl.ArrayMaxWordLengthTokenCollector;
+import net.paoding.analysis.analyzer.impl.ArrayMostWordsTokenCollector;
+import net.paoding.analysis.knife.Beef;
+import net.paoding.analysis.knife.CharNormalizer;
+import net.paoding.analysis.knife.Collector;
+import net.paoding.analysis.knife.Knife;
+
+/**
+ * 以内存映射逐段读入文件并切分，适合扫描很大(数G字节)的语料文件。
+ * <p>
+ * 文件按窗口逐段映射，以重复使用的CharsetDecoder把映射的字节直接解码到切分缓冲区中，
+ * 不经过InputStreamReader及其内部缓冲，内存占用与文件大小无关。
+ * 切分结果与缓冲区长度相同的{@link PaodingTokenizer}切分以InputStreamReader读入的同一文件相同(不能解码的字节同样以替换字符代替)，
+ * 此外每个词语还给出它在文件中的字节位置；字符位置和字节位置都以long表示。
+ * <p>
+ * 只支持可以由字符推算字节长度的编码：UTF-8、GBK、GB2312、US-ASCII和ISO-8859-1。
+ * <p>
+ * 使用方法：
+ *
+ * <pre>
+ * PaodingFileTokenizer tokenizer = new PaodingFileTokenizer(knife, PaodingAnalyzerBean.MOST_WORDS_MODE);
+ * tokenizer.open(file, &quot;UTF-8&quot;);
+ * try {
+ * 	while (tokenizer.next()) {
+ * 		... tokenizer.termBuffer(), tokenizer.startOffset(), tokenizer.startByte() ...
+ * 	}
+ * } finally {
+ * 	tokenizer.close();
+ * }
+ * </pre>
+ *
+ * PaodingFileTokenizer可以依次打开多个文件，但不能在多个线程中共用。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingTokenizer
+ *
+ * @since 2.0.4
+ */
+public final class PaodingFileTokenizer implements Collector, Closeable {
+
+	/**
+	 * 默认的缓冲区长度(字符数)
+	 */
+	public static final int DEFAULT_BUFFER_LENGTH = 64 * 1024;
+
+	/**
+	 * 默认每次映射的文件长度(字节数)
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * 交给TokenCollector的词语位置超过此值时，移动位置的起点
+	 */
+	private static final int REBASE_THRESHOLD = 1 << 30;
+
+	private static final int SINGLE_BYTE = 1;
+
+	private static final int DOUBLE_BYTE = 2;
+
+	private static final int UTF_8 = 3;
+
+	// -------------------------------------------------
+
+	private final Knife knife;
+
+	private final ArrayTokenCollector tokenCollector;
+
+	private CharNormalizer normalizer = CharNormalizer.DEFAULT;
+
+	private final int windowSize;
+
+	private final char[] buffer;
+
+	/**
+	 * buffer中每个字符在文件中的字节位置；byteStarts[i+1]即为第i个字符的结束字节位置
+	 */
+	private final long[] byteStarts;
+
+	private final CharBuffer out;
+
+	private final Beef beef;
+
+	private int dissected;
+
+	// -------------------------------------------------
+
+	private FileInputStream in;
+
+	private FileChannel channel;
+
+	private long fileSize;
+
+	private CharsetDecoder decoder;
+
+	/**
+	 * 字符到字节长度的推算方式
+	 */
+	private int encoding;
+
+	/**
+	 * 当前映射的窗口，及其在文件中的开始位置
+	 */
+	private ByteBuffer window;
+
+	private long windowStart;
+
+	/**
+	 * 已经解码的字节数
+	 */
+	private long decodedBytes;
+
+	/**
+	 * 已经解码完毕，包括decoder的flush
+	 */
+	private boolean eof;
+
+	/**
+	 * buffer[0]在文件中的字符位置
+	 */
+	private long charBase;
+
+	/**
+	 * 交给tokenCollector的词语位置的起点(字符位置)
+	 */
+	private long origin;
+
+	// -------------------------------------------------
+
+	/**
+	 *
+	 * @param knife
+	 * @param mode
+	 *            {@link PaodingAnalyzerBean#MOST_WORDS_MODE}或
+	 *            {@link PaodingAnalyzerBean#MAX_WORD_LENGTH_MODE}
+	 */
+	public PaodingFileTokenizer(Knife knife, int mode) {
+		this(knife, mode, DEFAULT_BUFFER_LENGTH, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 *
+	 * @param knife
+	 * @param mode
+	 * @param bufferLength
+	 *            切分缓冲区的长度(字符数)
+	 * @param windowSize
+	 *            每次映射的文件长度(字节数)
+	 */
+	public PaodingFileTokenizer(Knife knife, int mode, int bufferLength,
+			int windowSize) {
+		if (knife == null) {
+			throw new NullPointerException("knife");
+		}
+		TokensDissector.checkMode(mode);
+		if (bufferLength < 2) {
+			throw new IllegalArgumentException("bufferLength should be >= 2: "
+					+ bufferLength);
+		}
+		if (windowSize < 16) {
+			throw new IllegalArgumentException("windowSize should be >= 16: "
+					+ windowSize);
+		}
+		this.knife = knife;
+		this.tokenCollector = mode == PaodingAnalyzerBean.MAX_WORD_LENGTH_MODE ? new ArrayMaxWordLengthTokenCollector()
+				: new ArrayMostWordsTokenCollector();
+		this.windowSize = windowSize;
+		this.buffer = new char[bufferLength];
+		this.byteStarts = new long[bufferLength + 1];
+		this.out = CharBuffer.wrap(buffer);
+		this.beef = new Beef(buffer, 0, 0);
+	}
+
+	// -------------------------------------------------
+
+	public CharNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	public void setNormalizer(CharNormalizer normalizer) {
+		if (normalizer == null) {
+			throw new NullPointerException("normalizer");
+		}
+		this.normalizer = normalizer;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 打开文件，准备从头切分；此前打开的文件被关闭
+	 *
+	 * @param file
+	 * @param charsetName
+	 *            文件编码
+	 * @throws IOException
+	 */
+	public void open(File file, String charsetName) throws IOException {
+		close();
+		Charset charset = Charset.forName(charsetName);
+		int encoding = encodingOf(charset);
+		if (decoder == null || !decoder.charset().equals(charset)) {
+			decoder = charset.newDecoder();
+		} else {
+			decoder.reset();
+		}
+		this.encoding = encoding;
+		in = new FileInputStream(file);
+		channel = in.getChannel();
+		fileSize = channel.size();
+		window = null;
+		windowStart = 0;
+		decodedBytes = 0;
+		eof = false;
+		charBase = 0;
+		origin = 0;
+		dissected = 0;
+		beef.set(0, 0);
+		tokenCollector.clear();
+	}
+
+	public void close() throws IOException {
+		window = null;
+		channel = null;
+		if (in != null) {
+			try {
+				in.close();
+			} finally {
+				in = null;
+			}
+		}
+	}
+
+	/**
+	 * 移到下一个词语
+	 *
+	 * @return 文件已经切分完毕时返回false
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		while (!tokenCollector.hasNext()) {
+			int remainning = -1;
+			if (dissected >= beef.length()) {
+				remainning = 0;
+			} else if (dissected < 0) {
+				remainning = beef.length() + dissected;
+			}
+			if (remainning >= 0) {
+				int dropped = Math.abs(dissected);
+				if (remainning > 0) {
+					System.arraycopy(buffer, dropped, buffer, 0, remainning);
+					System.arraycopy(byteStarts, dropped, byteStarts, 0,
+							remainning);
+				}
+				charBase += dropped;
+				if (charBase - origin > REBASE_THRESHOLD) {
+					tokenCollector.rebase((int) (charBase - origin));
+					origin = charBase;
+				}
+				int charCount = decode(remainning);
+				if (charCount == 0) {
+					return false;
+				}
+				normalizer.normalize(buffer, remainning, charCount);
+				if (charCount < buffer.length) {
+					buffer[charCount++] = 0;
+					byteStarts[charCount] = decodedBytes;
+				}
+				beef.set(0, charCount);
+				dissected = 0;
+			}
+			dissected = knife.dissect(this, beef, dissected);
+			tokenCollector.flip();
+		}
+		tokenCollector.next();
+		return true;
+	}
+
+	// -------------------------------------------------
+
+	public char[] termBuffer() {
+		return tokenCollector.termBuffer();
+	}
+
+	public int termOffset() {
+		return tokenCollector.termOffset();
+	}
+
+	public int termLength() {
+		return tokenCollector.termLength();
+	}
+
+	public String term() {
+		return new String(termBuffer(), termOffset(), termLength());
+	}
+
+	/**
+	 * 词语在文件中的开始字符位置
+	 */
+	public long startOffset() {
+		return origin + tokenCollector.startOffset();
+	}
+
+	/**
+	 * 词语在文件中的结束字符位置
+	 */
+	public long endOffset() {
+		return origin + tokenCollector.endOffset();
+	}
+
+	/**
+	 * 词语在文件中的开始字节位置
+	 */
+	public long startByte() {
+		return byteStarts[(int) (startOffset() - charBase)];
+	}
+
+	/**
+	 * 词语在文件中的结束字节位置
+	 */
+	public long endByte() {
+		return byteStarts[(int) (endOffset() - charBase)];
+	}
+
+	// -------------------------------------------------
+
+	public void collect(String word, int offset, int end) {
+		int base = (int) (charBase - origin);
+		tokenCollector.collect(word, base + offset, base + end);
+	}
+
+	public void collect(char[] chars, int start, int offset, int end) {
+		int base = (int) (charBase - origin);
+		tokenCollector.collect(chars, start, base + offset, base + end);
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 从buffer[charCount]开始解码，直到buffer满或文件结束，并记录每个字符的字节位置
+	 *
+	 * @return buffer中的字符总数
+	 */
+	private int decode(int charCount) throws IOException {
+		out.limit(buffer.length).position(charCount);
+		while (out.hasRemaining() && !eof) {
+			if (window == null || !window.hasRemaining()) {
+				map();
+			}
+			boolean endOfInput = windowStart + window.limit() == fileSize;
+			int from = out.position();
+			CoderResult result = decoder.decode(window, out, endOfInput);
+			if (endOfInput && result.isUnderflow()) {
+				result = decoder.flush(out);
+				if (result.isUnderflow()) {
+					eof = true;
+				}
+			}
+			measure(from, out.position());
+			if (result.isError()) {
+				if (!out.hasRemaining()) {
+					break;
+				}
+				// 与InputStreamReader一样，以替换字符代替不能解码的字节
+				int length = result.length();
+				window.position(window.position() + length);
+				byteStarts[out.position()] = decodedBytes;
+				out.put(decoder.replacement().charAt(0));
+				decodedBytes += length;
+			} else if (result.isUnderflow() && !eof && window.hasRemaining()) {
+				// 窗口末尾是不完整的字节序列，从它开始映射下一个窗口
+				map();
+			}
+		}
+		charCount = out.position();
+		byteStarts[charCount] = decodedBytes;
+		return charCount;
+	}
+
+	/**
+	 * 从已经解码的字节位置开始映射下一个窗口
+	 */
+	private void map() throws IOException {
+		long position = window == null ? 0 : windowStart + window.position();
+		long size = Math.min(windowSize, fileSize - position);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+		windowStart = position;
+	}
+
+	/**
+	 * 由解码出的字符[from, to)推算它们的字节位置
+	 */
+	private void measure(int from, int to) throws IOException {
+		long bytes = decodedBytes;
+		for (int i = from; i < to; i++) {
+			byteStarts[i] = bytes;
+			char ch = buffer[i];
+			if (ch < 0x80 || encoding == SINGLE_BYTE) {
+				bytes++;
+			} else if (encoding == DOUBLE_BYTE || ch < 0x800
+					|| Character.isSurrogate(ch)) {
+				bytes += 2;
+			} else {
+				bytes += 3;
+			}
+		}
+		decodedBytes = bytes;
+		if (decodedBytes != windowStart + window.position()) {
+			throw new IOException("wrong byte offsets for charset "
+					+ decoder.charset() + ": " + decodedBytes + " != "
+					+ (windowStart + window.position()));
+		}
+	}
+
+	private static int encodingOf(Charset charset) {
+		String name = charset.name();
+		if (name.equals("UTF-8")) {
+			return UTF_8;
+		}
+		if (name.equals("GBK") || name.equals("GB2312")) {
+			return DOUBLE_BYTE;
+		}
+		if (name.equals("US-ASCII") || name.equals("ISO-8859-1")) {
+			return SINGLE_BYTE;
+		}
+		throw new IllegalArgumentException("unsupported charset: " + name);
+	}
+}
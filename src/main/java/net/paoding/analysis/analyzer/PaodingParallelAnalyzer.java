@@ -0,0 +1,294 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import net.paoding.analysis.knife.CharNormalizer;
+import net.paoding.analysis.knife.CharSet;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.KnifeBox;
+
+/**
+ * 并行切分很长的文本：在安全的分界处把文本分成若干块，在ForkJoinPool中并行切分各块，再按偏移顺序合并切分出的词语。
+ * <p>
+ * 分界字符是空白以及句子、分句的结束标点(。！？；，、)，且(规范化后)没有Knife接受以它开始的词语：
+ * Knife切分到这些字符就会停下，词语不会跨越它们，所以各块单独切分的结果依次连接起来，
+ * 与缓冲区能够容纳整个文本的{@link PaodingTokenizer}顺序切分的结果完全一致(包括词语的偏移)。
+ * 找不到分界字符的文本(或者knife不是可以按字符类别判断的{@link KnifeBox})作为一块切分。
+ * <p>
+ * PaodingParallelAnalyzer创建后可以在多个线程中共用。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingTokenizer
+ * @see TokenCache.Tokens
+ *
+ * @since 2.0.4
+ */
+public class PaodingParallelAnalyzer {
+
+	/**
+	 * 默认的块长度(字符数)
+	 */
+	public static final int DEFAULT_CHUNK_LENGTH = 16 * 1024;
+
+	/**
+	 * 可以作为分界的字符(规范化后)，此外还有所有的空白字符
+	 */
+	private static final String BOUNDARIES = "。!?;,、";
+
+	// -------------------------------------------------
+
+	private final Knife knife;
+
+	/**
+	 * @see PaodingAnalyzerBean#MOST_WORDS_MODE
+	 * @see PaodingAnalyzerBean#MAX_WORD_LENGTH_MODE
+	 */
+	private final int mode;
+
+	private CharNormalizer normalizer = CharNormalizer.DEFAULT;
+
+	private int chunkLength = DEFAULT_CHUNK_LENGTH;
+
+	/**
+	 * null表示使用{@link ForkJoinPool#commonPool()}
+	 */
+	private ForkJoinPool pool;
+
+	// -------------------------------------------------
+
+	/**
+	 *
+	 * @param knife
+	 * @param mode
+	 *            {@link PaodingAnalyzerBean#MOST_WORDS_MODE}或
+	 *            {@link PaodingAnalyzerBean#MAX_WORD_LENGTH_MODE}
+	 */
+	public PaodingParallelAnalyzer(Knife knife, int mode) {
+		if (knife == null) {
+			throw new NullPointerException("knife");
+		}
+		TokensDissector.checkMode(mode);
+		this.knife = knife;
+		this.mode = mode;
+	}
+
+	// -------------------------------------------------
+
+	public Knife getKnife() {
+		return knife;
+	}
+
+	public int getMode() {
+		return mode;
+	}
+
+	public CharNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	/**
+	 * 设置对文本字符的规范化，应与顺序切分所用的一致，默认为{@link CharNormalizer#DEFAULT}
+	 */
+	public void setNormalizer(CharNormalizer normalizer) {
+		if (normalizer == null) {
+			throw new NullPointerException("normalizer");
+		}
+		this.normalizer = normalizer;
+	}
+
+	public int getChunkLength() {
+		return chunkLength;
+	}
+
+	/**
+	 * 设置每块的最小长度(字符数)，块在此长度之后的第一个分界字符处结束；默认为16K
+	 */
+	public void setChunkLength(int chunkLength) {
+		if (chunkLength <= 0) {
+			throw new IllegalArgumentException("chunkLength should be > 0: "
+					+ chunkLength);
+		}
+		this.chunkLength = chunkLength;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * 设置并行切分所用的ForkJoinPool，null表示使用{@link ForkJoinPool#commonPool()}(默认)
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 切分文本，返回按偏移顺序排列的全部词语
+	 *
+	 * @param text
+	 * @return
+	 */
+	public TokenCache.Tokens analyze(CharSequence text) {
+		int[] ends = split(text);
+		TokenCache.Tokens[] results = new TokenCache.Tokens[ends.length];
+		if (ends.length == 1) {
+			results[0] = dissect(text, 0, ends[0]);
+		} else {
+			ForkJoinPool pool = this.pool == null ? ForkJoinPool.commonPool()
+					: this.pool;
+			pool.invoke(new ChunkTask(text, ends, results, 0, ends.length));
+		}
+		if (results.length == 1) {
+			return results[0];
+		}
+		TokenCache.Builder builder = new TokenCache.Builder();
+		for (int i = 0; i < results.length; i++) {
+			TokenCache.Tokens tokens = results[i];
+			for (int j = 0; j < tokens.size(); j++) {
+				builder.add(tokens.termBuffer(), tokens.termOffset(j), tokens
+						.termLength(j), tokens.startOffset(j), tokens
+						.endOffset(j));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * 以内存映射读入文件并切分，返回按偏移(字符)顺序排列的全部词语。
+	 * <p>
+	 * 文件整个映射并解码后切分，不能大于2G字节；不能解码的字节以替换字符代替，与InputStreamReader相同。
+	 *
+	 * @param file
+	 * @param charsetName
+	 *            文件编码
+	 * @return
+	 * @throws IOException
+	 */
+	public TokenCache.Tokens analyze(File file, String charsetName)
+			throws IOException {
+		CharBuffer text;
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY,
+					0, channel.size());
+			CharsetDecoder decoder = Charset.forName(charsetName).newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			text = decoder.decode(bytes);
+		} finally {
+			in.close();
+		}
+		return analyze(text);
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 把文本分块，返回各块的结束位置；没有分界字符的文本作为一块
+	 */
+	private int[] split(CharSequence text) {
+		final int length = text.length();
+		List<Integer> ends = new ArrayList<Integer>();
+		if (knife instanceof KnifeBox) {
+			KnifeBox box = (KnifeBox) knife;
+			int end = chunkLength;
+			while (end < length) {
+				if (isBoundary(box, normalizer.normalize(text.charAt(end - 1)))) {
+					ends.add(end);
+					end += chunkLength;
+				} else {
+					end++;
+				}
+			}
+		}
+		int[] result = new int[ends.size() + 1];
+		for (int i = 0; i < ends.size(); i++) {
+			result[i] = ends.get(i);
+		}
+		result[ends.size()] = length;
+		return result;
+	}
+
+	private static boolean isBoundary(KnifeBox box, char ch) {
+		return (Character.isWhitespace(ch) || BOUNDARIES.indexOf(ch) != -1)
+				&& CharSet.charClass(ch) == CharSet.SEPARATOR
+				&& !box.isAssignable(ch);
+	}
+
+	private TokenCache.Tokens dissect(CharSequence text, int start, int end) {
+		return new TokensDissector(knife, mode, normalizer).dissect(text,
+				start, end);
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 切分[from, to)的块，多于一块时分成两半并行切分
+	 */
+	private class ChunkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final CharSequence text;
+
+		private final int[] ends;
+
+		private final TokenCache.Tokens[] results;
+
+		private final int from;
+
+		private final int to;
+
+		ChunkTask(CharSequence text, int[] ends, TokenCache.Tokens[] results,
+				int from, int to) {
+			this.text = text;
+			this.ends = ends;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (to - from == 1) {
+				results[from] = dissect(text, from == 0 ? 0 : ends[from - 1],
+						ends[from]);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new ChunkTask(text, ends, results, from, middle),
+					new ChunkTask(text, ends, results, middle, to));
+		}
+	}
+}
@@ -21,9 +21,13 @@ import java.util.Iterator;
 
 import net.paoding.analysis.analyzer.impl.MostWordsTokenCollector;
 import net.paoding.analysis.knife.Beef;
+import net.paoding.analysis.knife.CharNormalizer;
 import net.paoding.analysis.knife.Collector;
 import net.paoding.analysis.knife.Knife;
 import net.paoding.analysis.knife.Paoding;
+import net.paoding.analysis.metrics.Counter;
+import net.paoding.analysis.metrics.Histogram;
+import net.paoding.analysis.metrics.Metrics;
 import org.apache.lucene.analysis.Token;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
@@ -46,6 +50,7 @@ import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
  * @see TokenCollector
  * @see net.paoding.analysis.analyzer.impl.MaxWordLengthTokenCollector
  * @see MostWordsTokenCollector
+ * @see ArrayTokenCollector
  * 
  * @since 1.0
  */
@@ -59,16 +64,23 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 	private int inputLength;
 
 	/**
+	 * 默认的缓冲区长度
+	 */
+	public static final int DEFAULT_BUFFER_LENGTH = 128;
+
+	/**
+	 * 缓冲区自适应增长的最大长度；不大于当前缓冲区长度时表示缓冲区长度固定
 	 * 
+	 * @see #incrementToken()
 	 */
-	private static final int bufferLength = 128;
+	private final int maxBufferLength;
 
 	/**
 	 * 接收来自{@link #input}的文本字符
 	 * 
 	 * @see #incrementToken()
 	 */
-	protected final char[] buffer = new char[bufferLength];
+	private char[] buffer;
 
 	/**
 	 * {@link #buffer}[0]在{@link #input}中的偏移
@@ -81,7 +93,7 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 	/**
 	 * 
 	 */
-	private final Beef beef = new Beef(buffer, 0, 0);
+	private Beef beef;
 
 	/**
 	 * 
@@ -95,6 +107,13 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 	 */
 	private Knife knife;
 
+	/**
+	 * 规范化每次从input新读入的字符，knife从beef读取的都是规范化后的字符
+	 * 
+	 * @see #incrementToken()
+	 */
+	private CharNormalizer normalizer = CharNormalizer.DEFAULT;
+
 	/**
 	 * 切分句子后在这里保存所有的词
 	 */
@@ -108,6 +127,63 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 	 */
 	private Iterator<Token> tokenIteractor;
 
+	/**
+	 * tokenCollector是ArrayTokenCollector时即为它，此时直接从中读取词语而不使用{@link #tokenIteractor}
+	 * 
+	 * @see #incrementToken()
+	 */
+	private ArrayTokenCollector arrayCollector;
+
+	/**
+	 * 短文本的切分结果缓存，null表示不使用缓存
+	 * 
+	 * @see #probe()
+	 */
+	private TokenCache tokenCache;
+
+	/**
+	 * 为判断输入是否足够短而预先从input读出的字符；切分时先于input读入
+	 * 
+	 * @see #read(char[], int, int)
+	 */
+	private char[] pending;
+
+	private int pendingOffset;
+
+	private int pendingLength;
+
+	/**
+	 * 本次输入是否已经尝试过缓存
+	 */
+	private boolean probed;
+
+	/**
+	 * 本次输入在缓存中命中时，依次重放的词语
+	 */
+	private TokenCache.Tokens replay;
+
+	private int replayIndex;
+
+	/**
+	 * 本次输入未命中缓存但足够短时，记录切分出的词语，在输入结束时放入缓存
+	 */
+	private TokenCache.Builder recorder;
+
+	private String recordingText;
+
+	private long recordingEpoch;
+
+	/**
+	 * 每次从input读入字符的耗时(纳秒)、读入的字符数以及每批收集的词语数，为null表示不度量
+	 * 
+	 * @see #setMetrics(Metrics)
+	 */
+	private Histogram refillNanos;
+
+	private Counter refillChars;
+
+	private Histogram flushTokens;
+
 	private CharTermAttribute termAtt;
 	private OffsetAttribute offsetAtt;
     private PositionIncrementAttribute positionIncrementAttribute;
@@ -122,9 +198,32 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 	 */
 	public PaodingTokenizer(Reader input, Knife knife,
 			TokenCollector tokenCollector) {
+		this(input, knife, tokenCollector, DEFAULT_BUFFER_LENGTH, 0);
+	}
+
+	/**
+	 * 
+	 * @param input
+	 * @param knife
+	 * @param tokenCollector
+	 * @param bufferLength
+	 *            缓冲区的初始长度
+	 * @param maxBufferLength
+	 *            输入的文本较长时，缓冲区可以加倍增长到的最大长度；不大于bufferLength表示缓冲区长度固定
+	 */
+	public PaodingTokenizer(Reader input, Knife knife,
+			TokenCollector tokenCollector, int bufferLength,
+			int maxBufferLength) {
 		super(input);
+		if (bufferLength < 2) {
+			throw new IllegalArgumentException("bufferLength should be >= 2: "
+					+ bufferLength);
+		}
 		this.knife = knife;
-		this.tokenCollector = tokenCollector;
+		setTokenCollector(tokenCollector);
+		this.buffer = new char[bufferLength];
+		this.beef = new Beef(buffer, 0, 0);
+		this.maxBufferLength = maxBufferLength;
 		init();
 	}
 	
@@ -138,12 +237,57 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 
 	// -------------------------------------------------
 
+	public CharNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	public void setNormalizer(CharNormalizer normalizer) {
+		this.normalizer = normalizer;
+	}
+
+	public TokenCache getTokenCache() {
+		return tokenCache;
+	}
+
+	/**
+	 * 设置短文本的切分结果缓存；从下一次reset开始生效
+	 * 
+	 * @param tokenCache
+	 *            null表示不使用缓存
+	 */
+	public void setTokenCache(TokenCache tokenCache) {
+		this.tokenCache = tokenCache;
+		this.pending = tokenCache == null ? null
+				: new char[tokenCache.getMaxLength() + 1];
+	}
+
+	/**
+	 * 设置度量：记录每次从input读入字符的耗时和字符数(tokenizer.refill、tokenizer.refill.chars)，
+	 * 以及每批收集的词语数(collector.flush，仅对ArrayTokenCollector)
+	 * 
+	 * @param metrics
+	 *            null表示不度量(默认)
+	 */
+	public void setMetrics(Metrics metrics) {
+		if (metrics == null) {
+			refillNanos = null;
+			refillChars = null;
+			flushTokens = null;
+		} else {
+			refillNanos = metrics.histogram("tokenizer.refill");
+			refillChars = metrics.counter("tokenizer.refill.chars");
+			flushTokens = metrics.histogram("collector.flush");
+		}
+	}
+
 	public TokenCollector getTokenCollector() {
 		return tokenCollector;
 	}
 
 	public void setTokenCollector(TokenCollector tokenCollector) {
 		this.tokenCollector = tokenCollector;
+		this.arrayCollector = tokenCollector instanceof ArrayTokenCollector
+				? (ArrayTokenCollector) tokenCollector : null;
 	}
 
 	// -------------------------------------------------
@@ -152,6 +296,11 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 		tokenCollector.collect(word, this.offset + offset, this.offset + end);
 	}
 
+	public void collect(char[] chars, int start, int offset, int end) {
+		tokenCollector.collect(chars, start, this.offset + offset, this.offset
+				+ end);
+	}
+
 	// -------------------------------------------------
 	public int getInputLength() {
 		return inputLength;
@@ -160,29 +309,67 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 	@Override
 	public boolean incrementToken() throws IOException {
         clearAttributes();
+		if (!probed) {
+			probed = true;
+			if (tokenCache != null) {
+				probe();
+			}
+		}
+		if (replay != null) {
+			return replayNext();
+		}
 		// 已经穷尽tokensIteractor的Token对象，则继续请求reader流入数据
-		while (tokenIteractor == null || !tokenIteractor.hasNext()) {
+		while (!hasNextToken()) {
 			// System.out.println(dissected);
-			int read = 0;
 			int remainning = -1;// 重新从reader读入字符前，buffer中还剩下的字符数，负数表示当前暂不需要从reader中读入字符
 			if (dissected >= beef.length()) {
 				remainning = 0;
 			} else if (dissected < 0) {
-				remainning = bufferLength + dissected;
+				remainning = beef.length() + dissected;
 			}
 			if (remainning >= 0) {
+				// 上次读入已经填满缓冲区说明文本较长，加倍缓冲区以减少读入和重新切分的次数
+				char[] target = buffer;
+				if (beef.length() == buffer.length
+						&& buffer.length < maxBufferLength) {
+					target = new char[Math.min(maxBufferLength,
+							buffer.length << 1)];
+				}
 				if (remainning > 0) {
-					System.arraycopy(buffer, -dissected, buffer, 0, remainning);
+					System.arraycopy(buffer, -dissected, target, 0, remainning);
+				}
+				if (target != buffer) {
+					buffer = target;
+					beef = new Beef(buffer, 0, 0);
+				}
+				// 一直读到缓冲区满或reader已尽，不能把reader一次读入较少的字符当作文本结束
+				long start = refillNanos == null ? 0 : System.nanoTime();
+				int charCount = remainning;
+				int read;
+				while (charCount < buffer.length
+						&& (read = read(buffer, charCount, buffer.length
+								- charCount)) != -1) {
+					charCount += read;
+					inputLength += read;
 				}
-				read = input.read(buffer, remainning, bufferLength - remainning);
-                if (read > 0)
-				    inputLength += read;
-				int charCount = remainning + read;
-				if (charCount < 0) {
+				if (refillNanos != null) {
+					refillNanos.record(System.nanoTime() - start);
+					refillChars.add(charCount - remainning);
+				}
+				if (charCount == 0) {
 					// reader已尽，按接口next()要求返回null.
+					if (recorder != null) {
+						tokenCache.put(tokenCollector.getClass(),
+								recordingText, recorder.build(),
+								recordingEpoch);
+						recorder = null;
+						recordingText = null;
+					}
 					return false;
 				}
-				if (charCount < bufferLength) {
+				// 剩下的字符已经规范化过，只需规范化新读入的
+				normalizer.normalize(buffer, remainning, charCount);
+				if (charCount < buffer.length) {
 					buffer[charCount++] = 0;
 				}
 				// 构造“牛”，并使用knife“解”之
@@ -193,30 +380,132 @@ public final class PaodingTokenizer extends Tokenizer implements Collector {
 			}
 			dissected = knife.dissect(this, beef, dissected);
 			// offset += read;// !!!
-			tokenIteractor = tokenCollector.iterator();
+			if (arrayCollector != null) {
+				arrayCollector.flip();
+				if (flushTokens != null) {
+					flushTokens.record(arrayCollector.size());
+				}
+			} else {
+				tokenIteractor = tokenCollector.iterator();
+			}
 		}
 
+		if (arrayCollector != null) {
+			// 直接从arrayCollector的字符区复制词语，不经过Token对象
+			arrayCollector.next();
+			termAtt.copyBuffer(arrayCollector.termBuffer(),
+					arrayCollector.termOffset(), arrayCollector.termLength());
+			offsetAtt.setOffset(correctOffset(arrayCollector.startOffset()),
+					correctOffset(arrayCollector.endOffset()));
+			positionIncrementAttribute.setPositionIncrement(1);
+			if (recorder != null) {
+				recorder.add(arrayCollector.termBuffer(),
+						arrayCollector.termOffset(),
+						arrayCollector.termLength(),
+						arrayCollector.startOffset(),
+						arrayCollector.endOffset());
+			}
+			return true;
+		}
         if(tokenIteractor.hasNext()) {
             // 返回tokensIteractor下一个Token对象
             Token token = tokenIteractor.next();
-            termAtt.setEmpty();
-            termAtt.append(token);
+            termAtt.copyBuffer(token.buffer(), 0, token.length());
             offsetAtt.setOffset(correctOffset(token.startOffset()),
                     correctOffset(token.endOffset()));
             positionIncrementAttribute.setPositionIncrement(1);
+			if (recorder != null) {
+				recorder.add(token.buffer(), 0, token.length(),
+						token.startOffset(), token.endOffset());
+			}
             return true;
         }
 		return tokenIteractor.hasNext();
 	}
 
+	/**
+	 * 预先从input读出至多maxLength+1个字符：input在maxLength之内结束时，以这段文本查询缓存，
+	 * 命中则准备重放，否则准备记录切分出的词语；读出的字符都留待切分时使用
+	 */
+	private void probe() throws IOException {
+		int maxLength = tokenCache.getMaxLength();
+		int count = 0;
+		int read;
+		while (count <= maxLength
+				&& (read = input.read(pending, count, maxLength + 1 - count)) != -1) {
+			count += read;
+		}
+		pendingOffset = 0;
+		pendingLength = count;
+		if (count > maxLength) {
+			return;
+		}
+		String text = new String(pending, 0, count);
+		long epoch = tokenCache.getEpoch();
+		TokenCache.Tokens tokens = tokenCache.get(tokenCollector.getClass(),
+				text);
+		if (tokens != null) {
+			replay = tokens;
+			replayIndex = 0;
+			pendingLength = 0;
+			inputLength = count;
+		} else {
+			recorder = new TokenCache.Builder();
+			recordingText = text;
+			recordingEpoch = epoch;
+		}
+	}
+
+	private boolean replayNext() {
+		if (replayIndex >= replay.size()) {
+			return false;
+		}
+		int i = replayIndex++;
+		termAtt.copyBuffer(replay.termBuffer(), replay.termOffset(i), replay
+				.termLength(i));
+		offsetAtt.setOffset(correctOffset(replay.startOffset(i)),
+				correctOffset(replay.endOffset(i)));
+		positionIncrementAttribute.setPositionIncrement(1);
+		return true;
+	}
+
+	/**
+	 * 先读出{@link #probe()}预先读出的字符，再从input读入
+	 */
+	private int read(char[] cbuf, int off, int len) throws IOException {
+		if (pendingOffset < pendingLength) {
+			int n = Math.min(len, pendingLength - pendingOffset);
+			System.arraycopy(pending, pendingOffset, cbuf, off, n);
+			pendingOffset += n;
+			return n;
+		}
+		return input.read(cbuf, off, len);
+	}
+
+	private boolean hasNextToken() {
+		if (arrayCollector != null) {
+			return arrayCollector.hasNext();
+		}
+		return tokenIteractor != null && tokenIteractor.hasNext();
+	}
+
     @Override
 	public void reset() throws IOException {
 		super.reset();
 		offset = 0;
 		inputLength = 0;
         tokenIteractor = null;
+		if (arrayCollector != null) {
+			arrayCollector.clear();
+		}
         dissected = 0;
         beef.set(0, 0);
+		probed = false;
+		pendingOffset = 0;
+		pendingLength = 0;
+		replay = null;
+		recorder = null;
+		recordingText = null;
 	}
 
     @Override
@@ -0,0 +1,440 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.paoding.analysis.knife.AtomicDictionaries;
+
+/**
+ * 短文本的切分结果缓存：以(模式, 文本)为key，缓存{@link PaodingTokenizer}切分出的全部词语及其偏移。
+ * <p>
+ * 适用于检索端同样的查询串被反复分析的场景。只有不长于maxLength的输入才会被缓存，
+ * 命中时PaodingTokenizer直接重放缓存的词语，不再经过Knife切分。
+ * <p>
+ * 缓存分为若干段，每段是一个分段LRU(SLRU)：新放入的词语先进入试用区，再次命中后才进入保护区，
+ * 只出现一次的文本不会把反复出现的文本挤出缓存。
+ * <p>
+ * 字典热替换后({@link AtomicDictionaries#getPublications()}变化)，此前缓存的切分结果全部失效。
+ * <p>
+ * 同一个TokenCache只应该被使用相同Knife和CharNormalizer的分析器共用。
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingTokenizer
+ * @see PaodingAnalyzerBean#setTokenCache(TokenCache)
+ *
+ * @since 2.0.4
+ */
+public class TokenCache {
+
+	/**
+	 * 保护区占每段容量的比例
+	 */
+	private static final float PROTECTED_RATIO = 0.8f;
+
+	private static final int MAX_SEGMENTS = 16;
+
+	// -------------------------------------------------
+
+	private final Segment[] segments;
+
+	private final int capacity;
+
+	private final int maxLength;
+
+	// -------------------------------------------------
+
+	/**
+	 *
+	 * @param capacity
+	 *            最多缓存的文本个数
+	 * @param maxLength
+	 *            可以被缓存的文本的最大长度(字符数)
+	 */
+	public TokenCache(int capacity, int maxLength) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity should be > 0: "
+					+ capacity);
+		}
+		if (maxLength <= 0) {
+			throw new IllegalArgumentException("maxLength should be > 0: "
+					+ maxLength);
+		}
+		this.capacity = capacity;
+		this.maxLength = maxLength;
+		int count = 1;
+		while (count < MAX_SEGMENTS && count * 64 < capacity) {
+			count <<= 1;
+		}
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment((capacity + count - 1) / count);
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 当前的字典版本，应该在切分之前读取，并在放入切分结果时一并给出
+	 */
+	public long getEpoch() {
+		return AtomicDictionaries.getPublications();
+	}
+
+	/**
+	 * 取得文本在给定模式下缓存的切分结果，没有缓存或已经失效时返回null
+	 *
+	 * @param mode
+	 *            切分模式，如TokenCollector的类
+	 * @param text
+	 */
+	public Tokens get(Object mode, String text) {
+		Key key = new Key(mode, text);
+		return segmentFor(key).get(key, getEpoch());
+	}
+
+	/**
+	 * 缓存文本在给定模式下的切分结果
+	 *
+	 * @param epoch
+	 *            切分之前由{@link #getEpoch()}取得的字典版本
+	 */
+	public void put(Object mode, String text, Tokens tokens, long epoch) {
+		if (text.length() > maxLength) {
+			return;
+		}
+		Key key = new Key(mode, text);
+		segmentFor(key).put(key, new Entry(tokens, epoch), getEpoch());
+	}
+
+	public void clear() {
+		for (int i = 0; i < segments.length; i++) {
+			segments[i].clear();
+		}
+	}
+
+	// -------------------------------------------------
+
+	public int size() {
+		long epoch = getEpoch();
+		int size = 0;
+		for (int i = 0; i < segments.length; i++) {
+			size += segments[i].size(epoch);
+		}
+		return size;
+	}
+
+	public long getHitCount() {
+		long count = 0;
+		for (int i = 0; i < segments.length; i++) {
+			count += segments[i].hits;
+		}
+		return count;
+	}
+
+	public long getMissCount() {
+		long count = 0;
+		for (int i = 0; i < segments.length; i++) {
+			count += segments[i].misses;
+		}
+		return count;
+	}
+
+	public long getEvictionCount() {
+		long count = 0;
+		for (int i = 0; i < segments.length; i++) {
+			count += segments[i].evictions;
+		}
+		return count;
+	}
+
+	public double getHitRate() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	public String toString() {
+		return "TokenCache[size=" + size() + "/" + capacity + ", hits="
+				+ getHitCount() + ", misses=" + getMissCount()
+				+ ", evictions=" + getEvictionCount() + "]";
+	}
+
+	// -------------------------------------------------
+
+	private Segment segmentFor(Key key) {
+		int h = key.hash;
+		h ^= (h >>> 16);
+		return segments[h & (segments.length - 1)];
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 一段文本切分出的全部词语：词语的字符依次连续存放在一个数组中
+	 */
+	public static final class Tokens {
+
+		private final char[] chars;
+
+		/**
+		 * 第i个词语的字符在chars中的结束位置，开始位置为第i-1个的结束位置
+		 */
+		private final int[] termEnds;
+
+		private final int[] startOffsets;
+
+		private final int[] endOffsets;
+
+		private Tokens(char[] chars, int[] termEnds, int[] startOffsets,
+				int[] endOffsets) {
+			this.chars = chars;
+			this.termEnds = termEnds;
+			this.startOffsets = startOffsets;
+			this.endOffsets = endOffsets;
+		}
+
+		public int size() {
+			return termEnds.length;
+		}
+
+		public char[] termBuffer() {
+			return chars;
+		}
+
+		public int termOffset(int i) {
+			return i == 0 ? 0 : termEnds[i - 1];
+		}
+
+		public int termLength(int i) {
+			return termEnds[i] - termOffset(i);
+		}
+
+		public int startOffset(int i) {
+			return startOffsets[i];
+		}
+
+		public int endOffset(int i) {
+			return endOffsets[i];
+		}
+	}
+
+	/**
+	 * 依次加入切分出的词语，最后以{@link #build()}得到紧凑的{@link Tokens}
+	 */
+	public static final class Builder {
+
+		private char[] chars = new char[32];
+		private int[] termEnds = new int[8];
+		private int[] startOffsets = new int[8];
+		private int[] endOffsets = new int[8];
+		private int charCount;
+		private int size;
+
+		public void add(char[] term, int offset, int length, int startOffset,
+				int endOffset) {
+			if (charCount + length > chars.length) {
+				chars = Arrays.copyOf(chars, Math.max(chars.length << 1,
+						charCount + length));
+			}
+			if (size == termEnds.length) {
+				termEnds = Arrays.copyOf(termEnds, size << 1);
+				startOffsets = Arrays.copyOf(startOffsets, size << 1);
+				endOffsets = Arrays.copyOf(endOffsets, size << 1);
+			}
+			System.arraycopy(term, offset, chars, charCount, length);
+			charCount += length;
+			termEnds[size] = charCount;
+			startOffsets[size] = startOffset;
+			endOffsets[size] = endOffset;
+			size++;
+		}
+
+		/**
+		 * 清除已加入的词语，以便重复使用本Builder
+		 */
+		public void clear() {
+			charCount = 0;
+			size = 0;
+		}
+
+		public Tokens build() {
+			return new Tokens(Arrays.copyOf(chars, charCount), Arrays.copyOf(
+					termEnds, size), Arrays.copyOf(startOffsets, size), Arrays
+					.copyOf(endOffsets, size));
+		}
+	}
+
+	// -------------------------------------------------
+
+	private static final class Key {
+
+		private final Object mode;
+		private final String text;
+		private final int hash;
+
+		private Key(Object mode, String text) {
+			this.mode = mode;
+			this.text = text;
+			this.hash = text.hashCode() * 31 + mode.hashCode();
+		}
+
+		public int hashCode() {
+			return hash;
+		}
+
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && text.equals(other.text)
+					&& mode.equals(other.mode);
+		}
+	}
+
+	private static final class Entry {
+
+		private final Tokens tokens;
+
+		private final long epoch;
+
+		private Entry(Tokens tokens, long epoch) {
+			this.tokens = tokens;
+			this.epoch = epoch;
+		}
+	}
+
+	/**
+	 * 分段LRU：试用区和保护区都是按访问顺序排列的LinkedHashMap
+	 */
+	private static final class Segment {
+
+		private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<Key, Entry>(
+				16, 0.75f, true);
+
+		private final LinkedHashMap<Key, Entry> protectedEntries = new LinkedHashMap<Key, Entry>(
+				16, 0.75f, true);
+
+		private final int probationCapacity;
+
+		private final int protectedCapacity;
+
+		/**
+		 * 段内缓存的都是这个字典版本的切分结果
+		 */
+		private long epoch;
+
+		private volatile long hits;
+		private volatile long misses;
+		private volatile long evictions;
+
+		private Segment(int capacity) {
+			this.protectedCapacity = (int) (capacity * PROTECTED_RATIO);
+			this.probationCapacity = Math.max(1, capacity - protectedCapacity);
+		}
+
+		synchronized Tokens get(Key key, long currentEpoch) {
+			checkEpoch(currentEpoch);
+			Entry entry = protectedEntries.get(key);
+			if (entry == null) {
+				entry = probation.remove(key);
+				if (entry != null) {
+					promote(key, entry);
+				}
+			}
+			if (entry == null) {
+				misses++;
+				return null;
+			}
+			hits++;
+			return entry.tokens;
+		}
+
+		synchronized void put(Key key, Entry entry, long currentEpoch) {
+			checkEpoch(currentEpoch);
+			if (entry.epoch != currentEpoch) {
+				// 切分期间字典已被替换
+				return;
+			}
+			if (protectedEntries.containsKey(key)) {
+				protectedEntries.put(key, entry);
+				return;
+			}
+			probation.put(key, entry);
+			evictProbation();
+		}
+
+		synchronized void clear() {
+			probation.clear();
+			protectedEntries.clear();
+		}
+
+		synchronized int size(long currentEpoch) {
+			checkEpoch(currentEpoch);
+			return probation.size() + protectedEntries.size();
+		}
+
+		private void checkEpoch(long currentEpoch) {
+			if (epoch != currentEpoch) {
+				probation.clear();
+				protectedEntries.clear();
+				epoch = currentEpoch;
+			}
+		}
+
+		private void promote(Key key, Entry entry) {
+			if (protectedCapacity == 0) {
+				probation.put(key, entry);
+				return;
+			}
+			protectedEntries.put(key, entry);
+			if (protectedEntries.size() > protectedCapacity) {
+				// 保护区最久未访问的降回试用区
+				Iterator<Map.Entry<Key, Entry>> iter = protectedEntries
+						.entrySet().iterator();
+				Map.Entry<Key, Entry> eldest = iter.next();
+				iter.remove();
+				probation.put(eldest.getKey(), eldest.getValue());
+				evictProbation();
+			}
+		}
+
+		private void evictProbation() {
+			while (probation.size() > probationCapacity) {
+				Iterator<Key> iter = probation.keySet().iterator();
+				iter.next();
+				iter.remove();
+				evictions++;
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer;
+
+import net.paoding.analysis.analyzer.impl.ArrayMaxWordLengthTokenCollector;
+import net.paoding.analysis.analyzer.impl.ArrayMostWordsTokenCollector;
+import net.paoding.analysis.knife.Beef;
+import net.paoding.analysis.knife.CharNormalizer;
+import net.paoding.analysis.knife.Collector;
+import net.paoding.analysis.knife.Knife;
+
+/**
+ * 不经过TokenStream，直接以Knife把一段完整的文本切分为{@link TokenCache.Tokens}。
+ * <p>
+ * 切分结果与{@link PaodingTokenizer}以一个容纳整段文本的缓冲区切分相同：文本规范化后在末尾加上'\0'表示结束，
+ * 每次knife切分之后取出本批词语。
+ * 缓冲区、Beef、TokenCollector以及Builder在多次切分之间重复使用，所以TokensDissector不能在多个线程中共用。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingParallelAnalyzer
+ * @see PaodingBatchAnalyzer
+ *
+ * @since 2.0.4
+ */
+final class TokensDissector implements Collector {
+
+	private final Knife knife;
+
+	private final CharNormalizer normalizer;
+
+	private final ArrayTokenCollector tokenCollector;
+
+	private final TokenCache.Builder builder = new TokenCache.Builder();
+
+	private char[] buffer = new char[PaodingTokenizer.DEFAULT_BUFFER_LENGTH];
+
+	private Beef beef = new Beef(buffer, 0, 0);
+
+	/**
+	 * 本次切分的文本在整个文本中的开始位置，加到词语的位置上
+	 */
+	private int base;
+
+	// -------------------------------------------------
+
+	/**
+	 *
+	 * @param knife
+	 * @param mode
+	 *            {@link PaodingAnalyzerBean#MOST_WORDS_MODE}或
+	 *            {@link PaodingAnalyzerBean#MAX_WORD_LENGTH_MODE}
+	 * @param normalizer
+	 */
+	TokensDissector(Knife knife, int mode, CharNormalizer normalizer) {
+		this.knife = knife;
+		this.normalizer = normalizer;
+		this.tokenCollector = mode == PaodingAnalyzerBean.MAX_WORD_LENGTH_MODE ? new ArrayMaxWordLengthTokenCollector()
+				: new ArrayMostWordsTokenCollector();
+	}
+
+	static void checkMode(int mode) {
+		if (mode != PaodingAnalyzerBean.MOST_WORDS_MODE
+				&& mode != PaodingAnalyzerBean.MAX_WORD_LENGTH_MODE) {
+			throw new IllegalArgumentException("wrong mode:" + mode);
+		}
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 切分文本中[start, end)的字符，词语的位置以text的开始为0
+	 */
+	TokenCache.Tokens dissect(CharSequence text, int start, int end) {
+		int count = end - start;
+		if (count + 1 > buffer.length) {
+			buffer = new char[Math.max(buffer.length << 1, count + 1)];
+			beef = new Beef(buffer, 0, 0);
+		}
+		if (text instanceof String) {
+			((String) text).getChars(start, end, buffer, 0);
+		} else {
+			for (int i = 0; i < count; i++) {
+				buffer[i] = text.charAt(start + i);
+			}
+		}
+		normalizer.normalize(buffer, 0, count);
+		buffer[count] = 0;
+		beef.set(0, count + 1);
+		base = start;
+		tokenCollector.clear();
+		builder.clear();
+		int dissected = 0;
+		while (dissected >= 0 && dissected < beef.length()) {
+			dissected = knife.dissect(this, beef, dissected);
+			tokenCollector.flip();
+			while (tokenCollector.hasNext()) {
+				tokenCollector.next();
+				builder.add(tokenCollector.termBuffer(), tokenCollector
+						.termOffset(), tokenCollector.termLength(),
+						tokenCollector.startOffset(), tokenCollector
+								.endOffset());
+			}
+		}
+		return builder.build();
+	}
+
+	// -------------------------------------------------
+
+	public void collect(String word, int offset, int end) {
+		tokenCollector.collect(word, base + offset, base + end);
+	}
+
+	public void collect(char[] chars, int start, int offset, int end) {
+		tokenCollector.collect(chars, start, base + offset, base + end);
+	}
+}
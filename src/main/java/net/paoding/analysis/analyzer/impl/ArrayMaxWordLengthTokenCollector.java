@@ -0,0 +1,185 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer.impl;
+
+import net.paoding.analysis.analyzer.ArrayTokenCollector;
+import net.paoding.analysis.knife.Collector;
+
+/**
+ * 最大词长切分模式的数组实现，选词规则与{@link MaxWordLengthTokenCollector}完全相同。
+ * <p>
+ * 候选词语记在一个可重复使用的小数组中(String词语只记住其引用)，被选中时才复制到字符区；
+ * 上一个选中的词语只保留开始、结束位置。
+ * <p>
+ *
+ * 与MaxWordLengthTokenCollector不同，{@link #clear()}会清除上一个选中的词语，
+ * 因此同一个实例切分下一个文本流时不会受上一个文本流的影响。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see MaxWordLengthTokenCollector
+ *
+ * @since 2.0.4
+ */
+public class ArrayMaxWordLengthTokenCollector extends ArrayTokenCollector {
+
+	// -------------------------------------------------
+
+	private boolean hasCandidate;
+
+	/**
+	 * 候选词语，为null时由candidateChars[0, candidateEnd - candidateOffset)给出
+	 */
+	private String candidateWord;
+
+	/**
+	 * 以字符数组给出的候选词语的副本；{@link Collector}不允许在collect返回后保留调用者的数组
+	 */
+	private char[] candidateChars = new char[16];
+
+	private int candidateOffset;
+
+	private int candidateEnd;
+
+	private boolean hasLast;
+
+	private int lastOffset;
+
+	private int lastEnd;
+
+	// -------------------------------------------------
+
+	public void collect(String word, int offset, int end) {
+		collect(word, null, 0, offset, end);
+	}
+
+	public void collect(char[] chars, int start, int offset, int end) {
+		collect(null, chars, start, offset, end);
+	}
+
+	public void clear() {
+		super.clear();
+		hasCandidate = false;
+		candidateWord = null;
+		hasLast = false;
+	}
+
+	// -------------------------------------------------
+
+	private void collect(String word, char[] chars, int start, int offset,
+			int end) {
+		ensureCollecting();
+		if (!hasCandidate && !hasLast) {
+			setCandidate(word, chars, start, offset, end);
+			return;
+		}
+		int cOffset = hasCandidate ? candidateOffset : lastOffset;
+		int cEnd = hasCandidate ? candidateEnd : lastEnd;
+		if (offset == cOffset) {
+			if (end > cEnd) {
+				setCandidate(word, chars, start, offset, end);
+			}
+		} else if (offset > cOffset) {
+			if (hasCandidate) {
+				select();
+			}
+			if (end > cEnd) {
+				setCandidate(word, chars, start, offset, end);
+			} else {
+				hasCandidate = false;
+			}
+		} else if (end >= cEnd) {
+			if (hasLast && lastOffset >= offset && lastEnd <= end) {
+				removeContained(offset, end);
+			}
+			hasLast = false;
+			setCandidate(word, chars, start, offset, end);
+		}
+	}
+
+	private void setCandidate(String word, char[] chars, int start,
+			int offset, int end) {
+		hasCandidate = true;
+		candidateWord = word;
+		if (word == null) {
+			int length = end - offset;
+			if (length > candidateChars.length) {
+				candidateChars = new char[Math.max(length,
+						candidateChars.length << 1)];
+			}
+			System.arraycopy(chars, start, candidateChars, 0, length);
+		}
+		candidateOffset = offset;
+		candidateEnd = end;
+	}
+
+	protected void rebased(int delta) {
+		candidateOffset -= delta;
+		candidateEnd -= delta;
+		lastOffset -= delta;
+		lastEnd -= delta;
+	}
+
+	protected void endBatch() {
+		if (hasCandidate) {
+			appendCandidate();
+			hasCandidate = false;
+		}
+	}
+
+	private void select() {
+		appendCandidate();
+		hasLast = true;
+		lastOffset = candidateOffset;
+		lastEnd = candidateEnd;
+	}
+
+	private void appendCandidate() {
+		// knife给出的String词语不一定与其位置范围等长(如中文数字转换后的阿拉伯数字)
+		int termLength;
+		int termStart;
+		if (candidateWord != null) {
+			termLength = candidateWord.length();
+			termStart = copyTerm(candidateWord);
+		} else {
+			termLength = candidateEnd - candidateOffset;
+			termStart = copyTerm(candidateChars, 0, termLength);
+		}
+		insert(size, candidateOffset, candidateEnd, termStart, termLength);
+		candidateWord = null;
+	}
+
+	/**
+	 * 删除本批中被[offset, end)包含的词语
+	 */
+	private void removeContained(int offset, int end) {
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (startOffsets[i] >= offset && endOffsets[i] <= end) {
+				continue;
+			}
+			if (n != i) {
+				startOffsets[n] = startOffsets[i];
+				endOffsets[n] = endOffsets[i];
+				termStarts[n] = termStarts[i];
+				termLengths[n] = termLengths[i];
+			}
+			n++;
+		}
+		size = n;
+	}
+}
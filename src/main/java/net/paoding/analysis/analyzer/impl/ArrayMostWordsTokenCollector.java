@@ -0,0 +1,69 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer.impl;
+
+import net.paoding.analysis.analyzer.ArrayTokenCollector;
+
+/**
+ * 最多切分模式的数组实现，输出与{@link MostWordsTokenCollector}完全相同。
+ * <p>
+ * 词语按结束位置升序、结束位置相同的按开始位置降序排列(简单/单单/简简单单/)；
+ * 新词语通常排在最后，否则从后往前找到插入位置，插入规则与MostWordsTokenCollector的链表插入一致。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see MostWordsTokenCollector
+ *
+ * @since 2.0.4
+ */
+public class ArrayMostWordsTokenCollector extends ArrayTokenCollector {
+
+	public void collect(String word, int begin, int end) {
+		ensureCollecting();
+		add(begin, end, copyTerm(word), word.length());
+	}
+
+	public void collect(char[] chars, int start, int begin, int end) {
+		ensureCollecting();
+		add(begin, end, copyTerm(chars, start, end - begin), end - begin);
+	}
+
+	private void add(int begin, int end, int termStart, int termLength) {
+		int index = size;
+		if (size > 0 && compare(begin, end, size - 1) <= 0) {
+			index = size - 2;
+			while (index >= 0 && compare(begin, end, index) < 0) {
+				index--;
+			}
+			index++;
+		}
+		insert(index, begin, end, termStart, termLength);
+	}
+
+	/**
+	 * 比较[begin, end)与第index个词语的先后
+	 */
+	private int compare(int begin, int end, int index) {
+		if (end > endOffsets[index]) {
+			return 1;
+		}
+		if (end == endOffsets[index]) {
+			return startOffsets[index] - begin;
+		}
+		return -1;
+	}
+}
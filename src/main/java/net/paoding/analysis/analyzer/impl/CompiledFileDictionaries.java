@@ -22,15 +22,20 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Map;
 
+import net.paoding.analysis.Constants;
 import net.paoding.analysis.dictionary.BinaryDictionary;
+import net.paoding.analysis.dictionary.CompactDictionary;
 import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.dictionary.DoubleArrayTrieDictionary;
 import net.paoding.analysis.dictionary.HashBinaryDictionary;
+import net.paoding.analysis.dictionary.MappedDictionary;
 import net.paoding.analysis.dictionary.Word;
 import net.paoding.analysis.dictionary.support.filewords.FileWordsReader;
 import net.paoding.analysis.exception.PaodingAnalysisException;
 import net.paoding.analysis.ext.PaodingAnalyzerListener;
 import net.paoding.analysis.knife.CJKKnife;
 import net.paoding.analysis.knife.Dictionaries;
+import net.paoding.analysis.knife.FileDictionaries;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +100,7 @@ public class CompiledFileDictionaries implements Dictionaries {
 	protected String combinatorics;
 	protected String charsetName;
 	protected int maxWordLen;
+	protected String vocabularyStructure = Constants.ANALYZER_DICTIONARIES_VOCABULARY_DEFAULT;
 
 	private PaodingAnalyzerListener listener = null;
 	// ----------------------
@@ -171,6 +177,49 @@ public class CompiledFileDictionaries implements Dictionaries {
 		this.maxWordLen = maxWordLen;
 	}
 
+	public String getVocabularyStructure() {
+		return vocabularyStructure;
+	}
+
+	/**
+	 * 设置词汇表字典的实现结构，参见{@link Constants#ANALYZER_DICTIONARIES_VOCABULARY}
+	 * 
+	 * @param vocabularyStructure
+	 *            "hash-binary"、"double-array-trie"、"compact"或"mapped"
+	 */
+	public void setVocabularyStructure(String vocabularyStructure) {
+		this.vocabularyStructure = vocabularyStructure;
+	}
+
+	/**
+	 * 源字典文件没有出现在changed中的x-字典沿用current中已经装载的，不再从编译输出读入
+	 * 
+	 * @param reuseVocabulary
+	 *            词汇表是否也沿用current中的
+	 */
+	void reuse(Dictionaries current, Collection<String> changed,
+			boolean reuseVocabulary) {
+		if (reuseVocabulary) {
+			vocabularyDictionary = current.getVocabularyDictionary();
+		}
+		if (!changed.contains(noiseCharactor + ".dic")) {
+			noiseCharactorsDictionary = current.getNoiseCharactorsDictionary();
+		}
+		if (!changed.contains(noiseWord + ".dic")) {
+			noiseWordsDictionary = current.getNoiseWordsDictionary();
+		}
+		if (!changed.contains(unit + ".dic")) {
+			unitsDictionary = current.getUnitsDictionary();
+		}
+		if (!changed.contains(confucianFamilyName + ".dic")) {
+			confucianFamilyNamesDictionary = current
+					.getConfucianFamilyNamesDictionary();
+		}
+		if (!changed.contains(combinatorics + ".dic")) {
+			combinatoricsDictionary = current.getCombinatoricsDictionary();
+		}
+	}
+
     public void setLantinFllowedByCjk(String lantinFllowedByCjk) {
 		this.combinatorics = lantinFllowedByCjk;
 	}
@@ -188,13 +237,37 @@ public class CompiledFileDictionaries implements Dictionaries {
 	 */
 	public synchronized Dictionary getVocabularyDictionary() {
 		if (vocabularyDictionary == null) {
-			// 大概有5639个字有词语，故取0x2fff=x^13>8000>8000*0.75=6000>5639
-			vocabularyDictionary = new HashBinaryDictionary(
-					getVocabularyWords(), 0x2fff, 0.75f);
+			if (FileDictionaries.VOCABULARY_MAPPED.equalsIgnoreCase(vocabularyStructure)) {
+				vocabularyDictionary = getMappedDictionary("vocabulary");
+			} else {
+				vocabularyDictionary = createVocabularyDictionary(getVocabularyWords());
+			}
 		}
 		return vocabularyDictionary;
 	}
 
+	/**
+	 * 根据{@link #getVocabularyStructure()}的配置，以升序排列的词语创建词汇表字典
+	 * 
+	 * @param ascWords
+	 * @return
+	 */
+	protected Dictionary createVocabularyDictionary(Word[] ascWords) {
+		if (FileDictionaries.VOCABULARY_DOUBLE_ARRAY_TRIE.equalsIgnoreCase(vocabularyStructure)) {
+			return new DoubleArrayTrieDictionary(ascWords);
+		}
+		if (FileDictionaries.VOCABULARY_COMPACT.equalsIgnoreCase(vocabularyStructure)) {
+			return new CompactDictionary(ascWords);
+		}
+		if (vocabularyStructure != null
+				&& !FileDictionaries.VOCABULARY_HASH_BINARY.equalsIgnoreCase(vocabularyStructure)) {
+			throw new PaodingAnalysisException("unknown vocabulary structure '"
+					+ vocabularyStructure + "'");
+		}
+		// 大概有5639个字有词语，故取0x2fff=x^13>8000>8000*0.75=6000>5639
+		return new HashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+	}
+
 	/**
 	 * 姓氏字典
 	 * 
@@ -279,6 +352,26 @@ public class CompiledFileDictionaries implements Dictionaries {
 	}
 	
 	
+	/**
+	 * 内存映射编译生成的二进制字典文件；文件不存在时(如由旧版本编译)仍从文本编译文件创建字典
+	 * 
+	 * @param dicNameRelativeDicHome
+	 * @return
+	 */
+	protected Dictionary getMappedDictionary(String dicNameRelativeDicHome) {
+		File f = new File(this.dicHome, "/" + dicNameRelativeDicHome
+				+ ".dic.bin");
+		if (!f.exists()) {
+			return new HashBinaryDictionary(
+					getDictionaryWords(dicNameRelativeDicHome), 0x2fff, 0.75f);
+		}
+		try {
+			return MappedDictionary.open(f);
+		} catch (IOException e) {
+			throw toRuntimeException(e);
+		}
+	}
+
 	protected Word[] getVocabularyWords() {
 		return getDictionaryWords("vocabulary");
 	}
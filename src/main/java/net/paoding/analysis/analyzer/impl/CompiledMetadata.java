@@ -0,0 +1,363 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.analyzer.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import net.paoding.analysis.Constants;
+
+/**
+ * 编译后字典目录下的.metadata：记录编译器、编译时的配置，以及每个源字典文件和每个编译输出文件的内容摘要(SHA-256)。
+ * <p>
+ * 编译器据此判断哪些编译输出的源文件内容发生了变化，只重新编译这些输出，其余的编译输出原样沿用；
+ * 只是修改时间变化而内容不变的文件不会引起重新编译。
+ * 长度和修改时间都与记录一致的文件直接沿用记录的摘要，不再重新读取计算。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @since 2.0.4
+ */
+final class CompiledMetadata {
+
+	static final String CLASS = "paoding.analysis.compiler.class";
+	static final String VERSION = "paoding.analysis.compiler.version";
+	static final String CONFIG = "paoding.analysis.compiler.config";
+
+	private static final String SOURCE_PREFIX = "paoding.analysis.compiler.source.";
+	private static final String OUTPUT_PREFIX = "paoding.analysis.compiler.output.";
+
+	private static final String SOURCE_EXT = ".dic";
+
+	private static final String COMPILED_DIR = ".compiled";
+
+	// -------------------------------------------------
+
+	private final Properties properties;
+
+	CompiledMetadata() {
+		this(new Properties());
+	}
+
+	private CompiledMetadata(Properties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * 读取.metadata文件，文件不存在时返回null
+	 */
+	static CompiledMetadata read(File metadataFile) throws IOException {
+		if (!metadataFile.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(metadataFile);
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		return new CompiledMetadata(properties);
+	}
+
+	void write(File metadataFile) throws IOException {
+		if (metadataFile.exists()) {
+			metadataFile.delete();
+		} else {
+			metadataFile.getParentFile().mkdirs();
+		}
+		OutputStream out = new FileOutputStream(metadataFile);
+		try {
+			properties.store(out,
+					"dont edit it! this file was auto generated by paoding.");
+		} finally {
+			out.close();
+		}
+		metadataFile.setReadOnly();
+	}
+
+	String getProperty(String key) {
+		return properties.getProperty(key);
+	}
+
+	void setProperty(String key, String value) {
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	/**
+	 * 影响编译结果的字典配置；字符折叠改变了词语本身，也在其中
+	 */
+	static String configOf(Properties p) {
+		String[] keys = { Constants.DIC_CHARSET, Constants.DIC_MAXWORDLEN,
+				Constants.DIC_SKIP_PREFIX, Constants.DIC_NOISE_CHARACTOR,
+				Constants.DIC_NOISE_WORD, Constants.DIC_UNIT,
+				Constants.DIC_CONFUCIAN_FAMILY_NAME,
+				Constants.DIC_FOR_COMBINATORICS,
+				Constants.ANALYZER_NORMALIZER_FOLDING };
+		StringBuilder config = new StringBuilder();
+		for (int i = 0; i < keys.length; i++) {
+			if (i > 0) {
+				config.append(';');
+			}
+			config.append(Constants.getProperty(p, keys[i]));
+		}
+		return config.toString();
+	}
+
+	/**
+	 * 是否由给定编译器的给定版本、在给定配置下编译
+	 */
+	boolean isCompiledBy(Class<?> compiler, String version, String config) {
+		return compiler.getName().equalsIgnoreCase(getProperty(CLASS))
+				&& version.equalsIgnoreCase(getProperty(VERSION))
+				&& config.equals(getProperty(CONFIG));
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 记录dicHome下(.compiled目录除外)所有源字典文件的摘要
+	 *
+	 * @param older
+	 *            上次编译的记录，可以为null；长度和修改时间与之一致的文件沿用其中的摘要
+	 */
+	void putSources(File dicHome, CompiledMetadata older) throws IOException {
+		List<File> files = new ArrayList<File>();
+		listSources(dicHome, files);
+		String root = dicHome.getAbsolutePath();
+		for (Iterator<File> iter = files.iterator(); iter.hasNext();) {
+			File file = iter.next();
+			String name = file.getAbsolutePath().substring(root.length() + 1)
+					.replace('\\', '/');
+			put(SOURCE_PREFIX + name, file, older);
+		}
+	}
+
+	/**
+	 * 上次编译之后只有changed中的源字典文件发生了变化：沿用older中其余源文件的记录，
+	 * 只重新记录changed中的文件(已经删除的移除之)，不再遍历dicHome
+	 *
+	 * @param changed
+	 *            相对dicHome的路径，使用/作为目录分隔符
+	 */
+	void putSources(File dicHome, CompiledMetadata older,
+			Collection<String> changed) throws IOException {
+		for (Iterator<Map.Entry<Object, Object>> iter = older.properties
+				.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<Object, Object> e = iter.next();
+			if (((String) e.getKey()).startsWith(SOURCE_PREFIX)) {
+				properties.put(e.getKey(), e.getValue());
+			}
+		}
+		for (Iterator<String> iter = changed.iterator(); iter.hasNext();) {
+			String name = iter.next();
+			if (!name.endsWith(SOURCE_EXT)
+					|| name.startsWith(COMPILED_DIR + "/")) {
+				continue;
+			}
+			File file = new File(dicHome, name);
+			if (file.isFile()) {
+				put(SOURCE_PREFIX + name, file, older);
+			} else {
+				properties.remove(SOURCE_PREFIX + name);
+			}
+		}
+	}
+
+	/**
+	 * 记录一个编译输出文件的摘要
+	 */
+	void putOutput(File file, CompiledMetadata older) throws IOException {
+		put(OUTPUT_PREFIX + file.getName(), file, older);
+	}
+
+	/**
+	 * 源字典文件(相对dicHome的路径，包括扩展名)->摘要，按路径排序
+	 */
+	SortedMap<String, String> getSources() {
+		SortedMap<String, String> sources = new TreeMap<String, String>();
+		for (Iterator<Map.Entry<Object, Object>> iter = properties.entrySet()
+				.iterator(); iter.hasNext();) {
+			Map.Entry<Object, Object> e = iter.next();
+			String key = (String) e.getKey();
+			if (key.startsWith(SOURCE_PREFIX)) {
+				sources.put(key.substring(SOURCE_PREFIX.length()),
+						digestOf((String) e.getValue()));
+			}
+		}
+		return sources;
+	}
+
+	/**
+	 * 编译输出文件是否仍与记录一致(存在、且内容未变)
+	 */
+	boolean isOutputUnchanged(File file) throws IOException {
+		String record = getProperty(OUTPUT_PREFIX + file.getName());
+		if (record == null || !file.isFile()) {
+			return false;
+		}
+		return digestOf(record).equals(digest(record, file));
+	}
+
+	/**
+	 * 记录中的所有编译输出文件是否都仍与记录一致
+	 */
+	boolean isOutputsUnchanged(File compiledDicHome) throws IOException {
+		boolean found = false;
+		for (Iterator<Object> iter = properties.keySet().iterator(); iter
+				.hasNext();) {
+			String key = (String) iter.next();
+			if (key.startsWith(OUTPUT_PREFIX)) {
+				found = true;
+				File file = new File(compiledDicHome, key
+						.substring(OUTPUT_PREFIX.length()));
+				if (!isOutputUnchanged(file)) {
+					return false;
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * 从sources中选出词汇表所用的源文件：路径不以skipPrefix开头的文件，以及includes给定的文件(不含扩展名)
+	 */
+	static SortedMap<String, String> selectVocabularySources(
+			SortedMap<String, String> sources, String skipPrefix,
+			String... includes) {
+		SortedMap<String, String> selected = new TreeMap<String, String>();
+		for (Iterator<Map.Entry<String, String>> iter = sources.entrySet()
+				.iterator(); iter.hasNext();) {
+			Map.Entry<String, String> e = iter.next();
+			if (isVocabularySource(e.getKey(), skipPrefix, includes)) {
+				selected.put(e.getKey(), e.getValue());
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * 源文件name(相对dicHome的路径，包括扩展名)是否为词汇表所用，规则同
+	 * {@link #selectVocabularySources(SortedMap, String, String...)}
+	 */
+	static boolean isVocabularySource(String name, String skipPrefix,
+			String... includes) {
+		boolean select = !name.startsWith(skipPrefix)
+				&& name.indexOf("/" + skipPrefix) == -1;
+		for (int i = 0; !select && i < includes.length; i++) {
+			select = name.equals(includes[i] + SOURCE_EXT);
+		}
+		return select;
+	}
+
+	/**
+	 * 源文件name(不含扩展名)在两次编译之间是否没有变化：都存在且摘要相同，或者都不存在
+	 */
+	static boolean isSourceUnchanged(SortedMap<String, String> older,
+			SortedMap<String, String> current, String name) {
+		String a = older.get(name + SOURCE_EXT);
+		String b = current.get(name + SOURCE_EXT);
+		return a == null ? b == null : a.equals(b);
+	}
+
+	// -------------------------------------------------
+
+	private void put(String key, File file, CompiledMetadata older)
+			throws IOException {
+		String record = older == null ? null : older.getProperty(key);
+		String digest = record == null ? digest(file) : digest(record, file);
+		properties.setProperty(key, digest + ";" + file.length() + ";"
+				+ file.lastModified());
+	}
+
+	/**
+	 * 文件长度和修改时间与记录一致时返回记录中的摘要，否则重新计算
+	 */
+	private static String digest(String record, File file) throws IOException {
+		String[] parts = record.split(";");
+		if (parts.length == 3
+				&& parts[1].equals(String.valueOf(file.length()))
+				&& parts[2].equals(String.valueOf(file.lastModified()))) {
+			return parts[0];
+		}
+		return digest(file);
+	}
+
+	private static String digestOf(String record) {
+		int index = record.indexOf(';');
+		return index == -1 ? record : record.substring(0, index);
+	}
+
+	private static String digest(File file) throws IOException {
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[1024 * 64];
+			int len;
+			while ((len = in.read(buffer)) != -1) {
+				md.update(buffer, 0, len);
+			}
+		} finally {
+			in.close();
+		}
+		byte[] bytes = md.digest();
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+			hex[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+		}
+		return new String(hex);
+	}
+
+	private static void listSources(File dir, List<File> files) {
+		File[] children = dir.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (int i = 0; i < children.length; i++) {
+			File child = children[i];
+			if (child.isDirectory()) {
+				if (!child.getName().equals(COMPILED_DIR)) {
+					listSources(child, files);
+				}
+			} else if (child.getName().endsWith(SOURCE_EXT)) {
+				files.add(child);
+			}
+		}
+	}
+}
@@ -57,19 +57,34 @@ public class MaxWordLengthTokenCollector implements TokenCollector {
 	}
 
 	public void collect(String word, int offset, int end) {
+		collect(word, null, 0, offset, end);
+	}
+
+	/**
+	 * 直接以字符数组中的词语构造Token对象，不经过String
+	 */
+	public void collect(char[] chars, int start, int offset, int end) {
+		collect(null, chars, start, offset, end);
+	}
+
+	/**
+	 * 词语由word给出，或word为null时由chars[start, start + end - offset)给出；只有被选为候选时才创建Token对象
+	 */
+	private void collect(String word, char[] chars, int start, int offset,
+			int end) {
 		Token c = candidate != null ? candidate : last;
 		if (c == null) {
-			candidate = new Token(word, offset, end);
+			candidate = createToken(word, chars, start, offset, end);
 		} else if (offset == c.startOffset()) {
 			if (end > c.endOffset()) {
-				candidate = new Token(word, offset, end);
+				candidate = createToken(word, chars, start, offset, end);
 			}
 		} else if (offset > c.startOffset()) {
 			if (candidate != null) {
 				select(candidate);
 			}
 			if (end > c.endOffset()) {
-				candidate = new Token(word, offset, end);
+				candidate = createToken(word, chars, start, offset, end);
 			} else {
 				candidate = null;
 			}
@@ -84,8 +99,16 @@ public class MaxWordLengthTokenCollector implements TokenCollector {
 				}
 			}
 			last = null;
-			candidate = new Token(word, offset, end);
+			candidate = createToken(word, chars, start, offset, end);
+		}
+	}
+
+	private Token createToken(String word, char[] chars, int start,
+			int offset, int end) {
+		if (word != null) {
+			return new Token(word, offset, end);
 		}
+		return new Token(chars, start, end - offset, offset, end);
 	}
 
 	protected void select(Token t) {
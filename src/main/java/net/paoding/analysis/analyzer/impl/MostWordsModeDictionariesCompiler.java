@@ -2,61 +2,65 @@ package net.paoding.analysis.analyzer.impl;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileFilter;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Collection;
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 import net.paoding.analysis.Constants;
 import net.paoding.analysis.dictionary.Dictionary;
 import net.paoding.analysis.dictionary.Hit;
+import net.paoding.analysis.dictionary.MappedDictionary;
 import net.paoding.analysis.dictionary.Word;
-import net.paoding.analysis.dictionary.support.detection.Snapshot;
 import net.paoding.analysis.knife.Beef;
+import net.paoding.analysis.knife.CharNormalizer;
 import net.paoding.analysis.knife.Collector;
 import net.paoding.analysis.knife.Dictionaries;
-import net.paoding.analysis.knife.DictionariesCompiler;
+import net.paoding.analysis.knife.IncrementalDictionariesCompiler;
 import net.paoding.analysis.knife.Knife;
 
-public class MostWordsModeDictionariesCompiler implements DictionariesCompiler {
-	public static final String VERSION = "2";
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class MostWordsModeDictionariesCompiler implements IncrementalDictionariesCompiler {
+	public static final String VERSION = "4";
+
+	private static final Logger log = LoggerFactory.getLogger(MostWordsModeDictionariesCompiler.class);
+
+	/**
+	 * 并行编译词汇表时，一个任务不再拆分的词语数
+	 */
+	private static final int VOCABULARY_SLICE = 2048;
 	
 	public boolean shouldCompile(Properties p) throws Exception {
 		String dicHome = p.getProperty("paoding.dic.home.absolute.path");
 		File dicHomeFile = new File(dicHome);
-		File compliedMetadataFile = new File(dicHomeFile, ".compiled/most-words-mode/.metadata");
-		if (compliedMetadataFile.exists() && compliedMetadataFile.isFile()) {
-			// get checksum for all compiled dictionaries
-			String checksum = Snapshot.flash(
-					new File(dicHomeFile, ".compiled/most-words-mode"),
-					new FileFilter() {
-						public boolean accept(File pathname) {
-							return pathname.getPath().endsWith(".dic.compiled");
-						}
-					}).getCheckSum();
-			
-			Properties compiledProperties = new Properties();
-			InputStream compiledPropertiesInput = new FileInputStream(compliedMetadataFile);
-			compiledProperties.load(compiledPropertiesInput);
-			compiledPropertiesInput.close();
-			String compiledCheckSum = compiledProperties.getProperty("paoding.analysis.compiler.checksum");
-			String clazz = compiledProperties.getProperty("paoding.analysis.compiler.class");
-			String version = compiledProperties.getProperty("paoding.analysis.compiler.version");
-			if (checksum.equals(compiledCheckSum) && this.getClass().getName().equalsIgnoreCase(clazz)
-					&& VERSION.equalsIgnoreCase(version)) {
-				return false;
-			}
+		File compiledDicHomeFile = new File(dicHomeFile, ".compiled/most-words-mode");
+		CompiledMetadata older = CompiledMetadata.read(new File(compiledDicHomeFile, ".metadata"));
+		if (older == null || !older.isCompiledBy(getClass(), VERSION, CompiledMetadata.configOf(p))) {
+			return true;
 		}
-		return true;
+		// 只比较源文件和编译输出的内容摘要，修改时间的变化不会引起重新编译
+		CompiledMetadata current = new CompiledMetadata();
+		current.putSources(dicHomeFile, older);
+		return !older.getSources().equals(current.getSources())
+				|| !older.isOutputsUnchanged(compiledDicHomeFile);
 	}
 	
 	public void compile(Dictionaries dictionaries, Knife knife, Properties p) throws Exception {
+		compile(dictionaries, knife, p, null);
+	}
+
+	public void compile(Dictionaries dictionaries, Knife knife, Properties p,
+			Collection<String> changed) throws Exception {
 		String dicHome = p.getProperty("paoding.dic.home.absolute.path");
 		String noiseCharactor = getProperty(p, Constants.DIC_NOISE_CHARACTOR);
 		String noiseWord = getProperty(p, Constants.DIC_NOISE_WORD);
@@ -64,65 +68,77 @@ public class MostWordsModeDictionariesCompiler implements DictionariesCompiler {
 		String confucianFamilyName = getProperty(p, Constants.DIC_CONFUCIAN_FAMILY_NAME);
 		String combinatorics = getProperty(p, Constants.DIC_FOR_COMBINATORICS);
 		String charsetName = getProperty(p, Constants.DIC_CHARSET);
+		int threads = Integer.parseInt(getProperty(p, Constants.ANALYZER_DICTIONARIES_COMPILER_THREADS));
+		if (threads <= 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		long begin = System.currentTimeMillis();
 		
 		File dicHomeFile = new File(dicHome);
 		File compiledDicHomeFile = new File(dicHomeFile, ".compiled/most-words-mode");
 		compiledDicHomeFile.mkdirs();
+		File compliedMetadataFile = new File(compiledDicHomeFile, ".metadata");
+		String config = CompiledMetadata.configOf(p);
+		CompiledMetadata older = CompiledMetadata.read(compliedMetadataFile);
+		if (older != null && !older.isCompiledBy(getClass(), VERSION, config)) {
+			older = null;
+		}
+		CompiledMetadata metadata = new CompiledMetadata();
+		if (changed == null || older == null) {
+			metadata.putSources(dicHomeFile, older);
+		} else {
+			// 已知变化了的源文件，不再遍历、校验所有的源文件
+			metadata.putSources(dicHomeFile, older, changed);
+		}
 		//
-		Dictionary vocabularyDictionary = dictionaries.getVocabularyDictionary();
+		// 词汇表要以Knife重新切分，Knife用到了所有的字典，所以任何源文件的变化都需要重新编译词汇表
 		File vocabularyFile = new File(compiledDicHomeFile, "vocabulary.dic.compiled");
-		compileVocabulary(vocabularyDictionary, knife, vocabularyFile, charsetName);
+		File vocabularyBinaryFile = new File(compiledDicHomeFile, "vocabulary.dic.bin");
+		boolean reuse = older != null
+				&& older.getSources().equals(metadata.getSources())
+				&& older.isOutputUnchanged(vocabularyFile)
+				&& older.isOutputUnchanged(vocabularyBinaryFile);
+		if (!reuse) {
+			Dictionary vocabularyDictionary = dictionaries.getVocabularyDictionary();
+			// 以分词时所用的规范化(包括配置的字符折叠)处理词语后再切分
+			CharNormalizer normalizer = CharNormalizer.of(p);
+			compileVocabulary(vocabularyDictionary, knife, normalizer, vocabularyFile, vocabularyBinaryFile, charsetName, threads);
+		}
+		metadata.putOutput(vocabularyFile, reuse ? older : null);
+		metadata.putOutput(vocabularyBinaryFile, reuse ? older : null);
 
 		//
-		Dictionary noiseCharactorsDictionary = dictionaries.getNoiseCharactorsDictionary();
-		File noiseCharactorsDictionaryFile = new File(compiledDicHomeFile, noiseCharactor + ".dic.compiled");
-		sortCompile(noiseCharactorsDictionary, noiseCharactorsDictionaryFile, charsetName);
-		//
-		Dictionary noiseWordsDictionary = dictionaries.getNoiseWordsDictionary();
-		File noiseWordsDictionaryFile = new File(compiledDicHomeFile, noiseWord + ".dic.compiled");
-		sortCompile(noiseWordsDictionary, noiseWordsDictionaryFile, charsetName);
-		//
-		Dictionary unitsDictionary = dictionaries.getUnitsDictionary();
-		File unitsDictionaryFile = new File(compiledDicHomeFile, unit + ".dic.compiled");
-		sortCompile(unitsDictionary, unitsDictionaryFile, charsetName);
-		//
-		Dictionary confucianFamilyDictionary = dictionaries.getConfucianFamilyNamesDictionary();
-		File confucianFamilyDictionaryFile = new File(compiledDicHomeFile, confucianFamilyName + ".dic.compiled");
-		sortCompile(confucianFamilyDictionary, confucianFamilyDictionaryFile, charsetName);
-		//
-		Dictionary combinatoricsDictionary = dictionaries.getCombinatoricsDictionary();
-		File combinatoricsDictionaryFile = new File(compiledDicHomeFile, combinatorics + ".dic.compiled");
-		sortCompile(combinatoricsDictionary, combinatoricsDictionaryFile, charsetName);
-		
-		//
-		File compliedMetadataFile = new File(dicHomeFile, ".compiled/most-words-mode/.metadata");
-		if (compliedMetadataFile.exists()) {
-			//compliedMetadataFile.setWritable(true);
-			compliedMetadataFile.delete();
+		// 先判断能否沿用上次的编译输出，只有需要重新编译的字典才读入源文件
+		if (!reuse(noiseCharactor, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getNoiseCharactorsDictionary(), noiseCharactor, compiledDicHomeFile, charsetName, metadata);
 		}
-		else {
-			compliedMetadataFile.getParentFile().mkdirs();
+		if (!reuse(noiseWord, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getNoiseWordsDictionary(), noiseWord, compiledDicHomeFile, charsetName, metadata);
+		}
+		if (!reuse(unit, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getUnitsDictionary(), unit, compiledDicHomeFile, charsetName, metadata);
+		}
+		if (!reuse(confucianFamilyName, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getConfucianFamilyNamesDictionary(), confucianFamilyName, compiledDicHomeFile, charsetName, metadata);
 		}
-		OutputStream compiledPropertiesOutput = new FileOutputStream(compliedMetadataFile);
-		Properties compiledProperties = new Properties();
+		if (!reuse(combinatorics, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getCombinatoricsDictionary(), combinatorics, compiledDicHomeFile, charsetName, metadata);
+		}
+		
+		//
 		String lastModifiedsKey = "paoding.analysis.properties.lastModifieds";
 		String filesKey = "paoding.analysis.properties.files";
-		compiledProperties.setProperty(lastModifiedsKey, p.getProperty(lastModifiedsKey));
-		compiledProperties.setProperty(filesKey, p.getProperty(filesKey));
-		compiledProperties.setProperty("paoding.analysis.compiler.checksum",
-				Snapshot.flash(
-						new File(dicHomeFile, ".compiled/most-words-mode"),
-						new FileFilter() {
-							public boolean accept(File pathname) {
-								return pathname.getPath().endsWith(
-										".dic.compiled");
-							}
-						}).getCheckSum());
-		compiledProperties.setProperty("paoding.analysis.compiler.class", this.getClass().getName());
-		compiledProperties.setProperty("paoding.analysis.compiler.version", VERSION);
-		compiledProperties.store(compiledPropertiesOutput, "dont edit it! this file was auto generated by paoding.");
-		compiledPropertiesOutput.close();
-		compliedMetadataFile.setReadOnly();
+		metadata.setProperty(lastModifiedsKey, p.getProperty(lastModifiedsKey));
+		metadata.setProperty(filesKey, p.getProperty(filesKey));
+		metadata.setProperty(CompiledMetadata.CLASS, this.getClass().getName());
+		metadata.setProperty(CompiledMetadata.VERSION, VERSION);
+		metadata.setProperty(CompiledMetadata.CONFIG, config);
+		long time = System.currentTimeMillis() - begin;
+		metadata.setProperty("paoding.analysis.compiler.threads", String.valueOf(threads));
+		metadata.setProperty("paoding.analysis.compiler.time", String.valueOf(time));
+		log.info("compiled dictionaries into " + compiledDicHomeFile + " in " + time + "ms with " + threads + " threads"
+				+ (reuse ? ", vocabulary unchanged" : ""));
+		metadata.write(compliedMetadataFile);
 	}
 
 
@@ -135,10 +151,20 @@ public class MostWordsModeDictionariesCompiler implements DictionariesCompiler {
 		String combinatorics = getProperty(p, Constants.DIC_FOR_COMBINATORICS);
 		String charsetName = getProperty(p, Constants.DIC_CHARSET);
 		int maxWordLen = Integer.valueOf(getProperty(p, Constants.DIC_MAXWORDLEN));
-		return new CompiledFileDictionaries(
+		CompiledFileDictionaries dictionaries = new CompiledFileDictionaries(
 				dicHomeAbsolutePath + "/.compiled/most-words-mode",
 				noiseCharactor, noiseWord, unit,
 				confucianFamilyName, combinatorics, charsetName,maxWordLen);
+		dictionaries.setVocabularyStructure(getProperty(p, Constants.ANALYZER_DICTIONARIES_VOCABULARY));
+		return dictionaries;
+	}
+	
+	public Dictionaries readCompliedDictionaries(Properties p,
+			Dictionaries current, Collection<String> changed) {
+		CompiledFileDictionaries dictionaries = (CompiledFileDictionaries) readCompliedDictionaries(p);
+		// 与编译时相同：任何源文件的变化都影响词汇表
+		dictionaries.reuse(current, changed, changed.isEmpty());
+		return dictionaries;
 	}
 	
 	private static String getProperty(Properties p, String name) {
@@ -146,6 +172,33 @@ public class MostWordsModeDictionariesCompiler implements DictionariesCompiler {
 	}
 	
 
+	/**
+	 * 源文件name.dic没有变化、且上次的编译输出完好时沿用之，并记入metadata
+	 * 
+	 * @return 沿用时返回true，否则需要重新编译
+	 */
+	private boolean reuse(String name, File compiledDicHomeFile,
+			CompiledMetadata older, CompiledMetadata metadata) throws IOException {
+		File dicFile = new File(compiledDicHomeFile, name + ".dic.compiled");
+		boolean reuse = older != null
+				&& CompiledMetadata.isSourceUnchanged(older.getSources(), metadata.getSources(), name)
+				&& older.isOutputUnchanged(dicFile);
+		if (reuse) {
+			metadata.putOutput(dicFile, older);
+		}
+		return reuse;
+	}
+
+	/**
+	 * 重新编译name.dic，并记入metadata
+	 */
+	private void sortCompile(Dictionary dictionary, String name, File compiledDicHomeFile,
+			String charsetName, CompiledMetadata metadata) throws IOException {
+		File dicFile = new File(compiledDicHomeFile, name + ".dic.compiled");
+		sortCompile(dictionary, dicFile, charsetName);
+		metadata.putOutput(dicFile, null);
+	}
+
 	private void sortCompile(final Dictionary dictionary, 
 			File dicFile, String charsetName) throws FileNotFoundException,
 			IOException, UnsupportedEncodingException {
@@ -173,34 +226,27 @@ public class MostWordsModeDictionariesCompiler implements DictionariesCompiler {
 		dicFile.setReadOnly();
 	}
 	
-	private void compileVocabulary(final Dictionary vocabularyDictionary, Knife knife,
-			File vocabularyFile, String charsetName) throws FileNotFoundException,
+	private void compileVocabulary(final Dictionary vocabularyDictionary, Knife knife, CharNormalizer normalizer,
+			File vocabularyFile, File vocabularyBinaryFile, String charsetName, int threads) throws FileNotFoundException,
 			IOException, UnsupportedEncodingException {
 		int vocabularySize = vocabularyDictionary.size();
 		Word[] vocabularyWords = new Word[vocabularySize];
-		char[] chs = new char[128];
-		for (int i = 0; i < vocabularySize; i ++) {
-			final Word curWord = vocabularyDictionary.get(i);
-			curWord.getText().getChars(0, curWord.length(), chs, 0);
-			chs[curWord.length()] = (char) -1;
-			Beef beef = new Beef(chs, 0, curWord.length() + 1);
-			final BitSet bs = new BitSet(curWord.length());
-			knife.dissect(new Collector(){
-				public void collect(String word, int offset, int end) {
-					Hit hit = vocabularyDictionary.search(word, 0, word.length());
-					if (hit.isHit() && hit.getWord().length() != curWord.length()) {
-						for (int j = offset; j < end; j++) {
-							bs.set(j, true);
-						}
-					}
-				}
-				
-			}, beef, 0);
-			
-			for (int j = 0; j < curWord.length();j++) {
-				if (!bs.get(j)) {
-					vocabularyWords[i] = curWord;
-					break;
+		// 每个词语的判断互不依赖，结果按下标写入vocabularyWords，与顺序编译的输出完全相同
+		VocabularyTask task = new VocabularyTask(vocabularyDictionary, knife, normalizer,
+				vocabularyWords, new ThreadLocal<VocabularyFilter>(), 0, vocabularySize);
+		if (threads <= 1 || vocabularySize <= VOCABULARY_SLICE) {
+			task.compute();
+		}
+		else {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				pool.invoke(task);
+			} finally {
+				pool.shutdown();
+				try {
+					pool.awaitTermination(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
 				}
 			}
 		}
@@ -226,6 +272,119 @@ public class MostWordsModeDictionariesCompiler implements DictionariesCompiler {
 		out.flush();
 		out.close();
 		vocabularyFile.setReadOnly();
+		
+		// 同样的词语再写一份二进制格式，供内存映射使用
+		List<Word> ascWords = new ArrayList<Word>(vocabularySize);
+		for (int i = 0; i < vocabularySize; i++) {
+			if (vocabularyWords[i] != null) {
+				ascWords.add(vocabularyWords[i]);
+			}
+		}
+		binaryCompile(ascWords.toArray(new Word[ascWords.size()]), vocabularyBinaryFile);
+	}
+
+	/**
+	 * 以{@link MappedDictionary}的二进制格式写出升序排列的词语
+	 */
+	private void binaryCompile(Word[] ascWords, File binaryFile) throws IOException {
+		if (binaryFile.exists()) {
+			binaryFile.delete();
+		}
+		MappedDictionary.write(ascWords, binaryFile);
+		binaryFile.setReadOnly();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 编译词汇表下标[from, to)之间的词语：范围较大时一分为二并行执行
+	 */
+	private static class VocabularyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Dictionary vocabularyDictionary;
+		private final Knife knife;
+		private final CharNormalizer normalizer;
+		private final Word[] vocabularyWords;
+		private final ThreadLocal<VocabularyFilter> filters;
+		private final int from;
+		private final int to;
+
+		VocabularyTask(Dictionary vocabularyDictionary, Knife knife,
+				CharNormalizer normalizer, Word[] vocabularyWords,
+				ThreadLocal<VocabularyFilter> filters, int from, int to) {
+			this.vocabularyDictionary = vocabularyDictionary;
+			this.knife = knife;
+			this.normalizer = normalizer;
+			this.vocabularyWords = vocabularyWords;
+			this.filters = filters;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			// 顺序编译时直接在调用线程上执行，不拆分，否则invokeAll会把子任务交给公共池
+			if (to - from > VOCABULARY_SLICE && inForkJoinPool()) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new VocabularyTask(vocabularyDictionary, knife,
+						normalizer, vocabularyWords, filters, from, middle),
+						new VocabularyTask(vocabularyDictionary, knife,
+								normalizer, vocabularyWords, filters, middle, to));
+				return;
+			}
+			VocabularyFilter filter = filters.get();
+			if (filter == null) {
+				filter = new VocabularyFilter(vocabularyDictionary, normalizer);
+				filters.set(filter);
+			}
+			for (int i = from; i < to; i++) {
+				Word curWord = vocabularyDictionary.get(i);
+				if (filter.isNecessary(curWord, knife)) {
+					vocabularyWords[i] = curWord;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 判断一个词语是否需要保留在编译后的词汇表中：如果它的每个字符都已被其他更短的词语覆盖，则不需要保留。
+	 * <p>
+	 * 字符缓冲和BitSet在同一线程编译的词语之间重用。
+	 */
+	private static class VocabularyFilter implements Collector {
+
+		private final Dictionary vocabularyDictionary;
+		private final CharNormalizer normalizer;
+		private char[] chs = new char[128];
+		private final BitSet bs = new BitSet();
+		private Word curWord;
+
+		VocabularyFilter(Dictionary vocabularyDictionary, CharNormalizer normalizer) {
+			this.vocabularyDictionary = vocabularyDictionary;
+			this.normalizer = normalizer;
+		}
+
+		boolean isNecessary(Word word, Knife knife) {
+			int length = word.length();
+			if (length + 1 > chs.length) {
+				chs = new char[length + 1];
+			}
+			word.getText().getChars(0, length, chs, 0);
+			normalizer.normalize(chs, 0, length);
+			chs[length] = (char) -1;
+			curWord = word;
+			bs.clear();
+			knife.dissect(this, new Beef(chs, 0, length + 1), 0);
+			curWord = null;
+			return bs.nextClearBit(0) < length;
+		}
+
+		public void collect(String word, int offset, int end) {
+			Hit hit = vocabularyDictionary.search(word, 0, word.length());
+			if (hit.isHit() && hit.getWord().length() != curWord.length()) {
+				bs.set(offset, end);
+			}
+		}
 	}
-	
 }
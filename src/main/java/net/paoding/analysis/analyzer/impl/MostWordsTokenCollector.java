@@ -38,7 +38,17 @@ public class MostWordsTokenCollector implements TokenCollector, Iterator<Token>
 	 * 
 	 */
 	public void collect(String word, int begin, int end) {
-		LinkedToken tokenToAdd = new LinkedToken(word, begin, end);
+		add(new LinkedToken(word, begin, end));
+	}
+
+	/**
+	 * 直接以字符数组中的词语构造Token对象，不经过String
+	 */
+	public void collect(char[] chars, int start, int begin, int end) {
+		add(new LinkedToken(chars, start, begin, end));
+	}
+
+	private void add(LinkedToken tokenToAdd) {
 		if (firstToken == null) {
 			firstToken = tokenToAdd;
 			lastToken = tokenToAdd;
@@ -104,6 +114,10 @@ public class MostWordsTokenCollector implements TokenCollector, Iterator<Token>
 			super(word, begin, end);
 		}
 
+		public LinkedToken(char[] chars, int start, int begin, int end) {
+			super(chars, start, end - begin, begin, end);
+		}
+
 		public int compareTo(LinkedToken obj) {
 			// 简单/单单/简简单单/
 			if (this.endOffset() > obj.endOffset())
@@ -2,130 +2,153 @@ package net.paoding.analysis.analyzer.impl;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileFilter;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Properties;
 
 import net.paoding.analysis.Constants;
 import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.dictionary.MappedDictionary;
 import net.paoding.analysis.dictionary.Word;
-import net.paoding.analysis.dictionary.support.detection.Snapshot;
 import net.paoding.analysis.knife.Dictionaries;
-import net.paoding.analysis.knife.DictionariesCompiler;
+import net.paoding.analysis.knife.IncrementalDictionariesCompiler;
 import net.paoding.analysis.knife.Knife;
 
-public class SortingDictionariesCompiler implements DictionariesCompiler {
-	public static final String VERSION = "2";
+public class SortingDictionariesCompiler implements IncrementalDictionariesCompiler {
+	public static final String VERSION = "4";
 	
 	
 	public boolean shouldCompile(Properties p) throws Exception {
 		String dicHome = p.getProperty("paoding.dic.home.absolute.path");
 		File dicHomeFile = new File(dicHome);
-		File compliedMetadataFile = new File(dicHomeFile, ".compiled/sorting/.metadata");
-		if (compliedMetadataFile.exists() && compliedMetadataFile.isFile()) {
-			// get checksum for all compiled dictionaries
-			String checksum = Snapshot.flash(
-					new File(dicHomeFile, ".compiled/sorting"),
-					new FileFilter() {
-						public boolean accept(File pathname) {
-							return pathname.getPath().endsWith(".dic.compiled");
-						}
-					}).getCheckSum();
-
-			Properties compiledProperties = new Properties();
-			InputStream compiledPropertiesInput = new FileInputStream(compliedMetadataFile);
-			compiledProperties.load(compiledPropertiesInput);
-			compiledPropertiesInput.close();
-			String compiledCheckSum = compiledProperties.getProperty("paoding.analysis.compiler.checksum");
-			String clazz = compiledProperties.getProperty("paoding.analysis.compiler.class");
-			String version = compiledProperties.getProperty("paoding.analysis.compiler.version");
-			if (checksum.equals(compiledCheckSum) && this.getClass().getName().equalsIgnoreCase(clazz)
-					&& VERSION.equalsIgnoreCase(version)) {
-				return false;
-			}
+		File compiledDicHomeFile = new File(dicHomeFile, ".compiled/sorting");
+		CompiledMetadata older = CompiledMetadata.read(new File(compiledDicHomeFile, ".metadata"));
+		if (older == null || !older.isCompiledBy(getClass(), VERSION, CompiledMetadata.configOf(p))) {
+			return true;
 		}
-		return true;
+		// 只比较源文件和编译输出的内容摘要，修改时间的变化不会引起重新编译
+		CompiledMetadata current = new CompiledMetadata();
+		current.putSources(dicHomeFile, older);
+		return !older.getSources().equals(current.getSources())
+				|| !older.isOutputsUnchanged(compiledDicHomeFile);
 	}
 	
 	
 	public void compile(Dictionaries dictionaries, Knife knife, Properties p) throws Exception {
+		compile(dictionaries, knife, p, null);
+	}
+
+	public void compile(Dictionaries dictionaries, Knife knife, Properties p,
+			Collection<String> changed) throws Exception {
 		
 		String dicHome = p.getProperty("paoding.dic.home.absolute.path");
+		String skipPrefix = getProperty(p, Constants.DIC_SKIP_PREFIX);
 		String noiseCharactor = getProperty(p, Constants.DIC_NOISE_CHARACTOR);
 		String noiseWord = getProperty(p, Constants.DIC_NOISE_WORD);
 		String unit = getProperty(p, Constants.DIC_UNIT);
 		String confucianFamilyName = getProperty(p, Constants.DIC_CONFUCIAN_FAMILY_NAME);
 		String combinatorics = getProperty(p, Constants.DIC_FOR_COMBINATORICS);
 		String charsetName = getProperty(p, Constants.DIC_CHARSET);
+		long begin = System.currentTimeMillis();
 		
 		File dicHomeFile = new File(dicHome);
 		File compiledDicHomeFile = new File(dicHomeFile, ".compiled/sorting");
 		compiledDicHomeFile.mkdirs();
+		File compliedMetadataFile = new File(compiledDicHomeFile, ".metadata");
+		String config = CompiledMetadata.configOf(p);
+		CompiledMetadata older = CompiledMetadata.read(compliedMetadataFile);
+		if (older != null && !older.isCompiledBy(getClass(), VERSION, config)) {
+			older = null;
+		}
+		CompiledMetadata metadata = new CompiledMetadata();
+		if (changed == null || older == null) {
+			metadata.putSources(dicHomeFile, older);
+		} else {
+			// 已知变化了的源文件，不再遍历、校验所有的源文件
+			metadata.putSources(dicHomeFile, older, changed);
+		}
 		
 		//
-		Dictionary vocabularyDictionary = dictionaries.getVocabularyDictionary();
+		// 词汇表由非skipPrefix开头的字典组成，并以噪音字典标记词语的噪音属性
 		File vocabularyFile = new File(compiledDicHomeFile, "vocabulary.dic.compiled");
-		sortCompile(vocabularyDictionary, vocabularyFile, charsetName);
-
-		//
-		Dictionary noiseCharactorsDictionary = dictionaries.getNoiseCharactorsDictionary();
-		File noiseCharactorsDictionaryFile = new File(compiledDicHomeFile, noiseCharactor + ".dic.compiled");
-		sortCompile(noiseCharactorsDictionary, noiseCharactorsDictionaryFile, charsetName);
-		//
-		Dictionary noiseWordsDictionary = dictionaries.getNoiseWordsDictionary();
-		File noiseWordsDictionaryFile = new File(compiledDicHomeFile, noiseWord + ".dic.compiled");
-		sortCompile(noiseWordsDictionary, noiseWordsDictionaryFile, charsetName);
-		//
-		Dictionary unitsDictionary = dictionaries.getUnitsDictionary();
-		File unitsDictionaryFile = new File(compiledDicHomeFile, unit + ".dic.compiled");
-		sortCompile(unitsDictionary, unitsDictionaryFile, charsetName);
-		//
-		Dictionary confucianFamilyDictionary = dictionaries.getConfucianFamilyNamesDictionary();
-		File confucianFamilyDictionaryFile = new File(compiledDicHomeFile, confucianFamilyName + ".dic.compiled");
-		sortCompile(confucianFamilyDictionary, confucianFamilyDictionaryFile, charsetName);
-		//
-		Dictionary combinatoricsDictionary = dictionaries.getCombinatoricsDictionary();
-		File combinatoricsDictionaryFile = new File(compiledDicHomeFile, combinatorics + ".dic.compiled");
-		sortCompile(combinatoricsDictionary, combinatoricsDictionaryFile, charsetName);
+		File vocabularyBinaryFile = new File(compiledDicHomeFile, "vocabulary.dic.bin");
+		boolean reuse = older != null
+				&& CompiledMetadata.selectVocabularySources(older.getSources(), skipPrefix, noiseCharactor, noiseWord)
+						.equals(CompiledMetadata.selectVocabularySources(metadata.getSources(), skipPrefix, noiseCharactor, noiseWord))
+				&& older.isOutputUnchanged(vocabularyFile)
+				&& older.isOutputUnchanged(vocabularyBinaryFile);
+		if (!reuse) {
+			Dictionary vocabularyDictionary = dictionaries.getVocabularyDictionary();
+			sortCompile(vocabularyDictionary, vocabularyFile, charsetName);
+			Word[] vocabularyWords = new Word[vocabularyDictionary.size()];
+			for (int i = 0; i < vocabularyWords.length; i++) {
+				vocabularyWords[i] = vocabularyDictionary.get(i);
+			}
+			binaryCompile(vocabularyWords, vocabularyBinaryFile);
+		}
+		metadata.putOutput(vocabularyFile, reuse ? older : null);
+		metadata.putOutput(vocabularyBinaryFile, reuse ? older : null);
 
 		//
-		File compliedMetadataFile = new File(dicHomeFile, ".compiled/sorting/.metadata");
-		if (compliedMetadataFile.exists()) {
-			//compliedMetadataFile.setWritable(true);
-			compliedMetadataFile.delete();
+		// 先判断能否沿用上次的编译输出，只有需要重新编译的字典才读入源文件
+		if (!reuse(noiseCharactor, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getNoiseCharactorsDictionary(), noiseCharactor, compiledDicHomeFile, charsetName, metadata);
+		}
+		if (!reuse(noiseWord, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getNoiseWordsDictionary(), noiseWord, compiledDicHomeFile, charsetName, metadata);
+		}
+		if (!reuse(unit, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getUnitsDictionary(), unit, compiledDicHomeFile, charsetName, metadata);
 		}
-		else {
-			compliedMetadataFile.getParentFile().mkdirs();
+		if (!reuse(confucianFamilyName, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getConfucianFamilyNamesDictionary(), confucianFamilyName, compiledDicHomeFile, charsetName, metadata);
 		}
-		OutputStream compiledPropertiesOutput = new FileOutputStream(compliedMetadataFile);
-		Properties compiledProperties = new Properties();
+		if (!reuse(combinatorics, compiledDicHomeFile, older, metadata)) {
+			sortCompile(dictionaries.getCombinatoricsDictionary(), combinatorics, compiledDicHomeFile, charsetName, metadata);
+		}
+
+		//
 		String lastModifiedsKey = "paoding.analysis.properties.lastModifieds";
 		String filesKey = "paoding.analysis.properties.files";
-		compiledProperties.setProperty(lastModifiedsKey, p.getProperty(lastModifiedsKey));
-		compiledProperties.setProperty(filesKey, p.getProperty(filesKey));
-		compiledProperties.setProperty("paoding.analysis.compiler.checksum",
-				Snapshot.flash(
-						new File(dicHomeFile, ".compiled/sorting"),
-						new FileFilter() {
-							public boolean accept(File pathname) {
-								return pathname.getPath().endsWith(
-										".dic.compiled");
-							}
-						}).getCheckSum());
-		compiledProperties.setProperty("paoding.analysis.compiler.class", this.getClass().getName());
-		compiledProperties.setProperty("paoding.analysis.compiler.version", VERSION);
-		compiledProperties.store(compiledPropertiesOutput, "dont edit it! this file was auto generated by paoding.");
-		compiledPropertiesOutput.close();
-		compliedMetadataFile.setReadOnly();
+		metadata.setProperty(lastModifiedsKey, p.getProperty(lastModifiedsKey));
+		metadata.setProperty(filesKey, p.getProperty(filesKey));
+		metadata.setProperty(CompiledMetadata.CLASS, this.getClass().getName());
+		metadata.setProperty(CompiledMetadata.VERSION, VERSION);
+		metadata.setProperty(CompiledMetadata.CONFIG, config);
+		metadata.setProperty("paoding.analysis.compiler.time", String.valueOf(System.currentTimeMillis() - begin));
+		metadata.write(compliedMetadataFile);
 	}
 
-	
+	/**
+	 * 源文件name.dic没有变化、且上次的编译输出完好时沿用之，并记入metadata
+	 * 
+	 * @return 沿用时返回true，否则需要重新编译
+	 */
+	private boolean reuse(String name, File compiledDicHomeFile,
+			CompiledMetadata older, CompiledMetadata metadata) throws IOException {
+		File dicFile = new File(compiledDicHomeFile, name + ".dic.compiled");
+		boolean reuse = older != null
+				&& CompiledMetadata.isSourceUnchanged(older.getSources(), metadata.getSources(), name)
+				&& older.isOutputUnchanged(dicFile);
+		if (reuse) {
+			metadata.putOutput(dicFile, older);
+		}
+		return reuse;
+	}
+
+	/**
+	 * 重新编译name.dic，并记入metadata
+	 */
+	private void sortCompile(Dictionary dictionary, String name, File compiledDicHomeFile,
+			String charsetName, CompiledMetadata metadata) throws IOException {
+		File dicFile = new File(compiledDicHomeFile, name + ".dic.compiled");
+		sortCompile(dictionary, dicFile, charsetName);
+		metadata.putOutput(dicFile, null);
+	}
 	
 	private void sortCompile(final Dictionary dictionary, 
 			File dicFile, String charsetName) throws FileNotFoundException,
@@ -163,13 +186,41 @@ public class SortingDictionariesCompiler implements DictionariesCompiler {
 		String combinatorics = getProperty(p, Constants.DIC_FOR_COMBINATORICS);
 		String charsetName = getProperty(p, Constants.DIC_CHARSET);
 		int maxWordLen = Integer.valueOf(getProperty(p, Constants.DIC_MAXWORDLEN));
-		return new CompiledFileDictionaries(
+		CompiledFileDictionaries dictionaries = new CompiledFileDictionaries(
 				dicHomeAbsolutePath + "/.compiled/sorting",
 				noiseCharactor, noiseWord, unit,
 				confucianFamilyName, combinatorics, charsetName, maxWordLen);
+		dictionaries.setVocabularyStructure(getProperty(p, Constants.ANALYZER_DICTIONARIES_VOCABULARY));
+		return dictionaries;
+	}
+	
+	public Dictionaries readCompliedDictionaries(Properties p,
+			Dictionaries current, Collection<String> changed) {
+		CompiledFileDictionaries dictionaries = (CompiledFileDictionaries) readCompliedDictionaries(p);
+		String skipPrefix = getProperty(p, Constants.DIC_SKIP_PREFIX);
+		String noiseCharactor = getProperty(p, Constants.DIC_NOISE_CHARACTOR);
+		String noiseWord = getProperty(p, Constants.DIC_NOISE_WORD);
+		// 与编译时相同：词汇表只受词汇文件和噪音字典的影响
+		boolean reuseVocabulary = true;
+		for (Iterator<String> iter = changed.iterator(); reuseVocabulary && iter.hasNext();) {
+			reuseVocabulary = !CompiledMetadata.isVocabularySource(iter.next(), skipPrefix, noiseCharactor, noiseWord);
+		}
+		dictionaries.reuse(current, changed, reuseVocabulary);
+		return dictionaries;
 	}
 	
 	private static String getProperty(Properties p, String name) {
 		return Constants.getProperty(p, name);
 	}
+
+	/**
+	 * 以{@link MappedDictionary}的二进制格式写出升序排列的词语
+	 */
+	private void binaryCompile(Word[] ascWords, File binaryFile) throws IOException {
+		if (binaryFile.exists()) {
+			binaryFile.delete();
+		}
+		MappedDictionary.write(ascWords, binaryFile);
+		binaryFile.setReadOnly();
+	}
 }
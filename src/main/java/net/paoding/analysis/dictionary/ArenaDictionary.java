@@ -0,0 +1,303 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+/**
+ * 所有词语首尾相接存放在一个字符区中的Dictionary实现基类。
+ * <p>
+ * 词语按升序排列，以每个词语在字符区中的开始位置、每个词语的modifiers以及首字符索引描述；
+ * 子类决定这些数据放在Java数组中({@link CompactDictionary})还是内存映射的文件中({@link MappedDictionary})。
+ * <p>
+ * 
+ * 检索先由首字符索引定位分段，再在分段内二叉查找，语义与{@link BinaryDictionary}一致。
+ * 字典并不为每个词语持有Word对象：{@link #get(int)}每次从字符区创建一个新的Word对象，字典不保留它；
+ * 检索命中时只创建命中的词语，下一个词语直到调用{@link Hit#getNext()}时才创建。
+ * <p>
+ * 
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ * 
+ * @see BinaryDictionary
+ * 
+ * @since 2.0.4
+ */
+public abstract class ArenaDictionary implements Dictionary {
+
+	// -------------------------------------------------
+
+	protected final int count;
+
+	// -------------------------------------------------
+
+	protected ArenaDictionary(int count) {
+		this.count = count;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 以字符区中的字符创建第index个词语；每次调用都返回新的Word对象，修改它不影响字典
+	 */
+	public Word get(int index) {
+		int begin = offset(index);
+		int end = offset(index + 1);
+		char[] chars = new char[end - begin];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = arenaChar(begin + i);
+		}
+		return new Word(new String(chars), modifiers(index));
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public Hit search(CharSequence input, int begin, int count) {
+		Hit hit = search(input, begin, count, new Hit());
+		return hit.isUndefined() ? Hit.UNDEFINED : hit;
+	}
+
+	public Hit search(CharSequence input, int begin, int count, Hit hit) {
+		int from = 0;
+		int to = this.count;
+		if (count > 0) {
+			int group = indexOf(input.charAt(begin));
+			if (group < 0) {
+				return hit.undefined();
+			}
+			from = indexStart(group);
+			to = indexStart(group + 1);
+		}
+		int left = from;
+		int right = to - 1;
+		int pointer;
+		int relation;
+		while (left <= right) {
+			pointer = (left + right) >>> 1;
+			relation = compare(input, begin, count, pointer);
+			if (relation == 0) {
+				int nextWordIndex = pointer + 1;
+				if (nextWordIndex >= this.count) {
+					return hit.set(pointer, get(pointer), null);
+				}
+				return hit.set(pointer, get(pointer), this, nextWordIndex,
+						startsWith(nextWordIndex, pointer));
+			}
+			if (relation < 0)
+				right = pointer - 1;
+			else
+				left = pointer + 1;
+		}
+		// 分段以外的词语首字符不同，不可能以所查询词语开头
+		if (left >= to) {
+			return hit.undefined();
+		}
+		if (length(left) < count) {
+			return hit.undefined();
+		}
+		for (int i = begin, j = 0; j < count; i++, j++) {
+			if (input.charAt(i) != charAt(left, j)) {
+				return hit.undefined();
+			}
+		}
+		return hit.set(Hit.UNCLOSED_INDEX, null, this, left, true);
+	}
+
+	public DictionaryCursor cursor() {
+		return new Cursor();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 第index个词语在字符区中的开始位置，index为词语个数时返回字符区长度
+	 */
+	protected abstract int offset(int index);
+
+	/**
+	 * 字符区中第position个字符
+	 */
+	protected abstract char arenaChar(int position);
+
+	/**
+	 * 第index个词语的modifiers
+	 */
+	protected abstract int modifiers(int index);
+
+	/**
+	 * 首字符索引中的首字符个数
+	 */
+	protected abstract int indexSize();
+
+	/**
+	 * 首字符索引中第i个(升序)首字符
+	 */
+	protected abstract char indexChar(int i);
+
+	/**
+	 * 以首字符索引中第i个首字符开头的第一个词语位置，i为indexSize()时返回词语个数
+	 */
+	protected abstract int indexStart(int i);
+
+	// -------------------------------------------------
+
+	/**
+	 * 返回首字符ch在首字符索引中的位置，没有时返回负数
+	 */
+	private int indexOf(char ch) {
+		int low = 0;
+		int high = indexSize() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			char midChar = indexChar(mid);
+			if (midChar < ch) {
+				low = mid + 1;
+			} else if (midChar > ch) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	protected int length(int index) {
+		return offset(index + 1) - offset(index);
+	}
+
+	protected char charAt(int index, int j) {
+		return arenaChar(offset(index) + j);
+	}
+
+	/**
+	 * 第index个词语是否以第prefix个词语开头
+	 */
+	private boolean startsWith(int index, int prefix) {
+		int length = length(prefix);
+		if (length(index) < length) {
+			return false;
+		}
+		int offset = offset(index);
+		int prefixOffset = offset(prefix);
+		for (int j = 0; j < length; j++) {
+			if (arenaChar(offset + j) != arenaChar(prefixOffset + j)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 与{@link BinaryDictionary#compare(CharSequence, int, int, CharSequence)}相同，只是直接比较字符区中的字符
+	 */
+	private int compare(CharSequence one, int begin, int count, int index) {
+		int offset = offset(index);
+		int length = offset(index + 1) - offset;
+		int min = Math.min(length, count);
+		for (int i = begin, j = 0; i < one.length() && j < min; i++, j++) {
+			char c = one.charAt(i);
+			char w = arenaChar(offset + j);
+			if (c > w) {
+				return 1;
+			} else if (c < w) {
+				return -1;
+			}
+		}
+		return count - length;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 与{@link BinaryDictionaryCursor}相同的范围游标，第一个字符通过首字符索引定位，
+	 * 之后每前进一个字符仍是范围内的二叉定位，代价为O(log N)
+	 */
+	private class Cursor implements DictionaryCursor {
+
+		private int depth;
+
+		private int left;
+
+		private int right;
+
+		Cursor() {
+			reset();
+		}
+
+		public void reset() {
+			depth = 0;
+			left = 0;
+			right = count;
+		}
+
+		public boolean next(char ch) {
+			if (left >= right) {
+				return false;
+			}
+			if (depth == 0) {
+				int group = indexOf(ch);
+				if (group < 0) {
+					left = right;
+					return false;
+				}
+				left = indexStart(group);
+				right = indexStart(group + 1);
+			} else {
+				int from = left;
+				while (from < right && length(from) == depth) {
+					from++;
+				}
+				int low = lowerBound(from, right, ch);
+				int high = ch == Character.MAX_VALUE ? right : lowerBound(low,
+						right, (char) (ch + 1));
+				left = low;
+				right = high;
+				if (left >= right) {
+					return false;
+				}
+			}
+			depth++;
+			return true;
+		}
+
+		public boolean isWord() {
+			return left < right && length(left) == depth;
+		}
+
+		public boolean hasLongerWords() {
+			return right - left > (isWord() ? 1 : 0);
+		}
+
+		public boolean isDeadEnd() {
+			return left >= right;
+		}
+
+		public Word getWord() {
+			return isWord() ? get(left) : null;
+		}
+
+		private int lowerBound(int from, int to, char ch) {
+			while (from < to) {
+				int mid = (from + to) >>> 1;
+				if (charAt(mid, depth) < ch) {
+					from = mid + 1;
+				} else {
+					to = mid;
+				}
+			}
+			return from;
+		}
+	}
+}
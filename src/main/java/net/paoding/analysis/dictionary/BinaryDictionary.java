@@ -65,6 +65,11 @@ public class BinaryDictionary implements Dictionary {
 	}
 
 	public Hit search(CharSequence input, int begin, int count) {
+		Hit hit = search(input, begin, count, new Hit());
+		return hit.isUndefined() ? Hit.UNDEFINED : hit;
+	}
+
+	public Hit search(CharSequence input, int begin, int count, Hit hit) {
 		int left = this.start;
 		int right = this.end - 1;
 		int pointer = 0;
@@ -80,9 +85,9 @@ public class BinaryDictionary implements Dictionary {
 				// word);
 				int nextWordIndex = pointer + 1;
 				if (nextWordIndex >= ascWords.length) {
-					return new Hit(pointer, word, null);
+					return hit.set(pointer - start, word, null);
 				} else {
-					return new Hit(pointer, word, ascWords[nextWordIndex]);
+					return hit.set(pointer - start, word, ascWords[nextWordIndex]);
 				}
 			}
 			if (relation < 0)
@@ -92,7 +97,7 @@ public class BinaryDictionary implements Dictionary {
 		}
 		//
 		if (left >= ascWords.length) {
-			return Hit.UNDEFINED;
+			return hit.undefined();
 		}
 		//
 		boolean asPrex = true;
@@ -105,8 +110,12 @@ public class BinaryDictionary implements Dictionary {
 				asPrex = false;
 			}
 		}
-		return asPrex ? new Hit(Hit.UNCLOSED_INDEX, null, nextWord)
-				: Hit.UNDEFINED;
+		return asPrex ? hit.set(Hit.UNCLOSED_INDEX, null, nextWord)
+				: hit.undefined();
+	}
+
+	public DictionaryCursor cursor() {
+		return new BinaryDictionaryCursor(ascWords, start, end, null);
 	}
 
 	public static int compare(CharSequence one, int begin, int count,
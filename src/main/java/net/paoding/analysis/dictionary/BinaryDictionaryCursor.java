@@ -0,0 +1,148 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import net.paoding.analysis.dictionary.HashBinaryDictionary.SubDictionaryWrap;
+
+/**
+ * {@link BinaryDictionary}以及{@link HashBinaryDictionary}的游标实现。
+ * <p>
+ * 游标始终记住具有当前前缀的词语在升序数组中的范围[left, right)，前进一个字符时只需在这个范围内继续定位：
+ * 遇到{@link HashBinaryDictionary}时通过其散列表直接进入下一级分词典的范围，其余情况在范围内二叉定位。
+ * 每前进一个字符仍需在范围内做两次二叉定位，代价为O(log N)(N为当前范围内的词语数)，
+ * 省去的只是每次从头检索整个前缀的重复比较；每一步只需一次数组寻址的是{@link DoubleArrayTrieDictionary}的游标。
+ * <p>
+ * 
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ * 
+ * @since 2.0.4
+ */
+final class BinaryDictionaryCursor implements DictionaryCursor {
+
+	private final Word[] ascWords;
+
+	private final int start;
+
+	private final int end;
+
+	private final HashBinaryDictionary root;
+
+	// -------------------------------------------------
+
+	/**
+	 * 当前所在的散列字典，当前前缀长度等于其hashIndex时通过散列表前进；null表示以下都是二叉定位
+	 */
+	private HashBinaryDictionary hashDic;
+
+	/**
+	 * 当前前缀的长度
+	 */
+	private int depth;
+
+	/**
+	 * 具有当前前缀的词语范围，left==right表示死路
+	 */
+	private int left;
+
+	private int right;
+
+	// -------------------------------------------------
+
+	BinaryDictionaryCursor(Word[] ascWords, int start, int end,
+			HashBinaryDictionary root) {
+		this.ascWords = ascWords;
+		this.start = start;
+		this.end = end;
+		this.root = root;
+		reset();
+	}
+
+	// -------------------------------------------------
+
+	public void reset() {
+		this.hashDic = root;
+		this.depth = 0;
+		this.left = start;
+		this.right = end;
+	}
+
+	public boolean next(char ch) {
+		if (left >= right) {
+			return false;
+		}
+		if (hashDic != null && depth == hashDic.getHashIndex()) {
+			SubDictionaryWrap sub = hashDic.getSubDictionary(ch);
+			// 词语长度不足时散列字符为0，该分词典不是以ch开头的词语
+			if (sub == null || ascWords[sub.wordIndexOffset].length() <= depth) {
+				left = right;
+				return false;
+			}
+			left = sub.wordIndexOffset;
+			right = left + sub.dic.size();
+			hashDic = sub.dic instanceof HashBinaryDictionary ? (HashBinaryDictionary) sub.dic
+					: null;
+		} else {
+			int from = left;
+			// 与当前前缀相同的词语(如果有)排在最前面，它不参与定位
+			while (from < right && ascWords[from].length() == depth) {
+				from++;
+			}
+			int low = lowerBound(from, right, ch);
+			int high = ch == Character.MAX_VALUE ? right : lowerBound(low,
+					right, (char) (ch + 1));
+			left = low;
+			right = high;
+			if (left >= right) {
+				return false;
+			}
+		}
+		depth++;
+		return true;
+	}
+
+	public boolean isWord() {
+		return left < right && ascWords[left].length() == depth;
+	}
+
+	public boolean hasLongerWords() {
+		return right - left > (isWord() ? 1 : 0);
+	}
+
+	public boolean isDeadEnd() {
+		return left >= right;
+	}
+
+	public Word getWord() {
+		return isWord() ? ascWords[left] : null;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 返回[from, to)中第depth个字符不小于ch的第一个词语位置
+	 */
+	private int lowerBound(int from, int to, char ch) {
+		while (from < to) {
+			int mid = (from + to) >>> 1;
+			if (ascWords[mid].charAt(depth) < ch) {
+				from = mid + 1;
+			} else {
+				to = mid;
+			}
+		}
+		return from;
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+/**
+ * 以紧凑方式存放在堆内的Dictionary实现。
+ * <p>
+ * 所有词语共用一个char[]字符区，另以int[]记录每个词语的开始位置、以byte[]记录每个词语的modifiers。
+ * 与每个词语一个Word对象(以及其中的String和char[])相比，整个字典只有几个大数组，
+ * 占用的堆空间少得多，字典重新加载后旧字典的回收也只是回收这几个数组。
+ * <p>
+ *
+ * 构造完成后字典不再引用传入的Word对象，它们可以立即被回收。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see ArenaDictionary
+ *
+ * @since 2.0.4
+ */
+public class CompactDictionary extends ArenaDictionary {
+
+	// -------------------------------------------------
+
+	private final char[] arena;
+
+	private final int[] offsets;
+
+	private final byte[] modifiers;
+
+	private final char[] indexChars;
+
+	private final int[] indexStarts;
+
+	// -------------------------------------------------
+
+	/**
+	 * 以一组升序排列的词语构造字典
+	 *
+	 * @param ascWords
+	 *            升序排列词语，不能含有空词语
+	 */
+	public CompactDictionary(Word[] ascWords) {
+		super(ascWords.length);
+		int arenaLength = 0;
+		int indexCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (ascWords[i].length() == 0) {
+				throw new IllegalArgumentException("empty word at " + i);
+			}
+			arenaLength += ascWords[i].length();
+			if (i == 0 || ascWords[i].charAt(0) != ascWords[i - 1].charAt(0)) {
+				indexCount++;
+			}
+		}
+		this.arena = new char[arenaLength];
+		this.offsets = new int[count + 1];
+		this.modifiers = new byte[count];
+		this.indexChars = new char[indexCount];
+		this.indexStarts = new int[indexCount + 1];
+		int offset = 0;
+		int index = 0;
+		for (int i = 0; i < count; i++) {
+			Word word = ascWords[i];
+			if (i == 0 || word.charAt(0) != ascWords[i - 1].charAt(0)) {
+				indexChars[index] = word.charAt(0);
+				indexStarts[index++] = i;
+			}
+			offsets[i] = offset;
+			word.getText().getChars(0, word.length(), arena, offset);
+			offset += word.length();
+			modifiers[i] = (byte) word.getModifiers();
+		}
+		offsets[count] = offset;
+		indexStarts[indexCount] = count;
+	}
+
+	// -------------------------------------------------
+
+	protected int offset(int index) {
+		return offsets[index];
+	}
+
+	protected char arenaChar(int position) {
+		return arena[position];
+	}
+
+	protected int modifiers(int index) {
+		return modifiers[index] & 0xff;
+	}
+
+	protected int indexSize() {
+		return indexChars.length;
+	}
+
+	protected char indexChar(int i) {
+		return indexChars[i];
+	}
+
+	protected int indexStart(int i) {
+		return indexStarts[i];
+	}
+}
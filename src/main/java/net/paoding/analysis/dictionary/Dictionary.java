@@ -57,4 +57,31 @@ public interface Dictionary {
 	 * @see Hit
 	 */
 	public Hit search(CharSequence input, int offset, int count);
+
+	/**
+	 * 与{@link #search(CharSequence, int, int)}相同，但不创建新的Hit对象，而是把搜索结果填写到调用者给定的hit中并返回之。
+	 * <p>
+	 * 分词时对字典的检索极其频繁，调用者可以在多次检索中重复使用同一个Hit对象，以避免产生大量短命的Hit对象。<br>
+	 * 命中时，{@link Hit#getIndex()}为该词语在本字典中的位置，即{@link #get(int)}返回的正是该词语。
+	 * <p>
+	 * @param input 要搜索的字符串是其中连续的一部分
+	 * @param offset 要搜索的字符串开始位置相对input的偏移
+	 * @param count 要搜索的字符串字符个数
+	 * @param hit 由调用者创建的用于接收搜索结果的Hit对象，不能是{@link Hit#UNDEFINED}
+	 * @return 即参数hit
+	 * 
+	 * @see Hit#Hit()
+	 */
+	public Hit search(CharSequence input, int offset, int count, Hit hit);
+
+	/**
+	 * 创建一个从空字符串开始的游标，以逐字检视输入的字符串是否是词语或词语的前缀。
+	 * <p>
+	 * 对同一个开始位置检视长度逐渐增长的字符串时，使用游标比多次调用search方法要快得多。
+	 * 
+	 * @return 新的游标，由调用者在一个线程中使用
+	 * 
+	 * @see DictionaryCursor
+	 */
+	public DictionaryCursor cursor();
 }
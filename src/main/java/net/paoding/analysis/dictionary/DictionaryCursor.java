@@ -0,0 +1,82 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+/**
+ * DictionaryCursor是在字典上逐字前进的游标，由{@link Dictionary#cursor()}创建。
+ * <p>
+ * 游标从空字符串开始，每调用一次{@link #next(char)}便在当前字符串后追加一个字符，并立即给出该字符串的检索结果：
+ * <li>当前字符串是否是字典中的词语: {@link #isWord()}</li>
+ * <li>字典是否含有以当前字符串开头的更长的词语: {@link #hasLongerWords()}</li>
+ * <li>以上两者都否定时，游标走入死路: {@link #isDeadEnd()}</li>
+ * <br>
+ * 与{@link Dictionary#search(CharSequence, int, int)}对(offset,1)、(offset,2)、(offset,3)...逐一从头检索相比，
+ * 游标记住了已经走过的前缀，每前进一个字符只需要在上一次的结果上继续定位。
+ * 每一步的代价取决于字典的结构：{@link DoubleArrayTrieDictionary}为O(1)，
+ * 基于升序数组的字典(比如{@link BinaryDictionary}、{@link HashBinaryDictionary})为范围内的二叉定位O(log N)。
+ * <p>
+ * 游标不是线程安全的，由创建者在一个线程中使用，并可以通过{@link #reset()}重复使用。
+ * <p>
+ * 
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ * 
+ * @see Dictionary#cursor()
+ * 
+ * @since 2.0.4
+ */
+public interface DictionaryCursor {
+
+	/**
+	 * 回到空字符串，以重新开始检视
+	 */
+	public void reset();
+
+	/**
+	 * 在当前字符串后追加一个字符
+	 * 
+	 * @param ch
+	 * @return 追加后不是死路返回true，否则返回false(此后的next调用都将返回false，直至reset)
+	 */
+	public boolean next(char ch);
+
+	/**
+	 * 当前字符串是否是字典中的词语
+	 * 
+	 * @return
+	 */
+	public boolean isWord();
+
+	/**
+	 * 字典中是否有以当前字符串开头的更长的词语
+	 * 
+	 * @return
+	 */
+	public boolean hasLongerWords();
+
+	/**
+	 * 字典中既没有当前字符串，也没有以其开头的词语
+	 * 
+	 * @return
+	 */
+	public boolean isDeadEnd();
+
+	/**
+	 * {@link #isWord()}为true时，返回字典中相应的词语；否则返回null
+	 * 
+	 * @return
+	 */
+	public Word getWord();
+}
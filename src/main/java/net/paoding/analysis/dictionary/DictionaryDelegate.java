@@ -46,6 +46,14 @@ public class DictionaryDelegate implements Dictionary {
 		return target.search(input, offset, count);
 	}
 
+	public Hit search(CharSequence input, int offset, int count, Hit hit) {
+		return target.search(input, offset, count, hit);
+	}
+
+	public DictionaryCursor cursor() {
+		return target.cursor();
+	}
+
 	public int size() {
 		return target.size();
 	}
@@ -0,0 +1,323 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary的双数组Trie(double-array trie)实现。
+ * <p>
+ * 以一组已经排序的词语为输入，将所有词语构建成一棵以字符为边的Trie树，并把这棵树压缩存放在base、check两个int数组中：
+ * 从结点s沿字符c到达的子结点为t=base[s]+c，当且仅当check[t]==s时该子结点存在。<br>
+ * 查找时每个字符只需一次数组寻址，不再需要逐级的散列表查找以及对词语数组的二叉查找。
+ * <p>
+ * 每个结点另外记录一个value值：结点所表示的字符串是词典中的词语时，value为该词语在升序数组中的位置；
+ * 否则value为-(以该字符串为前缀的第一个词语的位置)-1。据此返回的{@link Hit}与{@link BinaryDictionary}、
+ * {@link HashBinaryDictionary}的语义完全一致。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see BinaryDictionary
+ * @see HashBinaryDictionary
+ *
+ * @since 2.0.4
+ */
+public class DoubleArrayTrieDictionary implements Dictionary {
+
+	// -------------------------------------------------
+
+	/**
+	 * 表示check数组中该位置尚未被任何结点使用
+	 */
+	private static final int FREE = -1;
+
+	/**
+	 * 根结点位置
+	 */
+	private static final int ROOT = 0;
+
+	// -------------------------------------------------
+
+	/**
+	 * 字典中所有词语，升序排列
+	 */
+	private final Word[] ascWords;
+
+	private int[] base;
+
+	private int[] check;
+
+	/**
+	 * 参见本类的注释
+	 */
+	private int[] value;
+
+	/**
+	 * 构建时寻找空闲位置的起点，构建完成后不再使用
+	 */
+	private int nextCheckPos;
+
+	/**
+	 * 构建过程中用到的最大位置
+	 */
+	private int maxUsed;
+
+	// -------------------------------------------------
+
+	/**
+	 * 以一组升序排列的词语构造双数组Trie字典
+	 *
+	 * @param ascWords
+	 *            升序排列词语
+	 */
+	public DoubleArrayTrieDictionary(Word[] ascWords) {
+		this.ascWords = ascWords;
+		build();
+	}
+
+	// -------------------------------------------------
+
+	public Word get(int index) {
+		return ascWords[index];
+	}
+
+	public int size() {
+		return ascWords.length;
+	}
+
+	public Hit search(CharSequence input, int offset, int count) {
+		Hit hit = search(input, offset, count, new Hit());
+		return hit.isUndefined() ? Hit.UNDEFINED : hit;
+	}
+
+	public Hit search(CharSequence input, int offset, int count, Hit hit) {
+		if (ascWords.length == 0) {
+			return hit.undefined();
+		}
+		final int[] base = this.base;
+		final int[] check = this.check;
+		int node = ROOT;
+		for (int i = offset, end = offset + count; i < end; i++) {
+			int child = base[node] + input.charAt(i);
+			if (child >= check.length || check[child] != node) {
+				return hit.undefined();
+			}
+			node = child;
+		}
+		int v = value[node];
+		if (v >= 0) {
+			int nextIndex = v + 1;
+			return hit.set(v, ascWords[v],
+					nextIndex < ascWords.length ? ascWords[nextIndex] : null);
+		}
+		return hit.set(Hit.UNCLOSED_INDEX, null, ascWords[-v - 1]);
+	}
+
+	public DictionaryCursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * 双数组Trie的游标：只需记住当前所在的结点，每前进一个字符只有一次数组寻址
+	 */
+	private class Cursor implements DictionaryCursor {
+
+		/**
+		 * 当前结点，-1表示死路
+		 */
+		private int node;
+
+		Cursor() {
+			reset();
+		}
+
+		public void reset() {
+			node = ascWords.length == 0 ? -1 : ROOT;
+		}
+
+		public boolean next(char ch) {
+			if (node < 0) {
+				return false;
+			}
+			int child = base[node] + ch;
+			if (child >= check.length || check[child] != node) {
+				node = -1;
+				return false;
+			}
+			node = child;
+			return true;
+		}
+
+		public boolean isWord() {
+			return node >= 0 && value[node] >= 0;
+		}
+
+		public boolean hasLongerWords() {
+			// 只有叶子结点的base为0
+			return node >= 0 && base[node] != 0;
+		}
+
+		public boolean isDeadEnd() {
+			return node < 0;
+		}
+
+		public Word getWord() {
+			return isWord() ? ascWords[value[node]] : null;
+		}
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 构建base、check、value数组，为构造函数调用
+	 */
+	protected void build() {
+		int initialCapacity = Math.max(1024, ascWords.length * 2);
+		base = new int[initialCapacity];
+		check = new int[initialCapacity];
+		value = new int[initialCapacity];
+		Arrays.fill(check, FREE);
+		check[ROOT] = ROOT;
+		nextCheckPos = 0;
+		maxUsed = ROOT;
+		if (ascWords.length > 0) {
+			insert(ROOT, 0, 0, ascWords.length);
+		}
+		// 去掉尾部没有用到的空间
+		int length = maxUsed + 1;
+		base = copyOf(base, length, 0);
+		check = copyOf(check, length, FREE);
+		value = copyOf(value, length, 0);
+	}
+
+	/**
+	 * 位于ascWords[begin, end)的词语具有长度为depth的相同前缀，node即是表示该前缀的结点。<br>
+	 * 本方法设置node的value，并为其创建所有的子结点。
+	 */
+	private void insert(int node, int depth, int begin, int end) {
+		// 升序排列时，与前缀相同的词语(如果有)一定排在最前面
+		if (ascWords[begin].length() == depth) {
+			value[node] = begin;
+			do {
+				begin++;
+			} while (begin < end && ascWords[begin].length() == depth);
+		} else {
+			value[node] = -begin - 1;
+		}
+		if (begin >= end) {
+			return;
+		}
+
+		// 确定子结点的字符，以及各子结点对应的词语范围
+		int childCount = 0;
+		char last = 0;
+		for (int i = begin; i < end; i++) {
+			char c = ascWords[i].charAt(depth);
+			if (i == begin || c != last) {
+				childCount++;
+				last = c;
+			}
+		}
+		char[] chars = new char[childCount];
+		int[] bounds = new int[childCount + 1];
+		for (int i = begin, k = -1; i < end; i++) {
+			char c = ascWords[i].charAt(depth);
+			if (k < 0 || c != chars[k]) {
+				chars[++k] = c;
+				bounds[k] = i;
+			}
+		}
+		bounds[childCount] = end;
+
+		// 为子结点寻找位置，并占用之
+		int b = findBase(chars);
+		base[node] = b;
+		for (int k = 0; k < childCount; k++) {
+			int child = b + chars[k];
+			check[child] = node;
+			if (child > maxUsed) {
+				maxUsed = child;
+			}
+		}
+
+		// 递归构建子结点
+		for (int k = 0; k < childCount; k++) {
+			insert(b + chars[k], depth + 1, bounds[k], bounds[k + 1]);
+		}
+	}
+
+	/**
+	 * 寻找一个base值，使得base+chars[i]所有位置都未被使用
+	 */
+	private int findBase(char[] chars) {
+		final char first = chars[0];
+		final char lastChar = chars[chars.length - 1];
+		int pos = Math.max(first + 1, nextCheckPos) - 1;
+		int nonFree = 0;
+		boolean firstFree = true;
+		int b;
+		while (true) {
+			pos++;
+			ensureCapacity(pos + 1);
+			if (check[pos] != FREE) {
+				nonFree++;
+				continue;
+			} else if (firstFree) {
+				nextCheckPos = pos;
+				firstFree = false;
+			}
+			b = pos - first;
+			ensureCapacity(b + lastChar + 1);
+			boolean conflict = false;
+			for (int k = 1; k < chars.length; k++) {
+				if (check[b + chars[k]] != FREE) {
+					conflict = true;
+					break;
+				}
+			}
+			if (!conflict) {
+				break;
+			}
+		}
+		// 从nextCheckPos开始已经很少空闲位置，则下次从更后面开始寻找
+		if (nonFree >= 0.95 * (pos - nextCheckPos + 1)) {
+			nextCheckPos = pos;
+		}
+		return b;
+	}
+
+	private void ensureCapacity(int required) {
+		if (required <= check.length) {
+			return;
+		}
+		int capacity = Math.max(required, check.length + (check.length >> 1));
+		base = copyOf(base, capacity, 0);
+		check = copyOf(check, capacity, FREE);
+		value = copyOf(value, capacity, 0);
+	}
+
+	private static int[] copyOf(int[] array, int length, int fill) {
+		int[] copy = new int[length];
+		int copied = Math.min(array.length, length);
+		System.arraycopy(array, 0, copy, 0, copied);
+		if (fill != 0 && copied < length) {
+			Arrays.fill(copy, copied, length, fill);
+		}
+		return copy;
+	}
+
+}
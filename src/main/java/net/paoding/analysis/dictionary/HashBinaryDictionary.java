@@ -15,8 +15,8 @@
  */
 package net.paoding.analysis.dictionary;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Dictionary的散列+二叉查找实现。
@@ -28,6 +28,10 @@ import java.util.Map;
  * 查找词语时，先根据第一个字符找得分词典(BinaryDictionary实现)，再从该分词典中定位该词语。
  * <p>
  * 
+ * 头字符到分词典的映射不使用HashMap，以免每次查找都要把字符装箱：
+ * 头字符分布足够密集时(如汉字词汇表的第一级)直接以字符为下标存放在数组中，否则使用以字符为键的开放定址表。
+ * <p>
+ * 
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
  * 
  * @see BinaryDictionary
@@ -45,9 +49,29 @@ public class HashBinaryDictionary implements Dictionary {
 	private Word[] ascWords;
 
 	/**
-	 * 首字符到分词典的映射
+	 * 首字符到分词典的映射表，参见{@link #getSubDictionary(char)}
+	 */
+	private SubDictionaryWrap[] subs;
+
+	/**
+	 * 非负时表示{@link #subs}是直接以(字符-directBase)为下标的数组；-1表示{@link #subs}是开放定址表
+	 */
+	private int directBase = -1;
+
+	/**
+	 * 开放定址表的掩码(表的长度为2的幂)
+	 */
+	private int mask;
+
+	/**
+	 * 构造过程中暂存的分词典，构造完成后即清除
+	 */
+	private List<SubDictionaryWrap> pendings;
+
+	/**
+	 * 开放定址表的负载因子
 	 */
-	private Map<Object, SubDictionaryWrap> subs;
+	private final float loadFactor;
 
 	/**
 	 * 
@@ -65,7 +89,9 @@ public class HashBinaryDictionary implements Dictionary {
 	 * @param ascWords
 	 *            升序排列词语
 	 * @param initialCapacity
+	 *            预计的分词典个数
 	 * @param loadFactor
+	 *            映射表的负载因子
 	 */
 	public HashBinaryDictionary(Word[] ascWords, int initialCapacity,
 			float loadFactor) {
@@ -79,9 +105,12 @@ public class HashBinaryDictionary implements Dictionary {
 		this.end = end;
 		this.count = end - start;
 		this.hashIndex = hashIndex;
-		subs = new HashMap<Object, SubDictionaryWrap>(initialCapacity,
-				loadFactor);
+		this.loadFactor = loadFactor;
+		this.pendings = new ArrayList<SubDictionaryWrap>(Math.min(
+				initialCapacity, count));
 		createSubDictionaries();
+		createTable();
+		this.pendings = null;
 	}
 
 	// -------------------------------------------------
@@ -130,7 +159,43 @@ public class HashBinaryDictionary implements Dictionary {
 		Dictionary subDic = createSubDictionary(ascWords, beginIndex, endIndex);
 		SubDictionaryWrap subDicWrap = new SubDictionaryWrap(hashChar,
 				subDic, beginIndex);
-		subs.put(keyOf(hashChar), subDicWrap);
+		pendings.add(subDicWrap);
+	}
+
+	/**
+	 * 把{@link #createSubDictionaries()}创建的分词典放入映射表，为构造函数调用
+	 */
+	protected void createTable() {
+		if (pendings.isEmpty()) {
+			subs = new SubDictionaryWrap[1];
+			mask = 0;
+			return;
+		}
+		// 分词典是按头字符升序创建的
+		int minChar = pendings.get(0).hashChar;
+		int maxChar = pendings.get(pendings.size() - 1).hashChar;
+		int span = maxChar - minChar + 1;
+		if (span <= Math.max(64, pendings.size() * 8)) {
+			directBase = minChar;
+			subs = new SubDictionaryWrap[span];
+			for (SubDictionaryWrap wrap : pendings) {
+				subs[wrap.hashChar - minChar] = wrap;
+			}
+		} else {
+			int capacity = 2;
+			while (capacity * loadFactor < pendings.size() + 1) {
+				capacity <<= 1;
+			}
+			subs = new SubDictionaryWrap[capacity];
+			mask = capacity - 1;
+			for (SubDictionaryWrap wrap : pendings) {
+				int i = slotOf(wrap.hashChar);
+				while (subs[i] != null) {
+					i = (i + 1) & mask;
+				}
+				subs[i] = wrap;
+			}
+		}
 	}
 
 	protected Dictionary createSubDictionary(Word[] ascWords, int beginIndex,
@@ -171,36 +236,46 @@ public class HashBinaryDictionary implements Dictionary {
 	}
 
 	public Hit search(CharSequence input, int begin, int count) {
-		SubDictionaryWrap subDic = (SubDictionaryWrap) subs.get(keyOf(input
-				.charAt(hashIndex + begin)));
+		Hit hit = search(input, begin, count, new Hit());
+		return hit.isUndefined() ? Hit.UNDEFINED : hit;
+	}
+
+	public Hit search(CharSequence input, int begin, int count, Hit hit) {
+		SubDictionaryWrap subDic = getSubDictionary(input.charAt(hashIndex
+				+ begin));
 		if (subDic == null) {
-			return Hit.UNDEFINED;
+			return hit.undefined();
 		}
 		Dictionary dic = subDic.dic;
 		// 对count==hashIndex + 1的处理
 		if (count == hashIndex + 1) {
 			Word header = dic.get(0);
 			if (header.length() == hashIndex + 1) {
-				if (subDic.wordIndexOffset + 1 < this.ascWords.length) {
-					return new Hit(subDic.wordIndexOffset, header,
-							this.ascWords[subDic.wordIndexOffset + 1]);
-				} else {
-					return new Hit(subDic.wordIndexOffset, header, null);
-				}
+				return setHit(hit, subDic.wordIndexOffset, header);
 			} else {
-				return new Hit(Hit.UNCLOSED_INDEX, null, header);
+				return hit.set(Hit.UNCLOSED_INDEX, null, header);
 			}
 		}
 		// count > hashIndex + 1
-		Hit word = dic.search(input, begin, count);
-		if (word.isHit()) {
-			int index = subDic.wordIndexOffset + word.getIndex();
-			word.setIndex(index);
-			if (word.getNext() == null && index < size()) {
-				word.setNext(get(index + 1));
-			}
+		dic.search(input, begin, count, hit);
+		if (hit.isHit()) {
+			// 分词典返回的是词语在分词典中的位置
+			setHit(hit, subDic.wordIndexOffset + hit.getIndex(), hit.getWord());
 		}
-		return word;
+		return hit;
+	}
+
+	/**
+	 * 以词语在ascWords中的位置填写命中结果
+	 */
+	private Hit setHit(Hit hit, int wordIndex, Word word) {
+		int nextWordIndex = wordIndex + 1;
+		return hit.set(wordIndex - start, word,
+				nextWordIndex < ascWords.length ? ascWords[nextWordIndex] : null);
+	}
+
+	public DictionaryCursor cursor() {
+		return new BinaryDictionaryCursor(ascWords, start, end, this);
 	}
 
 	public int size() {
@@ -210,16 +285,41 @@ public class HashBinaryDictionary implements Dictionary {
 	// -------------------------------------------------
 
 	/**
-	 * 字符的在{@link #subs}的key值。
+	 * 本字典以词语的第几个字符(从0开始)散列分词典
+	 */
+	int getHashIndex() {
+		return hashIndex;
+	}
+
+	/**
+	 * 返回散列字符为hashChar的分词典，没有时返回null
+	 */
+	SubDictionaryWrap getSubDictionary(char hashChar) {
+		final SubDictionaryWrap[] subs = this.subs;
+		if (directBase >= 0) {
+			int i = hashChar - directBase;
+			return i >= 0 && i < subs.length ? subs[i] : null;
+		}
+		SubDictionaryWrap wrap;
+		for (int i = slotOf(hashChar); (wrap = subs[i]) != null; i = (i + 1) & mask) {
+			if (wrap.hashChar == hashChar) {
+				return wrap;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 字符在开放定址表中的首选位置
 	 * 
 	 * @param theChar
 	 * @return
 	 * 
 	 * @see #subs
 	 */
-	protected Object keyOf(char theChar) {
-		// return theChar - 0x4E00;// '一'==0x4E00
-		return new Integer(theChar);
+	private int slotOf(char theChar) {
+		// 同一分词典的头字符常常是相邻的汉字，乘以黄金分割数使之散开
+		return (theChar * 0x9E3779B9) >>> 16 & mask;
 	}
 
 	/**
@@ -30,6 +30,10 @@ package net.paoding.analysis.dictionary;
  * 如果{@link #isHit()}返回false，但{@link #isUnclosed()}返回true，{@link #getNext()}返回以所查询词语开头的位置最靠前的词语。
  * <p>
  * 
+ * 调用{@link Dictionary#search(CharSequence, int, int, Hit)}时，可由调用者创建一个Hit对象并在多次检索中重复使用，
+ * 字典只把检索结果填写到该对象中，而不再为每次检索创建新的Hit对象。
+ * <p>
+ * 
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
  * 
  * @see Dictionary
@@ -66,8 +70,27 @@ public class Hit {
 	 */
 	private Word next;
 
+	/**
+	 * 不为null时，{@link #next}尚未创建，在第一次{@link #getNext()}时取该字典的第nextIndex个词语
+	 */
+	private Dictionary nextDictionary;
+
+	private int nextIndex;
+
+	/**
+	 * next尚未创建时，预先判断好的next是否以word开头
+	 */
+	private boolean nextStartsWithWord;
+
 	// -------------------------------------------------
 
+	/**
+	 * 创建一个{@link #isUndefined()}的Hit对象，以作为{@link Dictionary#search(CharSequence, int, int, Hit)}的参数重复使用
+	 */
+	public Hit() {
+		this(UNDEFINED_INDEX, null, null);
+	}
+
 	/**
 	 * 
 	 * @param index
@@ -105,6 +128,10 @@ public class Hit {
 	 * @return
 	 */
 	public Word getNext() {
+		if (nextDictionary != null) {
+			next = nextDictionary.get(nextIndex);
+			nextDictionary = null;
+		}
 		return next;
 	}
 	
@@ -121,6 +148,9 @@ public class Hit {
 	 * @return
 	 */
 	public boolean isUnclosed() {
+		if (nextDictionary != null) {
+			return UNCLOSED_INDEX == this.index || nextStartsWithWord;
+		}
 		return UNCLOSED_INDEX == this.index
 				|| (this.next != null
 						&& this.next.length() >= this.word.length() && this.next
@@ -147,6 +177,42 @@ public class Hit {
 
 	void setNext(Word next) {
 		this.next = next;
+		this.nextDictionary = null;
+	}
+
+	/**
+	 * 填写检索结果，返回本对象
+	 */
+	Hit set(int index, Word word, Word next) {
+		this.index = index;
+		this.word = word;
+		this.next = next;
+		this.nextDictionary = null;
+		return this;
+	}
+
+	/**
+	 * 填写检索结果，但下一个词语等到{@link #getNext()}时才从字典中取出，返回本对象
+	 * 
+	 * @param nextStartsWithWord
+	 *            下一个词语是否以word开头，即{@link #isUnclosed()}所需的判断
+	 */
+	Hit set(int index, Word word, Dictionary nextDictionary, int nextIndex,
+			boolean nextStartsWithWord) {
+		this.index = index;
+		this.word = word;
+		this.next = null;
+		this.nextDictionary = nextDictionary;
+		this.nextIndex = nextIndex;
+		this.nextStartsWithWord = nextStartsWithWord;
+		return this;
+	}
+
+	/**
+	 * 设置为{@link #isUndefined()}状态，返回本对象
+	 */
+	Hit undefined() {
+		return set(UNDEFINED_INDEX, null, null);
 	}
 
 	// -------------------------------------------------
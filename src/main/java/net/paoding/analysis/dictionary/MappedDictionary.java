@@ -0,0 +1,255 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 直接从内存映射的二进制编译文件中检索的Dictionary实现。
+ * <p>
+ * 二进制编译文件由{@link #write(Word[], File)}写出，按顺序包含(均为little-endian)：
+ * <li>文件头：魔数、格式版本、词语个数n、字符区长度、首字符个数k</li>
+ * <li>int[n+1]：每个词语在字符区中的开始位置，最后一个为字符区长度</li>
+ * <li>int[k+1]：每个首字符的第一个词语位置，最后一个为n</li>
+ * <li>char[k]：升序排列的首字符</li>
+ * <li>byte[n]：每个词语的modifiers</li>
+ * <li>char[]：所有词语按升序首尾相接而成的UTF-16字符区</li>
+ * <p>
+ *
+ * 打开字典只是一次mmap，不需要像文本编译文件那样逐行解析、为每个词语创建Word和String对象。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see ArenaDictionary
+ *
+ * @since 2.0.4
+ */
+public class MappedDictionary extends ArenaDictionary {
+
+	// -------------------------------------------------
+
+	/**
+	 * 二进制编译文件的魔数："PDIC"
+	 */
+	public static final int MAGIC = 0x50444943;
+
+	/**
+	 * 二进制编译文件的格式版本
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final int HEADER_INTS = 5;
+
+	// -------------------------------------------------
+
+	private final IntBuffer offsets;
+
+	private final IntBuffer indexStarts;
+
+	private final CharBuffer indexChars;
+
+	private final ByteBuffer modifiers;
+
+	private final CharBuffer arena;
+
+	// -------------------------------------------------
+
+	/**
+	 * 以write写出的二进制内容构造字典，buffer可以是内存映射的，也可以是普通的ByteBuffer
+	 *
+	 * @param buffer
+	 * @throws IOException
+	 *             内容不是合法的二进制编译字典时
+	 */
+	public MappedDictionary(ByteBuffer buffer) throws IOException {
+		super(readCount(buffer));
+		ByteBuffer buf = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		int arenaLength = buf.getInt(12);
+		int indexCount = buf.getInt(16);
+		long expected = HEADER_INTS * 4L + (count + 1) * 4L
+				+ (indexCount + 1) * 4L + indexCount * 2L + count
+				+ arenaLength * 2L;
+		if (arenaLength < 0 || indexCount < 0
+				|| expected != buf.limit()) {
+			throw new IOException("corrupted binary dictionary");
+		}
+		int position = HEADER_INTS * 4;
+		this.offsets = slice(buf, position, (count + 1) * 4).asIntBuffer();
+		position += (count + 1) * 4;
+		this.indexStarts = slice(buf, position, (indexCount + 1) * 4)
+				.asIntBuffer();
+		position += (indexCount + 1) * 4;
+		this.indexChars = slice(buf, position, indexCount * 2).asCharBuffer();
+		position += indexCount * 2;
+		this.modifiers = slice(buf, position, count);
+		position += count;
+		this.arena = slice(buf, position, arenaLength * 2).asCharBuffer();
+	}
+
+	/**
+	 * 校验文件头并返回词语个数
+	 */
+	private static int readCount(ByteBuffer buffer) throws IOException {
+		ByteBuffer buf = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		buf.position(0);
+		if (buf.remaining() < HEADER_INTS * 4 || buf.getInt() != MAGIC) {
+			throw new IOException("not a binary compiled dictionary");
+		}
+		int version = buf.getInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("unsupported binary dictionary version "
+					+ version);
+		}
+		int count = buf.getInt();
+		if (count < 0) {
+			throw new IOException("corrupted binary dictionary");
+		}
+		return count;
+	}
+
+	private static ByteBuffer slice(ByteBuffer buf, int position, int length) {
+		ByteBuffer dup = buf.duplicate();
+		dup.limit(position + length);
+		dup.position(position);
+		return dup.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * 以只读方式映射二进制编译文件并构造字典
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static MappedDictionary open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			// 映射建立后即使关闭文件也仍然有效
+			return new MappedDictionary(channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * 把一组升序排列的词语写为二进制编译文件
+	 *
+	 * @param ascWords
+	 *            升序排列词语
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void write(Word[] ascWords, File file) throws IOException {
+		int count = ascWords.length;
+		int arenaLength = 0;
+		int indexCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (ascWords[i].length() == 0) {
+				throw new IllegalArgumentException("empty word at " + i);
+			}
+			arenaLength += ascWords[i].length();
+			if (i == 0 || firstChar(ascWords[i]) != firstChar(ascWords[i - 1])) {
+				indexCount++;
+			}
+		}
+		int size = HEADER_INTS * 4 + (count + 1) * 4 + (indexCount + 1) * 4
+				+ indexCount * 2 + count + arenaLength * 2;
+		ByteBuffer buf = ByteBuffer.allocate(size).order(
+				ByteOrder.LITTLE_ENDIAN);
+		buf.putInt(MAGIC);
+		buf.putInt(FORMAT_VERSION);
+		buf.putInt(count);
+		buf.putInt(arenaLength);
+		buf.putInt(indexCount);
+		int offset = 0;
+		for (int i = 0; i < count; i++) {
+			buf.putInt(offset);
+			offset += ascWords[i].length();
+		}
+		buf.putInt(offset);
+		for (int i = 0; i < count; i++) {
+			if (i == 0 || firstChar(ascWords[i]) != firstChar(ascWords[i - 1])) {
+				buf.putInt(i);
+			}
+		}
+		buf.putInt(count);
+		for (int i = 0; i < count; i++) {
+			if (i == 0 || firstChar(ascWords[i]) != firstChar(ascWords[i - 1])) {
+				buf.putChar(firstChar(ascWords[i]));
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			buf.put((byte) ascWords[i].getModifiers());
+		}
+		for (int i = 0; i < count; i++) {
+			Word word = ascWords[i];
+			for (int j = 0; j < word.length(); j++) {
+				buf.putChar(word.charAt(j));
+			}
+		}
+		buf.flip();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			FileChannel channel = out.getChannel();
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static char firstChar(Word word) {
+		return word.charAt(0);
+	}
+
+	// -------------------------------------------------
+
+	protected int offset(int index) {
+		return offsets.get(index);
+	}
+
+	protected char arenaChar(int position) {
+		return arena.get(position);
+	}
+
+	protected int modifiers(int index) {
+		return modifiers.get(index) & 0xff;
+	}
+
+	protected int indexSize() {
+		return indexChars.limit();
+	}
+
+	protected char indexChar(int i) {
+		return indexChars.get(i);
+	}
+
+	protected int indexStart(int i) {
+		return indexStarts.get(i);
+	}
+}
@@ -0,0 +1,447 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.dictionary.support.detection;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.paoding.analysis.DaemonThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 字典目录变化检测器：在后台线程中检测home下文件的增加、修改和删除，并以{@link Difference}通知给{@link DifferenceListener}。
+ * <p>
+ * 默认使用{@link WatchService}，由文件系统直接告知变化了的文件，不需要每次都扫描整个目录；
+ * 文件系统不支持WatchService时(或设置watch为false时)，退回为每隔interval以{@link Snapshot}扫描比较一次。
+ * <p>
+ * 编辑器保存、批量拷贝等操作往往在短时间内产生一连串的变化，检测器会等到连续debounce毫秒内没有新的变化后才合并为一个Difference通知；
+ * 持续不断的变化最多推迟interval毫秒。
+ * WatchService丢失事件(OVERFLOW)或有目录被删除时，检测器以一次全目录扫描比较补齐这一批的变化。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see Snapshot
+ * @see DifferenceListener
+ *
+ * @since 2.0.4
+ */
+public class Detector implements Runnable {
+
+	private static final Logger log = LoggerFactory.getLogger(Detector.class);
+
+	// -------------------------------------------------
+
+	private DifferenceListener listener;
+
+	private File home;
+
+	private FileFilter filter;
+
+	/**
+	 * 扫描比较的时间间隔，也是一批变化最多推迟通知的时间(毫秒)
+	 */
+	private long interval = 60000;
+
+	/**
+	 * 一批变化结束的判断：连续debounce毫秒内没有新的变化(毫秒)
+	 */
+	private long debounce = 500;
+
+	/**
+	 * 是否使用WatchService，false表示总是扫描比较
+	 */
+	private boolean watch = true;
+
+	private Snapshot lastSnapshot;
+
+	private volatile Thread thread;
+
+	private volatile WatchService watcher;
+
+	/**
+	 * 检测线程取得比较的起点(使用WatchService时在注册之后)时打开
+	 */
+	private volatile CountDownLatch started;
+
+	// -------------------------------------------------
+
+	public Detector() {
+	}
+
+	public Detector(File home, FileFilter filter, DifferenceListener listener) {
+		this.home = home;
+		this.filter = filter;
+		this.listener = listener;
+	}
+
+	public DifferenceListener getListener() {
+		return listener;
+	}
+
+	public void setListener(DifferenceListener listener) {
+		this.listener = listener;
+	}
+
+	public File getHome() {
+		return home;
+	}
+
+	public void setHome(File home) {
+		this.home = home;
+	}
+
+	public FileFilter getFilter() {
+		return filter;
+	}
+
+	public void setFilter(FileFilter filter) {
+		this.filter = filter;
+	}
+
+	public long getInterval() {
+		return interval;
+	}
+
+	public void setInterval(long interval) {
+		this.interval = interval;
+	}
+
+	public long getDebounce() {
+		return debounce;
+	}
+
+	public void setDebounce(long debounce) {
+		this.debounce = debounce;
+	}
+
+	public boolean isWatch() {
+		return watch;
+	}
+
+	public void setWatch(boolean watch) {
+		this.watch = watch;
+	}
+
+	public synchronized Snapshot getLastSnapshot() {
+		return lastSnapshot;
+	}
+
+	public synchronized void setLastSnapshot(Snapshot lastSnapshot) {
+		this.lastSnapshot = lastSnapshot;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 启动检测线程；如果没有设置lastSnapshot，则以当前的目录状态作为比较的起点。
+	 * <p>
+	 * 检测线程注册好WatchService(或者退回为扫描比较)、取得比较的起点之后本方法才返回，此后的变化都会被检测到
+	 *
+	 * @param daemon
+	 */
+	public void start(boolean daemon) {
+		CountDownLatch started;
+		synchronized (this) {
+			if (thread != null) {
+				return;
+			}
+			started = this.started = new CountDownLatch(1);
+			thread = DaemonThreadFactory.newThread(this,
+					"paoding-dic-detector", daemon);
+			thread.start();
+		}
+		try {
+			started.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public synchronized void stop() {
+		Thread thread = this.thread;
+		this.thread = null;
+		if (thread != null) {
+			thread.interrupt();
+		}
+		WatchService watcher = this.watcher;
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	public Snapshot flash() {
+		return Snapshot.flash(home, filter);
+	}
+
+	public void run() {
+		try {
+			if (watch) {
+				try {
+					watch();
+					return;
+				} catch (IOException e) {
+					log.warn("WatchService unavailable for " + home
+							+ ", polling every " + interval + "ms instead: "
+							+ e.getMessage());
+				} catch (UnsupportedOperationException e) {
+					log.warn("WatchService unsupported for " + home
+							+ ", polling every " + interval + "ms instead");
+				}
+			}
+			initSnapshot();
+			while (isRunning()) {
+				Thread.sleep(interval);
+				forceCheckAndNotify();
+			}
+		} catch (InterruptedException e) {
+			// stop
+		} finally {
+			started.countDown();
+		}
+	}
+
+	/**
+	 * 立即扫描比较整个目录，如有变化，等到这一批变化结束后通知listener
+	 *
+	 * @return 是否有变化
+	 * @throws InterruptedException
+	 */
+	public boolean forceCheckAndNotify() throws InterruptedException {
+		Snapshot older = getLastSnapshot();
+		Snapshot current = flash();
+		if (current.diff(older).isEmpty()) {
+			return false;
+		}
+		long deadline = System.currentTimeMillis() + interval;
+		while (System.currentTimeMillis() < deadline) {
+			Thread.sleep(debounce);
+			Snapshot next = flash();
+			if (next.diff(current).isEmpty()) {
+				break;
+			}
+			current = next;
+		}
+		setLastSnapshot(current);
+		Difference diff = current.diff(older);
+		if (!diff.isEmpty()) {
+			notifyListener(diff);
+		}
+		return true;
+	}
+
+	// -------------------------------------------------
+
+	private boolean isRunning() {
+		return thread == Thread.currentThread();
+	}
+
+	/**
+	 * 没有设置lastSnapshot时以当前的目录状态作为比较的起点，然后通知start()返回
+	 */
+	private void initSnapshot() {
+		if (getLastSnapshot() == null) {
+			setLastSnapshot(flash());
+		}
+		started.countDown();
+	}
+
+	private void watch() throws IOException, InterruptedException {
+		WatchService watcher = home.toPath().getFileSystem().newWatchService();
+		this.watcher = watcher;
+		try {
+			Map<WatchKey, Path> dirs = new HashMap<WatchKey, Path>();
+			register(watcher, home, dirs, null);
+			// 先注册后取起点：两者之间的变化既在起点中也有事件，至多多通知一次，不会遗漏
+			initSnapshot();
+			// 这一批还未通知的变化：相对home的路径->合并后的变化类型
+			Map<String, WatchEvent.Kind<?>> pending = new LinkedHashMap<String, WatchEvent.Kind<?>>();
+			boolean rescan = false;
+			long deadline = 0;
+			while (isRunning()) {
+				WatchKey key;
+				if (pending.isEmpty() && !rescan) {
+					key = watcher.take();
+					deadline = System.currentTimeMillis() + interval;
+				} else if (System.currentTimeMillis() < deadline) {
+					key = watcher.poll(debounce, TimeUnit.MILLISECONDS);
+				} else {
+					key = null;
+				}
+				if (key == null) {
+					// 一批变化结束
+					if (rescan) {
+						pending.clear();
+						rescan = false;
+						forceCheckAndNotify();
+					} else {
+						Difference diff = toDifference(pending);
+						// 只重新读取这一批变化了的文件，更新比较的起点；之后的扫描(比如OVERFLOW时)不会重复通知已经通知过的变化
+						setLastSnapshot(getLastSnapshot().update(pending.keySet()));
+						pending.clear();
+						notifyListener(diff);
+					}
+					continue;
+				}
+				Path dir = dirs.get(key);
+				for (WatchEvent<?> event : key.pollEvents()) {
+					WatchEvent.Kind<?> kind = event.kind();
+					if (kind == OVERFLOW || dir == null) {
+						rescan = true;
+						continue;
+					}
+					File file = dir.resolve((Path) event.context()).toFile();
+					if (kind == ENTRY_CREATE && file.isDirectory()) {
+						if (filter == null || filter.accept(file)) {
+							// 新目录下在注册之前就已存在的文件作为新增，只扫描这个新目录
+							register(watcher, file, dirs, pending);
+						}
+						continue;
+					}
+					if (kind == ENTRY_DELETE && isRegistered(dirs, file)) {
+						rescan = true;
+						continue;
+					}
+					if (file.isDirectory()
+							|| (filter != null && !filter.accept(file))) {
+						continue;
+					}
+					merge(pending, relativePath(file), kind);
+				}
+				if (!key.reset()) {
+					dirs.remove(key);
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			// stop
+		} finally {
+			this.watcher = null;
+			watcher.close();
+		}
+	}
+
+	/**
+	 * 注册dir及其子目录；pending不为null时，把其中已经存在的文件作为新增合并到pending
+	 */
+	private void register(WatchService watcher, File dir,
+			Map<WatchKey, Path> dirs, Map<String, WatchEvent.Kind<?>> pending)
+			throws IOException {
+		Path path = dir.toPath();
+		dirs.put(path.register(watcher, ENTRY_CREATE, ENTRY_DELETE,
+				ENTRY_MODIFY), path);
+		File[] children = dir.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (int i = 0; i < children.length; i++) {
+			File child = children[i];
+			if (filter != null && !filter.accept(child)) {
+				continue;
+			}
+			if (child.isDirectory()) {
+				register(watcher, child, dirs, pending);
+			} else if (pending != null) {
+				merge(pending, relativePath(child), ENTRY_CREATE);
+			}
+		}
+	}
+
+	private static boolean isRegistered(Map<WatchKey, Path> dirs, File file) {
+		return dirs.containsValue(file.toPath());
+	}
+
+	/**
+	 * 合并同一文件在一批变化中的多个事件：新建后修改仍为新建，新建后删除为无变化，删除后新建为修改
+	 */
+	private static void merge(Map<String, WatchEvent.Kind<?>> pending,
+			String path, WatchEvent.Kind<?> kind) {
+		WatchEvent.Kind<?> prev = pending.get(path);
+		if (prev == null) {
+			pending.put(path, kind);
+		} else if (kind == ENTRY_DELETE) {
+			if (prev == ENTRY_CREATE) {
+				pending.remove(path);
+			} else {
+				pending.put(path, ENTRY_DELETE);
+			}
+		} else if (prev == ENTRY_DELETE) {
+			pending.put(path, ENTRY_MODIFY);
+		}
+	}
+
+	private static Difference toDifference(
+			Map<String, WatchEvent.Kind<?>> pending) {
+		Difference diff = new Difference();
+		for (Iterator<Map.Entry<String, WatchEvent.Kind<?>>> iter = pending
+				.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, WatchEvent.Kind<?>> e = iter.next();
+			Node node = new Node(e.getKey(), true);
+			if (e.getValue() == ENTRY_CREATE) {
+				diff.getNewcome().add(node);
+			} else if (e.getValue() == ENTRY_DELETE) {
+				diff.getDeleted().add(node);
+			} else {
+				diff.getModified().add(node);
+			}
+		}
+		return diff;
+	}
+
+	/**
+	 * 与{@link Snapshot}一致：相对home的路径，使用/作为目录分隔符
+	 */
+	private String relativePath(File file) {
+		String root = home.getAbsolutePath();
+		return file.getAbsolutePath().substring(root.length() + 1).replace(
+				'\\', '/');
+	}
+
+	private void notifyListener(Difference diff) {
+		if (diff.isEmpty()) {
+			return;
+		}
+		if (log.isInfoEnabled()) {
+			log.info("dictionaries changed in " + home + ": " + diff);
+		}
+		try {
+			listener.on(diff);
+		} catch (Exception e) {
+			log.error("failed to apply dictionary changes " + diff, e);
+		}
+	}
+}
@@ -19,9 +19,11 @@ import java.io.File;
 import java.io.FileFilter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -99,6 +101,50 @@ public class Snapshot {
 		checksum = null;
 	}
 	
+	/**
+	 * 返回以本快照为基础、只重新读取paths中文件状态的新快照：不再存在的文件被移除，其余文件沿用本快照的记录。
+	 * <p>
+	 * 已经由WatchService得知哪些文件变化时，以此代替{@link #flash(File, FileFilter)}对整个目录的扫描。
+	 * 
+	 * @param paths
+	 *            相对根的路径，使用/作为目录分隔符
+	 * @return
+	 */
+	public Snapshot update(Collection<String> paths) {
+		Snapshot snapshot = new Snapshot();
+		snapshot.version = System.currentTimeMillis();
+		snapshot.root = root;
+		snapshot.nodesMap.putAll(nodesMap);
+		for (Iterator<String> iter = paths.iterator(); iter.hasNext();) {
+			String path = iter.next();
+			File f = new File(root, path);
+			if (f.isFile()) {
+				InnerNode node = new InnerNode();
+				node.path = path;
+				node.isFile = true;
+				node.lastModified = f.lastModified();
+				int index = path.lastIndexOf('/');
+				node.parent = index == -1 ? root : path.substring(0, index);
+				snapshot.nodesMap.put(path, node);
+			} else {
+				snapshot.nodesMap.remove(path);
+			}
+		}
+		List<InnerNode> nodes = new ArrayList<InnerNode>(snapshot.nodesMap
+				.size());
+		for (Iterator<InnerNode> iter = snapshot.nodesMap.values().iterator(); iter
+				.hasNext();) {
+			InnerNode node = iter.next();
+			// 根结点只在nodesMap中
+			if (!node.path.equals(root)) {
+				nodes.add(node);
+			}
+		}
+		snapshot.nodes = nodes.toArray(new InnerNode[nodes.size()]);
+		Arrays.sort(snapshot.nodes);
+		return snapshot;
+	}
+
 	/**
 	 * build checksum of snapshot
 	 * 
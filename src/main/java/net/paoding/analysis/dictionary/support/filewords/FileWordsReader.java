@@ -21,15 +21,26 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import net.paoding.analysis.DaemonThreadFactory;
 import net.paoding.analysis.dictionary.Word;
 import net.paoding.analysis.knife.CharSet;
 
@@ -56,8 +67,77 @@ public class FileWordsReader {
 		return l.getResult();
 	}
 
+	/**
+	 * 并行读取fileOrDirectory下的字典文件：每个文件由线程池中的一个线程以它自己的{@link SimpleReadListener}读取，
+	 * 所以同一文件的onFileBegin/onWord/onFileEnd仍在同一线程中依次回调；全部读完后再合并为一个Map。
+	 * <p>
+	 * 
+	 * @param threads
+	 *            最多使用的线程数；小于等于0表示使用可用处理器的个数，1表示在当前线程中顺序读取
+	 * @since 2.0.4
+	 */
+	public static Map<String, Set<Word>> readWords(String fileOrDirectory,
+			String charsetName, int maxWordLen, int threads) throws IOException {
+		if (threads <= 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		File file = getFile(fileOrDirectory);
+		final String dir = getDir(file);
+		List<File> dics = listFiles(file);
+		threads = Math.min(threads, dics.size());
+		if (threads <= 1) {
+			return readWords(fileOrDirectory, charsetName, maxWordLen);
+		}
+		// 大文件先读，避免最大的文件最后才开始而拖长整体时间
+		Collections.sort(dics, new Comparator<File>() {
+			public int compare(File a, File b) {
+				long d = b.length() - a.length();
+				return d > 0 ? 1 : (d < 0 ? -1 : 0);
+			}
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(threads,
+				new DaemonThreadFactory("paoding-dic-reader-"));
+		try {
+			List<Future<Map<String, Set<Word>>>> futures = new ArrayList<Future<Map<String, Set<Word>>>>(
+					dics.size());
+			for (Iterator<File> iter = dics.iterator(); iter.hasNext();) {
+				final File f = iter.next();
+				final String charset = charsetName;
+				final int maxLen = maxWordLen;
+				futures.add(executor
+						.submit(new Callable<Map<String, Set<Word>>>() {
+							public Map<String, Set<Word>> call()
+									throws IOException {
+								SimpleReadListener l = new SimpleReadListener();
+								readFile(f, dir, l, charset, maxLen);
+								return l.getResult();
+							}
+						}));
+			}
+			Map<String, Set<Word>> result = new Hashtable<String, Set<Word>>();
+			for (Iterator<Future<Map<String, Set<Word>>>> iter = futures
+					.iterator(); iter.hasNext();) {
+				result.putAll(get(iter.next()));
+			}
+			return result;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	public static void readWords(String fileOrDirectory, ReadListener l, String charsetName, int maxWordLen)
 			throws IOException {
+		File file = getFile(fileOrDirectory);
+		String dir = getDir(file);
+		for (Iterator<File> iter = listFiles(file).iterator(); iter.hasNext();) {
+			readFile(iter.next(), dir, l, charsetName, maxWordLen);
+		}
+	}
+
+	// -------------------------------------------------
+
+	private static File getFile(String fileOrDirectory)
+			throws FileNotFoundException {
 		File file;
 		if (fileOrDirectory.startsWith("classpath:")) {
 			String name = fileOrDirectory.substring("classpath:".length());
@@ -73,15 +153,23 @@ public class FileWordsReader {
 				throw new FileNotFoundException("file \"" + fileOrDirectory + "\" not found!");
 			}
 		}
+		return file;
+	}
+
+	private static String getDir(File file) {
+		if (file.isDirectory()) {
+			return file.getAbsolutePath();
+		}
+		return file.getParentFile().getAbsolutePath();
+	}
+
+	private static List<File> listFiles(File file) {
 		ArrayList<File> dirs = new ArrayList<File>();
 		LinkedList<File> dics = new LinkedList<File>();
-		String dir;
 		if (file.isDirectory()) {
 			dirs.add(file);
-			dir = file.getAbsolutePath();
 		} else {
 			dics.add(file);
-			dir = file.getParentFile().getAbsolutePath();
 		}
 		int index = 0;
 		while (index < dirs.size()) {
@@ -96,16 +184,20 @@ public class FileWordsReader {
 				}
 			}
 		}
-		for (Iterator<File> iter = dics.iterator(); iter.hasNext();) {
-			File f = (File) iter.next();
-			String name = f.getAbsolutePath().substring(
-						dir.length() + 1);
-			name = name.replace('\\', '/');
-			if (!l.onFileBegin(name)) {
-				continue;
-			}
-			BufferedReader in = new BufferedReader(new InputStreamReader(
-					new FileInputStream(f), charsetName));
+		return dics;
+	}
+
+	private static void readFile(File f, String dir, ReadListener l,
+			String charsetName, int maxWordLen) throws IOException {
+		String name = f.getAbsolutePath().substring(
+					dir.length() + 1);
+		name = name.replace('\\', '/');
+		if (!l.onFileBegin(name)) {
+			return;
+		}
+		BufferedReader in = new BufferedReader(new InputStreamReader(
+				new FileInputStream(f), charsetName));
+		try {
 			String word;
 			boolean firstInDic = true;
 			while ((word = in.readLine()) != null) {
@@ -127,10 +219,32 @@ public class FileWordsReader {
 				}
 			}
 			l.onFileEnd(name);
+		} finally {
 			in.close();
 		}
 	}
-	
+
+	private static <T> T get(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while reading dictionaries");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
 	private static String getUrlPath(URL url){
 		if (url == null) return null;
 		String urlPath = null;
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.knife;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.ext.PaodingAnalyzerListener;
+
+/**
+ * 以一个原子引用持有当前{@link DictionarySet}快照的Dictionaries，是字典热替换的发布点。
+ * <p>
+ * 同一个Paoding的所有Knife共用一个AtomicDictionaries：Knife每次dissect只读取一次{@link #current()}；
+ * 重新装载字典的一方创建好新的快照后以{@link #publish(DictionarySet)}一次CAS发布，
+ * 读取的一方从不加锁，也不会看到新旧字典混杂的状态。
+ * <p>
+ *
+ * 为了兼容，本类的getXxxDictionary方法返回当前快照中的字典，但连续调用可能来自不同的快照；
+ * 需要一致性的地方应该先取得current()再从中读取。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see DictionarySet
+ * @see FileDictionariesDifferenceListener
+ *
+ * @since 2.0.4
+ */
+public class AtomicDictionaries implements Dictionaries {
+
+	/**
+	 * 所有AtomicDictionaries成功发布新快照的总次数，依赖字典内容的缓存以之判断是否失效
+	 */
+	private static final AtomicLong publications = new AtomicLong();
+
+	private final AtomicReference<DictionarySet> current;
+
+	public AtomicDictionaries(DictionarySet initial) {
+		if (initial == null) {
+			throw new NullPointerException("initial");
+		}
+		this.current = new AtomicReference<DictionarySet>(initial);
+	}
+
+	/**
+	 * dictionaries本身是AtomicDictionaries时返回之，否则以它的快照创建一个新的AtomicDictionaries
+	 *
+	 * @param dictionaries
+	 * @return
+	 */
+	public static AtomicDictionaries of(Dictionaries dictionaries) {
+		if (dictionaries instanceof AtomicDictionaries) {
+			return (AtomicDictionaries) dictionaries;
+		}
+		return new AtomicDictionaries(DictionarySet.snapshot(dictionaries));
+	}
+
+	/**
+	 * 所有AtomicDictionaries成功发布新快照的总次数；两次读取之间没有变化，说明这期间没有字典被替换
+	 */
+	public static long getPublications() {
+		return publications.get();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 当前的快照
+	 */
+	public DictionarySet current() {
+		return current.get();
+	}
+
+	/**
+	 * 发布新的快照；如果当前的快照版本比它新(已经有更新的重新装载先发布了)，则放弃发布。
+	 *
+	 * @param update
+	 * @return 是否发布成功
+	 */
+	public boolean publish(DictionarySet update) {
+		for (;;) {
+			DictionarySet expect = current.get();
+			if (expect.getVersion() > update.getVersion()) {
+				return false;
+			}
+			if (current.compareAndSet(expect, update)) {
+				publications.incrementAndGet();
+				return true;
+			}
+		}
+	}
+
+	// -------------------------------------------------
+
+	public Dictionary getVocabularyDictionary() {
+		return current().getVocabularyDictionary();
+	}
+
+	public Dictionary getConfucianFamilyNamesDictionary() {
+		return current().getConfucianFamilyNamesDictionary();
+	}
+
+	public Dictionary getNoiseCharactorsDictionary() {
+		return current().getNoiseCharactorsDictionary();
+	}
+
+	public Dictionary getNoiseWordsDictionary() {
+		return current().getNoiseWordsDictionary();
+	}
+
+	public Dictionary getUnitsDictionary() {
+		return current().getUnitsDictionary();
+	}
+
+	public Dictionary getCombinatoricsDictionary() {
+		return current().getCombinatoricsDictionary();
+	}
+
+	public void setAnalyzerListener(PaodingAnalyzerListener listener) {
+	}
+}
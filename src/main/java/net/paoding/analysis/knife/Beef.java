@@ -20,8 +20,8 @@ package net.paoding.analysis.knife;
  * <p>
  * {@link Beef}和{@link String}对象的不同之处在于：<br>
  * {@link Beef}共享输入的char数组，{@link String}的策略是对共享数组进行克隆，克隆损耗了性能。<br>
- * 同时，{@link Beef}在 {@link #charAt(int)}方法还进行对字符的预处理，使返回时符合规则:1)toLowerCase
- * 2)全角转半角等
+ * {@link Beef}中的字符应该已经由{@link CharNormalizer}规范化(1)toLowerCase 2)全角转半角等)，
+ * {@link #charAt(int)}直接返回数组中的字符，不再逐个预处理。
  * <p>
  * 
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
@@ -100,23 +100,13 @@ public class Beef implements CharSequence {
 	// -------------------------------------------------
 	
 	/**
-	 * 获取指定位置的字符。返回之前将被预处理：1)toLowerCase，2)全角转半角等
+	 * 获取指定位置的字符，超出范围时返回(char) -1
+	 * 
+	 * @see CharNormalizer
 	 */
 	public char charAt(int index) {
 		if (index >= 0 && index < count) {
-			char src = value[offset + index];
-			if (src > 65280 && src < 65375) {
-				src = (char) (src - 65248);
-				value[offset + index] = src;
-			}
-			if (src >= 'A' && src <= 'Z') {
-				src += 32;
-				value[offset + index] = src;
-			} else if (src == 12288) {
-				src = 32;
-				value[offset + index] = 32;
-			}
-			return src;
+			return value[offset + index];
 		}
 		return (char) -1;
 	}
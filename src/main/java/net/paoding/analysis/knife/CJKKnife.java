@@ -16,6 +16,7 @@
 package net.paoding.analysis.knife;
 
 import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.dictionary.DictionaryCursor;
 import net.paoding.analysis.dictionary.Hit;
 import net.paoding.analysis.dictionary.Word;
 
@@ -26,14 +27,14 @@ import net.paoding.analysis.dictionary.Word;
  * @since 1.0
  * 
  */
-public class CJKKnife implements Knife, DictionariesWare {
+public class CJKKnife implements Knife, DictionariesWare, CharClassAssignable {
 
 	// -------------------------------------------------
 
-	private Dictionary vocabulary;
-	private Dictionary noiseWords;
-	private Dictionary noiseCharactors;
-	private Dictionary units;
+	/**
+	 * 当前的字典；每次dissect只读取一次其快照，之后的分词都使用该快照
+	 */
+	private volatile AtomicDictionaries dictionaries;
 
 	// -------------------------------------------------
 
@@ -45,10 +46,7 @@ public class CJKKnife implements Knife, DictionariesWare {
 	}
 
 	public void setDictionaries(Dictionaries dictionaries) {
-		vocabulary = dictionaries.getVocabularyDictionary();
-		noiseWords = dictionaries.getNoiseWordsDictionary();
-		noiseCharactors = dictionaries.getNoiseCharactorsDictionary();
-		units = dictionaries.getUnitsDictionary();
+		this.dictionaries = AtomicDictionaries.of(dictionaries);
 	}
 
 	// -------------------------------------------------
@@ -69,7 +67,14 @@ public class CJKKnife implements Knife, DictionariesWare {
 		return LIMIT;
 	}
 
+	public boolean isAssignable(int charClass) {
+		return charClass == CharSet.CJK || charClass == CharSet.CHINESE_NUMERAL;
+	}
+
 	public int dissect(Collector collector, Beef beef, int offset) {
+		// 本次分词所用的字典快照，字典在分词过程中被替换也不影响本次分词
+		final DictionarySet dictionaries = this.dictionaries.current();
+
 		// 当point == -1时表示本次分解没有遇到POINT性质的字符；
 		// 如果point != -1，该值表示POINT性质字符的开始位置，
 		// 这个位置将被返回，下一个Knife将从point位置开始分词
@@ -109,8 +114,10 @@ public class CJKKnife implements Knife, DictionariesWare {
 		// 记录当前被检视的字符串的长度，它的值恒等于(curSearchEnd - curSearchOffset)
 		int curSearchLength;
 
-		// 当前检视的字符串的判断结果
-		Hit curSearch = null;
+		// 在词汇表上逐字前进的游标，它给出当前检视的字符串的判断结果
+		// 被检视的字符串开始位置改变时游标回到起点，结束位置每后移一个字符游标便前进一个字符
+		final DictionaryCursor curSearch = dictionaries
+				.getVocabularyDictionary().cursor();
 
 		// 限制要判断的字符串的最大开始位置
 		// 这个变量不随着程序的运行而变化
@@ -139,23 +146,25 @@ public class CJKKnife implements Knife, DictionariesWare {
 			// 它的起始状态是：被检视的字符串一长度为1，即结束位置为开始位置+1
 			curSearchEnd = curSearchOffset + 1;
 			curSearchLength = 1;
+			curSearch.reset();
 			for (; curSearchEnd <= limit; curSearchEnd++, curSearchLength++) {
 
+				// 游标前进到curSearchEnd位置(即使下面的中文数字判断跳过了词汇表的判断)
+				curSearch.next(beef.charAt(curSearchEnd - 1));
+
 				/*
 				 * Fix issue 50: 中文数字解析问题 
 				 */				
 				//先搜索连续的中文数字
-				curSearch = searchNumber(beef, curSearchOffset, curSearchLength);
-				if (curSearch.isHit()) {
+				int numberSearchEnd = searchNumber(beef, curSearchOffset, curSearchLength);
+				if (numberSearchEnd >= 0) {
 					if (isolatedOffset >= 0) {
-						dissectIsolated(collector, beef, isolatedOffset,
+						dissectIsolated(collector, dictionaries, beef, isolatedOffset,
 								curSearchOffset);
 						isolatedOffset = -1;
 					}
 					
-					// trick: 用index返回中文数字实际结束位置
-					int numberSearchEnd = curSearch.getIndex();
-					int numberSearchLength = curSearch.getIndex() - curSearchOffset;
+					int numberSearchLength = numberSearchEnd - curSearchOffset;
 
 					// 1.2)
 					// 更新最大结束位置
@@ -170,34 +179,29 @@ public class CJKKnife implements Knife, DictionariesWare {
 						maxDicWordLength = numberSearchLength;
 					}
 
-					Word word = curSearch.getWord();
-					if (!word.isNoise()) {
-						dissectIsolated(collector, beef, curSearchOffset,
-								curSearch.getIndex());
-					}
+					dissectIsolated(collector, dictionaries, beef, curSearchOffset,
+							numberSearchEnd);
 					curSearchOffset = numberSearchEnd - 1;
 					break;
 				}
-				if (curSearch.isUnclosed()) {
+				if (numberSearchEnd == Hit.UNCLOSED_INDEX) {
 					continue;
 				}
 
-				// 通过词汇表判断，返回判断结果curSearch
-				curSearch = vocabulary.search(beef, curSearchOffset,
-						curSearchLength);
+				// 通过词汇表判断，判断结果即游标curSearch的当前状态
 
 				// ---------------分析返回的判断结果--------------------------
 
 				// 1)
 				// 从词汇表中找到了该词语...
-				if (curSearch.isHit()) {
+				if (curSearch.isWord()) {
 
 					// 1.1)
 					// 确认孤立字符串的结束位置=curSearchOffset，
 					// 并调用子方法分解把从isolatedOffset开始的到curSearchOffset之间的孤立字符串
 					// 孤立字符串分解完毕，将孤立字符串开始位置isolatedOffset清空
 					if (isolatedOffset >= 0) {
-						dissectIsolated(collector, beef, isolatedOffset,
+						dissectIsolated(collector, dictionaries, beef, isolatedOffset,
 								curSearchOffset);
 						isolatedOffset = -1;
 					}
@@ -219,23 +223,18 @@ public class CJKKnife implements Knife, DictionariesWare {
 					// 通知collector本次找到的词语
 					Word word = curSearch.getWord();
 					if (!word.isNoise()) {
-						collector.collect(word.getText(), curSearchOffset,
-								curSearchEnd);
+						collect(collector, beef, curSearchOffset, curSearchEnd);
 					}
 				}
 
 				// 若isolatedFound==true，表示词典没有该词语
-				boolean isolatedFound = curSearch.isUndefined();
-
-				// 若isolatedFound==false，则通过Hit的next属性检视词典没有beef的从offset到curWordEnd
-				// + 1位置的词
-				// 这个判断完全是为了减少一次词典检索而设计的，
-				// 如果去掉这个if判断，并不影响程序的正确性(但是会多一次词典检索)
-				if (!isolatedFound && !curSearch.isHit()
-						&& curSearch.getNext() != null) {
-					isolatedFound = curSearchEnd >= limit
-							|| beef.charAt(curSearchEnd) < curSearch.getNext()
-									.charAt(curSearchLength);
+				boolean isolatedFound = curSearch.isDeadEnd();
+
+				// 若isolatedFound==false，且该字符串只是词典中某些词语的前缀，
+				// 但已经没有更多的字符可供检视，则它也是孤立的
+				// 其余情况下由游标在下一个字符处判断是否走入死路
+				if (!isolatedFound && !curSearch.isWord()) {
+					isolatedFound = curSearchEnd >= limit;
 				}
 				// 2)
 				// 词汇表中没有该词语，且没有以该词语开头的词汇...
@@ -257,7 +256,7 @@ public class CJKKnife implements Knife, DictionariesWare {
 		// 所以不能通过isolatedOffset来判断是否此时存在有孤立词，判断依据转换为：
 		// 最后一个词典的词的结束位置是否小于offsetLimit(!!offsetLimit, not Limit!!)
 		if (maxDicWordEnd < offsetLimit) {
-			dissectIsolated(collector, beef, maxDicWordEnd, offsetLimit);
+			dissectIsolated(collector, dictionaries, beef, maxDicWordEnd, offsetLimit);
 		}
 
 		// 现在是利用maxDicWordLength的时候了
@@ -266,8 +265,7 @@ public class CJKKnife implements Knife, DictionariesWare {
 		int len = limit - offset;
 		if (len > 2 && len != maxDicWordLength
 				&& shouldBeWord(beef, offset, limit)) {
-			collector.collect(beef.subSequence(offset, limit).toString(),
-					offset, limit);
+			collect(collector, beef, offset, limit);
 		}
 
 		// 按照point和limit的语义，返回下一个Knife开始切词的开始位置
@@ -276,53 +274,60 @@ public class CJKKnife implements Knife, DictionariesWare {
 
 	// -------------------------------------------------
 
-	protected Hit searchNumber(CharSequence input, int offset, int count) {
+	/**
+	 * 检视input从offset开始的count个字符是否以连续的中文数字开始
+	 * 
+	 * @return 部分含有中文数字时，返回这部分中文数字的结束位置；
+	 *         中文数字还没结束时返回{@link Hit#UNCLOSED_INDEX}；其他情况返回{@link Hit#UNDEFINED_INDEX}
+	 */
+	protected int searchNumber(CharSequence input, int offset, int count) {
 		int endPos = -1;
-		StringBuilder nums = new StringBuilder();
 		for (int i = 0; i < count; i++) {
 			char c = input.charAt(offset + i);
 			if (CharSet.toNumber(c) < 0) {
 				break;
 			}
-			nums.append(c);
 			endPos = i;
 		}
 		//没有中文数字了
 		if (endPos == -1) {
-			return Hit.UNDEFINED;
+			return Hit.UNDEFINED_INDEX;
 		}
 		//中文数字还没结束，后面可能还有
 		if (endPos == count - 1) {
-			return new Hit(Hit.UNCLOSED_INDEX, null, null);
+			return Hit.UNCLOSED_INDEX;
 		}
 		//只有一个中文数字，不是连续的，不处理
 		if (endPos == 0) {
-			return Hit.UNDEFINED;
+			return Hit.UNDEFINED_INDEX;
 		}
 		
-		//部分含有中文数字，取这一部分出来
-		//trick: 我们这里用index参数传递该部分中文的结束位置
-		return new Hit(offset + endPos + 1, new Word(nums.toString()), null);
+		//部分含有中文数字，返回该部分中文的结束位置
+		return offset + endPos + 1;
 	}
 
 	/**
 	 * 对孤立字符串分词
 	 * 
 	 * @param collector
+	 * @param dictionaries
+	 *            本次分词所用的字典快照
 	 * @param beef
 	 * @param offset
 	 * @param limit
 	 */
-	protected void dissectIsolated(Collector collector, Beef beef, int offset,
-			int limit) {
+	protected void dissectIsolated(Collector collector,
+			DictionarySet dictionaries, Beef beef, int offset, int limit) {
+		Dictionary noiseCharactors = dictionaries.getNoiseCharactorsDictionary();
 		int curSearchOffset = offset;
 		int binOffset = curSearchOffset; // 进行一般二元分词的开始位置
 		int tempEnd;
+		Hit hit = new Hit();
 
 		while (curSearchOffset < limit) {
 			// 孤立字符串如果是汉字数字，比如"五十二万"，"十三亿"，。。。
-			tempEnd = collectNumber(collector, beef, curSearchOffset, limit,
-					binOffset);
+			tempEnd = collectNumber(collector, dictionaries, beef,
+					curSearchOffset, limit, binOffset, hit);
 			if (tempEnd > curSearchOffset) {
 				curSearchOffset = tempEnd;
 				binOffset = tempEnd;
@@ -332,8 +337,8 @@ public class CJKKnife implements Knife, DictionariesWare {
 			// 魔幻逻辑：
 			// noiseWords的词在语言学上虽然也是词，但CJKKnife不会把它当成词汇表中的正常词，
 			// 有些noise词可能没有出现词汇表，则就会被视为孤立字符串在此处理(不被视为词汇、不进行二元分词)
-			tempEnd = skipNoiseWords(collector, beef, curSearchOffset, limit,
-					binOffset);
+			tempEnd = skipNoiseWords(collector, dictionaries, beef,
+					curSearchOffset, limit, binOffset, hit);
 			if (tempEnd > curSearchOffset) {
 				curSearchOffset = tempEnd;
 				binOffset = tempEnd;
@@ -341,8 +346,7 @@ public class CJKKnife implements Knife, DictionariesWare {
 			}
 
 			// 如果当前字符是noise单字，其不参加二元分词
-			Hit curSearch = noiseCharactors.search(beef, curSearchOffset, 1);
-			if (curSearch.isHit()) {
+			if (noiseCharactors.search(beef, curSearchOffset, 1, hit).isHit()) {
 				binDissect(collector, beef, binOffset, curSearchOffset);
 				binOffset = ++curSearchOffset;
 				continue;
@@ -356,8 +360,9 @@ public class CJKKnife implements Knife, DictionariesWare {
 		}
 	}
 
-	protected int collectNumber(Collector collector, Beef beef, int offset,
-			int limit, int binOffset) {
+	protected int collectNumber(Collector collector,
+			DictionarySet dictionaries, Beef beef, int offset, int limit,
+			int binOffset, Hit hit) {
 
 		/*
 		 * Fix : "百二十回" => 1020
@@ -453,25 +458,25 @@ public class CJKKnife implements Knife, DictionariesWare {
 			}
 			collector.collect(String.valueOf(number1), offset, curTail);
 			
+			Dictionary units = dictionaries.getUnitsDictionary();
 			if (units != null) {
 				// 后面可能跟了计量单位
-				Hit wd = null;
-				Hit wd2 = null;
+				Word unit = null;
 				int i = curTail + 1;
 				
 				/*
 				 * Fix issue 48: 查找计量单位引起的高亮越界错误
 				 */
-				while (i <= limit && (wd = units.search(beef, curTail, i - curTail)).isHit()) {
-					wd2 = wd;
+				while (i <= limit && units.search(beef, curTail, i - curTail, hit).isHit()) {
+					unit = hit.getWord();
 					i ++;
-					if (!wd.isUnclosed()) {
+					if (!hit.isUnclosed()) {
 						break;
 					}
 				}
 				i --;
-				if (wd2 != null) {
-					collector.collect(wd2.getWord().getText(), curTail, i);
+				if (unit != null) {
+					collect(collector, beef, curTail, i);
 					return i;
 				}
 			}
@@ -482,11 +487,13 @@ public class CJKKnife implements Knife, DictionariesWare {
 		return curTail;
 	}
 
-	protected int skipNoiseWords(Collector collector, Beef beef, int offset,
-			int end, int binOffset) {
+	protected int skipNoiseWords(Collector collector,
+			DictionarySet dictionaries, Beef beef, int offset, int end,
+			int binOffset, Hit hit) {
+		Dictionary noiseWords = dictionaries.getNoiseWordsDictionary();
 		Hit word;
 		for (int k = offset + 2; k <= end; k++) {
-			word = noiseWords.search(beef, offset, k - offset);
+			word = noiseWords.search(beef, offset, k - offset, hit);
 			if (word.isHit()) {
 				// 二元分词
 				if (binOffset > 0 && offset > binOffset) {
@@ -511,17 +518,27 @@ public class CJKKnife implements Knife, DictionariesWare {
 		// WXYZ ->WX/XY/YZ 同上
 
 		if (limit - offset == 1) {
-			collector.collect(beef.subSequence(offset, limit).toString(),
-					offset, limit);
+			collect(collector, beef, offset, limit);
 		} else {
 			// 穷尽二元分词
 			for (int curOffset = offset; curOffset < limit - 1; curOffset++) {
-				collector.collect(beef.subSequence(curOffset, curOffset + 2)
-						.toString(), curOffset, curOffset + 2);
+				collect(collector, beef, curOffset, curOffset + 2);
 			}
 		}
 	}
 
+	/**
+	 * 把beef中从offset到end位置止(不包含end位置的字符)的词语通知给collector，不创建String对象
+	 * 
+	 * @param collector
+	 * @param beef
+	 * @param offset
+	 * @param end
+	 */
+	protected void collect(Collector collector, Beef beef, int offset, int end) {
+		collector.collect(beef.getValue(), beef.getOffset() + offset, offset, end);
+	}
+
 	protected boolean shouldBeWord(Beef beef, int offset, int end) {
 		char prevChar = beef.charAt(offset - 1);
 		char endChar = beef.charAt(end);
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.knife;
+
+/**
+ * Knife可选实现的接口，表示它是否接受从某个位置开始分词只取决于该位置字符的类别。
+ * <p>
+ * 所有Knife都实现本接口时，{@link KnifeBox}按字符类别直接找到可能接受该字符的Knife，
+ * 不再逐个调用{@link Knife#assignable(Beef, int, int)}，并一次跳过没有Knife接受的连续字符。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see CharSet#charClass(char)
+ * @see KnifeBox
+ *
+ * @since 2.0.4
+ */
+public interface CharClassAssignable {
+
+	/**
+	 * 当且仅当{@link Knife#assignable(Beef, int, int)}对offset==index位置的此类字符返回
+	 * {@link Knife#ASSIGNED}时，返回true
+	 *
+	 * @param charClass
+	 *            {@link CharSet#charClass(char)}返回的字符类别
+	 * @return
+	 */
+	public boolean isAssignable(int charClass);
+
+}
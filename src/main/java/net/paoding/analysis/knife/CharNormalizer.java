@@ -0,0 +1,192 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.knife;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import net.paoding.analysis.Constants;
+
+/**
+ * 以查找表把文本字符规范化为{@link Knife}和字典所要求的形式。
+ * <p>
+ * 默认的规范化：1)全角转半角，2)大写字母转小写，3)全角空格转半角空格。<br>
+ * 可以另外给出一组字符折叠(如繁体转简体)，在默认规范化之后进行。
+ * <p>
+ *
+ * {@link Beef}不再对字符做任何处理，创建Beef的一方应该先以normalize把新读入的字符规范化，
+ * 如{@link net.paoding.analysis.analyzer.PaodingTokenizer}对每次从reader读入的字符所做的那样。
+ * <p>
+ *
+ * CharNormalizer对象创建后不可变，可以在多个线程中共用。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see Beef
+ *
+ * @since 2.0.4
+ */
+public class CharNormalizer {
+
+	// -------------------------------------------------
+
+	/**
+	 * 只进行默认规范化的实例
+	 */
+	public static final CharNormalizer DEFAULT = new CharNormalizer();
+
+	/**
+	 * 以字符为下标的规范化结果
+	 */
+	private final char[] table = new char[65536];
+
+	// -------------------------------------------------
+
+	/**
+	 * 只进行默认规范化
+	 */
+	public CharNormalizer() {
+		this(null);
+	}
+
+	/**
+	 * 默认规范化之后，再以foldings折叠字符
+	 *
+	 * @param foldings
+	 *            字符折叠表(如繁体->简体)，可以为null
+	 */
+	public CharNormalizer(Map<Character, Character> foldings) {
+		for (int i = 0; i < table.length; i++) {
+			char ch = (char) i;
+			if (ch > 65280 && ch < 65375) {
+				ch = (char) (ch - 65248);
+			}
+			if (ch >= 'A' && ch <= 'Z') {
+				ch += 32;
+			} else if (ch == 12288) {
+				ch = 32;
+			}
+			if (foldings != null) {
+				Character folded = foldings.get(ch);
+				if (folded != null) {
+					ch = folded;
+				}
+			}
+			table[i] = ch;
+		}
+	}
+
+	// -------------------------------------------------
+
+	public char normalize(char ch) {
+		return table[ch];
+	}
+
+	/**
+	 * 规范化chars中[from, to)位置的字符
+	 */
+	public void normalize(char[] chars, int from, int to) {
+		final char[] table = this.table;
+		for (int i = from; i < to; i++) {
+			chars[i] = table[chars[i]];
+		}
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 按配置创建CharNormalizer：配置了{@link Constants#ANALYZER_NORMALIZER_FOLDING}时读取该折叠文件，否则返回{@link #DEFAULT}
+	 *
+	 * @param p
+	 * @return
+	 * @throws IOException
+	 */
+	public static CharNormalizer of(Properties p) throws IOException {
+		String folding = Constants.getProperty(p,
+				Constants.ANALYZER_NORMALIZER_FOLDING);
+		if (folding == null || folding.length() == 0) {
+			return DEFAULT;
+		}
+		return load(folding, Constants.getProperty(p, Constants.DIC_CHARSET));
+	}
+
+	/**
+	 * 读取字符折叠文件并创建CharNormalizer。
+	 * <p>
+	 * 文件每行为空白分隔的两个字符：被折叠的字符以及折叠的结果，如"們 们"；空行以及以#开始的行被忽略。
+	 *
+	 * @param path
+	 *            折叠文件路径，以"classpath:"开始表示在类路径下
+	 * @param charsetName
+	 *            文件编码
+	 * @return
+	 * @throws IOException
+	 */
+	public static CharNormalizer load(String path, String charsetName)
+			throws IOException {
+		InputStream in;
+		if (path.startsWith("classpath:")) {
+			String resource = path.substring("classpath:".length());
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if (loader == null) {
+				loader = CharNormalizer.class.getClassLoader();
+			}
+			in = loader.getResourceAsStream(resource);
+			if (in == null) {
+				throw new FileNotFoundException("Not found " + resource
+						+ " in classpath.");
+			}
+		} else {
+			in = new FileInputStream(path);
+		}
+		Map<Character, Character> foldings = new HashMap<Character, Character>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+				charsetName));
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (lineNumber == 1 && line.length() > 0
+						&& CharSet.isBom(line.charAt(0))) {
+					line = line.substring(1);
+				}
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("#")) {
+					continue;
+				}
+				String[] pair = line.split("\\s+");
+				if (pair.length != 2 || pair[0].length() != 1
+						|| pair[1].length() != 1) {
+					throw new IOException("wrong folding at line " + lineNumber
+							+ " of " + path + ": " + line);
+				}
+				foldings.put(pair[0].charAt(0), pair[1].charAt(0));
+			}
+		} finally {
+			reader.close();
+		}
+		return new CharNormalizer(foldings);
+	}
+}
@@ -23,6 +23,106 @@ package net.paoding.analysis.knife;
  * 
  */
 public class CharSet {
+
+	// -------------------------------------------------
+
+	/**
+	 * 字符类别：其它字符
+	 */
+	public static final int OTHER = 0;
+
+	/**
+	 * 字符类别：CJK统一汉字(不包括中文数字)
+	 * 
+	 * @see #isCjkUnifiedIdeographs(char)
+	 */
+	public static final int CJK = 1;
+
+	/**
+	 * 字符类别：英文字母
+	 * 
+	 * @see #isLantingLetter(char)
+	 */
+	public static final int LATIN = 2;
+
+	/**
+	 * 字符类别：阿拉伯数字
+	 * 
+	 * @see #isArabianNumber(char)
+	 */
+	public static final int DIGIT = 3;
+
+	/**
+	 * 字符类别：属于CJK统一汉字的中文数字，如一、两、百、玖
+	 * 
+	 * @see #toNumber(char)
+	 */
+	public static final int CHINESE_NUMERAL = 4;
+
+	/**
+	 * 字符类别：空白及标点符号
+	 */
+	public static final int SEPARATOR = 5;
+
+	/**
+	 * 字符类别的个数
+	 */
+	public static final int CHAR_CLASS_COUNT = 6;
+
+	/**
+	 * 以字符为下标的字符类别表
+	 */
+	private static final byte[] CHAR_CLASSES = new byte[65536];
+
+	static {
+		for (int i = 0; i < CHAR_CLASSES.length; i++) {
+			char ch = (char) i;
+			int charClass;
+			if (isArabianNumber(ch)) {
+				charClass = DIGIT;
+			} else if (isLantingLetter(ch)) {
+				charClass = LATIN;
+			} else if (isCjkUnifiedIdeographs(ch)) {
+				charClass = toNumber(ch) >= 0 ? CHINESE_NUMERAL : CJK;
+			} else if (Character.isWhitespace(ch) || Character.isSpaceChar(ch)
+					|| isPunctuation(ch)) {
+				charClass = SEPARATOR;
+			} else {
+				charClass = OTHER;
+			}
+			CHAR_CLASSES[i] = (byte) charClass;
+		}
+	}
+
+	private static boolean isPunctuation(char ch) {
+		switch (Character.getType(ch)) {
+		case Character.CONNECTOR_PUNCTUATION:
+		case Character.DASH_PUNCTUATION:
+		case Character.START_PUNCTUATION:
+		case Character.END_PUNCTUATION:
+		case Character.INITIAL_QUOTE_PUNCTUATION:
+		case Character.FINAL_QUOTE_PUNCTUATION:
+		case Character.OTHER_PUNCTUATION:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * 查表返回字符的类别。
+	 * <p>
+	 * 类别按字符本身判断，全角字符、大写字母等应先由{@link CharNormalizer}规范化再查表
+	 * 
+	 * @param ch
+	 * @return {@link #OTHER}、{@link #CJK}、{@link #LATIN}、{@link #DIGIT}、
+	 *         {@link #CHINESE_NUMERAL}、{@link #SEPARATOR}之一
+	 */
+	public static int charClass(char ch) {
+		return CHAR_CLASSES[ch];
+	}
+
+	// -------------------------------------------------
 	
 	public static boolean isArabianNumber(char ch) {
 		return ch >= '0' && ch <= '9';
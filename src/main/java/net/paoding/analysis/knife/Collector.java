@@ -45,4 +45,27 @@ public interface Collector {
 	 *         
 	 */
 	public void collect(String word, int offset, int end);
+
+	/**
+	 * 与{@link #collect(String, int, int)}相同，只是词语以字符数组中的一段给出，Knife不必为之创建String对象。
+	 * <p>
+	 * 
+	 * Knife切出的词语就是文本流中的原字符时(而不是如汉字数字转换而成的阿拉伯数字)调用本方法，
+	 * chars一般即是{@link Beef}的字符数组，实现者不能修改它，也不能在本方法返回后保留对它的引用。
+	 * <p>
+	 * 
+	 * 默认实现以这些字符创建String并调用{@link #collect(String, int, int)}。
+	 * 
+	 * @param chars
+	 *            词语所在的字符数组
+	 * @param start
+	 *            词语在chars中的开始位置，词语即chars[start, start + end - offset)
+	 * @param offset
+	 *            该词语在文本流中的偏移位置
+	 * @param end
+	 *            该词语在文本流中的结束位置(词语不包括文本流end位置的字符)
+	 */
+	default void collect(char[] chars, int start, int offset, int end) {
+		collect(new String(chars, start, end - offset), offset, end);
+	}
 }
@@ -34,7 +34,10 @@ import net.paoding.analysis.dictionary.Hit;
  */
 public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 
-	protected Dictionary combinatoricsDictionary;
+	/**
+	 * 当前的字典；每次dissect只读取一次其快照，null表示没有设置字典
+	 */
+	private volatile AtomicDictionaries dictionaries;
 
 	protected HashSet<String> noiseTable;
 
@@ -53,10 +56,15 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 	}
 
 	public void setDictionaries(Dictionaries dictionaries) {
-		combinatoricsDictionary = dictionaries.getCombinatoricsDictionary();
+		this.dictionaries = AtomicDictionaries.of(dictionaries);
 	}
 
 	public int dissect(Collector collector, Beef beef, int offset) {
+		// 本次分词所用的字典快照，字典在分词过程中被替换也不影响本次分词
+		AtomicDictionaries current = this.dictionaries;
+		final DictionarySet dictionaries = current == null ? DictionarySet.EMPTY
+				: current.current();
+
 		// 当point == -1时表示本次分解没有遇到POINT性质的字符；
 		// 如果point != -1，该值表示POINT性质字符的开始位置，
 		// 这个位置将被返回，下一个Knife将从point位置开始分词
@@ -89,8 +97,11 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 		// 检索是否有以该词语位前缀的词典词语
 		// 若有，则将它解出
 		int dicWordVote = -1;
+		Dictionary combinatoricsDictionary = dictionaries
+				.getCombinatoricsDictionary();
 		if (combinatoricsDictionary != null && beef.charAt(limit) > 0xFF) {
-			dicWordVote = tryDicWord(collector, beef, offset, limit);
+			dicWordVote = tryDicWord(collector, combinatoricsDictionary, beef,
+					offset, limit);
 		}
 
 		// 收集从offset分别到point以及limit的词
@@ -101,8 +112,8 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 
 		int pointVote = collectPoint(collector, beef, offset, point, limit,
 				dicWordVote);
-		int limitVote = collectLimit(collector, beef, offset, point, limit,
-				dicWordVote);
+		int limitVote = collectLimit(collector, dictionaries, beef, offset,
+				point, limit, dicWordVote);
 
 		return nextOffset(beef, offset, point, limit, pointVote, limitVote,
 				dicWordVote);
@@ -139,6 +150,8 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 	 * 默认方法实现：把从offset位置到limit位置止(不包含边界)的字符串视为一个词切出。
 	 * 
 	 * @param collector
+	 * @param dictionaries
+	 *            本次分词所用的字典快照
 	 * @param beef
 	 * @param offset
 	 *            本次分解的内容在beef中的开始位置
@@ -151,8 +164,8 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 	 * 
 	 * @return 投票下一个Knife开始分词的位置；-1表示弃权。默认方法实现：弃权。
 	 */
-	protected int collectLimit(Collector collector, Beef beef, int offset,
-			int point, int limit, int dicWordVote) {
+	protected int collectLimit(Collector collector, DictionarySet dictionaries,
+			Beef beef, int offset, int point, int limit, int dicWordVote) {
 		if (dicWordVote == -1) {
 			collectIfNotNoise(collector, beef, offset, limit);
 		}
@@ -172,17 +185,20 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 	 * 这种情况现在 {@link CombinatoricsKnife}还没机制办法识别将之处理为一个词语
 	 * 
 	 * @param collector
+	 * @param combinatoricsDictionary
+	 *            本次分词所用的combinatorics字典
 	 * @param beef
 	 * @param offset
 	 * @param limit
 	 * @return
 	 */
-	protected int tryDicWord(Collector collector, Beef beef, int offset,
-			int limit) {
+	protected int tryDicWord(Collector collector,
+			Dictionary combinatoricsDictionary, Beef beef, int offset, int limit) {
 		int ret = limit;
+		Hit hit = new Hit();
 		for (int end = limit + 1, count = limit - offset + 1; end <= beef
 				.length(); end++, count++) {
-			Hit hit = combinatoricsDictionary.search(beef, offset, count);
+			combinatoricsDictionary.search(beef, offset, count, hit);
 			if (hit.isUndefined()) {
 				break;
 			} else if (hit.isHit()) {
@@ -214,23 +230,21 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 	 */
 	protected void collectIfNotNoise(Collector collector, Beef beef,
 			int offset, int end) {
-		// 将offset和end之间的词(不包含end位置)创建出来给word
-		// 如果该词语为噪音词，则重新丢弃之(设置为null)，
-		String word = beef.subSequence(offset, end).toString();
-		if (noiseTable != null && noiseTable.contains(word)) {
-			word = null;
+		// 如果offset和end之间的词(不包含end位置)为噪音词，则丢弃之；
+		// 只有配置了噪音词时才需要为比较创建String对象
+		if (noiseTable != null
+				&& noiseTable.contains(beef.subSequence(offset, end).toString())) {
+			return;
 		}
 
-		// 否则发送消息给collect方法，表示Knife新鲜出炉了一个内容为word的候选词语
+		// 否则发送消息给collect方法，表示Knife新鲜出炉了一个候选词语
 		// 即：最终决定是否要把这个词语通知给collector的是collect方法
-		if (word != null) {
-			doCollect(collector, word, beef, offset, end);
-		}
+		doCollect(collector, beef, offset, end);
 	}
 
 	/**
 	 * 
-	 * 当Knife决定切出从offset始到end位置止(不包含结束位置的字符)的词语时，本方法直接调用{@link #doCollect(Collector, String, Beef, int, int)}切出词语(而不过滤noise词汇)
+	 * 当Knife决定切出从offset始到end位置止(不包含结束位置的字符)的词语时，本方法直接调用{@link #doCollect(Collector, Beef, int, int)}切出词语(而不过滤noise词汇)
 	 * 
 	 * @param collector
 	 * @param beef
@@ -238,8 +252,7 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 	 * @param end
 	 */
 	protected void collect(Collector collector, Beef beef, int offset, int end) {
-		String word = beef.subSequence(offset, end).toString();
-		doCollect(collector, word, beef, offset, end);
+		doCollect(collector, beef, offset, end);
 	}
 
 	/**
@@ -258,6 +271,23 @@ public abstract class CombinatoricsKnife implements Knife, DictionariesWare {
 		collector.collect(word, offset, end);
 	}
 
+	/**
+	 * 收集beef中从offset到end位置止(不包含结束位置的字符)的候选词语。
+	 * 默认实现是把它以字符数组的一段直接通知给收集器collector，而不创建String对象。<br>
+	 * 与{@link #doCollect(Collector, String, Beef, int, int)}一样，子类可以覆盖本方法控制词语的收录；
+	 * 后者只用于不是文本原字符的词语，如{@link NumberKnife}转换而成的阿拉伯数字
+	 * 
+	 * @param collector
+	 * @param beef
+	 * @param offset
+	 * @param end
+	 */
+	protected void doCollect(Collector collector, Beef beef, int offset,
+			int end) {
+		collector.collect(beef.getValue(), beef.getOffset() + offset, offset,
+				end);
+	}
+
 	/**
 	 * 根据字符串性质位置，以及分词结果投票，决出下一个Knife应该从哪一个位置开始探测切词
 	 * 
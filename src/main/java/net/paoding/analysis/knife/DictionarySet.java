@@ -0,0 +1,139 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.knife;
+
+import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.ext.PaodingAnalyzerListener;
+
+/**
+ * 某一时刻所有字典的不可变快照。
+ * <p>
+ * 一个DictionarySet中的各个字典总是同一次装载(或重新装载)的结果，不会出现新的词汇表配上旧的忽略词的情况。
+ * Knife在每次dissect开始时从{@link AtomicDictionaries}读取一次当前快照，之后只使用这个快照；
+ * 字典重新装载时在旁边创建新的快照，再整体替换，正在进行的切分不受影响也不需要等待。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see AtomicDictionaries
+ *
+ * @since 2.0.4
+ */
+public final class DictionarySet implements Dictionaries {
+
+	/**
+	 * 没有任何字典的快照，Knife还没有设置字典时使用
+	 */
+	public static final DictionarySet EMPTY = new DictionarySet(null, null,
+			null, null, null, null, 0);
+
+	// -------------------------------------------------
+
+	private final Dictionary vocabulary;
+
+	private final Dictionary confucianFamilyNames;
+
+	private final Dictionary noiseCharactors;
+
+	private final Dictionary noiseWords;
+
+	private final Dictionary units;
+
+	private final Dictionary combinatorics;
+
+	/**
+	 * 快照的版本，同一来源的快照版本越大越新
+	 */
+	private final long version;
+
+	// -------------------------------------------------
+
+	public DictionarySet(Dictionary vocabulary,
+			Dictionary confucianFamilyNames, Dictionary noiseCharactors,
+			Dictionary noiseWords, Dictionary units, Dictionary combinatorics,
+			long version) {
+		this.vocabulary = vocabulary;
+		this.confucianFamilyNames = confucianFamilyNames;
+		this.noiseCharactors = noiseCharactors;
+		this.noiseWords = noiseWords;
+		this.units = units;
+		this.combinatorics = combinatorics;
+		this.version = version;
+	}
+
+	/**
+	 * 返回dictionaries当前所有字典的快照。
+	 * <p>
+	 * dictionaries本身是DictionarySet时直接返回之，是{@link AtomicDictionaries}时返回其当前快照，
+	 * 是{@link FileDictionaries}时由其在同步块中创建，其它情况则逐个读取各个字典。
+	 *
+	 * @param dictionaries
+	 * @return
+	 */
+	public static DictionarySet snapshot(Dictionaries dictionaries) {
+		if (dictionaries instanceof DictionarySet) {
+			return (DictionarySet) dictionaries;
+		}
+		if (dictionaries instanceof AtomicDictionaries) {
+			return ((AtomicDictionaries) dictionaries).current();
+		}
+		if (dictionaries instanceof FileDictionaries) {
+			return ((FileDictionaries) dictionaries).snapshot();
+		}
+		return new DictionarySet(dictionaries.getVocabularyDictionary(),
+				dictionaries.getConfucianFamilyNamesDictionary(),
+				dictionaries.getNoiseCharactorsDictionary(),
+				dictionaries.getNoiseWordsDictionary(),
+				dictionaries.getUnitsDictionary(),
+				dictionaries.getCombinatoricsDictionary(), 0);
+	}
+
+	// -------------------------------------------------
+
+	public long getVersion() {
+		return version;
+	}
+
+	public Dictionary getVocabularyDictionary() {
+		return vocabulary;
+	}
+
+	public Dictionary getConfucianFamilyNamesDictionary() {
+		return confucianFamilyNames;
+	}
+
+	public Dictionary getNoiseCharactorsDictionary() {
+		return noiseCharactors;
+	}
+
+	public Dictionary getNoiseWordsDictionary() {
+		return noiseWords;
+	}
+
+	public Dictionary getUnitsDictionary() {
+		return units;
+	}
+
+	public Dictionary getCombinatoricsDictionary() {
+		return combinatorics;
+	}
+
+	/**
+	 * 快照不会再装载字典，忽略之
+	 */
+	public void setAnalyzerListener(PaodingAnalyzerListener listener) {
+	}
+}
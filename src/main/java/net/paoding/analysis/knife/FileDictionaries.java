@@ -19,11 +19,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.*;
 
+import net.paoding.analysis.Constants;
 import net.paoding.analysis.dictionary.*;
 import net.paoding.analysis.dictionary.Dictionary;
 import net.paoding.analysis.dictionary.support.filewords.FileWordsReader;
 import net.paoding.analysis.exception.PaodingAnalysisException;
 import net.paoding.analysis.ext.PaodingAnalyzerListener;
+import net.paoding.analysis.metrics.PaodingEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +48,38 @@ public class FileDictionaries implements Dictionaries {
 
 	// -------------------------------------------------
 
+	/**
+	 * 词汇表字典的实现结构：散列+二叉查找
+	 * 
+	 * @see HashBinaryDictionary
+	 */
+	public static final String VOCABULARY_HASH_BINARY = "hash-binary";
+
+	/**
+	 * 词汇表字典的实现结构：双数组Trie
+	 * 
+	 * @see DoubleArrayTrieDictionary
+	 */
+	public static final String VOCABULARY_DOUBLE_ARRAY_TRIE = "double-array-trie";
+
+	/**
+	 * 词汇表字典的实现结构：所有词语共用一个字符数组的紧凑结构
+	 * 
+	 * @see CompactDictionary
+	 */
+	public static final String VOCABULARY_COMPACT = "compact";
+
+	/**
+	 * 词汇表字典的实现结构：直接内存映射编译生成的二进制文件。
+	 * <p>
+	 * 只对编译后的字典有效，从原始词典文件读取时按"hash-binary"处理
+	 * 
+	 * @see MappedDictionary
+	 */
+	public static final String VOCABULARY_MAPPED = "mapped";
+
+	// -------------------------------------------------
+
 	/**
 	 * 词汇表字典
 	 */
@@ -92,7 +126,23 @@ public class FileDictionaries implements Dictionaries {
 	protected String charsetName;
 	protected int maxWordLen;
 
+	/**
+	 * 并行读取字典文件的线程数，小于等于0表示使用可用处理器的个数，1表示顺序读取
+	 */
+	protected int loaderThreads;
+	protected String vocabularyStructure = Constants.ANALYZER_DICTIONARIES_VOCABULARY_DEFAULT;
+
 	private PaodingAnalyzerListener listener = null;
+
+	/**
+	 * 字典的修改次数，每次refreshDicWords后加1，作为{@link #snapshot()}的版本
+	 */
+	private long version;
+
+	/**
+	 * 读入的词语以之规范化，使之与分词时规范化后的文本一致；null表示保持原样
+	 */
+	private CharNormalizer normalizer;
 	// ----------------------
 
 	public FileDictionaries() {
@@ -112,6 +162,20 @@ public class FileDictionaries implements Dictionaries {
 		this.maxWordLen = maxWordLen;
 	}
 
+	public CharNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	/**
+	 * 设置对读入词语的规范化，应与分词时对文本所用的一致(比如配置了繁体转简体的字符折叠时)；
+	 * 默认为null，词语保持原样
+	 * 
+	 * @param normalizer
+	 */
+	public void setNormalizer(CharNormalizer normalizer) {
+		this.normalizer = normalizer;
+	}
+
 	public String getDicHome() {
 		return dicHome;
 	}
@@ -176,6 +240,28 @@ public class FileDictionaries implements Dictionaries {
 		this.maxWordLen = maxWordLen;
 	}
 
+	public int getLoaderThreads() {
+		return loaderThreads;
+	}
+
+	public void setLoaderThreads(int loaderThreads) {
+		this.loaderThreads = loaderThreads;
+	}
+
+	public String getVocabularyStructure() {
+		return vocabularyStructure;
+	}
+
+	/**
+	 * 设置词汇表字典的实现结构，参见{@link Constants#ANALYZER_DICTIONARIES_VOCABULARY}
+	 * 
+	 * @param vocabularyStructure
+	 *            "hash-binary"、"double-array-trie"、"compact"或"mapped"
+	 */
+	public void setVocabularyStructure(String vocabularyStructure) {
+		this.vocabularyStructure = vocabularyStructure;
+	}
+
 	public void setLantinFllowedByCjk(String lantinFllowedByCjk) {
 		this.combinatorics = lantinFllowedByCjk;
 	}
@@ -193,28 +279,51 @@ public class FileDictionaries implements Dictionaries {
 	 */
 	public synchronized Dictionary getVocabularyDictionary() {
 		if (vocabularyDictionary == null) {
-			// 大概有5639个字有词语，故取0x2fff=x^13>8000>8000*0.75=6000>5639
-			vocabularyDictionary = new HashBinaryDictionary(
-					getVocabularyWords(), 0x2fff, 0.75f);
+			Word[] ascWords = getVocabularyWords();
+			// 先在词语上标记噪音，紧凑结构的字典只在创建时复制一次modifiers
+			Dictionary ascWordsDic = new BinaryDictionary(ascWords);
 			Dictionary noiseWordsDic = getNoiseWordsDictionary();
 			for (int i = 0; i < noiseWordsDic.size(); i++) {
-				Hit hit = vocabularyDictionary.search(noiseWordsDic.get(i), 0, noiseWordsDic.get(i).length());
+				Hit hit = ascWordsDic.search(noiseWordsDic.get(i), 0, noiseWordsDic.get(i).length());
 				if (hit.isHit()) {
 					hit.getWord().setNoiseWord();
 				}
 			}
 			Dictionary noiseCharactorsDic = getNoiseCharactorsDictionary();
 			for (int i = 0; i < noiseCharactorsDic.size(); i++) {
-				Hit hit = vocabularyDictionary.search(noiseCharactorsDic.get(i), 0, noiseCharactorsDic.get(i).length());
+				Hit hit = ascWordsDic.search(noiseCharactorsDic.get(i), 0, noiseCharactorsDic.get(i).length());
 				if (hit.isHit()) {
 					hit.getWord().setNoiseCharactor();
 				}
 			}
-			
+			vocabularyDictionary = createVocabularyDictionary(ascWords);
 		}
 		return vocabularyDictionary;
 	}
 
+	/**
+	 * 根据{@link #getVocabularyStructure()}的配置，以升序排列的词语创建词汇表字典
+	 * 
+	 * @param ascWords
+	 * @return
+	 */
+	protected Dictionary createVocabularyDictionary(Word[] ascWords) {
+		if (VOCABULARY_DOUBLE_ARRAY_TRIE.equalsIgnoreCase(vocabularyStructure)) {
+			return new DoubleArrayTrieDictionary(ascWords);
+		}
+		if (VOCABULARY_COMPACT.equalsIgnoreCase(vocabularyStructure)) {
+			return new CompactDictionary(ascWords);
+		}
+		if (vocabularyStructure != null
+				&& !VOCABULARY_HASH_BINARY.equalsIgnoreCase(vocabularyStructure)
+				&& !VOCABULARY_MAPPED.equalsIgnoreCase(vocabularyStructure)) {
+			throw new PaodingAnalysisException("unknown vocabulary structure '"
+					+ vocabularyStructure + "'");
+		}
+		// 大概有5639个字有词语，故取0x2fff=x^13>8000>8000*0.75=6000>5639
+		return new HashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+	}
+
 	/**
 	 * 姓氏字典
 	 * 
@@ -272,6 +381,20 @@ public class FileDictionaries implements Dictionaries {
 		}
 		return combinatoricsDictionary;
 	}
+
+	/**
+	 * 返回当前所有字典的快照，必要时装载尚未装载或已被refreshDicWords清空的字典。
+	 * <p>
+	 * 快照在同步块中创建，其中的字典必定来自同一次修改；快照的版本为到目前为止的修改次数。
+	 * 
+	 * @return
+	 */
+	public synchronized DictionarySet snapshot() {
+		return new DictionarySet(getVocabularyDictionary(),
+				getConfucianFamilyNamesDictionary(),
+				getNoiseCharactorsDictionary(), getNoiseWordsDictionary(),
+				getUnitsDictionary(), getCombinatoricsDictionary(), version);
+	}
 	
 	/**
 	 * 
@@ -283,10 +406,10 @@ public class FileDictionaries implements Dictionaries {
 		if (allWords != null) {
 			try {
 				Map<String, Set<Word>> temp = FileWordsReader
-						.readWords(dicHome + dicPath, charsetName, maxWordLen);
-				Set<Word> conllec = temp.values().iterator().next();
+						.readWords(dicHome + "/" + dicPath, charsetName, maxWordLen);
+				Set<Word> conllec = normalize(temp.values().iterator().next());
 				if(this.listener != null){
-					this.listener.refreshDic(dicHome + dicPath, conllec);
+					this.listener.refreshDic(dicHome + "/" + dicPath, conllec);
 				}
 				allWords.put(dicName, conllec);
 			} catch (FileNotFoundException e) {
@@ -295,6 +418,7 @@ public class FileDictionaries implements Dictionaries {
 			} catch (IOException e) {
 				throw toRuntimeException(e);
 			}
+			version++;
 			if (!isSkipForVacabulary(dicName)) {
 				this.vocabularyDictionary = null;
 			}
@@ -328,6 +452,22 @@ public class FileDictionaries implements Dictionaries {
 	// ---------------------------------------------------------------
 	// 以下为辅助性的方式-类私有或package私有
 
+	/**
+	 * 以normalizer规范化words中的词语；规范化后相同的词语只保留一个
+	 */
+	private Set<Word> normalize(Set<Word> words) {
+		if (normalizer == null) {
+			return words;
+		}
+		Set<Word> normalized = new HashSet<Word>((int) (words.size() / 0.75f) + 1);
+		for (Word word : words) {
+			char[] chars = word.getText().toCharArray();
+			normalizer.normalize(chars, 0, chars.length);
+			normalized.add(new Word(new String(chars), word.getModifiers()));
+		}
+		return normalized;
+	}
+
 	protected Word[] getVocabularyWords() {
 		Map<String, Set<Word>> dics = loadAllWordsIfNecessary();
 		Set<Word> set = null;
@@ -401,7 +541,7 @@ public class FileDictionaries implements Dictionaries {
 		} catch (IOException e) {
 			throw toRuntimeException(e);
 		}
-		Set<Word> set = dics.get(dicNameRelativeDicHome);
+		Set<Word> set = normalize(dics.get(dicNameRelativeDicHome));
 		if(this.listener != null){
 			this.listener.readDicFinished(dicPath, set);
 		}
@@ -423,7 +563,15 @@ public class FileDictionaries implements Dictionaries {
 				if(this.listener != null){
 					this.listener.readDic(dicHome);
 				}
-				allWords = FileWordsReader.readWords(dicHome, charsetName, maxWordLen);
+				Object event = PaodingEvents.beginLoad(dicHome);
+				allWords = FileWordsReader.readWords(dicHome, charsetName,
+						maxWordLen, loaderThreads);
+				if (normalizer != null) {
+					for (Map.Entry<String, Set<Word>> e : allWords.entrySet()) {
+						e.setValue(normalize(e.getValue()));
+					}
+				}
+				PaodingEvents.endLoad(event, allWords);
 				if (allWords.size() == 0) {
 					String message = "Not found any dictionary files, have you set the 'paoding.dic.home' right? ("
 							+ this.dicHome + ")";
@@ -22,8 +22,13 @@ import java.util.List;
 import net.paoding.analysis.dictionary.support.detection.Difference;
 import net.paoding.analysis.dictionary.support.detection.DifferenceListener;
 import net.paoding.analysis.dictionary.support.detection.Node;
+import net.paoding.analysis.metrics.PaodingEvents;
 
 /**
+ * 字典文件变化时重新装载字典，并替换分词所用的字典。
+ * <p>
+ * 变化的字典在旁边重新装载为新的{@link DictionarySet}快照，然后通过所有Knife共用的{@link AtomicDictionaries}一次发布；
+ * 正在进行的分词继续使用原先的快照，既不会被阻塞，也不会看到新旧混杂的字典。
  * 
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
  * 
@@ -36,6 +41,11 @@ public class FileDictionariesDifferenceListener implements DifferenceListener {
 
 	private KnifeBox knifeBox;
 
+	/**
+	 * knifeBox中所有Knife共用的快照持有者，重新装载的快照只发布到这里
+	 */
+	private AtomicDictionaries published;
+
 	public FileDictionariesDifferenceListener() {
 	}
 
@@ -45,11 +55,23 @@ public class FileDictionariesDifferenceListener implements DifferenceListener {
 		this.knifeBox = knifeBox;
 	}
 
+	/**
+	 * 
+	 * @param published
+	 *            各个Knife共用的快照持有者
+	 * @since 2.0.4
+	 */
+	public FileDictionariesDifferenceListener(Dictionaries dictionaries,
+			AtomicDictionaries published) {
+		this.dictionaries = (FileDictionaries) dictionaries;
+		this.published = published;
+	}
+
 	public Dictionaries getDictionaries() {
 		return dictionaries;
 	}
 
-	public void setDictionaries(Dictionaries dictionaries) {
+	public synchronized void setDictionaries(Dictionaries dictionaries) {
 		this.dictionaries = (FileDictionaries) dictionaries;
 	}
 
@@ -57,11 +79,13 @@ public class FileDictionariesDifferenceListener implements DifferenceListener {
 		return knifeBox;
 	}
 
-	public void setKnifeBox(KnifeBox knifeBox) {
+	public synchronized void setKnifeBox(KnifeBox knifeBox) {
 		this.knifeBox = knifeBox;
+		this.published = null;
 	}
 
-	public synchronized void on(Difference diff) {
+	public void on(Difference diff) {
+		Object event = PaodingEvents.beginReload();
 		List<Node> all = new LinkedList<Node>();
 		all.addAll(diff.getDeleted());
 		all.addAll(diff.getModified());
@@ -72,13 +96,43 @@ public class FileDictionariesDifferenceListener implements DifferenceListener {
 				dictionaries.refreshDicWords(node.getPath());
 			}
 		}
-		Knife[] knives = knifeBox.getKnives();
-		for (int i = 0; i < knives.length; i ++) {
-			Knife knife = knives[i];
-			if (knife instanceof DictionariesWare) {
-				((DictionariesWare) knife).setDictionaries(dictionaries);
+		// 在旁边装载好新的快照再发布；
+		// 并发的重新装载以快照版本判断先后，较旧的快照不会覆盖较新的
+		DictionarySet snapshot = dictionaries.snapshot();
+		boolean published = published().publish(snapshot);
+		PaodingEvents.endReload(event, all, snapshot.getVersion(), published);
+	}
+
+	public synchronized AtomicDictionaries getPublished() {
+		return published;
+	}
+
+	public synchronized void setPublished(AtomicDictionaries published) {
+		this.published = published;
+	}
+
+	/**
+	 * 返回各个Knife共用的快照持有者：优先使用构造时给定的，其次是Paoding上由PaodingMaker设置的；
+	 * 只有knifeBox的Knife还没有共用的持有者时，才创建一个并交给各个Knife
+	 */
+	private synchronized AtomicDictionaries published() {
+		if (published == null && knifeBox instanceof Paoding) {
+			published = ((Paoding) knifeBox).getDictionaries();
+		}
+		if (published == null) {
+			published = new AtomicDictionaries(dictionaries.snapshot());
+			if (knifeBox instanceof Paoding) {
+				((Paoding) knifeBox).setDictionaries(published);
+			}
+			Knife[] knives = knifeBox.getKnives();
+			for (int i = 0; i < knives.length; i ++) {
+				Knife knife = knives[i];
+				if (knife instanceof DictionariesWare) {
+					((DictionariesWare) knife).setDictionaries(published);
+				}
 			}
 		}
+		return published;
 	}
 
 }
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.knife;
+
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * 能够只重新编译部分字典的编译器：字典检测器已经得知哪些源字典文件发生了变化时，
+ * 只重新计算这些文件的摘要、只重新编译受其影响的输出，并且只重新读入重新编译过的字典。
+ * 
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ * 
+ * @since 2.0.4
+ */
+public interface IncrementalDictionariesCompiler extends DictionariesCompiler {
+
+	/**
+	 * 上次编译之后只有changed中的源字典文件发生了变化时的编译；没有可用的上次编译记录时与
+	 * {@link #compile(Dictionaries, Knife, Properties)}相同
+	 * 
+	 * @param dictionaries
+	 * @param knife
+	 * @param p
+	 * @param changed
+	 *            发生变化(新建、修改、删除)的源字典文件，相对字典目录的路径，使用/作为目录分隔符
+	 * @throws Exception
+	 */
+	public void compile(Dictionaries dictionaries, Knife knife, Properties p,
+			Collection<String> changed) throws Exception;
+
+	/**
+	 * 读入编译后的字典：不受changed影响的字典沿用current中已经装载的
+	 * 
+	 * @param p
+	 * @param current
+	 *            正在使用的编译后的字典
+	 * @param changed
+	 * @return
+	 * @throws Exception
+	 */
+	public Dictionaries readCompliedDictionaries(Properties p,
+			Dictionaries current, Collection<String> changed) throws Exception;
+}
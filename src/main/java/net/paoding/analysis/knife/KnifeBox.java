@@ -23,6 +23,10 @@ import java.util.List;
  * KnifeBox负责决策当遇到字符串指定位置时应使用的Knife对象.
  * <p>
  * 
+ * 如果所有Knife都实现了{@link CharClassAssignable}，KnifeBox预先按字符类别排好每类字符依次可用的Knife，
+ * 分词时查表直接找到它们，不再逐个询问Knife；没有Knife接受的连续字符一次跳过。
+ * <p>
+ * 
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
  * 
  * @see Paoding
@@ -36,6 +40,12 @@ public class KnifeBox implements Knife {
 
 	private int size;
 
+	/**
+	 * 以{@link CharSet#charClass(char)}为下标，依次可以接受该类字符的Knife；
+	 * 为null表示有的Knife没有实现{@link CharClassAssignable}，只能逐个调用assignable决定
+	 */
+	private Knife[][] classKnives;
+
 	public KnifeBox() {
 	}
 
@@ -67,6 +77,7 @@ public class KnifeBox implements Knife {
 		for (int i = 0; i < size; i++) {
 			this.knives[i] = iter.next();
 		}
+		this.classKnives = createClassKnives(this.knives);
 	}
 	
 	public void setKnives(Knife[] knives) {
@@ -76,6 +87,61 @@ public class KnifeBox implements Knife {
 		size = knives.length;
 		this.knives = new Knife[size];
 		System.arraycopy(knives, 0, this.knives, 0, size);
+		this.classKnives = createClassKnives(this.knives);
+	}
+
+	/**
+	 * 按字符类别创建Knife分派表，有的Knife不能按字符类别分派时返回null
+	 */
+	private static Knife[][] createClassKnives(Knife[] knives) {
+		for (Knife knife : knives) {
+			if (!isClassAssignable(knife)) {
+				return null;
+			}
+		}
+		Knife[][] classKnives = new Knife[CharSet.CHAR_CLASS_COUNT][];
+		List<Knife> candidates = new ArrayList<Knife>(knives.length);
+		for (int charClass = 0; charClass < classKnives.length; charClass++) {
+			candidates.clear();
+			for (Knife knife : knives) {
+				if (((CharClassAssignable) knife).isAssignable(charClass)) {
+					candidates.add(knife);
+				}
+			}
+			classKnives[charClass] = candidates.toArray(new Knife[candidates
+					.size()]);
+		}
+		return classKnives;
+	}
+
+	/**
+	 * 子类覆盖了assignable而没有相应覆盖isAssignable时，isAssignable已不可信
+	 */
+	private static boolean isClassAssignable(Knife knife) {
+		if (!(knife instanceof CharClassAssignable)) {
+			return false;
+		}
+		try {
+			Class<?> assignableClass = knife.getClass().getMethod("assignable",
+					Beef.class, int.class, int.class).getDeclaringClass();
+			Class<?> classClass = knife.getClass().getMethod("isAssignable",
+					int.class).getDeclaringClass();
+			return assignableClass.isAssignableFrom(classClass);
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 是否有Knife可能接受以字符ch(已规范化)开始的词语；有的Knife不能按字符类别分派时总是返回true
+	 *
+	 * @param ch
+	 * @return
+	 */
+	public boolean isAssignable(char ch) {
+		final Knife[][] classKnives = this.classKnives;
+		return classKnives == null
+				|| classKnives[CharSet.charClass(ch)].length > 0;
 	}
 
 	public int assignable(Beef beef, int offset, int index) {
@@ -83,6 +149,10 @@ public class KnifeBox implements Knife {
 	}
 
 	public int dissect(Collector collector, Beef beef, int offset) {
+		final Knife[][] classKnives = this.classKnives;
+		if (classKnives != null) {
+			return dissect(classKnives, collector, beef, offset);
+		}
 		Knife knife;
 		for (int i = 0; i < size; i++) {
 			knife = knives[i];
@@ -98,4 +168,27 @@ public class KnifeBox implements Knife {
 		return ++offset;
 	}
 
+	/**
+	 * 按字符类别查表分派Knife，结果与逐个调用assignable相同
+	 */
+	private int dissect(Knife[][] classKnives, Collector collector, Beef beef,
+			int offset) {
+		Knife[] candidates = classKnives[CharSet.charClass(beef.charAt(offset))];
+		if (candidates.length == 0) {
+			// 跳过没有Knife接受的连续字符
+			final int beefLength = beef.length();
+			while (++offset < beefLength
+					&& classKnives[CharSet.charClass(beef.charAt(offset))].length == 0) {
+			}
+			return offset;
+		}
+		for (int i = 0; i < candidates.length; i++) {
+			int lastLimit = candidates[i].dissect(collector, beef, offset);
+			if (lastLimit != offset) {
+				return lastLimit;
+			}
+		}
+		return ++offset;
+	}
+
 }
@@ -21,7 +21,7 @@ package net.paoding.analysis.knife;
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
  * 
  */
-public class LetterKnife extends CombinatoricsKnife {
+public class LetterKnife extends CombinatoricsKnife implements CharClassAssignable {
 
 	public static final String[] DEFAULT_NOISE = { "a", "an", "and", "are", "as", "at",
 			"be", "but", "by", "for", "if", "in", "into", "is", "it", "no",
@@ -50,6 +50,9 @@ public class LetterKnife extends CombinatoricsKnife {
 		}
 		return LIMIT;
 	}
-	
+
+	public boolean isAssignable(int charClass) {
+		return charClass == CharSet.LATIN;
+	}
 
 }
@@ -19,16 +19,15 @@ import java.math.BigInteger;
 
 import net.paoding.analysis.dictionary.Dictionary;
 import net.paoding.analysis.dictionary.Hit;
+import net.paoding.analysis.dictionary.Word;
 
 /**
  * 
  * @author Zhiliang Wang [qieqie.wang@gmail.com]
  * 
  */
-public class NumberKnife extends CombinatoricsKnife implements DictionariesWare {
+public class NumberKnife extends CombinatoricsKnife implements DictionariesWare, CharClassAssignable {
 
-	private Dictionary units;
-	
 	public NumberKnife() {
 	}
 
@@ -36,12 +35,6 @@ public class NumberKnife extends CombinatoricsKnife implements DictionariesWare
 		setDictionaries(dictionaries);
 	}
 
-	public void setDictionaries(Dictionaries dictionaries) {
-		super.setDictionaries(dictionaries);
-		units = dictionaries.getUnitsDictionary();
-	}
-	
-
 	public int assignable(Beef beef, int offset, int index) {
 		char ch = beef.charAt(index);
 		if (CharSet.isArabianNumber(ch))
@@ -63,11 +56,15 @@ public class NumberKnife extends CombinatoricsKnife implements DictionariesWare
 		return LIMIT;
 	}
 	
-	protected int collectLimit(Collector collector, Beef beef,
-			int offset, int point, int limit, int dicWordVote) {
+	public boolean isAssignable(int charClass) {
+		return charClass == CharSet.DIGIT;
+	}
+	
+	protected int collectLimit(Collector collector, DictionarySet dictionaries,
+			Beef beef, int offset, int point, int limit, int dicWordVote) {
 		// "123abc"的直接调用super的
 		if (point != -1) {
-			return super.collectLimit(collector, beef, offset, point, limit, dicWordVote);
+			return super.collectLimit(collector, dictionaries, beef, offset, point, limit, dicWordVote);
 		}
 		// 
 		// 2.2两
@@ -134,31 +131,33 @@ public class NumberKnife extends CombinatoricsKnife implements DictionariesWare
 			doCollect(collector, String.valueOf(number1), beef, offset, curTail);
 		}
 		else {
-			super.collectLimit(collector, beef, offset, point, limit, dicWordVote);
+			super.collectLimit(collector, dictionaries, beef, offset, point, limit, dicWordVote);
 		}
 		
 		curTail = curTail > limit ? curTail : limit;
 		
 		//
 		// 后面可能跟了计量单位
+		Dictionary units = dictionaries.getUnitsDictionary();
 		if (units != null && CharSet.isCjkUnifiedIdeographs(beef.charAt(curTail))) {
-			Hit wd = null;
-			Hit wd2 = null;
+			Hit hit = new Hit();
+			Word unit = null;
 			int i = curTail + 1;
 			
 			/*
 			 * Fix issue 48: 查找计量单位引起的高亮越界错误
 			 */
-			while (i <= limit && (wd = units.search(beef, curTail, i - curTail)).isHit()) {
-				wd2 = wd;
+			while (i <= limit && units.search(beef, curTail, i - curTail, hit).isHit()) {
+				unit = hit.getWord();
 				i++;
-				if (!wd.isUnclosed()) {
+				if (!hit.isUnclosed()) {
 					break;
 				}
 			}
 			i --;
-			if (wd2 != null) {
-				collector.collect(wd2.getWord().getText(), curTail, i);
+			if (unit != null) {
+				collector.collect(beef.getValue(), beef.getOffset() + curTail,
+						curTail, i);
 				return i;
 			}
 		}
@@ -15,6 +15,8 @@
  */
 package net.paoding.analysis.knife;
 
+import net.paoding.analysis.analyzer.TokenCache;
+import net.paoding.analysis.dictionary.support.detection.Detector;
 
 /**
  * Paoding是一个背着“刀箱”(内藏各种“刀”)毕生精力“解牛”的人，即“庖丁”。
@@ -31,4 +33,106 @@ package net.paoding.analysis.knife;
  */
 public class Paoding extends SmartKnifeBox implements Knife {
 
+	/**
+	 * 检测字典变化的后台检测器，没有启用时为null
+	 */
+	private volatile Detector detector;
+
+	/**
+	 * 所有Knife共用的字典快照持有者；字典重新装载时新的快照发布到这里，即对所有Knife生效
+	 */
+	private volatile AtomicDictionaries dictionaries;
+
+	/**
+	 * 对文本字符的规范化，编译字典时对词语所做的规范化与之相同
+	 */
+	private volatile CharNormalizer normalizer = CharNormalizer.DEFAULT;
+
+	/**
+	 * 以本Paoding切分的分析器共用的切分结果缓存，没有启用时为null
+	 */
+	private volatile TokenCache tokenCache;
+
+	/**
+	 * 返回所有Knife共用的字典快照持有者，尚未设置字典时返回null
+	 * 
+	 * @since 2.0.4
+	 */
+	public AtomicDictionaries getDictionaries() {
+		return dictionaries;
+	}
+
+	/**
+	 * 设置所有Knife共用的字典快照持有者，各个Knife由调用者自行设置
+	 * 
+	 * @since 2.0.4
+	 */
+	public void setDictionaries(AtomicDictionaries dictionaries) {
+		this.dictionaries = dictionaries;
+	}
+
+	/**
+	 * 返回按配置创建的字符规范化，分词前应以之规范化文本
+	 * 
+	 * @since 2.0.4
+	 */
+	public CharNormalizer getNormalizer() {
+		return normalizer;
+	}
+
+	/**
+	 * 
+	 * @since 2.0.4
+	 */
+	public void setNormalizer(CharNormalizer normalizer) {
+		this.normalizer = normalizer;
+	}
+
+	/**
+	 * 返回按配置创建的切分结果缓存，以本Paoding切分、使用其{@link #getNormalizer()}的分析器共用之；没有启用时返回null
+	 * 
+	 * @since 2.0.4
+	 */
+	public TokenCache getTokenCache() {
+		return tokenCache;
+	}
+
+	/**
+	 * 
+	 * @since 2.0.4
+	 */
+	public void setTokenCache(TokenCache tokenCache) {
+		this.tokenCache = tokenCache;
+	}
+
+	/**
+	 * 
+	 * @since 2.0.4
+	 */
+	public Detector getDetector() {
+		return detector;
+	}
+
+	/**
+	 * 设置检测字典变化的后台检测器，由{@link #close()}停止
+	 * 
+	 * @since 2.0.4
+	 */
+	public void setDetector(Detector detector) {
+		this.detector = detector;
+	}
+
+	/**
+	 * 停止检测字典变化的后台线程，使不再使用的Paoding可以被回收；之后字典不再随文件变化重新装载，但仍可继续分词
+	 * 
+	 * @since 2.0.4
+	 */
+	public void close() {
+		Detector detector = this.detector;
+		this.detector = null;
+		if (detector != null) {
+			detector.stop();
+		}
+	}
+
 }
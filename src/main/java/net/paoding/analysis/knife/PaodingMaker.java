@@ -20,14 +20,29 @@ import java.lang.reflect.Method;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 import net.paoding.analysis.Constants;
+import net.paoding.analysis.analyzer.TokenCache;
 import net.paoding.analysis.analyzer.impl.MostWordsModeDictionariesCompiler;
 import net.paoding.analysis.analyzer.impl.SortingDictionariesCompiler;
+import net.paoding.analysis.dictionary.support.detection.Detector;
+import net.paoding.analysis.dictionary.support.detection.Difference;
+import net.paoding.analysis.dictionary.support.detection.DifferenceListener;
+import net.paoding.analysis.dictionary.support.detection.ExtensionFileFilter;
+import net.paoding.analysis.dictionary.support.detection.Node;
 import net.paoding.analysis.exception.PaodingAnalysisException;
 import net.paoding.analysis.ext.PaodingAnalyzerListener;
+import net.paoding.analysis.metrics.MeteredKnife;
+import net.paoding.analysis.metrics.PaodingEvents;
+import net.paoding.analysis.metrics.PaodingMetrics;
 import org.apache.lucene.store.FSLockFactory;
 import org.apache.lucene.store.Lock;
 import org.apache.lucene.store.LockObtainFailedException;
@@ -48,9 +63,15 @@ public class PaodingMaker {
 
 	private static final Logger log = LoggerFactory.getLogger(PaodingMaker.class);
 
-	private static ObjectHolder<Properties> propertiesHolder = new ObjectHolder<Properties>();
+	/**
+	 * 属性文件路径->已读入的属性对象及其最近一次检查修改的时间
+	 */
+	private static final ConcurrentMap<String, PropertiesHolder> propertiesHolder = new ConcurrentHashMap<String, PropertiesHolder>();
 
-	private static ObjectHolder<Paoding> paodingHolder = new ObjectHolder<Paoding>();
+	/**
+	 * 属性文件路径或属性内容->正在创建或已经创建好的Paoding对象；同一配置同时只有一个线程创建Paoding，其他线程等待它的结果
+	 */
+	private static final ConcurrentMap<Object, FutureTask<Paoding>> paodingHolder = new ConcurrentHashMap<Object, FutureTask<Paoding>>();
 
 	public static PaodingAnalyzerListener listener = null;
 	
@@ -127,18 +148,28 @@ public class PaodingMaker {
 			throw new NullPointerException("path should not be null!");
 		}
 		try {
-			//
-			Properties p = (Properties) propertiesHolder.get(path);
-			if (p == null || modified(p)) {
-				p = loadProperties(new Properties(), path);
-				propertiesHolder.set(path, p);
-				paodingHolder.remove(path);
-				postPropertiesLoaded(p);
-				String absolutePaths = p
-						.getProperty("paoding.analysis.properties.files.absolutepaths");
-				log.info("config paoding analysis from: " + absolutePaths);
+			PropertiesHolder holder = propertiesHolder.get(path);
+			if (holder != null && !holder.shouldCheck()) {
+				return holder.properties;
 			}
-			return p;
+			if (holder == null || modified(holder.properties)) {
+				synchronized (propertiesHolder) {
+					// 其他线程可能已经重新读入
+					PropertiesHolder current = propertiesHolder.get(path);
+					if (current == holder) {
+						Properties p = loadProperties(new Properties(), path);
+						postPropertiesLoaded(p);
+						current = new PropertiesHolder(p);
+						propertiesHolder.put(path, current);
+						close(paodingHolder.remove(path));
+						String absolutePaths = p
+								.getProperty("paoding.analysis.properties.files.absolutepaths");
+						log.info("config paoding analysis from: " + absolutePaths);
+					}
+					return current.properties;
+				}
+			}
+			return holder.properties;
 		} catch (IOException e) {
 			throw new PaodingAnalysisException(e);
 		}
@@ -350,8 +381,6 @@ public class PaodingMaker {
 	}
 
 	private static Paoding implMake(final Properties p) {
-		// 将要返回的Paoding对象，它可能是新创建的，也可能使用paodingHolder中已有的Paoding对象
-		Paoding paoding;
 		// 作为本次返回的Paoding对象在paodingHolder中的key，使之后同样的key不会重复创建Paoding对象
 		final Object paodingKey;
 		// 如果该属性对象是通过PaodingMaker由文件读入的，则必然存在paoding.dic.properties.path属性
@@ -360,87 +389,193 @@ public class PaodingMaker {
 		// 如果该属性由文件读入，则文件地址作为Paoding对象在paodingHolder中的key
 		if (path != null) {
 			paodingKey = path;
-			// 否则以属性文件作为其key，之后只要进来的是同一个属性对象，都返回同一个Paoding对象
+			// 否则以属性内容的副本作为其key，之后只要进来的属性内容相同，都返回同一个Paoding对象；
+			// 使用副本是为了避免调用者之后修改属性对象而改变key
 		} else {
-			paodingKey = p;
+			paodingKey = new HashMap<Object, Object>(p);
 		}
-		paoding = paodingHolder.get(paodingKey);
-		if (paoding != null) {
-			return paoding;
+		FutureTask<Paoding> task = paodingHolder.get(paodingKey);
+		if (task == null) {
+			FutureTask<Paoding> created = new FutureTask<Paoding>(
+					new Callable<Paoding>() {
+						public Paoding call() {
+							return createPaoding(p);
+						}
+					});
+			task = paodingHolder.putIfAbsent(paodingKey, created);
+			if (task == null) {
+				task = created;
+				created.run();
+				// 创建期间配置已经变化、被移出paodingHolder的，由创建者关闭
+				if (paodingHolder.get(paodingKey) != created) {
+					close(created);
+				}
+			}
+		}
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PaodingAnalysisException(e);
+		} catch (ExecutionException e) {
+			// 创建失败的不留在paodingHolder中，下次重新创建
+			paodingHolder.remove(paodingKey, task);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PaodingAnalysisException(cause);
 		}
+	}
+
+	private static Paoding createPaoding(final Properties p) {
+		Paoding paoding;
 		try {
 			paoding = createPaodingWithKnives(p);
-			final Paoding finalPaoding = paoding;
-			//
-			String compilerClassName = getProperty(p,
-					Constants.ANALYZER_DICTIONARIES_COMPILER);
-			Class<?> compilerClass = null;
-			if (compilerClassName != null) {
-				compilerClass = Class.forName(compilerClassName);
+			meter(paoding, p);
+			// 字典词语与分词文本以同一个规范化处理(比如繁体转简体)，才能互相匹配
+			paoding.setNormalizer(CharNormalizer.of(p));
+			// 同一配置的所有分析器共用一个切分结果缓存
+			int cacheSize = Integer.parseInt(getProperty(p,
+					Constants.ANALYZER_CACHE_SIZE));
+			if (cacheSize > 0) {
+				paoding.setTokenCache(new TokenCache(cacheSize, Integer
+						.parseInt(getProperty(p,
+								Constants.ANALYZER_CACHE_MAX_LENGTH))));
+			}
+			DictionariesCompiler compiler = createCompiler(p);
+			Dictionaries dictionaries = compileDictionaries(p, compiler,
+					paoding.getNormalizer());
+			if (dictionaries != null) {
+				setDictionaries(paoding, dictionaries);
+			}
+			// 启动字典变化检测器
+			startDetector(paoding, p, compiler);
+			return paoding;
+		} catch (Exception e) {
+			throw new PaodingAnalysisException("", e);
+		}
+	}
+
+	private static DictionariesCompiler createCompiler(Properties p)
+			throws Exception {
+		String compilerClassName = getProperty(p,
+				Constants.ANALYZER_DICTIONARIES_COMPILER);
+		Class<?> compilerClass = null;
+		if (compilerClassName != null) {
+			compilerClass = Class.forName(compilerClassName);
+		}
+		if (compilerClass == null) {
+			String analyzerMode = getProperty(p, Constants.ANALYZER_MODE);
+			if ("most-words".equalsIgnoreCase(analyzerMode)
+					|| "default".equalsIgnoreCase(analyzerMode)) {
+				compilerClass = MostWordsModeDictionariesCompiler.class;
+			} else {
+				compilerClass = SortingDictionariesCompiler.class;
+			}
+		}
+		return (DictionariesCompiler) compilerClass.newInstance();
+	}
+
+	/**
+	 * 在字典目录的write.lock下，由compiler判断并重新编译变化了的字典，然后读入编译后的字典；
+	 * 启动时以及检测到字典文件变化时都经由这里，使分词总是使用编译后的字典
+	 * 
+	 * @return 编译后的字典，没有获得write.lock时返回null
+	 */
+	private static Dictionaries compileDictionaries(Properties p,
+			DictionariesCompiler compiler, CharNormalizer normalizer)
+			throws Exception {
+		return compileDictionaries(p, compiler, normalizer, null, null);
+	}
+
+	/**
+	 * 同{@link #compileDictionaries(Properties, DictionariesCompiler, CharNormalizer)}；
+	 * 已知变化了的源字典文件、且compiler支持时，只重新编译、重新读入受其影响的字典，其余沿用current
+	 * 
+	 * @param current
+	 *            正在使用的编译后的字典，changed为null时不使用
+	 * @param changed
+	 *            检测到的变化了的源字典文件，相对字典目录的路径；null表示未知
+	 */
+	private static Dictionaries compileDictionaries(Properties p,
+			DictionariesCompiler compiler, CharNormalizer normalizer,
+			Dictionaries current, Collection<String> changed)
+			throws Exception {
+		IncrementalDictionariesCompiler incremental = null;
+		if (changed != null
+				&& compiler instanceof IncrementalDictionariesCompiler) {
+			incremental = (IncrementalDictionariesCompiler) compiler;
+		}
+		String LOCK_FILE = "write.lock";
+		String dicHome = p.getProperty("paoding.dic.home.absolute.path");
+		FSLockFactory FileLockFactory = new NativeFSLockFactory(dicHome);
+		Lock lock = FileLockFactory.makeLock(LOCK_FILE);
+
+		boolean obtained = false;
+		try {
+			Object event = PaodingEvents.beginLock(dicHome);
+			try {
+				obtained = lock.obtain(90000);
+			} finally {
+				PaodingEvents.endLock(event, obtained);
+			}
+			if (!obtained) {
+				return null;
 			}
-			if (compilerClass == null) {
-				String analyzerMode = getProperty(p, Constants.ANALYZER_MODE);
-				if ("most-words".equalsIgnoreCase(analyzerMode)
-						|| "default".equalsIgnoreCase(analyzerMode)) {
-					compilerClass = MostWordsModeDictionariesCompiler.class;
+			// 编译词典-对词典进行可能的处理，以符合分词器的要求；
+			// 已知变化时由编译器逐个判断哪些输出需要重新编译，不再校验所有的源文件
+			boolean shouldCompile = true;
+			if (incremental == null) {
+				event = PaodingEvents.beginCompile("shouldCompile",
+						compiler, dicHome);
+				shouldCompile = compiler.shouldCompile(p);
+				PaodingEvents.endCompile(event, shouldCompile);
+			}
+			if (shouldCompile) {
+				Dictionaries dictionaries = readUnCompiledDictionaries(p,
+						normalizer);
+				dictionaries.setAnalyzerListener(listener);
+				// 源字典只在编译真正用到时才读入，沿用上次编译输出的部分不读入
+				Knife knife = new CompilingKnife(p, dictionaries);
+				event = PaodingEvents.beginCompile("compile", compiler,
+						dicHome);
+				if (incremental != null) {
+					incremental.compile(dictionaries, knife, p, changed);
 				} else {
-					compilerClass = SortingDictionariesCompiler.class;
+					compiler.compile(dictionaries, knife, p);
 				}
+				PaodingEvents.endCompile(event, true);
 			}
-			final DictionariesCompiler compiler = (DictionariesCompiler) compilerClass
-					.newInstance();
-			new Function() {
-				public void run() throws Exception {
-					String LOCK_FILE = "write.lock";
-					String dicHome = p
-							.getProperty("paoding.dic.home.absolute.path");
-					FSLockFactory FileLockFactory = new NativeFSLockFactory(
-							dicHome);
-					Lock lock = FileLockFactory.makeLock(LOCK_FILE);
-
-					boolean obtained = false;
-					try {
-						obtained = lock.obtain(90000);
-						if (obtained) {
-							// 编译词典-对词典进行可能的处理，以符合分词器的要求
-							if (compiler.shouldCompile(p)) {
-								Dictionaries dictionaries = readUnCompiledDictionaries(p);
-								dictionaries.setAnalyzerListener(listener);
-								Paoding tempPaoding = createPaodingWithKnives(p);
-								setDictionaries(tempPaoding, dictionaries);
-								compiler.compile(dictionaries, tempPaoding, p);
-							}
 
-							// 使用编译后的词典
-							final Dictionaries dictionaries = compiler
-									.readCompliedDictionaries(p);
-							dictionaries.setAnalyzerListener(listener);
-							setDictionaries(finalPaoding, dictionaries);
-						}
-					} catch (LockObtainFailedException ex) {
-						log.error("Obtain " + LOCK_FILE + " in " + dicHome
-								+ " failed:" + ex.getMessage());
-						throw ex;
-					} catch (IOException ex) {
-						log.error("Obtain " + LOCK_FILE + " in " + dicHome
-								+ " failed:" + ex.getMessage());
-						throw ex;
-					} finally {
-						if (obtained) {
-							try {
-								lock.release();
-							} catch (Exception ex) {
+			// 使用编译后的词典
+			event = PaodingEvents.beginCompile("readCompiled", compiler,
+					dicHome);
+			Dictionaries dictionaries = incremental != null ? incremental
+					.readCompliedDictionaries(p, current, changed) : compiler
+					.readCompliedDictionaries(p);
+			PaodingEvents.endCompile(event, true);
+			dictionaries.setAnalyzerListener(listener);
+			return dictionaries;
+		} catch (LockObtainFailedException ex) {
+			log.error("Obtain " + LOCK_FILE + " in " + dicHome + " failed:"
+					+ ex.getMessage());
+			throw ex;
+		} catch (IOException ex) {
+			log.error("Obtain " + LOCK_FILE + " in " + dicHome + " failed:"
+					+ ex.getMessage());
+			throw ex;
+		} finally {
+			if (obtained) {
+				try {
+					lock.release();
+				} catch (Exception ex) {
 
-							}
-						}
-					}
 				}
-			}.run();
-			// Paoding对象创建成功！此时可以将它寄放到paodingHolder中，给下次重复利用
-			paodingHolder.set(paodingKey, paoding);
-			return paoding;
-		} catch (Exception e) {
-			throw new PaodingAnalysisException("", e);
+			}
 		}
 	}
 
@@ -514,7 +649,8 @@ public class PaodingMaker {
 		return paoding;
 	}
 
-	private static Dictionaries readUnCompiledDictionaries(Properties p) {
+	private static Dictionaries readUnCompiledDictionaries(Properties p,
+			CharNormalizer normalizer) {
 		String skipPrefix = getProperty(p, Constants.DIC_SKIP_PREFIX);
 		String noiseCharactor = getProperty(p, Constants.DIC_NOISE_CHARACTOR);
 		String noiseWord = getProperty(p, Constants.DIC_NOISE_WORD);
@@ -524,17 +660,85 @@ public class PaodingMaker {
 		String combinatorics = getProperty(p, Constants.DIC_FOR_COMBINATORICS);
 		String charsetName = getProperty(p, Constants.DIC_CHARSET);
 		int maxWordLen = Integer.valueOf(getProperty(p, Constants.DIC_MAXWORDLEN));
-		Dictionaries dictionaries = new FileDictionaries(getDicHome(p),
+		FileDictionaries dictionaries = new FileDictionaries(getDicHome(p),
 				skipPrefix, noiseCharactor, noiseWord, unit,
 				confucianFamilyName, combinatorics, charsetName, maxWordLen);
+		dictionaries.setVocabularyStructure(getProperty(p,
+				Constants.ANALYZER_DICTIONARIES_VOCABULARY));
+		dictionaries.setLoaderThreads(Integer.parseInt(getProperty(p,
+				Constants.DIC_LOADER_THREADS)));
+		// 只有默认规范化时词语保持原样，与以前编译的结果相同
+		if (normalizer != CharNormalizer.DEFAULT) {
+			dictionaries.setNormalizer(normalizer);
+		}
 		return dictionaries;
 	}
 
+	/**
+	 * 侦测时间间隔(秒)大于0时，启动后台检测器检测字典目录下.dic文件的变化；
+	 * 变化了的字典由compiler重新编译，编译后的快照一次替换paoding所有Knife所用的字典
+	 */
+	private static void startDetector(Paoding paoding, Properties p,
+			DictionariesCompiler compiler) {
+		int interval = Integer.parseInt(getProperty(p,
+				Constants.DIC_DETECTOR_INTERVAL));
+		if (interval <= 0 || paoding.getDictionaries() == null) {
+			return;
+		}
+		Detector detector = new Detector(new File(getDicHome(p)),
+				new ExtensionFileFilter(".dic"),
+				new CompilingDifferenceListener(p, compiler, paoding
+						.getNormalizer(), paoding.getDictionaries()));
+		detector.setInterval(interval * 1000L);
+		detector.setDebounce(Long.parseLong(getProperty(p,
+				Constants.DIC_DETECTOR_DEBOUNCE)));
+		detector.setWatch(Boolean.valueOf(getProperty(p,
+				Constants.DIC_DETECTOR_WATCH)));
+		paoding.setDetector(detector);
+		detector.start(true);
+	}
+
+	/**
+	 * 关闭被移出paodingHolder的Paoding，停止其字典检测线程，使之可以被回收；
+	 * 尚未创建完成的由其创建者在创建完成后关闭
+	 */
+	private static void close(FutureTask<Paoding> task) {
+		if (task == null || !task.isDone()) {
+			return;
+		}
+		try {
+			task.get().close();
+		} catch (ExecutionException e) {
+			// 创建失败的没有需要关闭的
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 启用度量时，以MeteredKnife包装paoding的所有Knife，此后设置给它们的字典也被包装；
+	 * 没有启用时什么都不做，分词不经过任何度量代码
+	 */
+	private static void meter(Paoding paoding, Properties p) {
+		if (!Boolean.valueOf(getProperty(p, Constants.ANALYZER_METRICS_ENABLED))) {
+			return;
+		}
+		PaodingMetrics metrics = PaodingMetrics.getDefault();
+		String jmxName = getProperty(p, Constants.ANALYZER_METRICS_JMX_NAME);
+		if (jmxName != null && jmxName.length() > 0) {
+			metrics.registerMBean(jmxName);
+		}
+		paoding.setKnives(MeteredKnife.wrap(paoding.getKnives(), metrics));
+	}
+
 	private static void setDictionaries(Paoding paoding,
 			Dictionaries dictionaries) {
+		// 所有Knife共用同一个快照持有者，字典重新装载时一次替换即对所有Knife生效
+		AtomicDictionaries shared = AtomicDictionaries.of(dictionaries);
+		paoding.setDictionaries(shared);
 		for (Knife knife : paoding.getKnives()) {
 			if (knife instanceof DictionariesWare) {
-				((DictionariesWare) knife).setDictionaries(dictionaries);
+				((DictionariesWare) knife).setDictionaries(shared);
 			}
 		}
 	}
@@ -593,23 +797,146 @@ public class PaodingMaker {
 
 	// --------------------------------------------------------------------
 
-	private static class ObjectHolder<T>{
+	private static class PropertiesHolder {
+
+		private final Properties properties;
+
+		/**
+		 * 两次检查属性文件是否修改的最小间隔(毫秒)
+		 */
+		private final long checkInterval;
+
+		private final AtomicLong lastChecked = new AtomicLong(System
+				.currentTimeMillis());
+
+		private PropertiesHolder(Properties properties) {
+			this.properties = properties;
+			this.checkInterval = Long.parseLong(getProperty(properties,
+					Constants.ANALYZER_PROPERTIES_CHECK_INTERVAL));
+		}
+
+		/**
+		 * 是否应该由本线程检查属性文件是否修改：距上次检查超过checkInterval时，只有一个线程取得检查的机会
+		 */
+		private boolean shouldCheck() {
+			if (checkInterval <= 0) {
+				return true;
+			}
+			long now = System.currentTimeMillis();
+			long last = lastChecked.get();
+			return now - last >= checkInterval
+					&& lastChecked.compareAndSet(last, now);
+		}
+	}
+
+	/**
+	 * 字典文件变化时，以启动时所用的compiler在write.lock下重新编译变化了的字典(未变化的编译输出原样沿用)，
+	 * 再把编译后的字典装载为新的快照发布到所有Knife共用的持有者；
+	 * compiler为{@link IncrementalDictionariesCompiler}时，只重新校验检测到的变化文件，未受影响的字典沿用当前快照中已经装载的。
+	 * 分词所用的始终是编译后的字典(包括其映射、紧凑的词汇表结构)，不会退回为源文件的全部词语。
+	 * 编译或装载失败时记录错误，继续使用原来的字典。
+	 */
+	private static class CompilingDifferenceListener implements
+			DifferenceListener {
+
+		private final Properties p;
+
+		private final DictionariesCompiler compiler;
 
-		private ObjectHolder() {
+		private final CharNormalizer normalizer;
+
+		private final AtomicDictionaries published;
+
+		CompilingDifferenceListener(Properties p,
+				DictionariesCompiler compiler, CharNormalizer normalizer,
+				AtomicDictionaries published) {
+			this.p = p;
+			this.compiler = compiler;
+			this.normalizer = normalizer;
+			this.published = published;
+		}
+
+		public synchronized void on(Difference diff) {
+			Object event = PaodingEvents.beginReload();
+			List<Node> all = new LinkedList<Node>();
+			all.addAll(diff.getDeleted());
+			all.addAll(diff.getModified());
+			all.addAll(diff.getNewcome());
+			List<String> changed = new ArrayList<String>(all.size());
+			for (Node node : all) {
+				changed.add(node.getPath());
+			}
+			DictionarySet current = published.current();
+			long version = current.getVersion() + 1;
+			boolean done = false;
+			try {
+				Dictionaries dictionaries = compileDictionaries(p, compiler,
+						normalizer, current, changed);
+				if (dictionaries != null) {
+					// 在旁边装载好所有字典再发布
+					DictionarySet compiled = DictionarySet
+							.snapshot(dictionaries);
+					done = published.publish(new DictionarySet(compiled
+							.getVocabularyDictionary(), compiled
+							.getConfucianFamilyNamesDictionary(), compiled
+							.getNoiseCharactorsDictionary(), compiled
+							.getNoiseWordsDictionary(), compiled
+							.getUnitsDictionary(), compiled
+							.getCombinatoricsDictionary(), version));
+				}
+			} catch (Exception e) {
+				log.error("reload dictionaries in "
+						+ p.getProperty("paoding.dic.home.absolute.path")
+						+ " failed, keep using the current ones", e);
+			} finally {
+				PaodingEvents.endReload(event, all, version, done);
+			}
 		}
+	}
+
+	/**
+	 * 编译时使用的Knife：第一次切分时才创建以源字典切分的Paoding，
+	 * 以免在不需要切分的编译(比如只有x-字典变化)中读入所有源字典
+	 */
+	private static class CompilingKnife implements Knife {
+
+		private final Properties p;
+
+		private final Dictionaries dictionaries;
 
-		private Map<Object, T> objects = new HashMap<Object, T>();
+		private volatile Knife paoding;
 
-		public T get(Object name) {
-			return objects.get(name);
+		CompilingKnife(Properties p, Dictionaries dictionaries) {
+			this.p = p;
+			this.dictionaries = dictionaries;
 		}
 
-		public void set(Object name, T object) {
-			objects.put(name, object);
+		public int assignable(Beef beef, int offset, int index) {
+			return getPaoding().assignable(beef, offset, index);
 		}
 
-		public void remove(Object name) {
-			objects.remove(name);
+		public int dissect(Collector collector, Beef beef, int offset) {
+			return getPaoding().dissect(collector, beef, offset);
+		}
+
+		private Knife getPaoding() {
+			Knife paoding = this.paoding;
+			if (paoding == null) {
+				// 编译词汇表时可能由多个线程同时切分
+				synchronized (this) {
+					paoding = this.paoding;
+					if (paoding == null) {
+						try {
+							Paoding created = createPaodingWithKnives(p);
+							setDictionaries(created, dictionaries);
+							this.paoding = paoding = created;
+						} catch (Exception e) {
+							throw new PaodingAnalysisException(e);
+						}
+					}
+				}
+			}
+			return paoding;
 		}
 	}
 
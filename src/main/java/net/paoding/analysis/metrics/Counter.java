@@ -0,0 +1,52 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 可以在多个线程中同时累加的计数器
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see Metrics#counter(String)
+ *
+ * @since 2.0.4
+ */
+public final class Counter {
+
+	private final LongAdder adder = new LongAdder();
+
+	public void increment() {
+		adder.increment();
+	}
+
+	public void add(long delta) {
+		adder.add(delta);
+	}
+
+	public long get() {
+		return adder.sum();
+	}
+
+	public void reset() {
+		adder.reset();
+	}
+
+	public String toString() {
+		return String.valueOf(get());
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR事件：字典编译的一个阶段(shouldCompile、compile或readCompiled)。
+ * <p>
+ * 只由{@link JfrEvents}创建，运行环境没有JFR时不会装载本类。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingEvents
+ *
+ * @since 2.0.4
+ */
+@Name("net.paoding.analysis.DictionaryCompile")
+@Label("Dictionary Compile")
+@Category( { "Paoding", "Dictionary" })
+@Description("A phase of dictionary compilation: shouldCompile, compile or readCompiled")
+final class DictionaryCompileEvent extends Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Compiler")
+	String compiler;
+
+	@Label("Dictionary Home")
+	String dicHome;
+
+	@Label("Result")
+	@Description("Result of shouldCompile, always true for the other phases")
+	boolean result;
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 记录非负数值(如以纳秒计的延迟)分布的直方图，可以在多个线程中同时记录。
+ * <p>
+ * 与HdrHistogram一样以对数-线性分桶：小于64的值各占一个桶，此后每个2的幂区间再均分为32个桶，
+ * 所以任何值的相对误差都不超过1/32，而桶的总数固定(不到2000个)，记录一个值只是一次数组下标计算和一次原子加。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see Metrics#histogram(String)
+ *
+ * @since 2.0.4
+ */
+public final class Histogram {
+
+	/**
+	 * 每个2的幂区间的桶数为2^SUB_BUCKET_BITS
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * 小于此值的数值各占一个桶
+	 */
+	private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+
+	private static final int BUCKETS = LINEAR_LIMIT
+			+ (63 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+
+	// -------------------------------------------------
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong sum = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	// -------------------------------------------------
+
+	/**
+	 * 记录一个数值，负数按0记录
+	 *
+	 * @param value
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long m;
+		while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	/**
+	 * 返回不小于percentile%的记录的数值(所在桶的上界，不超过最大值)
+	 *
+	 * @param percentile
+	 *            0到100
+	 * @return 没有任何记录时返回0
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile))
+				/ 100 * n);
+		if (rank < 1) {
+			rank = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	public String toString() {
+		return "count=" + getCount() + ", mean=" + (long) getMean() + ", p50="
+				+ getValueAtPercentile(50) + ", p99="
+				+ getValueAtPercentile(99) + ", max=" + getMax();
+	}
+
+	// -------------------------------------------------
+
+	static int bucketOf(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS
+				+ (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	static long upperBoundOf(int bucket) {
+		if (bucket < LINEAR_LIMIT) {
+			return bucket;
+		}
+		int index = bucket - LINEAR_LIMIT;
+		int shift = index / SUB_BUCKETS + 1;
+		long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
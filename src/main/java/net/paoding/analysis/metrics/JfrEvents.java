@@ -0,0 +1,115 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import jdk.jfr.Event;
+
+/**
+ * 创建和提交JFR事件，是唯一直接使用事件类的地方。
+ * <p>
+ * 只有{@link PaodingEvents}确认运行环境支持JFR之后才会调用本类，从而装载jdk.jfr的类；
+ * 没有启用相应事件时beginXxx返回null，不再填写和提交。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingEvents
+ *
+ * @since 2.0.4
+ */
+final class JfrEvents {
+
+	private JfrEvents() {
+	}
+
+	/**
+	 * 结束事件的计时，此后到提交前的工作不计入事件的持续时间
+	 */
+	static void end(Object e) {
+		((Event) e).end();
+	}
+
+	static Object beginLock(String dicHome) {
+		DictionaryLockEvent event = new DictionaryLockEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.dicHome = dicHome;
+		event.begin();
+		return event;
+	}
+
+	static void endLock(Object e, boolean obtained) {
+		DictionaryLockEvent event = (DictionaryLockEvent) e;
+		event.obtained = obtained;
+		event.commit();
+	}
+
+	static Object beginCompile(String phase, String compiler, String dicHome) {
+		DictionaryCompileEvent event = new DictionaryCompileEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.phase = phase;
+		event.compiler = compiler;
+		event.dicHome = dicHome;
+		event.begin();
+		return event;
+	}
+
+	static void endCompile(Object e, boolean result) {
+		DictionaryCompileEvent event = (DictionaryCompileEvent) e;
+		event.result = result;
+		event.commit();
+	}
+
+	static Object beginLoad(String dicHome) {
+		DictionaryLoadEvent event = new DictionaryLoadEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.dicHome = dicHome;
+		event.begin();
+		return event;
+	}
+
+	static void endLoad(Object e, int files, long words, String fileNames) {
+		DictionaryLoadEvent event = (DictionaryLoadEvent) e;
+		event.files = files;
+		event.words = words;
+		event.fileNames = fileNames;
+		event.commit();
+	}
+
+	static Object beginReload() {
+		DictionaryReloadEvent event = new DictionaryReloadEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static void endReload(Object e, int changed, String fileNames,
+			long version, boolean published) {
+		DictionaryReloadEvent event = (DictionaryReloadEvent) e;
+		event.changed = changed;
+		event.fileNames = fileNames;
+		event.version = version;
+		event.published = published;
+		event.commit();
+	}
+}
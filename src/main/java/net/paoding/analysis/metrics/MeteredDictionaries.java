@@ -0,0 +1,82 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.knife.AtomicDictionaries;
+import net.paoding.analysis.knife.DictionarySet;
+
+/**
+ * 把另一个{@link AtomicDictionaries}当前快照中的字典以{@link MeteredDictionary}包装后提供给Knife。
+ * <p>
+ * 快照仍由被包装的AtomicDictionaries持有和发布，字典热替换照常生效；
+ * 每个快照只在第一次读取时包装一次，此后Knife每次dissect读取{@link #current()}只多一次引用比较。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see MeteredKnife
+ *
+ * @since 2.0.4
+ */
+public class MeteredDictionaries extends AtomicDictionaries {
+
+	private final AtomicDictionaries delegate;
+
+	private final Metrics metrics;
+
+	/**
+	 * 最近一次包装的快照及其包装结果
+	 */
+	private volatile DictionarySet[] wrapped;
+
+	public MeteredDictionaries(AtomicDictionaries delegate, Metrics metrics) {
+		super(delegate.current());
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	public AtomicDictionaries getDelegate() {
+		return delegate;
+	}
+
+	public DictionarySet current() {
+		DictionarySet source = delegate.current();
+		DictionarySet[] wrapped = this.wrapped;
+		if (wrapped != null && wrapped[0] == source) {
+			return wrapped[1];
+		}
+		DictionarySet metered = new DictionarySet(wrap(source
+				.getVocabularyDictionary(), "vocabulary"), wrap(source
+				.getConfucianFamilyNamesDictionary(), "confucianFamilyNames"),
+				wrap(source.getNoiseCharactorsDictionary(), "noiseCharactors"),
+				wrap(source.getNoiseWordsDictionary(), "noiseWords"), wrap(
+						source.getUnitsDictionary(), "units"), wrap(source
+						.getCombinatoricsDictionary(), "combinatorics"), source
+						.getVersion());
+		this.wrapped = new DictionarySet[] { source, metered };
+		return metered;
+	}
+
+	public boolean publish(DictionarySet update) {
+		return delegate.publish(update);
+	}
+
+	private Dictionary wrap(Dictionary dictionary, String name) {
+		return dictionary == null ? null : new MeteredDictionary(dictionary,
+				name, metrics);
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.dictionary.DictionaryCursor;
+import net.paoding.analysis.dictionary.Hit;
+import net.paoding.analysis.dictionary.Word;
+
+/**
+ * 记录另一个字典检索次数的Dictionary。
+ * <p>
+ * search的次数和命中次数分别记入计数器dictionary.&lt;name&gt;.searches和dictionary.&lt;name&gt;.hits；
+ * 游标每前进一个字符记一次检索，前进后是词语记一次命中。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see MeteredDictionaries
+ *
+ * @since 2.0.4
+ */
+public class MeteredDictionary implements Dictionary {
+
+	private final Dictionary delegate;
+
+	private final Counter searches;
+
+	private final Counter hits;
+
+	public MeteredDictionary(Dictionary delegate, String name, Metrics metrics) {
+		this.delegate = delegate;
+		this.searches = metrics.counter("dictionary." + name + ".searches");
+		this.hits = metrics.counter("dictionary." + name + ".hits");
+	}
+
+	public Dictionary getDelegate() {
+		return delegate;
+	}
+
+	public int size() {
+		return delegate.size();
+	}
+
+	public Word get(int index) {
+		return delegate.get(index);
+	}
+
+	public Hit search(CharSequence input, int offset, int count) {
+		return count(delegate.search(input, offset, count));
+	}
+
+	public Hit search(CharSequence input, int offset, int count, Hit hit) {
+		return count(delegate.search(input, offset, count, hit));
+	}
+
+	public DictionaryCursor cursor() {
+		final DictionaryCursor cursor = delegate.cursor();
+		return new DictionaryCursor() {
+
+			public void reset() {
+				cursor.reset();
+			}
+
+			public boolean next(char ch) {
+				boolean next = cursor.next(ch);
+				searches.increment();
+				if (cursor.isWord()) {
+					hits.increment();
+				}
+				return next;
+			}
+
+			public boolean isWord() {
+				return cursor.isWord();
+			}
+
+			public boolean hasLongerWords() {
+				return cursor.hasLongerWords();
+			}
+
+			public boolean isDeadEnd() {
+				return cursor.isDeadEnd();
+			}
+
+			public Word getWord() {
+				return cursor.getWord();
+			}
+		};
+	}
+
+	private Hit count(Hit hit) {
+		searches.increment();
+		if (hit.isHit()) {
+			hits.increment();
+		}
+		return hit;
+	}
+
+	public String toString() {
+		return delegate.toString();
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import net.paoding.analysis.knife.AtomicDictionaries;
+import net.paoding.analysis.knife.Beef;
+import net.paoding.analysis.knife.CharClassAssignable;
+import net.paoding.analysis.knife.Collector;
+import net.paoding.analysis.knife.Dictionaries;
+import net.paoding.analysis.knife.DictionariesWare;
+import net.paoding.analysis.knife.Knife;
+
+/**
+ * 记录另一个Knife分词延迟的Knife：每次dissect的耗时(纳秒)记入直方图knife.&lt;类名&gt;.dissect，
+ * 分解掉的字符数记入计数器knife.&lt;类名&gt;.chars；
+ * 设置给它的字典以{@link MeteredDictionaries}包装后再交给被包装的Knife，从而记录字典的检索和命中次数。
+ * <p>
+ * 只有启用度量时才以MeteredKnife包装Paoding的Knife，没有启用时分词不经过本类。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see Metrics
+ * @see MeteredDictionaries
+ *
+ * @since 2.0.4
+ */
+public class MeteredKnife implements Knife, DictionariesWare {
+
+	private final Knife delegate;
+
+	private final Metrics metrics;
+
+	private final Histogram dissectNanos;
+
+	private final Counter chars;
+
+	// -------------------------------------------------
+
+	protected MeteredKnife(Knife delegate, Metrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+		String name = "knife." + delegate.getClass().getSimpleName();
+		this.dissectNanos = metrics.histogram(name + ".dissect");
+		this.chars = metrics.counter(name + ".chars");
+	}
+
+	/**
+	 * 以MeteredKnife包装给定的Knife；它实现了{@link CharClassAssignable}时包装后的Knife也实现之，
+	 * 以保持{@link net.paoding.analysis.knife.KnifeBox}按字符类别分派
+	 *
+	 * @param knife
+	 * @param metrics
+	 * @return
+	 */
+	public static Knife wrap(Knife knife, Metrics metrics) {
+		if (knife instanceof MeteredKnife) {
+			return knife;
+		}
+		if (knife instanceof CharClassAssignable) {
+			return new MeteredClassAssignableKnife(knife, metrics);
+		}
+		return new MeteredKnife(knife, metrics);
+	}
+
+	/**
+	 * 以MeteredKnife包装给定的每一个Knife
+	 *
+	 * @param knives
+	 * @param metrics
+	 * @return 新的数组
+	 */
+	public static Knife[] wrap(Knife[] knives, Metrics metrics) {
+		Knife[] wrapped = new Knife[knives.length];
+		for (int i = 0; i < knives.length; i++) {
+			wrapped[i] = wrap(knives[i], metrics);
+		}
+		return wrapped;
+	}
+
+	// -------------------------------------------------
+
+	public Knife getDelegate() {
+		return delegate;
+	}
+
+	public void setDictionaries(Dictionaries dictionaries) {
+		if (delegate instanceof DictionariesWare) {
+			((DictionariesWare) delegate)
+					.setDictionaries(new MeteredDictionaries(AtomicDictionaries
+							.of(dictionaries), metrics));
+		}
+	}
+
+	public int assignable(Beef beef, int offset, int index) {
+		return delegate.assignable(beef, offset, index);
+	}
+
+	public int dissect(Collector collector, Beef beef, int offset) {
+		long start = System.nanoTime();
+		int next = delegate.dissect(collector, beef, offset);
+		dissectNanos.record(System.nanoTime() - start);
+		if (next > offset) {
+			chars.add(next - offset);
+		}
+		return next;
+	}
+
+	public String toString() {
+		return "Metered(" + delegate + ")";
+	}
+
+	// -------------------------------------------------
+
+	private static class MeteredClassAssignableKnife extends MeteredKnife
+			implements CharClassAssignable {
+
+		private final CharClassAssignable assignable;
+
+		MeteredClassAssignableKnife(Knife delegate, Metrics metrics) {
+			super(delegate, metrics);
+			this.assignable = (CharClassAssignable) delegate;
+		}
+
+		public boolean isAssignable(int charClass) {
+			return assignable.isAssignable(charClass);
+		}
+	}
+}
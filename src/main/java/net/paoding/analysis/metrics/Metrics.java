@@ -0,0 +1,49 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+/**
+ * 分词的度量接口：按名称取得计数器和延迟直方图。
+ * <p>
+ * 使用者在创建时取得并保存需要的Counter和Histogram，此后记录时不再按名称查找。
+ * 不需要度量时不创建任何度量对象，分词代码不做任何额外的工作。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see PaodingMetrics
+ * @see MeteredKnife
+ *
+ * @since 2.0.4
+ */
+public interface Metrics {
+
+	/**
+	 * 返回给定名称的计数器，同一名称总是返回同一个计数器
+	 *
+	 * @param name
+	 * @return
+	 */
+	public Counter counter(String name);
+
+	/**
+	 * 返回给定名称的直方图，同一名称总是返回同一个直方图
+	 *
+	 * @param name
+	 * @return
+	 */
+	public Histogram histogram(String name);
+}
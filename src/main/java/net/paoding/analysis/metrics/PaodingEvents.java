@@ -0,0 +1,218 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import net.paoding.analysis.dictionary.support.detection.Node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 字典装载、编译和重新装载的Java Flight Recorder事件的入口。
+ * <p>
+ * 各阶段开始时调用beginXxx取得事件，结束时以endXxx填写结果并提交，JFR据此记录各阶段的持续时间。
+ * 运行环境没有JFR(jdk.jfr)时beginXxx返回null，endXxx什么都不做，本类也不会装载任何jdk.jfr的类；
+ * 有JFR但没有记录这些事件时，beginXxx同样返回null，字典的词语数等也不会被统计。
+ * <p>
+ * 事件名称为net.paoding.analysis.DictionaryLock、DictionaryCompile、DictionaryLoad和DictionaryReload。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see net.paoding.analysis.knife.PaodingMaker
+ * @see net.paoding.analysis.knife.FileDictionaries
+ * @see net.paoding.analysis.knife.FileDictionariesDifferenceListener
+ *
+ * @since 2.0.4
+ */
+public final class PaodingEvents {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(PaodingEvents.class);
+
+	/**
+	 * 文件名列表的最大长度，超过的部分以...代替
+	 */
+	private static final int MAX_FILE_NAMES_LENGTH = 4096;
+
+	private static final boolean available = checkAvailable();
+
+	private PaodingEvents() {
+	}
+
+	/**
+	 * 运行环境是否支持JFR
+	 */
+	public static boolean isAvailable() {
+		return available;
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 开始等待字典目录的write.lock
+	 *
+	 * @param dicHome
+	 * @return 事件，不需要记录时为null
+	 */
+	public static Object beginLock(String dicHome) {
+		return available ? JfrEvents.beginLock(dicHome) : null;
+	}
+
+	public static void endLock(Object event, boolean obtained) {
+		if (event != null) {
+			JfrEvents.endLock(event, obtained);
+		}
+	}
+
+	/**
+	 * 开始字典编译的一个阶段
+	 *
+	 * @param phase
+	 *            shouldCompile、compile或readCompiled
+	 * @param compiler
+	 * @param dicHome
+	 * @return 事件，不需要记录时为null
+	 */
+	public static Object beginCompile(String phase, Object compiler,
+			String dicHome) {
+		return available ? JfrEvents.beginCompile(phase, compiler.getClass()
+				.getName(), dicHome) : null;
+	}
+
+	/**
+	 *
+	 * @param event
+	 * @param result
+	 *            shouldCompile的结果，其他阶段为true
+	 */
+	public static void endCompile(Object event, boolean result) {
+		if (event != null) {
+			JfrEvents.endCompile(event, result);
+		}
+	}
+
+	/**
+	 * 开始从字典目录读入所有的词语
+	 *
+	 * @param dicHome
+	 * @return 事件，不需要记录时为null
+	 */
+	public static Object beginLoad(String dicHome) {
+		return available ? JfrEvents.beginLoad(dicHome) : null;
+	}
+
+	/**
+	 *
+	 * @param event
+	 * @param dictionaries
+	 *            读入的字典，以字典名为key，词语为value
+	 */
+	public static void endLoad(Object event,
+			Map<String, ? extends Collection<?>> dictionaries) {
+		if (event == null) {
+			return;
+		}
+		// 统计词语数的时间不计入装载时间
+		JfrEvents.end(event);
+		long words = 0;
+		for (Iterator<? extends Collection<?>> iter = dictionaries.values()
+				.iterator(); iter.hasNext();) {
+			words += iter.next().size();
+		}
+		JfrEvents.endLoad(event, dictionaries.size(), words,
+				join(dictionaries.keySet()));
+	}
+
+	/**
+	 * 开始重新装载变化了的字典
+	 *
+	 * @return 事件，不需要记录时为null
+	 */
+	public static Object beginReload() {
+		return available ? JfrEvents.beginReload() : null;
+	}
+
+	/**
+	 *
+	 * @param event
+	 * @param changed
+	 *            删除、修改和新增的文件
+	 * @param version
+	 *            重新装载的快照版本
+	 * @param published
+	 *            快照是否发布成功
+	 */
+	public static void endReload(Object event, List<Node> changed,
+			long version, boolean published) {
+		if (event == null) {
+			return;
+		}
+		StringBuilder names = new StringBuilder();
+		for (Iterator<Node> iter = changed.iterator(); iter.hasNext();) {
+			if (!append(names, iter.next().getPath())) {
+				break;
+			}
+		}
+		JfrEvents.endReload(event, changed.size(), names.toString(), version,
+				published);
+	}
+
+	// -------------------------------------------------
+
+	private static String join(Collection<String> names) {
+		StringBuilder sb = new StringBuilder();
+		for (Iterator<String> iter = names.iterator(); iter.hasNext();) {
+			if (!append(sb, iter.next())) {
+				break;
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 在以逗号分隔的文件名列表后追加一个文件名，超过最大长度时以...结束并返回false
+	 */
+	private static boolean append(StringBuilder names, String name) {
+		if (names.length() > 0) {
+			names.append(',');
+		}
+		if (names.length() + name.length() > MAX_FILE_NAMES_LENGTH) {
+			names.append("...");
+			return false;
+		}
+		names.append(name);
+		return true;
+	}
+
+	private static boolean checkAvailable() {
+		try {
+			Class<?> recorder = Class.forName("jdk.jfr.FlightRecorder");
+			return Boolean.TRUE.equals(recorder.getMethod("isAvailable")
+					.invoke(null));
+		} catch (ClassNotFoundException e) {
+			return false;
+		} catch (Throwable e) {
+			log.debug("JFR is not available: " + e);
+			return false;
+		}
+	}
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright 2007 The Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.paoding.analysis.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Metrics}的默认实现，同时是一个JMX DynamicMBean。
+ * <p>
+ * 每个计数器是一个Long属性；每个直方图展开为name.count、name.mean、name.p50、name.p90、name.p99、name.p999、name.max几个属性；
+ * 另有reset操作清零所有计数器和直方图。
+ * <p>
+ *
+ * @author Zhiliang Wang [qieqie.wang@gmail.com]
+ *
+ * @see Metrics
+ *
+ * @since 2.0.4
+ */
+public class PaodingMetrics implements Metrics, DynamicMBean {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(PaodingMetrics.class);
+
+	private static final PaodingMetrics DEFAULT = new PaodingMetrics();
+
+	private static final String[] HISTOGRAM_FIELDS = { "count", "mean", "p50",
+			"p90", "p99", "p999", "max" };
+
+	// -------------------------------------------------
+
+	private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+	// -------------------------------------------------
+
+	/**
+	 * 由配置启用度量时(paoding.analyzer.metrics.enabled)，PaodingMaker和PaodingAnalyzer共用的实例
+	 */
+	public static PaodingMetrics getDefault() {
+		return DEFAULT;
+	}
+
+	public Counter counter(String name) {
+		Counter counter = counters.get(name);
+		if (counter == null) {
+			counter = new Counter();
+			Counter existing = counters.putIfAbsent(name, counter);
+			if (existing != null) {
+				counter = existing;
+			}
+		}
+		return counter;
+	}
+
+	public Histogram histogram(String name) {
+		Histogram histogram = histograms.get(name);
+		if (histogram == null) {
+			histogram = new Histogram();
+			Histogram existing = histograms.putIfAbsent(name, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * 清零所有计数器和直方图
+	 */
+	public void reset() {
+		for (Iterator<Counter> iter = counters.values().iterator(); iter
+				.hasNext();) {
+			iter.next().reset();
+		}
+		for (Iterator<Histogram> iter = histograms.values().iterator(); iter
+				.hasNext();) {
+			iter.next().reset();
+		}
+	}
+
+	/**
+	 * 所有计数器和直方图的当前值，按名称排序
+	 */
+	public SortedMap<String, Object> getValues() {
+		SortedMap<String, Object> values = new TreeMap<String, Object>();
+		for (Iterator<Map.Entry<String, Counter>> iter = counters.entrySet()
+				.iterator(); iter.hasNext();) {
+			Map.Entry<String, Counter> e = iter.next();
+			values.put(e.getKey(), e.getValue().get());
+		}
+		for (Iterator<Map.Entry<String, Histogram>> iter = histograms
+				.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, Histogram> e = iter.next();
+			for (int i = 0; i < HISTOGRAM_FIELDS.length; i++) {
+				values.put(e.getKey() + "." + HISTOGRAM_FIELDS[i], valueOf(e
+						.getValue(), HISTOGRAM_FIELDS[i]));
+			}
+		}
+		return values;
+	}
+
+	public String toString() {
+		return getValues().toString();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 以给定的名称注册到平台MBeanServer；已经注册过时什么都不做，注册失败只记录日志
+	 *
+	 * @param objectName
+	 *            如net.paoding.analysis:type=PaodingMetrics
+	 */
+	public void registerMBean(String objectName) {
+		try {
+			ObjectName name = new ObjectName(objectName);
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+						name);
+			}
+		} catch (InstanceAlreadyExistsException e) {
+			// 并发注册
+		} catch (Exception e) {
+			log.warn("register metrics mbean " + objectName + " failed: " + e);
+		}
+	}
+
+	// -------------------------------------------------
+
+	public Object getAttribute(String attribute)
+			throws AttributeNotFoundException {
+		Counter counter = counters.get(attribute);
+		if (counter != null) {
+			return counter.get();
+		}
+		int index = attribute.lastIndexOf('.');
+		if (index != -1) {
+			Histogram histogram = histograms.get(attribute.substring(0, index));
+			if (histogram != null) {
+				Object value = valueOf(histogram, attribute
+						.substring(index + 1));
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList list = new AttributeList();
+		for (int i = 0; i < attributes.length; i++) {
+			try {
+				list.add(new Attribute(attributes[i],
+						getAttribute(attributes[i])));
+			} catch (AttributeNotFoundException e) {
+				// 按约定忽略不存在的属性
+			}
+		}
+		return list;
+	}
+
+	public void setAttribute(Attribute attribute)
+			throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("read only: "
+				+ attribute.getName());
+	}
+
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	public Object invoke(String actionName, Object[] params, String[] signature)
+			throws ReflectionException {
+		if ("reset".equals(actionName)) {
+			reset();
+			return null;
+		}
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	public MBeanInfo getMBeanInfo() {
+		SortedMap<String, Object> values = getValues();
+		List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>(
+				values.size());
+		for (Iterator<Map.Entry<String, Object>> iter = values.entrySet()
+				.iterator(); iter.hasNext();) {
+			Map.Entry<String, Object> e = iter.next();
+			attributes.add(new MBeanAttributeInfo(e.getKey(), e.getValue()
+					.getClass().getName(), e.getKey(), true, false, false));
+		}
+		MBeanOperationInfo reset = new MBeanOperationInfo("reset",
+				"reset all counters and histograms",
+				new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+		return new MBeanInfo(getClass().getName(), "paoding analysis metrics",
+				attributes.toArray(new MBeanAttributeInfo[attributes.size()]),
+				null, new MBeanOperationInfo[] { reset }, null);
+	}
+
+	// -------------------------------------------------
+
+	private static Object valueOf(Histogram histogram, String field) {
+		if (field.equals("count")) {
+			return histogram.getCount();
+		}
+		if (field.equals("mean")) {
+			return histogram.getMean();
+		}
+		if (field.equals("max")) {
+			return histogram.getMax();
+		}
+		if (field.equals("p50")) {
+			return histogram.getValueAtPercentile(50);
+		}
+		if (field.equals("p90")) {
+			return histogram.getValueAtPercentile(90);
+		}
+		if (field.equals("p99")) {
+			return histogram.getValueAtPercentile(99);
+		}
+		if (field.equals("p999")) {
+			return histogram.getValueAtPercentile(99.9);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,102 @@
+package net.paoding.analysis.analyzer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.paoding.analysis.dictionary.Word;
+import net.paoding.analysis.dictionary.support.filewords.FileWordsReader;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+
+/**
+ * 切分器测试共用的随机文本及切分结果的字符串形式(词语/起始位置-结束位置)
+ */
+public final class AnalyzerFixtures {
+
+	/**
+	 * 夹杂在词典词语之间的标点、空白、英文、数字、数量词以及GBK可编码的非中文字符
+	 */
+	public static final String[] EXTRAS = { "，", "。", "、", "！", "？", "；",
+			" ", "\n", "Hello", "OIL-X", "123", "3.14", "三百二十", "两个",
+			"2008年", "é" };
+
+	private static Word[] words;
+
+	private AnalyzerFixtures() {
+	}
+
+	/**
+	 * 返回长度不小于length的随机文本：词典dic/t-base.dic的词语、{@link #EXTRAS}以及任意汉字
+	 */
+	public static String text(Random random, int length) throws IOException {
+		Word[] words = words();
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < length) {
+			int k = random.nextInt(10);
+			if (k < 6) {
+				sb.append(words[random.nextInt(words.length)].getText());
+			} else if (k < 8) {
+				sb.append(EXTRAS[random.nextInt(EXTRAS.length)]);
+			} else {
+				sb.append((char) (0x4e00 + random.nextInt(0x5000)));
+			}
+		}
+		return sb.toString();
+	}
+
+	public static List<String> tokens(Analyzer analyzer, String text)
+			throws IOException {
+		return tokens(analyzer, new StringReader(text));
+	}
+
+	public static List<String> tokens(Analyzer analyzer, Reader reader)
+			throws IOException {
+		List<String> tokens = new ArrayList<String>();
+		TokenStream ts = analyzer.tokenStream("f", reader);
+		CharTermAttribute termAtt = ts.addAttribute(CharTermAttribute.class);
+		OffsetAttribute offsetAtt = ts.addAttribute(OffsetAttribute.class);
+		ts.reset();
+		while (ts.incrementToken()) {
+			tokens.add(termAtt.toString() + "/" + offsetAtt.startOffset() + "-"
+					+ offsetAtt.endOffset());
+		}
+		ts.end();
+		ts.close();
+		return tokens;
+	}
+
+	public static List<String> tokens(TokenCache.Tokens tokens) {
+		List<String> list = new ArrayList<String>(tokens.size());
+		for (int i = 0; i < tokens.size(); i++) {
+			list.add(new String(tokens.termBuffer(), tokens.termOffset(i),
+					tokens.termLength(i))
+					+ "/" + tokens.startOffset(i) + "-" + tokens.endOffset(i));
+		}
+		return list;
+	}
+
+	public static List<List<String>> tokens(List<TokenCache.Tokens> results) {
+		List<List<String>> list = new ArrayList<List<String>>(results.size());
+		for (TokenCache.Tokens tokens : results) {
+			list.add(tokens(tokens));
+		}
+		return list;
+	}
+
+	private static synchronized Word[] words() throws IOException {
+		if (words == null) {
+			Set<Word> set = FileWordsReader.readWords("dic/t-base.dic",
+					"UTF-8", 0).values().iterator().next();
+			words = set.toArray(new Word[set.size()]);
+		}
+		return words;
+	}
+}
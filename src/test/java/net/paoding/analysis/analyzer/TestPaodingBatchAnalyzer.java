@@ -0,0 +1,112 @@
+package net.paoding.analysis.analyzer;
+
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.text;
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.tokens;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.paoding.analysis.knife.CharNormalizer;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 校验{@link PaodingBatchAnalyzer}批量切分每个文档的结果与PaodingTokenizer一致，以及文档流共用一个线程池
+ */
+public class TestPaodingBatchAnalyzer {
+
+	private static Knife knife;
+
+	private static List<String> documents = new ArrayList<String>();
+
+	@BeforeClass
+	public static void setUp() throws IOException {
+		knife = PaodingMaker.make();
+		Random random = new Random(2008);
+		for (int i = 0; i < 300; i++) {
+			documents.add(text(random, random.nextInt(i % 10 == 0 ? 1000 : 60)));
+		}
+	}
+
+	@Test
+	public void testAnalyze() throws IOException {
+		for (int mode = 1; mode <= 2; mode++) {
+			PaodingAnalyzerBean sequential = new PaodingAnalyzerBean(knife, mode);
+			List<List<String>> expected = new ArrayList<List<String>>();
+			for (String document : documents) {
+				expected.add(tokens(sequential, document));
+			}
+			PaodingBatchAnalyzer analyzer = new PaodingBatchAnalyzer(knife, mode);
+			for (int threads : new int[] { 1, 4 }) {
+				analyzer.setThreads(threads);
+				assertEquals(expected, tokens(analyzer.analyze(documents)));
+			}
+			analyzer.setVirtualThreads(true);
+			assertEquals(expected, tokens(analyzer.analyze(documents.stream())
+					.collect(Collectors.<TokenCache.Tokens> toList())));
+		}
+	}
+
+	@Test
+	public void testAnalyzeEndlessStream() {
+		// 无限的文档流：只取出、切分需要的一批文档
+		PaodingBatchAnalyzer analyzer = new PaodingBatchAnalyzer(knife, 1);
+		analyzer.setThreads(2);
+		final AtomicInteger read = new AtomicInteger();
+		Stream<String> endless = Stream.generate(new Supplier<String>() {
+			public String get() {
+				return documents.get(read.getAndIncrement() % documents.size());
+			}
+		});
+		List<TokenCache.Tokens> first = analyzer.analyze(endless).limit(10)
+				.collect(Collectors.<TokenCache.Tokens> toList());
+		assertEquals(tokens(analyzer.analyze(documents.subList(0, 10))),
+				tokens(first));
+		assertEquals(2 * PaodingBatchAnalyzer.STREAM_BATCH, read.get());
+	}
+
+	@Test
+	public void testStreamExecutor() throws InterruptedException {
+		// 整个流的所有批次由同一个线程池切分，关闭流时关闭之
+		final Set<Thread> workers = Collections
+				.synchronizedSet(new HashSet<Thread>());
+		PaodingBatchAnalyzer analyzer = new PaodingBatchAnalyzer(knife, 1);
+		analyzer.setThreads(2);
+		analyzer.setNormalizer(new CharNormalizer() {
+			public void normalize(char[] chars, int from, int to) {
+				workers.add(Thread.currentThread());
+				super.normalize(chars, from, to);
+			}
+		});
+		Stream<String> endless = Stream.generate(new Supplier<String>() {
+			private int next;
+
+			public String get() {
+				return documents.get(next++ % documents.size());
+			}
+		});
+		Stream<TokenCache.Tokens> results = analyzer.analyze(endless);
+		assertEquals(3 * 2 * PaodingBatchAnalyzer.STREAM_BATCH, results.limit(
+				3 * 2 * PaodingBatchAnalyzer.STREAM_BATCH).count());
+		assertEquals(2, workers.size());
+		results.close();
+		for (Thread worker : workers) {
+			worker.join(10000);
+			assertFalse(worker.isAlive());
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package net.paoding.analysis.analyzer;
+
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.text;
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.tokens;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 校验{@link PaodingFileTokenizer}的切分结果与以InputStreamReader读入、缓冲区长度相同的PaodingTokenizer一致，且字节位置正确
+ */
+public class TestPaodingFileTokenizer {
+
+	private static Knife knife;
+
+	private static String text;
+
+	@BeforeClass
+	public static void setUp() throws IOException {
+		knife = PaodingMaker.make();
+		text = text(new Random(2008), 20000);
+	}
+
+	@Test
+	public void testUtf8() throws IOException {
+		// 夹杂几个不能解码的字节以及补充平面字符
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int from = 0;
+		for (int i = 1; i <= 3; i++) {
+			int to = text.length() * i / 4;
+			bytes.write(text.substring(from, to).getBytes("UTF-8"));
+			bytes.write(i == 2 ? "𠀀".getBytes("UTF-8")
+					: new byte[] { (byte) 0xFF });
+			from = to;
+		}
+		bytes.write(text.substring(from).getBytes("UTF-8"));
+		assertSameTokens(bytes.toByteArray(), "UTF-8");
+	}
+
+	@Test
+	public void testGbk() throws IOException {
+		assertSameTokens(text.getBytes("GBK"), "GBK");
+	}
+
+	private void assertSameTokens(byte[] bytes, String charsetName)
+			throws IOException {
+		File file = File.createTempFile("paoding-file", ".txt");
+		try {
+			OutputStream out = new FileOutputStream(file);
+			try {
+				out.write(bytes);
+			} finally {
+				out.close();
+			}
+			String decoded = new String(bytes, charsetName);
+			for (int mode = 1; mode <= 2; mode++) {
+				PaodingAnalyzerBean analyzer = new PaodingAnalyzerBean(knife,
+						mode);
+				analyzer.setBufferLength(256);
+				List<String> expected = tokens(analyzer, new InputStreamReader(
+						new FileInputStream(file), charsetName));
+				PaodingFileTokenizer tokenizer = new PaodingFileTokenizer(
+						knife, mode, 256, 1000);
+				List<String> actual = new ArrayList<String>();
+				tokenizer.open(file, charsetName);
+				try {
+					while (tokenizer.next()) {
+						actual.add(tokenizer.term() + "/"
+								+ tokenizer.startOffset() + "-"
+								+ tokenizer.endOffset());
+						int startByte = (int) tokenizer.startByte();
+						int endByte = (int) tokenizer.endByte();
+						assertEquals(decoded.substring(
+								(int) tokenizer.startOffset(),
+								(int) tokenizer.endOffset()), new String(bytes,
+								startByte, endByte - startByte, charsetName));
+					}
+				} finally {
+					tokenizer.close();
+				}
+				assertEquals(expected, actual);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+}
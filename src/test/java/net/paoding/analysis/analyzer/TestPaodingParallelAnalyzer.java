@@ -0,0 +1,75 @@
+package net.paoding.analysis.analyzer;
+
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.text;
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.tokens;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 校验{@link PaodingParallelAnalyzer}分块并行切分的结果与顺序切分一致
+ */
+public class TestPaodingParallelAnalyzer {
+
+	private static Knife knife;
+
+	private static String text;
+
+	@BeforeClass
+	public static void setUp() throws IOException {
+		knife = PaodingMaker.make();
+		text = text(new Random(2008), 50000);
+	}
+
+	@Test
+	public void testAnalyze() throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int mode = 1; mode <= 2; mode++) {
+				List<String> expected = tokens(new PaodingAnalyzerBean(knife,
+						mode), text);
+				PaodingParallelAnalyzer analyzer = new PaodingParallelAnalyzer(
+						knife, mode);
+				analyzer.setPool(pool);
+				for (int chunkLength : new int[] { 1, 100, 4096, 100000 }) {
+					analyzer.setChunkLength(chunkLength);
+					assertEquals(expected, tokens(analyzer.analyze(text)));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testAnalyzeFile() throws IOException {
+		File file = File.createTempFile("paoding-parallel", ".txt");
+		try {
+			OutputStream out = new FileOutputStream(file);
+			try {
+				out.write(text.getBytes("UTF-8"));
+			} finally {
+				out.close();
+			}
+			PaodingParallelAnalyzer analyzer = new PaodingParallelAnalyzer(
+					knife, PaodingAnalyzerBean.MOST_WORDS_MODE);
+			analyzer.setChunkLength(1000);
+			assertEquals(tokens(analyzer.analyze(text)), tokens(analyzer
+					.analyze(file, "UTF-8")));
+		} finally {
+			file.delete();
+		}
+	}
+}
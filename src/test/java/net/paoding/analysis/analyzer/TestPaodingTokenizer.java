@@ -0,0 +1,91 @@
+package net.paoding.analysis.analyzer;
+
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.text;
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.tokens;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 校验Reader每次只读出很少的字符时，PaodingTokenizer的切分结果与一次读满缓冲区时一致
+ */
+public class TestPaodingTokenizer {
+
+	private static Knife knife;
+
+	private static String text;
+
+	@BeforeClass
+	public static void setUp() throws IOException {
+		knife = PaodingMaker.make();
+		text = text(new Random(2007), 5000);
+	}
+
+	@Test
+	public void testShortReads() throws IOException {
+		for (int mode = 1; mode <= 2; mode++) {
+			// 固定长度的缓冲区，以及从128加倍增长到1024的缓冲区
+			for (int maxBufferLength : new int[] { 0, 1024 }) {
+				// 包括恰好填满缓冲区的文本
+				for (int length : new int[] { 127, 128, 129, 256, text.length() }) {
+					String input = text.substring(0, length);
+					List<String> expected = tokens(analyzer(mode,
+							maxBufferLength), new StringReader(input));
+					assertEquals(expected, tokens(
+							analyzer(mode, maxBufferLength), new ChunkedReader(
+									input)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * 链表实现的collector会把上一个文本的状态带到下一个文本，故每次切分使用新的analyzer
+	 */
+	private static PaodingAnalyzerBean analyzer(int mode, int maxBufferLength) {
+		PaodingAnalyzerBean analyzer = new PaodingAnalyzerBean(knife, mode);
+		analyzer.setMaxBufferLength(maxBufferLength);
+		return analyzer;
+	}
+
+	/**
+	 * 每次read只读出1至3个字符的Reader
+	 */
+	private static class ChunkedReader extends Reader {
+
+		private final String text;
+
+		private final Random random = new Random(2008);
+
+		private int position;
+
+		ChunkedReader(String text) {
+			this.text = text;
+		}
+
+		public int read(char[] cbuf, int off, int len) {
+			if (position >= text.length()) {
+				return -1;
+			}
+			int count = Math.min(Math.min(len, 1 + random.nextInt(3)), text
+					.length()
+					- position);
+			text.getChars(position, position + count, cbuf, off);
+			position += count;
+			return count;
+		}
+
+		public void close() {
+		}
+	}
+}
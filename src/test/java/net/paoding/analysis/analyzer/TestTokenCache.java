@@ -0,0 +1,96 @@
+package net.paoding.analysis.analyzer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+
+import net.paoding.analysis.knife.AtomicDictionaries;
+import net.paoding.analysis.knife.DictionarySet;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.junit.Test;
+
+/**
+ * 校验使用{@link TokenCache}时的切分结果与不使用时一致，并在字典替换后失效
+ */
+public class TestTokenCache {
+
+	private static final String[] TEXTS = { "中华人民共和国", "", "北京大学生活动中心",
+			"Hello 世界 2008年", "中华人民共和国成立于一九四九年十月一日，首都北京。" };
+
+	@Test
+	public void testShared() throws IOException {
+		// 同一配置的分析器共用一个缓存，不各自创建
+		File file = File.createTempFile("paoding-analysis-", ".properties");
+		try {
+			Writer out = new OutputStreamWriter(new FileOutputStream(file),
+					"UTF-8");
+			out.write("paoding.analyzer.cache.size=100\n");
+			out.close();
+			PaodingAnalyzer a = new PaodingAnalyzer(file.getAbsolutePath());
+			PaodingAnalyzer b = new PaodingAnalyzer(file.getAbsolutePath());
+			assertNotNull(a.getTokenCache());
+			assertSame(a.getTokenCache(), b.getTokenCache());
+			assertEquals(100, a.getTokenCache().getCapacity());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		Knife knife = PaodingMaker.make();
+		for (int mode = 1; mode <= 2; mode++) {
+			PaodingAnalyzerBean plain = new PaodingAnalyzerBean(knife, mode);
+			PaodingAnalyzerBean cached = new PaodingAnalyzerBean(knife, mode);
+			TokenCache cache = new TokenCache(100, 16);
+			cached.setTokenCache(cache);
+			for (int round = 0; round < 3; round++) {
+				for (String text : TEXTS) {
+					assertEquals(text, analyze(plain, text), analyze(cached,
+							text));
+				}
+			}
+			// 最后一个文本超过16个字符，不被缓存
+			assertEquals(4, cache.size());
+			assertEquals(4, cache.getMissCount());
+			assertEquals(8, cache.getHitCount());
+
+			// 字典替换后缓存失效
+			new AtomicDictionaries(DictionarySet.EMPTY)
+					.publish(DictionarySet.EMPTY);
+			assertEquals(analyze(plain, TEXTS[0]), analyze(cached, TEXTS[0]));
+			assertEquals(5, cache.getMissCount());
+			assertEquals(1, cache.size());
+		}
+	}
+
+	private static String analyze(Analyzer analyzer, String text)
+			throws IOException {
+		TokenStream ts = analyzer.tokenStream("f", new StringReader(text));
+		CharTermAttribute term = ts.addAttribute(CharTermAttribute.class);
+		OffsetAttribute offset = ts.addAttribute(OffsetAttribute.class);
+		ts.reset();
+		StringBuilder sb = new StringBuilder();
+		while (ts.incrementToken()) {
+			sb.append(term).append('[').append(offset.startOffset())
+					.append(',').append(offset.endOffset()).append(']');
+		}
+		ts.end();
+		sb.append(offset.endOffset());
+		ts.close();
+		return sb.toString();
+	}
+}
@@ -0,0 +1,75 @@
+package net.paoding.analysis.analyzer.impl;
+
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.text;
+import static net.paoding.analysis.analyzer.AnalyzerFixtures.tokens;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.paoding.analysis.analyzer.PaodingAnalyzerBean;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 校验{@link ArrayMostWordsTokenCollector}、{@link ArrayMaxWordLengthTokenCollector}与原来的链表实现切分结果一致
+ */
+public class TestArrayTokenCollector {
+
+	private static Knife knife;
+
+	private static List<String> texts = new ArrayList<String>();
+
+	@BeforeClass
+	public static void setUp() throws IOException {
+		knife = PaodingMaker.make();
+		Random random = new Random(2008);
+		for (int i = 0; i < 40; i++) {
+			texts.add(text(random, 1 + random.nextInt(i % 4 == 0 ? 3000 : 300)));
+		}
+	}
+
+	@Test
+	public void testMostWords() throws IOException {
+		assertSameTokens(PaodingAnalyzerBean.MOST_WORDS_MODE,
+				MostWordsTokenCollector.class);
+	}
+
+	@Test
+	public void testMaxWordLength() throws IOException {
+		assertSameTokens(PaodingAnalyzerBean.MAX_WORD_LENGTH_MODE,
+				MaxWordLengthTokenCollector.class);
+	}
+
+	@Test
+	public void testCandidateCharsCopied() {
+		// collect返回后调用者即可改写数组，候选词语不应受影响
+		ArrayMaxWordLengthTokenCollector collector = new ArrayMaxWordLengthTokenCollector();
+		char[] chars = "中华人民".toCharArray();
+		collector.collect(chars, 0, 0, 2);
+		collector.collect(chars, 0, 0, 4);
+		"XXXX".getChars(0, 4, chars, 0);
+		collector.flip();
+		collector.next();
+		assertEquals("中华人民", new String(collector.termBuffer(), collector
+				.termOffset(), collector.termLength()));
+	}
+
+	/**
+	 * 数组实现的analyzer在所有文本间重复使用；原实现的collector会把上一个文本的状态带到下一个文本，故每个文本使用新的analyzer
+	 */
+	private void assertSameTokens(int mode, Class<?> linkedClass)
+			throws IOException {
+		PaodingAnalyzerBean actual = new PaodingAnalyzerBean(knife, mode);
+		for (String text : texts) {
+			PaodingAnalyzerBean expected = new PaodingAnalyzerBean(knife);
+			expected.setModeClass(linkedClass);
+			assertEquals(tokens(expected, text), tokens(actual, text));
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package net.paoding.analysis.analyzer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import net.paoding.analysis.Constants;
+import net.paoding.analysis.dictionary.Word;
+import net.paoding.analysis.ext.PaodingAnalyzerListener;
+import net.paoding.analysis.knife.FileDictionaries;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 校验{@link CompiledMetadata}记录的摘要使编译器只重新编译内容变化了的字典
+ */
+public class TestCompiledMetadata {
+
+	/**
+	 * 编译输出被置为这个修改时间，之后修改时间不同的即为重新编译过的
+	 */
+	private static final long OLD = 1000000000000L;
+
+	private File home;
+
+	private File compiled;
+
+	private Properties p;
+
+	private SortingDictionariesCompiler compiler = new SortingDictionariesCompiler();
+
+	@Before
+	public void setUp() throws Exception {
+		home = File.createTempFile("paoding-", "-dic");
+		home.delete();
+		home.mkdirs();
+		compiled = new File(home, ".compiled/sorting");
+		write("base", "中华", "人民", "共和国");
+		write("x-unit", "个");
+		write("x-noise-word", "的");
+		write("x-noise-charactor", "了");
+		write("x-confucian-family-name", "王");
+		write("x-for-combinatorics", "大");
+		p = new Properties();
+		p.setProperty("paoding.dic.home.absolute.path", home.getAbsolutePath());
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		assertFalse(compiler.shouldCompile(p));
+		age();
+	}
+
+	@After
+	public void tearDown() {
+		delete(home);
+	}
+
+	@Test
+	public void testTouch() throws Exception {
+		// 只是修改时间变化，内容不变
+		new File(home, "base.dic").setLastModified(OLD);
+		new File(home, "x-unit.dic").setLastModified(OLD);
+		assertFalse(compiler.shouldCompile(p));
+	}
+
+	@Test
+	public void testChangeOneDictionary() throws Exception {
+		write("x-unit", "个", "只");
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		assertEquals("[x-unit.dic.compiled]", rebuilt());
+		// 沿用编译输出的字典不读入源文件
+		assertEquals("[" + new File(home, "x-unit.dic").getAbsolutePath()
+				+ "]", read.toString());
+		assertFalse(compiler.shouldCompile(p));
+	}
+
+	@Test
+	public void testChangeVocabulary() throws Exception {
+		write("base", "中华", "人民", "共和国", "北京");
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		assertEquals("[vocabulary.dic.bin, vocabulary.dic.compiled]",
+				rebuilt());
+
+		// 新增的词汇文件同样引起词汇表的重新编译
+		age();
+		write("locale", "上海");
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		assertEquals("[vocabulary.dic.bin, vocabulary.dic.compiled]",
+				rebuilt());
+	}
+
+	@Test
+	public void testMissingOrEditedOutput() throws Exception {
+		new File(compiled, "x-unit.dic.compiled").delete();
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		assertEquals("[x-unit.dic.compiled]", rebuilt());
+
+		age();
+		File output = new File(compiled, "x-noise-word.dic.compiled");
+		output.setWritable(true);
+		Writer out = new OutputStreamWriter(new FileOutputStream(output, true),
+				"UTF-8");
+		out.write("之\r\n");
+		out.close();
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		assertEquals("[x-noise-word.dic.compiled]", rebuilt());
+	}
+
+	@Test
+	public void testChangeConfig() throws Exception {
+		p.setProperty(Constants.DIC_MAXWORDLEN, "3");
+		assertTrue(compiler.shouldCompile(p));
+		compile();
+		// 配置不同，所有的输出都重新编译
+		assertEquals("[vocabulary.dic.bin, vocabulary.dic.compiled, "
+				+ "x-confucian-family-name.dic.compiled, "
+				+ "x-for-combinatorics.dic.compiled, "
+				+ "x-noise-charactor.dic.compiled, "
+				+ "x-noise-word.dic.compiled, x-unit.dic.compiled]", rebuilt());
+		assertFalse(compiler.shouldCompile(p));
+
+		CompiledMetadata metadata = CompiledMetadata.read(new File(compiled,
+				".metadata"));
+		assertTrue(metadata.isCompiledBy(SortingDictionariesCompiler.class,
+				SortingDictionariesCompiler.VERSION, CompiledMetadata
+						.configOf(p)));
+		assertFalse(metadata.isCompiledBy(SortingDictionariesCompiler.class,
+				SortingDictionariesCompiler.VERSION, CompiledMetadata
+						.configOf(new Properties())));
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 最近一次{@link #compile()}读入的源文件
+	 */
+	private List<String> read = new ArrayList<String>();
+
+	private void compile() throws Exception {
+		FileDictionaries dictionaries = new FileDictionaries(home
+				.getAbsolutePath(), Constants.DIC_SKIP_PREFIX_DEFAULT,
+				Constants.DIC_NOISE_CHARACTOR_DEFAULT,
+				Constants.DIC_NOISE_WORD_DEFAULT, Constants.DIC_UNIT_DEFAULT,
+				Constants.DIC_CONFUCIAN_FAMILY_NAME_DEFAULT,
+				Constants.DIC_FOR_COMBINATORICS_DEFAULT, "UTF-8", Integer
+						.parseInt(Constants.getProperty(p,
+								Constants.DIC_MAXWORDLEN)));
+		read.clear();
+		dictionaries.setAnalyzerListener(new PaodingAnalyzerListener() {
+			public void readDic(String dicPath) {
+				read.add(new File(dicPath).getAbsolutePath());
+			}
+
+			public void readDicFinished(String dicPath,
+					Collection<Word> conllec) {
+			}
+
+			public void refreshDic(String dicPath, Collection<Word> conllec) {
+			}
+
+			public void readCompileDic(String dicPath) {
+			}
+
+			public void readCompileDicFinished(String dicPath,
+					Collection<Word> conllec) {
+			}
+		});
+		compiler.compile(dictionaries, null, p);
+	}
+
+	/**
+	 * 把所有编译输出的修改时间置为OLD
+	 */
+	private void age() {
+		for (File file : compiled.listFiles()) {
+			if (!file.getName().equals(".metadata")) {
+				assertTrue(file.setLastModified(OLD));
+			}
+		}
+	}
+
+	/**
+	 * 上次{@link #age()}之后重新编译过的输出
+	 */
+	private String rebuilt() {
+		List<String> names = new ArrayList<String>();
+		for (File file : compiled.listFiles()) {
+			if (!file.getName().equals(".metadata")
+					&& file.lastModified() != OLD) {
+				names.add(file.getName());
+			}
+		}
+		Collections.sort(names);
+		return names.toString();
+	}
+
+	private void write(String name, String... words) throws IOException {
+		File file = new File(home, name + ".dic");
+		long lastModified = file.lastModified();
+		Writer out = new OutputStreamWriter(new FileOutputStream(file),
+				"UTF-8");
+		for (String word : words) {
+			out.write(word);
+			out.write('\n');
+		}
+		out.close();
+		// 修改时间与之前不同，使编译器重新计算摘要
+		if (lastModified != 0) {
+			file.setLastModified(lastModified + 2000);
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
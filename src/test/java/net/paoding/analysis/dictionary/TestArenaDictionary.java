@@ -0,0 +1,127 @@
+package net.paoding.analysis.dictionary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import net.paoding.analysis.dictionary.support.filewords.FileWordsReader;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 以dic/t-base.dic为词典，校验{@link MappedDictionary}、{@link CompactDictionary}与{@link HashBinaryDictionary}的查找结果一致
+ */
+public class TestArenaDictionary {
+
+	private static File file;
+
+	private static Word[] ascWords;
+
+	private static Dictionary expected;
+
+	private static Dictionary[] actuals;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		Map<String, Set<Word>> words = FileWordsReader.readWords("dic/t-base.dic", "UTF-8", 0);
+		Set<Word> set = words.values().iterator().next();
+		ascWords = set.toArray(new Word[set.size()]);
+		Arrays.sort(ascWords);
+		ascWords[ascWords.length / 2].setNoiseWord();
+		file = File.createTempFile("paoding-", ".dic.bin");
+		MappedDictionary.write(ascWords, file);
+		expected = new HashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+		actuals = new Dictionary[] { MappedDictionary.open(file),
+				new CompactDictionary(ascWords) };
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testGet() {
+		for (Dictionary actual : actuals) {
+			assertGet(actual);
+		}
+	}
+
+	private void assertGet(Dictionary actual) {
+		assertEquals(ascWords.length, actual.size());
+		for (int i = 0; i < ascWords.length; i++) {
+			assertEquals(ascWords[i].getText(), actual.get(i).getText());
+			assertEquals(ascWords[i].getModifiers(), actual.get(i).getModifiers());
+		}
+		// 字典不保留创建的Word，修改它不影响字典
+		Word word = actual.get(0);
+		assertNotSame(word, actual.get(0));
+		word.setNoiseCharactor();
+		assertEquals(ascWords[0].getModifiers(), actual.get(0).getModifiers());
+	}
+
+	@Test
+	public void testSearch() {
+		for (Dictionary actual : actuals) {
+			assertSearch(actual);
+		}
+	}
+
+	private void assertSearch(Dictionary actual) {
+		Random random = new Random(20071010);
+		Hit reused = new Hit();
+		for (int i = 0; i < 20000; i++) {
+			Word word = ascWords[random.nextInt(ascWords.length)];
+			String input = "##" + word.getText() + (char) (0x4e00 + random.nextInt(0x5000)) + "##";
+			for (int count = 1; count <= word.length() + 1; count++) {
+				String message = input.substring(2, 2 + count);
+				Hit e = expected.search(input, 2, count);
+				Hit a = actual.search(input, 2, count, reused);
+				assertEquals(message, e.isHit(), a.isHit());
+				assertEquals(message, e.isUnclosed(), a.isUnclosed());
+				assertEquals(message, e.isUndefined(), a.isUndefined());
+				assertEquals(message, e.getIndex(), a.getIndex());
+				assertEquals(message, text(e.getWord()), text(a.getWord()));
+				assertEquals(message, text(e.getNext()), text(a.getNext()));
+			}
+		}
+	}
+
+	@Test
+	public void testCursor() {
+		for (Dictionary actual : actuals) {
+			assertCursor(actual);
+		}
+	}
+
+	private void assertCursor(Dictionary actual) {
+		Random random = new Random(20080101);
+		for (int i = 0; i < 20000; i++) {
+			Word word = ascWords[random.nextInt(ascWords.length)];
+			String input = word.getText() + (char) (0x4e00 + random.nextInt(0x5000));
+			DictionaryCursor cursor = actual.cursor();
+			for (int count = 1; count <= input.length(); count++) {
+				cursor.next(input.charAt(count - 1));
+				Hit hit = expected.search(input, 0, count);
+				String message = input.substring(0, count);
+				assertEquals(message, hit.isHit(), cursor.isWord());
+				assertEquals(message, hit.isUnclosed(), cursor.hasLongerWords());
+				assertEquals(message, hit.isUndefined(), cursor.isDeadEnd());
+				assertEquals(message, text(hit.getWord()), text(cursor.getWord()));
+			}
+		}
+		assertNull(actual.search("\u0001", 0, 1).getWord());
+	}
+
+	private static String text(Word word) {
+		return word == null ? null : word.getText();
+	}
+}
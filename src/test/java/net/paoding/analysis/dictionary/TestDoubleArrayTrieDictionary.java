@@ -0,0 +1,114 @@
+package net.paoding.analysis.dictionary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import net.paoding.analysis.dictionary.support.filewords.FileWordsReader;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 以dic/t-base.dic为词典，校验{@link DoubleArrayTrieDictionary}与{@link HashBinaryDictionary}的查找结果一致
+ */
+public class TestDoubleArrayTrieDictionary {
+
+	private static Word[] ascWords;
+
+	private static Dictionary expected;
+
+	private static Dictionary actual;
+
+	private final Hit reused = new Hit();
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		Map<String, Set<Word>> words = FileWordsReader.readWords("dic/t-base.dic", "UTF-8", 0);
+		Set<Word> set = words.values().iterator().next();
+		ascWords = set.toArray(new Word[set.size()]);
+		Arrays.sort(ascWords);
+		expected = new HashBinaryDictionary(ascWords, 0x2fff, 0.75f);
+		actual = new DoubleArrayTrieDictionary(ascWords);
+	}
+
+	@Test
+	public void testWordsAndPrefixes() {
+		for (int i = 0; i < ascWords.length; i++) {
+			Word word = ascWords[i];
+			for (int count = 1; count <= word.length(); count++) {
+				assertSameHit(word, 0, count);
+			}
+		}
+	}
+
+	@Test
+	public void testRandomInputs() {
+		Random random = new Random(20071010);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			sb.setLength(0);
+			// 以一个词语的前缀开头，再接上一些随机的汉字
+			Word word = ascWords[random.nextInt(ascWords.length)];
+			sb.append(word.getText(), 0, 1 + random.nextInt(word.length()));
+			int tail = random.nextInt(4);
+			for (int j = 0; j < tail; j++) {
+				sb.append((char) (0x4e00 + random.nextInt(0x5000)));
+			}
+			String input = "##" + sb + "##";
+			for (int count = 1; count <= sb.length(); count++) {
+				assertSameHit(input, 2, count);
+			}
+		}
+	}
+
+	@Test
+	public void testCursor() {
+		Random random = new Random(20080101);
+		Dictionary[] dics = { expected, actual, new BinaryDictionary(ascWords) };
+		for (int i = 0; i < 20000; i++) {
+			Word word = ascWords[random.nextInt(ascWords.length)];
+			String input = word.getText() + (char) (0x4e00 + random.nextInt(0x5000));
+			for (Dictionary dic : dics) {
+				DictionaryCursor cursor = dic.cursor();
+				for (int count = 1; count <= input.length(); count++) {
+					cursor.next(input.charAt(count - 1));
+					Hit hit = expected.search(input, 0, count);
+					String message = dic.getClass().getSimpleName() + ":" + input.substring(0, count);
+					assertEquals(message, hit.isHit(), cursor.isWord());
+					assertEquals(message, hit.isUnclosed(), cursor.hasLongerWords());
+					assertEquals(message, hit.isUndefined(), cursor.isDeadEnd());
+					assertSame(message, hit.getWord(), cursor.getWord());
+				}
+			}
+		}
+	}
+
+	private void assertSameHit(CharSequence input, int offset, int count) {
+		Hit e = expected.search(input, offset, count);
+		Hit a = actual.search(input, offset, count);
+		String message = input.toString().substring(offset, offset + count);
+		assertEquals(message, e.isHit(), a.isHit());
+		assertEquals(message, e.isUnclosed(), a.isUnclosed());
+		assertEquals(message, e.isUndefined(), a.isUndefined());
+		assertSame(message, e.getWord(), a.getWord());
+		assertSame(message, e.getNext(), a.getNext());
+		// 重复使用Hit对象的检索结果与上面一致，且命中时getIndex()即为词语在字典中的位置
+		for (Dictionary dic : new Dictionary[] { expected, actual }) {
+			Hit r = dic.search(input, offset, count, reused);
+			assertSame(reused, r);
+			assertEquals(message, a.isHit(), r.isHit());
+			assertEquals(message, a.isUnclosed(), r.isUnclosed());
+			assertEquals(message, a.isUndefined(), r.isUndefined());
+			assertSame(message, a.getWord(), r.getWord());
+			assertSame(message, a.getNext(), r.getNext());
+			if (r.isHit()) {
+				assertSame(message, r.getWord(), dic.get(r.getIndex()));
+			}
+		}
+	}
+}
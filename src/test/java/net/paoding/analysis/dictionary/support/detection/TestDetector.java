@@ -0,0 +1,156 @@
+package net.paoding.analysis.dictionary.support.detection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 校验{@link Detector}检测字典目录下.dic文件的新建、修改和删除，一连串的变化合并为一次通知，以及退回为扫描比较时的检测
+ */
+public class TestDetector {
+
+	private File home;
+
+	private Detector detector;
+
+	private BlockingQueue<Difference> diffs = new LinkedBlockingQueue<Difference>();
+
+	@Before
+	public void setUp() throws IOException {
+		home = File.createTempFile("paoding-", "-dic");
+		home.delete();
+		home.mkdirs();
+		write("a");
+		detector = new Detector(home, new ExtensionFileFilter(".dic"),
+				new DifferenceListener() {
+					public void on(Difference diff) {
+						diffs.add(diff);
+					}
+				});
+	}
+
+	@After
+	public void tearDown() {
+		detector.stop();
+		delete(home);
+	}
+
+	@Test
+	public void testWatch() throws Exception {
+		detector.setInterval(10000);
+		detector.setDebounce(200);
+		detector.start(true);
+		assertChanges();
+
+		// 一连串的变化合并为一次通知：新建后修改仍为新建，新建后删除为无变化，非.dic文件被忽略
+		write("c");
+		write("c");
+		write("d");
+		write("e");
+		new File(home, "e.dic").delete();
+		new File(home, "f.txt").createNewFile();
+		Difference diff = next();
+		assertEquals("[c.dic, d.dic]", paths(diff.getNewcome()));
+		assertEquals("[]", paths(diff.getModified()));
+		assertEquals("[]", paths(diff.getDeleted()));
+		assertNull(diffs.poll(1, TimeUnit.SECONDS));
+
+		// 新建目录下的文件作为新增通知
+		File sub = new File(home, "sub");
+		sub.mkdir();
+		write("sub/x");
+		diff = next();
+		assertEquals("[sub/x.dic]", paths(diff.getNewcome()));
+		assertEquals("[]", paths(diff.getModified()));
+
+		// 通知过的变化不会被之后的扫描(比如OVERFLOW时)再次通知
+		assertFalse(detector.forceCheckAndNotify());
+		assertNull(diffs.poll());
+	}
+
+	@Test
+	public void testPolling() throws Exception {
+		detector.setWatch(false);
+		detector.setInterval(200);
+		detector.setDebounce(100);
+		detector.start(true);
+		assertChanges();
+	}
+
+	// -------------------------------------------------
+
+	/**
+	 * 新建、修改、删除，每次检测到一个变化
+	 */
+	private void assertChanges() throws Exception {
+		write("b");
+		Difference diff = next();
+		assertEquals("[b.dic]", paths(diff.getNewcome()));
+		assertEquals("[]", paths(diff.getModified()));
+
+		write("a");
+		diff = next();
+		assertEquals("[a.dic]", paths(diff.getModified()));
+		assertEquals("[]", paths(diff.getNewcome()));
+
+		new File(home, "b.dic").delete();
+		diff = next();
+		assertEquals("[b.dic]", paths(diff.getDeleted()));
+		assertEquals("[]", paths(diff.getModified()));
+	}
+
+	private Difference next() throws InterruptedException {
+		Difference diff = diffs.poll(10, TimeUnit.SECONDS);
+		assertNotNull(diff);
+		return diff;
+	}
+
+	private static String paths(List<Node> nodes) {
+		List<String> paths = new ArrayList<String>();
+		for (Node node : nodes) {
+			paths.add(node.getPath());
+		}
+		Collections.sort(paths);
+		return paths.toString();
+	}
+
+	/**
+	 * 写入name.dic，并使其修改时间与之前不同，使扫描比较也能发现变化
+	 */
+	private void write(String name) throws IOException {
+		File file = new File(home, name + ".dic");
+		long lastModified = file.lastModified();
+		OutputStream out = new FileOutputStream(file, true);
+		out.write('\n');
+		out.close();
+		if (lastModified != 0) {
+			file.setLastModified(lastModified + 2000);
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,31 @@
+package net.paoding.analysis.dictionary.support.filewords;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import net.paoding.analysis.dictionary.Word;
+
+import org.junit.Test;
+
+/**
+ * 校验并行读取的字典与顺序读取的完全一致
+ */
+public class TestFileWordsReader {
+
+	@Test
+	public void testParallel() throws IOException {
+		Map<String, Set<Word>> expected = FileWordsReader.readWords("dic",
+				"UTF-8", 0);
+		Map<String, Set<Word>> actual = FileWordsReader.readWords("dic",
+				"UTF-8", 0, 4);
+		assertTrue(expected.size() > 1);
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<String, Set<Word>> e : expected.entrySet()) {
+			assertEquals(e.getKey(), e.getValue(), actual.get(e.getKey()));
+		}
+	}
+}
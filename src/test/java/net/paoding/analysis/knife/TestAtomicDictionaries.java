@@ -0,0 +1,138 @@
+package net.paoding.analysis.knife;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.paoding.analysis.Constants;
+import net.paoding.analysis.dictionary.BinaryDictionary;
+import net.paoding.analysis.dictionary.Dictionary;
+import net.paoding.analysis.dictionary.Word;
+import net.paoding.analysis.dictionary.support.detection.Difference;
+import net.paoding.analysis.dictionary.support.detection.Node;
+
+import org.junit.Test;
+
+/**
+ * 校验{@link AtomicDictionaries}的发布：Knife在发布后使用新的快照，较旧的快照不会覆盖较新的，重新装载发布到Knife共用的持有者
+ */
+public class TestAtomicDictionaries {
+
+	private static DictionarySet create(String word, long version) {
+		Dictionary empty = new BinaryDictionary(new Word[0]);
+		return new DictionarySet(new BinaryDictionary(
+				new Word[] { new Word(word) }), empty, empty, empty, empty,
+				empty, version);
+	}
+
+	private static List<String> dissect(Knife knife, String text) {
+		final List<String> words = new ArrayList<String>();
+		char[] chars = (text + "。").toCharArray();
+		knife.dissect(new Collector() {
+			public void collect(String word, int offset, int end) {
+				words.add(word);
+			}
+		}, new Beef(chars, 0, chars.length), 0);
+		return words;
+	}
+
+	@Test
+	public void testPublish() {
+		DictionarySet v1 = create("中华", 1);
+		AtomicDictionaries dictionaries = new AtomicDictionaries(v1);
+		CJKKnife knife = new CJKKnife(dictionaries);
+		assertEquals("[中华, 人民]", dissect(knife, "中华人民").toString());
+
+		DictionarySet v2 = create("中华人民", 2);
+		assertTrue(dictionaries.publish(v2));
+		assertSame(v2, dictionaries.current());
+		assertEquals("[中华人民]", dissect(knife, "中华人民").toString());
+
+		assertFalse(dictionaries.publish(v1));
+		assertSame(v2, dictionaries.current());
+	}
+
+	@Test
+	public void testPublishIntoSharedHolder() throws IOException {
+		// 重新装载的快照发布到PaodingMaker交给各个Knife的同一个持有者
+		File home = File.createTempFile("paoding-", "-dic");
+		home.delete();
+		home.mkdirs();
+		try {
+			write(home, "base", "中华", "人民");
+			write(home, "x-noise-word");
+			write(home, "x-noise-charactor");
+			write(home, "x-unit");
+			write(home, "x-confucian-family-name");
+			write(home, "x-for-combinatorics");
+			FileDictionaries dictionaries = create(home);
+			AtomicDictionaries shared = new AtomicDictionaries(DictionarySet
+					.snapshot(create(home)));
+			CJKKnife knife = new CJKKnife();
+			knife.setDictionaries(shared);
+			Paoding paoding = new Paoding();
+			paoding.setKnives(new Knife[] { knife });
+			paoding.setDictionaries(shared);
+			FileDictionariesDifferenceListener listener = new FileDictionariesDifferenceListener(
+					dictionaries, paoding);
+			dictionaries.getVocabularyDictionary();
+
+			write(home, "base", "中华", "人民", "中华人民");
+			List<Node> modified = new ArrayList<Node>();
+			modified.add(new Node("base.dic", true));
+			Difference diff = new Difference();
+			diff.setModified(modified);
+			listener.on(diff);
+
+			assertSame(shared, listener.getPublished());
+			assertSame(shared, paoding.getDictionaries());
+			assertEquals("[中华, 中华人民, 人民]", dissect(knife, "中华人民")
+					.toString());
+		} finally {
+			for (File file : home.listFiles()) {
+				file.delete();
+			}
+			home.delete();
+		}
+	}
+
+	@Test
+	public void testOf() {
+		AtomicDictionaries dictionaries = new AtomicDictionaries(create("中华",
+				1));
+		assertSame(dictionaries, AtomicDictionaries.of(dictionaries));
+		DictionarySet set = create("中华", 1);
+		assertSame(set, AtomicDictionaries.of(set).current());
+	}
+
+	// -------------------------------------------------
+
+	private static FileDictionaries create(File home) {
+		return new FileDictionaries(home.getAbsolutePath(),
+				Constants.DIC_SKIP_PREFIX_DEFAULT,
+				Constants.DIC_NOISE_CHARACTOR_DEFAULT,
+				Constants.DIC_NOISE_WORD_DEFAULT, Constants.DIC_UNIT_DEFAULT,
+				Constants.DIC_CONFUCIAN_FAMILY_NAME_DEFAULT,
+				Constants.DIC_FOR_COMBINATORICS_DEFAULT, "UTF-8", 0);
+	}
+
+	private static void write(File home, String name, String... words)
+			throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(new File(
+				home, name + ".dic")), "UTF-8");
+		for (String word : words) {
+			out.write(word);
+			out.write('\n');
+		}
+		out.close();
+	}
+}
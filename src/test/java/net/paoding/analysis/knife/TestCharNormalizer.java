@@ -0,0 +1,195 @@
+package net.paoding.analysis.knife;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import net.paoding.analysis.analyzer.PaodingAnalyzerBean;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.junit.Test;
+
+/**
+ * 校验{@link CharNormalizer}的默认规范化与原Beef.charAt的预处理一致，以及字符折叠文件的读取和在分词、编译字典中的使用
+ */
+public class TestCharNormalizer {
+
+	@Test
+	public void testDefault() {
+		char[] chars = new char[65536];
+		for (int i = 0; i < chars.length; i++) {
+			char ch = (char) i;
+			assertEquals("\\u" + Integer.toHexString(i), oldCharAt(ch),
+					CharNormalizer.DEFAULT.normalize(ch));
+			chars[i] = ch;
+		}
+		CharNormalizer.DEFAULT.normalize(chars, 0, chars.length);
+		for (int i = 0; i < chars.length; i++) {
+			assertEquals(oldCharAt((char) i), chars[i]);
+		}
+		assertEquals('a', CharNormalizer.DEFAULT.normalize('Ａ'));
+		assertEquals('1', CharNormalizer.DEFAULT.normalize('１'));
+		assertEquals('z', CharNormalizer.DEFAULT.normalize('Z'));
+		assertEquals(' ', CharNormalizer.DEFAULT.normalize('　'));
+		assertEquals('中', CharNormalizer.DEFAULT.normalize('中'));
+	}
+
+	@Test
+	public void testLoad() throws IOException {
+		File file = write("\uFEFF們 们\n# 繁体->简体\n\n\t華\t\t华  \n# 國 X\n國 国\n");
+		try {
+			CharNormalizer normalizer = CharNormalizer.load(file.getPath(),
+					"UTF-8");
+			assertEquals('们', normalizer.normalize('們'));
+			assertEquals('华', normalizer.normalize('華'));
+			assertEquals('国', normalizer.normalize('國'));
+			assertEquals('#', normalizer.normalize('#'));
+			// 折叠在默认规范化之后进行
+			assertEquals('a', normalizer.normalize('Ａ'));
+		} finally {
+			file.delete();
+		}
+		String[] malformed = { "們\n", "們 们 们\n", "們們 们\n", "# ok\n們 们\nab c\n" };
+		for (int i = 0; i < malformed.length; i++) {
+			file = write(malformed[i]);
+			try {
+				CharNormalizer.load(file.getPath(), "UTF-8");
+				fail(malformed[i]);
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().indexOf(
+						"line " + (i == 3 ? 3 : 1)) != -1);
+			} finally {
+				file.delete();
+			}
+		}
+	}
+
+	@Test
+	public void testTokenizeWithFolding() throws IOException {
+		File file = write("華 华\n國 国\n");
+		try {
+			PaodingAnalyzerBean analyzer = new PaodingAnalyzerBean(PaodingMaker
+					.make());
+			analyzer.setNormalizer(CharNormalizer.load(file.getPath(), "UTF-8"));
+			PaodingAnalyzerBean plain = new PaodingAnalyzerBean(PaodingMaker
+					.make());
+			// 繁体和全角大写字母折叠后，与简体、小写文本切分结果相同(偏移即原文本中的位置)
+			assertEquals(tokens(plain, "中华人民共和国 hello"), tokens(analyzer,
+					"中華人民共和國 ＨＥＬＬＯ"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testCompileWithFolding() throws IOException {
+		// 字典中的繁体词语在编译时同样被折叠，与折叠后的文本匹配
+		File folding = write("華 华\n");
+		File home = File.createTempFile("paoding-", "-dic");
+		home.delete();
+		home.mkdirs();
+		try {
+			writeDic(home, "base", "華夏族", "人民");
+			writeDic(home, "x-unit");
+			writeDic(home, "x-noise-word");
+			writeDic(home, "x-noise-charactor");
+			writeDic(home, "x-confucian-family-name");
+			writeDic(home, "x-for-combinatorics");
+			Properties p = new Properties();
+			p.putAll(PaodingMaker.getProperties());
+			p.remove("paoding.dic.properties.path");
+			p.remove("paoding.dic.home.absolute.path");
+			p.remove("paoding.analysis.postPropertiesLoaded");
+			p.setProperty("paoding.analysis.properties.files", "");
+			p.setProperty("paoding.analysis.properties.lastModifieds", "");
+			p.setProperty("paoding.dic.home", home.getAbsolutePath());
+			p.setProperty("paoding.dic.charset", "UTF-8");
+			p.setProperty("paoding.analyzer.normalizer.folding", folding
+					.getPath());
+			Paoding paoding = PaodingMaker.make(p);
+			PaodingAnalyzerBean analyzer = new PaodingAnalyzerBean(paoding);
+			analyzer.setNormalizer(paoding.getNormalizer());
+			assertEquals("[华夏族/0-3]", tokens(analyzer, "華夏族").toString());
+			assertEquals("[华夏族/0-3]", tokens(analyzer, "华夏族").toString());
+		} finally {
+			folding.delete();
+			delete(home);
+		}
+	}
+
+	/**
+	 * 原Beef.charAt对字符的预处理
+	 */
+	private static char oldCharAt(char src) {
+		if (src > 65280 && src < 65375) {
+			src = (char) (src - 65248);
+		}
+		if (src >= 'A' && src <= 'Z') {
+			src += 32;
+		} else if (src == 12288) {
+			src = 32;
+		}
+		return src;
+	}
+
+	private static File write(String content) throws IOException {
+		File file = File.createTempFile("paoding-folding-", ".txt");
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void writeDic(File home, String name, String... words)
+			throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(new File(home,
+				name + ".dic")), "UTF-8");
+		for (String word : words) {
+			out.write(word);
+			out.write('\n');
+		}
+		out.close();
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static List<String> tokens(PaodingAnalyzerBean analyzer,
+			String text) throws IOException {
+		List<String> tokens = new ArrayList<String>();
+		TokenStream ts = analyzer.tokenStream("f", new StringReader(text));
+		CharTermAttribute termAtt = ts.addAttribute(CharTermAttribute.class);
+		OffsetAttribute offsetAtt = ts.addAttribute(OffsetAttribute.class);
+		ts.reset();
+		while (ts.incrementToken()) {
+			tokens.add(termAtt.toString() + "/" + offsetAtt.startOffset() + "-"
+					+ offsetAtt.endOffset());
+		}
+		ts.end();
+		ts.close();
+		return tokens;
+	}
+}
@@ -0,0 +1,176 @@
+package net.paoding.analysis.knife;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * 校验多个线程同时以相同的配置获取Paoding时只创建一个Paoding对象，以及字典文件变化后以编译后的字典重新装载
+ */
+public class TestPaodingMaker {
+
+	@Test
+	public void testConcurrentMake() throws Exception {
+		final Properties p = new Properties();
+		p.putAll(PaodingMaker.getProperties());
+		p.remove("paoding.dic.properties.path");
+		p.setProperty("paoding.analysis.properties.files", "");
+		p.setProperty("paoding.analysis.properties.lastModifieds", "");
+		p.setProperty("paoding.dic.detector.interval", "-1");
+		final int threads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Paoding>> futures = new ArrayList<Future<Paoding>>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Callable<Paoding>() {
+					public Paoding call() throws Exception {
+						Properties copy = new Properties();
+						copy.putAll(p);
+						start.await();
+						return PaodingMaker.make(copy);
+					}
+				}));
+			}
+			start.countDown();
+			Paoding first = futures.get(0).get();
+			for (Future<Paoding> future : futures) {
+				assertSame(first, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testReloadCompiled() throws Exception {
+		File home = File.createTempFile("paoding-", "-dic");
+		home.delete();
+		home.mkdirs();
+		try {
+			write(home, "base", "中华", "人民", "共和国");
+			write(home, "x-unit", "个");
+			write(home, "x-noise-word");
+			write(home, "x-noise-charactor");
+			write(home, "x-confucian-family-name");
+			write(home, "x-for-combinatorics");
+			Properties p = new Properties();
+			p.putAll(PaodingMaker.getProperties());
+			p.remove("paoding.dic.properties.path");
+			p.remove("paoding.dic.home.absolute.path");
+			p.remove("paoding.analysis.postPropertiesLoaded");
+			p.setProperty("paoding.analysis.properties.files", "");
+			p.setProperty("paoding.analysis.properties.lastModifieds", "");
+			p.setProperty("paoding.dic.home", home.getAbsolutePath());
+			p.setProperty("paoding.dic.charset", "UTF-8");
+			p.setProperty("paoding.dic.detector.interval", "1");
+			p.setProperty("paoding.dic.detector.debounce", "100");
+			Paoding paoding = PaodingMaker.make(p);
+			assertTrue(paoding.getDetector() != null);
+			DictionarySet before = paoding.getDictionaries().current();
+			assertFalse(before.getVocabularyDictionary().search("北京大学", 0, 4)
+					.isHit());
+
+			write(home, "base", "中华", "人民", "共和国", "北京大学");
+			DictionarySet after = before;
+			for (int i = 0; i < 100 && after == before; i++) {
+				Thread.sleep(100);
+				after = paoding.getDictionaries().current();
+			}
+			assertTrue(after.getVersion() > before.getVersion());
+			assertTrue(after.getVocabularyDictionary().search("北京大学", 0, 4)
+					.isHit());
+			// 重新装载的仍是编译后的字典
+			assertEquals(before.getVocabularyDictionary().getClass(), after
+					.getVocabularyDictionary().getClass());
+			assertEquals(before.getVocabularyDictionary().size() + 1, after
+					.getVocabularyDictionary().size());
+
+			// 只重新读入受变化影响的字典，其余沿用已经装载的
+			write(home, "x-unit", "个", "只");
+			DictionarySet next = after;
+			for (int i = 0; i < 100 && next == after; i++) {
+				Thread.sleep(100);
+				next = paoding.getDictionaries().current();
+			}
+			assertTrue(next.getVersion() > after.getVersion());
+			assertTrue(next.getUnitsDictionary().search("只", 0, 1).isHit());
+			assertSame(after.getNoiseWordsDictionary(), next
+					.getNoiseWordsDictionary());
+			assertSame(after.getConfucianFamilyNamesDictionary(), next
+					.getConfucianFamilyNamesDictionary());
+
+			// 关闭后检测线程结束
+			paoding.close();
+			assertNull(paoding.getDetector());
+			for (int i = 0; i < 50 && isDetecting(); i++) {
+				Thread.sleep(100);
+			}
+			assertFalse(isDetecting());
+		} finally {
+			delete(home);
+		}
+	}
+
+	@Test
+	public void testDetectorOptIn() {
+		Properties p = new Properties();
+		p.putAll(PaodingMaker.getProperties());
+		p.remove("paoding.dic.properties.path");
+		p.remove("paoding.dic.detector.interval");
+		p.setProperty("paoding.analysis.properties.files", "");
+		p.setProperty("paoding.analysis.properties.lastModifieds", "");
+		p.setProperty("paoding.analyzer.buffer.length", "257");
+		assertNull(PaodingMaker.make(p).getDetector());
+	}
+
+	// -------------------------------------------------
+
+	private static boolean isDetecting() {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals("paoding-dic-detector")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void write(File home, String name, String... words)
+			throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(new File(home,
+				name + ".dic")), "UTF-8");
+		for (String word : words) {
+			out.write(word);
+			out.write('\n');
+		}
+		out.close();
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,156 @@
+package net.paoding.analysis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.paoding.analysis.dictionary.support.detection.Difference;
+import net.paoding.analysis.dictionary.support.detection.Node;
+import net.paoding.analysis.knife.FileDictionaries;
+import net.paoding.analysis.knife.FileDictionariesDifferenceListener;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.KnifeBox;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * 校验创建Paoding、装载字典和重新装载字典时记录了相应的JFR事件
+ */
+public class TestPaodingEvents {
+
+	private static final String[] EVENTS = { "DictionaryLock",
+			"DictionaryCompile", "DictionaryLoad", "DictionaryReload" };
+
+	@Test
+	public void testEvents() throws Exception {
+		Assume.assumeTrue(PaodingEvents.isAvailable());
+		File home = File.createTempFile("paoding-", "-dic");
+		home.delete();
+		home.mkdirs();
+		Path dump = Files.createTempFile("paoding-", ".jfr");
+		Recording recording = new Recording();
+		try {
+			for (int i = 0; i < EVENTS.length; i++) {
+				recording.enable("net.paoding.analysis." + EVENTS[i]);
+			}
+			recording.start();
+
+			// 以不同于其他测试的属性创建新的Paoding，经过write.lock和编译的各个阶段
+			Properties p = new Properties();
+			p.putAll(PaodingMaker.getProperties());
+			p.remove("paoding.dic.properties.path");
+			p.setProperty("paoding.analysis.properties.files", "");
+			p.setProperty("paoding.analysis.properties.lastModifieds", "");
+			p.setProperty("paoding.dic.detector.interval", "-1");
+			p.setProperty("paoding.analyzer.buffer.length", "129");
+			PaodingMaker.make(p);
+
+			// 装载字典并重新装载一个变化了的字典
+			write(home, "base", "中华", "人民", "共和国");
+			write(home, "x-unit", "个");
+			write(home, "x-noise-word");
+			write(home, "x-noise-charactor");
+			write(home, "x-confucian-family-name");
+			write(home, "x-for-combinatorics");
+			FileDictionaries dictionaries = new FileDictionaries(home
+					.getAbsolutePath(), "x-", "x-noise-charactor",
+					"x-noise-word", "x-unit", "x-confucian-family-name",
+					"x-for-combinatorics", "UTF-8", 0);
+			dictionaries.getVocabularyDictionary();
+			write(home, "base", "中华", "人民", "共和国", "北京");
+			List<Node> modified = new ArrayList<Node>();
+			modified.add(new Node("base.dic", true));
+			Difference diff = new Difference();
+			diff.setModified(modified);
+			new FileDictionariesDifferenceListener(dictionaries, new KnifeBox(
+					new Knife[0])).on(diff);
+
+			recording.stop();
+			recording.dump(dump);
+			Map<String, List<RecordedEvent>> events = new HashMap<String, List<RecordedEvent>>();
+			for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+				String name = event.getEventType().getName();
+				List<RecordedEvent> list = events.get(name);
+				if (list == null) {
+					events.put(name, list = new ArrayList<RecordedEvent>());
+				}
+				list.add(event);
+			}
+
+			RecordedEvent lock = events.get("net.paoding.analysis.DictionaryLock")
+					.get(0);
+			assertTrue(lock.getBoolean("obtained"));
+			List<String> phases = new ArrayList<String>();
+			for (RecordedEvent event : events
+					.get("net.paoding.analysis.DictionaryCompile")) {
+				phases.add(event.getString("phase"));
+			}
+			assertTrue(phases.toString(), phases.containsAll(Arrays.asList(
+					"shouldCompile", "readCompiled")));
+
+			RecordedEvent load = null;
+			for (RecordedEvent event : events
+					.get("net.paoding.analysis.DictionaryLoad")) {
+				if (event.getString("dicHome").equals(home.getAbsolutePath())) {
+					load = event;
+				}
+			}
+			assertEquals(6, load.getInt("files"));
+			assertEquals(4, load.getLong("words"));
+			assertTrue(load.getString("fileNames").indexOf("x-unit") != -1);
+
+			RecordedEvent reload = events.get(
+					"net.paoding.analysis.DictionaryReload").get(0);
+			assertEquals(1, reload.getInt("changed"));
+			assertEquals("base.dic", reload.getString("fileNames"));
+			assertEquals(1, reload.getLong("version"));
+			assertTrue(reload.getBoolean("published"));
+		} finally {
+			recording.close();
+			Files.delete(dump);
+			delete(home);
+		}
+	}
+
+	private static void write(File home, String name, String... words)
+			throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(new File(
+				home, name + ".dic")), "UTF-8");
+		try {
+			for (int i = 0; i < words.length; i++) {
+				writer.write(words[i]);
+				writer.write('\n');
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (int i = 0; i < files.length; i++) {
+				delete(files[i]);
+			}
+		}
+		file.delete();
+	}
+}
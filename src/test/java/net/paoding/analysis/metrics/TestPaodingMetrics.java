@@ -0,0 +1,117 @@
+package net.paoding.analysis.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.paoding.analysis.analyzer.PaodingAnalyzerBean;
+import net.paoding.analysis.knife.Knife;
+import net.paoding.analysis.knife.Paoding;
+import net.paoding.analysis.knife.PaodingMaker;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.junit.Test;
+
+/**
+ * 校验度量的直方图分位数，以及启用度量时切分结果不变、度量可以通过JMX读取
+ */
+public class TestPaodingMetrics {
+
+	private static final String JMX_NAME = "net.paoding.analysis:type=PaodingMetrics,name=test";
+
+	private static final String TEXT = "中华人民共和国成立于1949年，首都北京。Hello World 三百二十五个人参加了2008年奥运会的开幕式！";
+
+	@Test
+	public void testHistogram() {
+		Histogram histogram = new Histogram();
+		for (long i = 1; i <= 100000; i++) {
+			histogram.record(i);
+		}
+		assertEquals(100000, histogram.getCount());
+		assertEquals(100000, histogram.getMax());
+		assertEquals(50000.5, histogram.getMean(), 0.001);
+		// 桶的相对误差不超过1/32
+		assertClose(50000, histogram.getValueAtPercentile(50));
+		assertClose(99000, histogram.getValueAtPercentile(99));
+		assertClose(99900, histogram.getValueAtPercentile(99.9));
+		assertEquals(100000, histogram.getValueAtPercentile(100));
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testMeteredPaoding() throws Exception {
+		Properties p = new Properties();
+		p.putAll(PaodingMaker.getProperties());
+		p.remove("paoding.dic.properties.path");
+		p.setProperty("paoding.analysis.properties.files", "");
+		p.setProperty("paoding.analysis.properties.lastModifieds", "");
+		p.setProperty("paoding.dic.detector.interval", "-1");
+		p.setProperty("paoding.analyzer.metrics.enabled", "true");
+		p.setProperty("paoding.analyzer.metrics.jmx-name", JMX_NAME);
+		Paoding metered = PaodingMaker.make(p);
+		Knife[] knives = metered.getKnives();
+		for (int i = 0; i < knives.length; i++) {
+			assertTrue(knives[i] instanceof MeteredKnife);
+		}
+
+		PaodingMetrics metrics = PaodingMetrics.getDefault();
+		metrics.reset();
+		for (int mode = 1; mode <= 2; mode++) {
+			PaodingAnalyzerBean analyzer = new PaodingAnalyzerBean(metered,
+					mode);
+			analyzer.setMetrics(metrics);
+			assertEquals(tokens(new PaodingAnalyzerBean(PaodingMaker.make(),
+					mode)), tokens(analyzer));
+		}
+		assertTrue(metrics.histogram("knife.CJKKnife.dissect").getCount() > 0);
+		assertTrue(metrics.counter("knife.CJKKnife.chars").get() > 0);
+		assertTrue(metrics.counter("dictionary.vocabulary.searches").get() > 0);
+		assertTrue(metrics.counter("dictionary.vocabulary.hits").get() > 0);
+		assertEquals(2 * TEXT.length(), metrics.counter(
+				"tokenizer.refill.chars").get());
+		assertTrue(metrics.histogram("collector.flush").getCount() > 0);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(JMX_NAME);
+		assertEquals(metrics.counter("knife.CJKKnife.chars").get(), server
+				.getAttribute(name, "knife.CJKKnife.chars"));
+		assertEquals(metrics.histogram("knife.CJKKnife.dissect").getCount(),
+				server.getAttribute(name, "knife.CJKKnife.dissect.count"));
+		server.invoke(name, "reset", null, null);
+		assertEquals(0L, server.getAttribute(name, "knife.CJKKnife.chars"));
+	}
+
+	private static void assertClose(long expected, long actual) {
+		assertTrue(expected + " ~ " + actual,
+				Math.abs(actual - expected) <= expected / 32);
+	}
+
+	private static List<String> tokens(PaodingAnalyzerBean analyzer)
+			throws IOException {
+		List<String> tokens = new ArrayList<String>();
+		TokenStream ts = analyzer.tokenStream("f", new StringReader(TEXT));
+		CharTermAttribute termAtt = ts.addAttribute(CharTermAttribute.class);
+		OffsetAttribute offsetAtt = ts.addAttribute(OffsetAttribute.class);
+		ts.reset();
+		while (ts.incrementToken()) {
+			tokens.add(termAtt.toString() + "/" + offsetAtt.startOffset() + "-"
+					+ offsetAtt.endOffset());
+		}
+		ts.end();
+		ts.close();
+		return tokens;
+	}
+}